@@ -0,0 +1,78 @@
+package pe.edu.pucp.morapack.algos.algorithm.tabu;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * PenaltyKernel con jdk.incubator.vector (SIMD). Solo se compila con el perfil Maven 'vector-api';
+ * PenaltyKernels lo carga por reflexión. La cola que no llena un vector se procesa en escalar.
+ */
+public final class VectorPenaltyKernel implements PenaltyKernel {
+    private static final VectorSpecies<Integer> INT_SPECIES = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONG_SPECIES = LongVector.SPECIES_PREFERRED;
+
+    @Override
+    public long capacityExcess(int[] loads, int[] capacities, int n) {
+        long total = 0;
+        int i = 0;
+        int upper = INT_SPECIES.loopBound(n);
+        int parts = INT_SPECIES.length() / LONG_SPECIES.length();
+        for (; i < upper; i += INT_SPECIES.length()) {
+            IntVector load = IntVector.fromArray(INT_SPECIES, loads, i);
+            IntVector capacity = IntVector.fromArray(INT_SPECIES, capacities, i);
+            IntVector excess = load.sub(capacity).max(0);
+            // Se ensancha a long antes de sumar los carriles: la suma de un bloque puede pasar de int
+            for (int part = 0; part < parts; part++) {
+                LongVector wide = (LongVector) excess.convertShape(VectorOperators.I2L, LONG_SPECIES, part);
+                total += wide.reduceLanes(VectorOperators.ADD);
+            }
+        }
+        for (; i < n; i++) {
+            int excess = loads[i] - capacities[i];
+            if (excess > 0) total += excess;
+        }
+        return total;
+    }
+
+    @Override
+    public int lateCount(long[] deliveryHours, long[] maxHours, int n) {
+        int count = 0;
+        int i = 0;
+        int upper = LONG_SPECIES.loopBound(n);
+        for (; i < upper; i += LONG_SPECIES.length()) {
+            LongVector delivery = LongVector.fromArray(LONG_SPECIES, deliveryHours, i);
+            LongVector max = LongVector.fromArray(LONG_SPECIES, maxHours, i);
+            VectorMask<Long> late = delivery.compare(VectorOperators.GT, max);
+            count += late.trueCount();
+        }
+        for (; i < n; i++) {
+            if (deliveryHours[i] > maxHours[i]) count++;
+        }
+        return count;
+    }
+
+    @Override
+    public long lateHours(long[] deliveryHours, long[] maxHours, int n) {
+        long total = 0;
+        int i = 0;
+        int upper = LONG_SPECIES.loopBound(n);
+        for (; i < upper; i += LONG_SPECIES.length()) {
+            LongVector delivery = LongVector.fromArray(LONG_SPECIES, deliveryHours, i);
+            LongVector max = LongVector.fromArray(LONG_SPECIES, maxHours, i);
+            total += delivery.sub(max).max(0L).reduceLanes(VectorOperators.ADD);
+        }
+        for (; i < n; i++) {
+            long late = deliveryHours[i] - maxHours[i];
+            if (late > 0) total += late;
+        }
+        return total;
+    }
+
+    @Override
+    public String getName() {
+        return "vector (" + INT_SPECIES.vectorBitSize() + "-bit)";
+    }
+}
@@ -9,4 +9,10 @@ import java.util.List;
 
 public interface IOptimizer {
     Solution optimize(List<PlannerOrder> orders, List<PlannerFlight> flights, List<PlannerAirport> airports);
-}
\ No newline at end of file
+
+    /**
+     * Logs por ejecución (encabezados, progreso, reportes); false en corridas batch
+     */
+    default void setVerbose(boolean verbose) {
+    }
+}
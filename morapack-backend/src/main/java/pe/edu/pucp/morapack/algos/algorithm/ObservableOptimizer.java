@@ -0,0 +1,11 @@
+package pe.edu.pucp.morapack.algos.algorithm;
+
+import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSearchListener;
+
+/**
+ * Optimizador que publica snapshots intermedios y atiende pedidos de parada
+ * a través de un TabuSearchListener (usado por el racing de portafolio).
+ */
+public interface ObservableOptimizer extends IOptimizer {
+    void setListener(TabuSearchListener listener, long snapshotMs);
+}
@@ -0,0 +1,117 @@
+package pe.edu.pucp.morapack.algos.algorithm;
+
+import pe.edu.pucp.morapack.algos.algorithm.aco.AcoPlanner;
+import pe.edu.pucp.morapack.algos.algorithm.aggregation.AggregatingOptimizer;
+import pe.edu.pucp.morapack.algos.algorithm.alns.AlnsPlanner;
+import pe.edu.pucp.morapack.algos.algorithm.portfolio.PortfolioHistory;
+import pe.edu.pucp.morapack.algos.algorithm.portfolio.PortfolioRacer;
+import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSearchPlanner;
+import pe.edu.pucp.morapack.algos.scheduler.ScenarioConfig;
+
+/**
+ * Crea el optimizador configurado. Cada llamada devuelve una instancia nueva; las sesiones
+ * no la usan directamente sino a través de OptimizerPool, que presta cada instancia a una
+ * sola ejecución a la vez.
+ *
+ * 'parallelism' es el cupo de hilos de una ejecución (ver PlannerExecutors): el scheduler
+ * reparte los núcleos entre sus hilos de planner y cada optimizador no usa más que eso.
+ */
+public final class OptimizerFactory {
+
+    // Presupuesto de la carrera de portafolio en 1x (se divide por speedMultiplier)
+    public static final long DEFAULT_PORTFOLIO_BUDGET_MS = 5000;
+
+    private OptimizerFactory() {
+    }
+
+    public static IOptimizer create(OptimizerType type, long seed, double speedMultiplier) {
+        return create(type, seed, speedMultiplier, ScenarioConfig.ScenarioType.WEEKLY);
+    }
+
+    public static IOptimizer create(OptimizerType type, long seed, double speedMultiplier,
+                                    ScenarioConfig.ScenarioType scenarioType) {
+        return create(type, seed, speedMultiplier, scenarioType, PlannerExecutors.defaultParallelism());
+    }
+
+    public static IOptimizer create(OptimizerType type, long seed, double speedMultiplier,
+                                    ScenarioConfig.ScenarioType scenarioType, int parallelism) {
+        return create(type, seed, speedMultiplier, scenarioType, parallelism, true);
+    }
+
+    public static IOptimizer create(OptimizerType type, long seed, double speedMultiplier,
+                                    ScenarioConfig.ScenarioType scenarioType, int parallelism, boolean verbose) {
+        return create(type, seed, speedMultiplier, scenarioType, parallelism, verbose, false);
+    }
+
+    /**
+     * @param scenarioType       escenario de la simulación (la carrera de portafolio registra ganadores por escenario)
+     * @param parallelism        hilos que puede usar una ejecución (cupo por tarea del scheduler)
+     * @param verbose            logs por ejecución del planner (false en corridas batch)
+     * @param demandAggregation  envolver el optimizador en AggregatingOptimizer: los pedidos compatibles
+     *                           (mismo par origen-destino, registrados con poca diferencia) se optimizan
+     *                           como una sola unidad (simulation.planner.demand-aggregation)
+     */
+    public static IOptimizer create(OptimizerType type, long seed, double speedMultiplier,
+                                    ScenarioConfig.ScenarioType scenarioType, int parallelism, boolean verbose,
+                                    boolean demandAggregation) {
+        IOptimizer planner = createPlanner(type, seed, speedMultiplier, scenarioType, Math.max(1, parallelism));
+        IOptimizer optimizer = demandAggregation ? new AggregatingOptimizer(planner) : planner;
+        optimizer.setVerbose(verbose);
+        return optimizer;
+    }
+
+    private static IOptimizer createPlanner(OptimizerType type, long seed, double speedMultiplier,
+                                            ScenarioConfig.ScenarioType scenarioType, int parallelism) {
+        return switch (type) {
+            case ALNS -> new AlnsPlanner(seed, speedMultiplier);
+            case ACO -> new AcoPlanner(seed, speedMultiplier, parallelism);
+            case TABU -> createTabu(seed, speedMultiplier, parallelism);
+            case TABU_ACO -> {
+                TabuSearchPlanner planner = createTabu(seed, speedMultiplier, parallelism);
+                planner.setAcoSeeding((long) Math.max(300, TabuSearchPlanner.DEFAULT_ACO_SEED_BUDGET_MS / speedMultiplier));
+                yield planner;
+            }
+            case PORTFOLIO -> createPortfolio(seed, speedMultiplier, scenarioType, parallelism);
+            case AUTO -> createAuto(seed, speedMultiplier, scenarioType, parallelism);
+        };
+    }
+
+    /**
+     * Tabu con construcción inicial y evaluación paralelas dentro del cupo
+     */
+    private static TabuSearchPlanner createTabu(long seed, double speedMultiplier, int parallelism) {
+        TabuSearchPlanner planner = new TabuSearchPlanner(seed, speedMultiplier);
+        planner.setParallelism(parallelism);
+        return planner;
+    }
+
+    /**
+     * Usa el algoritmo que más carreras ganó en este escenario; sin historial, corre el portafolio
+     */
+    private static IOptimizer createAuto(long seed, double speedMultiplier, ScenarioConfig.ScenarioType scenarioType,
+                                         int parallelism) {
+        return PortfolioHistory.shared().preferredFor(scenarioType)
+            .map(name -> name.startsWith("TABU") ? OptimizerType.TABU : OptimizerType.fromString(name))
+            .map(type -> {
+                System.out.println("[OPTIMIZER] AUTO picked " + type + " from portfolio history (" + scenarioType + ")");
+                return createPlanner(type, seed, speedMultiplier, scenarioType, parallelism);
+            })
+            .orElseGet(() -> createPortfolio(seed, speedMultiplier, scenarioType, parallelism));
+    }
+
+    /**
+     * Portafolio por defecto: Tabu con dos configuraciones (normal y rápida), ALNS y ACO.
+     * El cupo se reparte en carriles: cada participante corre en un solo hilo.
+     */
+    private static PortfolioRacer createPortfolio(long seed, double speedMultiplier,
+                                                  ScenarioConfig.ScenarioType scenarioType, int parallelism) {
+        long budgetMs = (long) Math.max(1000, DEFAULT_PORTFOLIO_BUDGET_MS / speedMultiplier);
+        PortfolioRacer racer = new PortfolioRacer(scenarioType, budgetMs, PortfolioHistory.shared());
+        racer.setParallelism(parallelism);
+        racer.addEntrant("TABU", createTabu(seed, speedMultiplier, 1));
+        racer.addEntrant("TABU_FAST", createTabu(seed + 1, speedMultiplier * 3, 1));
+        racer.addEntrant("ALNS", new AlnsPlanner(seed + 2, speedMultiplier));
+        racer.addEntrant("ACO", new AcoPlanner(seed + 3, speedMultiplier, 1));
+        return racer;
+    }
+}
@@ -0,0 +1,152 @@
+package pe.edu.pucp.morapack.algos.algorithm;
+
+import pe.edu.pucp.morapack.algos.scheduler.ScenarioConfig;
+
+import java.util.Deque;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool de optimizadores que las sesiones piden prestados por ejecución.
+ *
+ * Un préstamo (Lease) da uso exclusivo de una instancia hasta close(); así dos sesiones nunca
+ * corren optimize() sobre el mismo planner, sin locks alrededor de la búsqueda. Las instancias
+ * se agrupan por tipo, escenario, speedMultiplier, cupo de hilos, logs y agregación de demanda: cambiar la velocidad de una
+ * sesión solo cambia de grupo en el siguiente préstamo. Si no hay instancias libres se crea una nueva
+ * (OptimizerFactory) y al devolverla se conservan hasta maxIdlePerKey.
+ *
+ * Se comparte en memoria entre sesiones (ver shared()).
+ */
+public final class OptimizerPool {
+
+    public static final int DEFAULT_MAX_IDLE_PER_KEY = 4;
+
+    private static final OptimizerPool SHARED = new OptimizerPool(DEFAULT_MAX_IDLE_PER_KEY);
+
+    private final int maxIdlePerKey;
+    private final Map<Key, Deque<IOptimizer>> idle = new ConcurrentHashMap<>();
+    private final AtomicInteger created = new AtomicInteger();
+
+    public OptimizerPool(int maxIdlePerKey) {
+        this.maxIdlePerKey = Math.max(0, maxIdlePerKey);
+    }
+
+    public static OptimizerPool shared() {
+        return SHARED;
+    }
+
+    public Lease borrow(OptimizerType type, double speedMultiplier, ScenarioConfig.ScenarioType scenarioType) {
+        return borrow(type, speedMultiplier, scenarioType, PlannerExecutors.defaultParallelism());
+    }
+
+    public Lease borrow(OptimizerType type, double speedMultiplier, ScenarioConfig.ScenarioType scenarioType,
+                        int parallelism) {
+        return borrow(type, speedMultiplier, scenarioType, parallelism, true, false);
+    }
+
+    /**
+     * Presta un optimizador libre del grupo o crea uno nuevo
+     *
+     * @param parallelism       hilos que puede usar la ejecución (cupo por tarea del scheduler)
+     * @param verbose           logs por ejecución del planner (false en corridas batch)
+     * @param demandAggregation optimizador envuelto en AggregatingOptimizer (ver OptimizerFactory)
+     */
+    public Lease borrow(OptimizerType type, double speedMultiplier, ScenarioConfig.ScenarioType scenarioType,
+                        int parallelism, boolean verbose, boolean demandAggregation) {
+        Key key = new Key(type, speedMultiplier, scenarioType, parallelism, verbose, demandAggregation);
+        IOptimizer optimizer = idle.computeIfAbsent(key, k -> new ConcurrentLinkedDeque<>()).pollFirst();
+        if (optimizer == null) {
+            long seed = System.nanoTime() + created.incrementAndGet();
+            optimizer = OptimizerFactory.create(type, seed, speedMultiplier, scenarioType, parallelism, verbose,
+                demandAggregation);
+        }
+        return new Lease(this, key, optimizer);
+    }
+
+    private void giveBack(Key key, IOptimizer optimizer) {
+        Deque<IOptimizer> free = idle.computeIfAbsent(key, k -> new ConcurrentLinkedDeque<>());
+        if (free.size() < maxIdlePerKey) {
+            free.offerFirst(optimizer);
+        }
+    }
+
+    /**
+     * Instancias libres en todos los grupos
+     */
+    public int getIdleCount() {
+        return idle.values().stream().mapToInt(Deque::size).sum();
+    }
+
+    /**
+     * Instancias creadas desde el inicio
+     */
+    public int getCreatedCount() {
+        return created.get();
+    }
+
+    /**
+     * Uso exclusivo de un optimizador del pool; close() lo devuelve (una sola vez)
+     */
+    public static final class Lease implements AutoCloseable {
+        private final OptimizerPool pool;
+        private final Key key;
+        private IOptimizer optimizer;
+
+        private Lease(OptimizerPool pool, Key key, IOptimizer optimizer) {
+            this.pool = pool;
+            this.key = key;
+            this.optimizer = optimizer;
+        }
+
+        public IOptimizer getOptimizer() {
+            if (optimizer == null) throw new IllegalStateException("Lease already closed");
+            return optimizer;
+        }
+
+        @Override
+        public void close() {
+            if (optimizer == null) return;
+            pool.giveBack(key, optimizer);
+            optimizer = null;
+        }
+    }
+
+    private static final class Key {
+        private final OptimizerType type;
+        private final double speedMultiplier;
+        private final ScenarioConfig.ScenarioType scenarioType;
+        private final int parallelism;
+        private final boolean verbose;
+        private final boolean demandAggregation;
+
+        private Key(OptimizerType type, double speedMultiplier, ScenarioConfig.ScenarioType scenarioType,
+                    int parallelism, boolean verbose, boolean demandAggregation) {
+            this.type = type;
+            this.speedMultiplier = speedMultiplier;
+            this.scenarioType = scenarioType;
+            this.parallelism = parallelism;
+            this.verbose = verbose;
+            this.demandAggregation = demandAggregation;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key other)) return false;
+            return type == other.type
+                && Double.compare(speedMultiplier, other.speedMultiplier) == 0
+                && scenarioType == other.scenarioType
+                && parallelism == other.parallelism
+                && verbose == other.verbose
+                && demandAggregation == other.demandAggregation;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, speedMultiplier, scenarioType, parallelism, verbose, demandAggregation);
+        }
+    }
+}
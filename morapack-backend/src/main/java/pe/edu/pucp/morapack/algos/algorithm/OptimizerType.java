@@ -0,0 +1,26 @@
+package pe.edu.pucp.morapack.algos.algorithm;
+
+/**
+ * Optimizadores disponibles para la simulación (seleccionables por configuración).
+ */
+public enum OptimizerType {
+    TABU,   // TabuSearchPlanner (por defecto)
+    ALNS,   // AlnsPlanner (destroy & repair adaptativo)
+    ACO,    // AcoPlanner (colonia de hormigas paralela)
+    TABU_ACO,  // TabuSearchPlanner sembrado con una construcción ACO acotada
+    PORTFOLIO, // Carrera en paralelo de varios optimizadores (PortfolioRacer)
+    AUTO;      // Ganador histórico del portafolio para el escenario (carrera si aún no hay historial)
+
+    /**
+     * Parsear desde configuración; valores desconocidos o vacíos vuelven a TABU.
+     */
+    public static OptimizerType fromString(String value) {
+        if (value == null || value.isBlank()) return TABU;
+        try {
+            return OptimizerType.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.out.println("[OPTIMIZER] Unknown optimizer '" + value + "', falling back to TABU");
+            return TABU;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package pe.edu.pucp.morapack.algos.algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hilos compartidos por todos los optimizadores: ninguno crea pools propios por llamada.
+ *
+ * - compute(): un ForkJoinPool de tantos hilos como núcleos para toda la JVM (hormigas del ACO,
+ *   construcción greedy paralela, evaluación por bloques, siembra ACO del Tabu).
+ * - lanes(): hilos para los carriles de la carrera de portafolio, que deben correr a la vez aunque
+ *   haya pocos núcleos. El pool es acotado: por defecto tantos hilos como núcleos, y el
+ *   SimulationScheduler lo ajusta a su presupuesto (setLaneThreads). Cuántos usa cada carrera lo
+ *   acota su cupo, y una carrera no retorna hasta que sus carriles terminan.
+ *
+ * El cupo de una ejecución ('parallelism') lo da el SimulationScheduler a través de
+ * OptimizerFactory: una tarea del planner reparte su trabajo en a lo sumo 'parallelism'
+ * subtareas a la vez, contando el hilo que llama. Con parallelism 1 todo corre en ese hilo.
+ */
+public final class PlannerExecutors {
+
+    private static final int CORES = Runtime.getRuntime().availableProcessors();
+
+    private static final ForkJoinPool COMPUTE = new ForkJoinPool(CORES, pool -> {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("planner-compute-" + thread.getPoolIndex());
+        thread.setDaemon(true);
+        return thread;
+    }, null, false);
+
+    private static final AtomicInteger LANE_IDS = new AtomicInteger();
+    private static final ThreadPoolExecutor LANES = new ThreadPoolExecutor(
+        CORES, CORES, 30L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "portfolio-lane-" + LANE_IDS.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    static {
+        LANES.allowCoreThreadTimeOut(true);  // Sin carreras, los hilos de carril se liberan
+    }
+
+    private PlannerExecutors() {
+    }
+
+    public static ForkJoinPool compute() {
+        return COMPUTE;
+    }
+
+    public static ExecutorService lanes() {
+        return LANES;
+    }
+
+    /**
+     * Hilos de carril como máximo (el resto de carriles espera en cola); el scheduler lo fija a
+     * hilos del planner × cupo por tarea
+     */
+    public static synchronized void setLaneThreads(int threads) {
+        int size = Math.max(1, threads);
+        if (size > LANES.getMaximumPoolSize()) {
+            LANES.setMaximumPoolSize(size);
+            LANES.setCorePoolSize(size);
+        } else {
+            LANES.setCorePoolSize(size);
+            LANES.setMaximumPoolSize(size);
+        }
+    }
+
+    public static int getLaneThreads() {
+        return LANES.getMaximumPoolSize();
+    }
+
+    /**
+     * Cupo por defecto cuando no hay scheduler (tests, línea de comandos): todos los núcleos
+     */
+    public static int defaultParallelism() {
+        return CORES;
+    }
+
+    public static <T> List<T> invokeAll(List<? extends Callable<T>> tasks, int parallelism)
+            throws InterruptedException, ExecutionException {
+        return invokeAll(COMPUTE, tasks, parallelism);
+    }
+
+    /**
+     * Ejecuta las tareas con a lo sumo 'parallelism' a la vez (el hilo que llama es uno de ellos)
+     * y devuelve sus resultados en orden. Los trabajadores toman la siguiente tarea pendiente;
+     * los que el executor no alcanzó a empezar cuando el hilo que llama termina ya no corren.
+     */
+    public static <T> List<T> invokeAll(ExecutorService executor, List<? extends Callable<T>> tasks, int parallelism)
+            throws InterruptedException, ExecutionException {
+        int n = tasks.size();
+        Object[] results = new Object[n];
+        AtomicInteger next = new AtomicInteger();
+        Callable<Void> drain = () -> {
+            for (int i = next.getAndIncrement(); i < n; i = next.getAndIncrement()) {
+                results[i] = tasks.get(i).call();
+            }
+            return null;
+        };
+
+        int workers = Math.min(Math.max(1, parallelism), n);
+        List<AtomicBoolean> started = new ArrayList<>();
+        List<Future<Void>> helpers = new ArrayList<>();
+        for (int w = 1; w < workers; w++) {
+            AtomicBoolean claimed = new AtomicBoolean();
+            started.add(claimed);
+            helpers.add(executor.submit(() -> claimed.compareAndSet(false, true) ? drain.call() : null));
+        }
+        try {
+            drain.call();
+        } catch (Exception e) {
+            next.set(n);  // Los demás trabajadores no toman más tareas
+            if (e instanceof InterruptedException interrupted) throw interrupted;
+            throw new ExecutionException(e);
+        }
+        for (int w = 0; w < helpers.size(); w++) {
+            if (started.get(w).compareAndSet(false, true)) {
+                helpers.get(w).cancel(false);  // Nunca empezó: no queda nada que esperar
+            } else {
+                helpers.get(w).get();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        List<T> ordered = (List<T>) Arrays.asList(results);
+        return ordered;
+    }
+}
@@ -0,0 +1,113 @@
+package pe.edu.pucp.morapack.algos.algorithm.aco;
+
+public class AcoConfig {
+    // Colonia
+    private final int numAnts;
+    private final int maxIterations;
+    private final long timeLimitMs;
+    private final int parallelism;
+
+    // Regla de transición: tau^alpha * eta^beta, con explotación directa con probabilidad q0
+    private final double alpha;
+    private final double beta;
+    private final double exploitationProbability;
+
+    // Feromonas (Max-Min Ant System)
+    private final double evaporation;
+    private final double initialPheromone;
+    private final double minPheromone;
+    private final double maxPheromone;
+    private final double depositFactor;
+
+    // Construcción de rutas
+    private final int maxLegs;
+    private final int maxCandidatesPerStep;
+    private final int maxShipmentsPerOrder;
+
+    public AcoConfig(
+            int numAnts,
+            int maxIterations,
+            long timeLimitMs,
+            int parallelism,
+            double alpha,
+            double beta,
+            double exploitationProbability,
+            double evaporation,
+            double initialPheromone,
+            double minPheromone,
+            double maxPheromone,
+            double depositFactor,
+            int maxLegs,
+            int maxCandidatesPerStep,
+            int maxShipmentsPerOrder) {
+        this.numAnts = numAnts;
+        this.maxIterations = maxIterations;
+        this.timeLimitMs = timeLimitMs;
+        this.parallelism = parallelism;
+        this.alpha = alpha;
+        this.beta = beta;
+        this.exploitationProbability = exploitationProbability;
+        this.evaporation = evaporation;
+        this.initialPheromone = initialPheromone;
+        this.minPheromone = minPheromone;
+        this.maxPheromone = maxPheromone;
+        this.depositFactor = depositFactor;
+        this.maxLegs = maxLegs;
+        this.maxCandidatesPerStep = maxCandidatesPerStep;
+        this.maxShipmentsPerOrder = maxShipmentsPerOrder;
+    }
+
+    // Constructor con valores por defecto (alpha=1, beta=2 como en el prototipo ACOPedidos)
+    public AcoConfig() {
+        this(16,      // numAnts
+             60,      // maxIterations
+             3000,    // timeLimitMs
+             Math.max(1, Runtime.getRuntime().availableProcessors() - 1),  // parallelism
+             1.0,     // alpha
+             2.0,     // beta
+             0.3,     // exploitationProbability (q0)
+             0.1,     // evaporation (rho)
+             1.0,     // initialPheromone
+             0.05,    // minPheromone
+             5.0,     // maxPheromone
+             1.0,     // depositFactor
+             3,       // maxLegs (hasta 2 escalas)
+             40,      // maxCandidatesPerStep
+             4);      // maxShipmentsPerOrder
+    }
+
+    /**
+     * Misma configuración con otro presupuesto de tiempo (p.ej. construcción acotada para sembrar Tabu)
+     */
+    public AcoConfig withTimeLimitMs(long timeLimitMs) {
+        return new AcoConfig(numAnts, maxIterations, timeLimitMs, parallelism, alpha, beta,
+            exploitationProbability, evaporation, initialPheromone, minPheromone, maxPheromone,
+            depositFactor, maxLegs, maxCandidatesPerStep, maxShipmentsPerOrder);
+    }
+
+    /**
+     * Misma configuración con otro cupo de hilos para las hormigas
+     */
+    public AcoConfig withParallelism(int parallelism) {
+        return new AcoConfig(numAnts, maxIterations, timeLimitMs, Math.max(1, parallelism), alpha, beta,
+            exploitationProbability, evaporation, initialPheromone, minPheromone, maxPheromone,
+            depositFactor, maxLegs, maxCandidatesPerStep, maxShipmentsPerOrder);
+    }
+
+    // Getters
+    public int getNumAnts() { return numAnts; }
+    public int getMaxIterations() { return maxIterations; }
+    public long getTimeLimitMs() { return timeLimitMs; }
+    public int getParallelism() { return parallelism; }
+    public double getAlpha() { return alpha; }
+    public double getBeta() { return beta; }
+    public double getExploitationProbability() { return exploitationProbability; }
+    public double getEvaporation() { return evaporation; }
+    public double getInitialPheromone() { return initialPheromone; }
+    public double getMinPheromone() { return minPheromone; }
+    public double getMaxPheromone() { return maxPheromone; }
+    public double getDepositFactor() { return depositFactor; }
+    public int getMaxLegs() { return maxLegs; }
+    public int getMaxCandidatesPerStep() { return maxCandidatesPerStep; }
+    public int getMaxShipmentsPerOrder() { return maxShipmentsPerOrder; }
+}
@@ -0,0 +1,122 @@
+package pe.edu.pucp.morapack.algos.algorithm.aco;
+
+import pe.edu.pucp.morapack.algos.entities.PlannerAirport;
+import pe.edu.pucp.morapack.algos.entities.PlannerFlight;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Grafo de vuelos en arreglos primitivos para las hormigas.
+ *
+ * Cada vuelo recibe un índice denso (0..n-1) válido solo durante una ejecución de optimize();
+ * feromonas, capacidades y tiempos se guardan en arreglos indexados por ese id, y las salidas
+ * de cada aeropuerto están ordenadas por hora de salida para buscar ventanas con búsqueda binaria.
+ * Los tiempos se expresan en minutos desde epoch (UTC).
+ */
+final class AcoFlightGraph {
+    final PlannerFlight[] flights;
+    final int[] origin;
+    final int[] destination;
+    final long[] departure;
+    final long[] arrival;
+    final int[] capacity;
+
+    final PlannerAirport[] airports;
+    final int[] storageCapacity;
+    private final Map<PlannerAirport, Integer> airportIndex = new HashMap<>();
+
+    // Vuelos salientes por aeropuerto, ordenados por salida (y sus horas de salida, en paralelo)
+    final int[][] outgoing;
+    private final long[][] outgoingDeparture;
+
+    AcoFlightGraph(List<PlannerFlight> flightList, List<PlannerAirport> airportList) {
+        List<PlannerAirport> known = new ArrayList<>();
+        if (airportList != null) {
+            for (PlannerAirport airport : airportList) indexOf(airport, known);
+        }
+
+        int n = flightList.size();
+        this.flights = flightList.toArray(new PlannerFlight[0]);
+        this.origin = new int[n];
+        this.destination = new int[n];
+        this.departure = new long[n];
+        this.arrival = new long[n];
+        this.capacity = new int[n];
+        for (int i = 0; i < n; i++) {
+            PlannerFlight f = flights[i];
+            origin[i] = indexOf(f.getOrigin(), known);
+            destination[i] = indexOf(f.getDestination(), known);
+            departure[i] = toMinutes(f.getDepartureTime());
+            arrival[i] = toMinutes(f.getArrivalTime());
+            capacity[i] = f.getCapacity();
+        }
+
+        this.airports = known.toArray(new PlannerAirport[0]);
+        this.storageCapacity = new int[airports.length];
+        for (int a = 0; a < airports.length; a++) {
+            storageCapacity[a] = airports[a].getStorageCapacity();
+        }
+
+        // Índice de salidas por aeropuerto
+        int[] counts = new int[airports.length];
+        for (int i = 0; i < n; i++) counts[origin[i]]++;
+        Integer[][] boxed = new Integer[airports.length][];
+        for (int a = 0; a < airports.length; a++) boxed[a] = new Integer[counts[a]];
+        int[] fill = new int[airports.length];
+        for (int i = 0; i < n; i++) boxed[origin[i]][fill[origin[i]]++] = i;
+
+        this.outgoing = new int[airports.length][];
+        this.outgoingDeparture = new long[airports.length][];
+        for (int a = 0; a < airports.length; a++) {
+            Arrays.sort(boxed[a], (x, y) -> Long.compare(departure[x], departure[y]));
+            outgoing[a] = new int[boxed[a].length];
+            outgoingDeparture[a] = new long[boxed[a].length];
+            for (int k = 0; k < boxed[a].length; k++) {
+                outgoing[a][k] = boxed[a][k];
+                outgoingDeparture[a][k] = departure[boxed[a][k]];
+            }
+        }
+    }
+
+    int size() {
+        return flights.length;
+    }
+
+    int airportIndex(PlannerAirport airport) {
+        Integer idx = airportIndex.get(airport);
+        return idx != null ? idx : -1;
+    }
+
+    /**
+     * Posición (en outgoing[airport]) del primer vuelo que sale en o después de 'minute'
+     */
+    int firstDepartureAtOrAfter(int airport, long minute) {
+        long[] deps = outgoingDeparture[airport];
+        int lo = 0, hi = deps.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (deps[mid] < minute) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    static long toMinutes(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    private int indexOf(PlannerAirport airport, List<PlannerAirport> known) {
+        Integer idx = airportIndex.get(airport);
+        if (idx == null) {
+            idx = known.size();
+            known.add(airport);
+            airportIndex.put(airport, idx);
+        }
+        return idx;
+    }
+}
@@ -0,0 +1,487 @@
+package pe.edu.pucp.morapack.algos.algorithm.aco;
+
+import pe.edu.pucp.morapack.algos.algorithm.ObservableOptimizer;
+import pe.edu.pucp.morapack.algos.algorithm.PlannerExecutors;
+import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSearchListener;
+import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSearchPlannerCostFunction;
+import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSolution;
+import pe.edu.pucp.morapack.algos.entities.PlannerAirport;
+import pe.edu.pucp.morapack.algos.entities.PlannerFlight;
+import pe.edu.pucp.morapack.algos.entities.PlannerOrder;
+import pe.edu.pucp.morapack.algos.entities.PlannerShipment;
+import pe.edu.pucp.morapack.algos.entities.Solution;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ant Colony Optimization sobre PlannerOrder/PlannerFlight (reemplaza al prototipo ACOPedidos
+ * para su uso desde la simulación).
+ *
+ * Cada hormiga construye una solución COMPLETA: recorre los pedidos por urgencia y, para cada uno,
+ * camina por el grafo de vuelos (hasta maxLegs tramos) eligiendo el siguiente vuelo con
+ * tau^alpha * eta^beta, descontando capacidad de vuelos y almacenes de escala en su propia copia.
+ *
+ * - Feromonas en un double[] indexado por id de vuelo (ver AcoFlightGraph)
+ * - Hormigas en paralelo sobre el pool compartido (PlannerExecutors), a lo sumo 'parallelism' a la
+ *   vez; las feromonas solo se leen durante la construcción
+ * - Evaporación en bloque una vez por iteración, seguida del depósito de la mejor hormiga
+ *   de la iteración y de la mejor global (Max-Min: tau acotado en [min, max])
+ *
+ * El planner solo guarda configuración; el estado de cada ejecución (aleatorio, ids de
+ * shipments, contadores, snapshots) vive en un RunContext creado por construct().
+ */
+public class AcoPlanner implements ObservableOptimizer {
+    private static final long SEED_STRIDE = 0x9E3779B97F4A7C15L;
+
+    private final AcoConfig config;
+
+    // Semilla base: cada ejecución usa una semilla derivada (la primera, la semilla tal cual)
+    private final long randomSeed;
+    private final AtomicLong runCount = new AtomicLong();
+
+    // Métricas de la última ejecución terminada
+    private volatile RunContext lastRun = null;
+
+    // Optional external listener for snapshots / stop requests
+    private volatile TabuSearchListener listener = null;
+    private volatile long snapshotMs = 1000;
+
+    // Logs de la ejecución; en corridas batch se apagan (ver setVerbose)
+    private volatile boolean verbose = true;
+
+    public AcoPlanner() {
+        this(System.currentTimeMillis(), 1.0);
+    }
+
+    public AcoPlanner(long seed) {
+        this(seed, 1.0);
+    }
+
+    /**
+     * @param seed Semilla para el generador aleatorio
+     * @param speedMultiplier Multiplicador de velocidad: reduce iteraciones y presupuesto de tiempo
+     */
+    public AcoPlanner(long seed, double speedMultiplier) {
+        this(seed, speedMultiplier, new AcoConfig().getParallelism());
+    }
+
+    /**
+     * @param parallelism hormigas que corren a la vez (cupo de hilos de la ejecución)
+     */
+    public AcoPlanner(long seed, double speedMultiplier, int parallelism) {
+        AcoConfig base = new AcoConfig();
+        this.randomSeed = seed;
+        this.config = new AcoConfig(
+            base.getNumAnts(),
+            (int) Math.max(10, base.getMaxIterations() / speedMultiplier),
+            (long) Math.max(500, base.getTimeLimitMs() / speedMultiplier),
+            Math.max(1, parallelism),
+            base.getAlpha(),
+            base.getBeta(),
+            base.getExploitationProbability(),
+            base.getEvaporation(),
+            base.getInitialPheromone(),
+            base.getMinPheromone(),
+            base.getMaxPheromone(),
+            base.getDepositFactor(),
+            base.getMaxLegs(),
+            base.getMaxCandidatesPerStep(),
+            base.getMaxShipmentsPerOrder());
+        System.out.println("[ACO] Initialized with seed: " + seed + ", speedMultiplier: " + speedMultiplier
+            + ", ants: " + config.getNumAnts() + ", parallelism: " + config.getParallelism());
+    }
+
+    public AcoPlanner(long seed, AcoConfig config) {
+        this.randomSeed = seed;
+        this.config = config;
+    }
+
+    /**
+     * Register a listener to receive snapshots and allow stop requests.
+     */
+    @Override
+    public void setListener(TabuSearchListener listener, long snapshotMs) {
+        this.listener = listener;
+        if (snapshotMs > 0) this.snapshotMs = snapshotMs;
+    }
+
+    @Override
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    private void log(String message) {
+        if (verbose) {
+            System.out.println(message);
+        }
+    }
+
+    @Override
+    public Solution optimize(List<PlannerOrder> orders, List<PlannerFlight> flights, List<PlannerAirport> airports) {
+        if (orders == null || orders.isEmpty()) return new TabuSolution();
+        return construct(orders, flights, airports, config.getTimeLimitMs());
+    }
+
+    /**
+     * Ejecuta la colonia con un presupuesto de tiempo explícito y devuelve la mejor solución encontrada.
+     */
+    public TabuSolution construct(List<PlannerOrder> orders, List<PlannerFlight> flights,
+                                  List<PlannerAirport> airports, long timeBudgetMs) {
+        long startTime = System.currentTimeMillis();
+        TabuSolution empty = new TabuSolution();
+        empty.setAllOrders(orders);
+        if (orders.isEmpty() || flights == null || flights.isEmpty()) return empty;
+
+        AcoFlightGraph graph = new AcoFlightGraph(flights, airports);
+        OrderTable table = new OrderTable(orders, graph);
+
+        double[] pheromone = new double[graph.size()];
+        Arrays.fill(pheromone, config.getInitialPheromone());
+
+        RunContext run = new RunContext(nextRunSeed(), listener, snapshotMs);
+        AntResult globalBest = null;
+        try {
+            while (run.totalIterations < config.getMaxIterations()
+                    && System.currentTimeMillis() - startTime < timeBudgetMs) {
+                long iterationSeed = run.random.nextLong();
+                List<Callable<AntResult>> ants = new ArrayList<>(config.getNumAnts());
+                for (int a = 0; a < config.getNumAnts(); a++) {
+                    long antSeed = iterationSeed + a * SEED_STRIDE;
+                    ants.add(() -> runAnt(graph, table, pheromone, antSeed));
+                }
+
+                AntResult iterationBest = null;
+                for (AntResult result : PlannerExecutors.invokeAll(ants, config.getParallelism())) {
+                    if (iterationBest == null || result.objective < iterationBest.objective) {
+                        iterationBest = result;
+                    }
+                }
+
+                boolean improved = globalBest == null || iterationBest.objective < globalBest.objective;
+                if (improved) globalBest = iterationBest;
+
+                // Evaporación en bloque + depósito (las hormigas ya terminaron: sin escrituras concurrentes)
+                updatePheromones(pheromone, table, iterationBest, globalBest);
+                run.totalIterations++;
+
+                if (run.listener != null) {
+                    if (run.listener.isStopRequested()) {
+                        log("[ACO] Stop requested by listener. Exiting colony loop.");
+                        break;
+                    }
+                    emitSnapshot(run, globalBest, table, graph, orders, flights, airports, improved);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log("[ACO] Interrupted, returning best solution so far");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("ACO ant failed", e.getCause());
+        }
+
+        lastRun = run;
+        if (globalBest == null) return empty;
+
+        TabuSolution solution = toSolution(run, globalBest, table, graph, orders);
+        log(String.format("[ACO] Colony finished: %d iterations in %dms, objective=%.2f, shipments=%d",
+            run.totalIterations, System.currentTimeMillis() - startTime, globalBest.objective,
+            solution.getPlannerShipments().size()));
+        return solution;
+    }
+
+    // ========== CONSTRUCCIÓN (una hormiga) ==========
+
+    /**
+     * Objetivo de la hormiga: escalas, retraso y unidades sin asignar con los pesos de
+     * TabuSearchPlannerCostFunction
+     */
+    private AntResult runAnt(AcoFlightGraph graph, OrderTable table, double[] pheromone, long seed) {
+        SplittableRandom rnd = new SplittableRandom(seed);
+        int[] capacity = graph.capacity.clone();
+        int[] storage = graph.storageCapacity.clone();
+
+        int maxLegs = config.getMaxLegs();
+        int[] path = new int[maxLegs];
+        int[] visited = new int[maxLegs + 1];
+        int[] candidates = new int[config.getMaxCandidatesPerStep()];
+        double[] weights = new double[config.getMaxCandidatesPerStep()];
+
+        AntResult result = new AntResult();
+        for (int o = 0; o < table.size(); o++) {
+            int remaining = table.quantity[o];
+            if (table.origin[o] < 0 || table.destination[o] < 0) {
+                result.objective += remaining * TabuSearchPlannerCostFunction.INCOMPLETE_ORDER_PENALTY;
+                continue;
+            }
+
+            long latestArrival = Long.MIN_VALUE;
+            for (int s = 0; s < config.getMaxShipmentsPerOrder() && remaining > 0; s++) {
+                int legs = walk(graph, table, o, pheromone, capacity, storage, rnd, path, visited, candidates, weights);
+                if (legs == 0) break;
+
+                int bottleneck = Integer.MAX_VALUE;
+                for (int l = 0; l < legs; l++) {
+                    bottleneck = Math.min(bottleneck, capacity[path[l]]);
+                    if (l < legs - 1) bottleneck = Math.min(bottleneck, storage[graph.destination[path[l]]]);
+                }
+                int quantity = Math.min(remaining, bottleneck);
+                if (quantity <= 0) break;
+
+                for (int l = 0; l < legs; l++) {
+                    capacity[path[l]] -= quantity;
+                    if (l < legs - 1) storage[graph.destination[path[l]]] -= quantity;
+                }
+                result.add(o, Arrays.copyOf(path, legs), quantity);
+                result.objective += TabuSearchPlannerCostFunction.stopoverPenalty(legs - 1);
+                latestArrival = Math.max(latestArrival, graph.arrival[path[legs - 1]]);
+                remaining -= quantity;
+            }
+
+            if (latestArrival != Long.MIN_VALUE) {
+                long deliveryHours = (latestArrival - table.ready[o]) / 60;
+                result.objective += TabuSearchPlannerCostFunction.delayPenalty(deliveryHours, table.maxHours[o]);
+            }
+            result.objective += remaining * TabuSearchPlannerCostFunction.INCOMPLETE_ORDER_PENALTY;
+        }
+        return result;
+    }
+
+    /**
+     * Camino probabilístico origen → destino del pedido o.
+     * @return número de tramos en path, o 0 si la hormiga quedó sin salida
+     */
+    private int walk(AcoFlightGraph graph, OrderTable table, int o, double[] pheromone,
+                     int[] capacity, int[] storage, SplittableRandom rnd,
+                     int[] path, int[] visited, int[] candidates, double[] weights) {
+        int target = table.destination[o];
+        int current = table.origin[o];
+        long time = table.ready[o];
+        long lateAfter = table.ready[o] + table.maxHours[o] * 60;
+        int legs = 0;
+        int visitedCount = 0;
+        visited[visitedCount++] = current;
+
+        while (legs < config.getMaxLegs()) {
+            // Ventanas: primer vuelo dentro del plazo; conexiones entre 1h y 24h (como RouteFinder)
+            long from = legs == 0 ? time : time + 60;
+            long to = legs == 0 ? lateAfter + 59 : time + 25 * 60 - 1;
+
+            int[] out = graph.outgoing[current];
+            int count = 0;
+            double total = 0;
+            for (int k = graph.firstDepartureAtOrAfter(current, from);
+                 k < out.length && count < candidates.length; k++) {
+                int f = out[k];
+                if (graph.departure[f] > to) break;
+                if (capacity[f] <= 0) continue;
+                int next = graph.destination[f];
+                if (contains(visited, visitedCount, next)) continue;
+                boolean reachesTarget = next == target;
+                if (!reachesTarget && (legs + 1 >= config.getMaxLegs() || storage[next] <= 0)) continue;
+
+                double eta = (reachesTarget ? 1.0 : 0.2) / (1.0 + (graph.arrival[f] - time) / 60.0);
+                if (graph.arrival[f] > lateAfter) eta *= 0.1;
+                double weight = Math.pow(pheromone[f], config.getAlpha()) * Math.pow(eta, config.getBeta());
+
+                candidates[count] = f;
+                weights[count] = weight;
+                total += weight;
+                count++;
+            }
+            if (count == 0) return 0;
+
+            int chosen = rnd.nextDouble() < config.getExploitationProbability()
+                ? argMax(weights, count)
+                : roulette(weights, count, total, rnd);
+            int f = candidates[chosen];
+
+            path[legs++] = f;
+            current = graph.destination[f];
+            visited[visitedCount++] = current;
+            time = graph.arrival[f];
+            if (current == target) return legs;
+        }
+        return 0;
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) return true;
+        }
+        return false;
+    }
+
+    private static int argMax(double[] weights, int count) {
+        int best = 0;
+        for (int i = 1; i < count; i++) {
+            if (weights[i] > weights[best]) best = i;
+        }
+        return best;
+    }
+
+    private static int roulette(double[] weights, int count, double total, SplittableRandom rnd) {
+        double pick = rnd.nextDouble() * total;
+        for (int i = 0; i < count; i++) {
+            pick -= weights[i];
+            if (pick <= 0) return i;
+        }
+        return count - 1;
+    }
+
+    // ========== FEROMONAS ==========
+
+    private void updatePheromones(double[] pheromone, OrderTable table, AntResult iterationBest, AntResult globalBest) {
+        double keep = 1.0 - config.getEvaporation();
+        double min = config.getMinPheromone();
+        for (int i = 0; i < pheromone.length; i++) {
+            pheromone[i] = Math.max(min, pheromone[i] * keep);
+        }
+        deposit(pheromone, table, iterationBest, 0.5);
+        if (globalBest != iterationBest) deposit(pheromone, table, globalBest, 1.0);
+    }
+
+    /**
+     * Refuerza cada vuelo usado en proporción a la fracción del pedido que transporta,
+     * favoreciendo rutas con menos tramos.
+     */
+    private void deposit(double[] pheromone, OrderTable table, AntResult ant, double weight) {
+        double max = config.getMaxPheromone();
+        for (int i = 0; i < ant.size; i++) {
+            int[] path = ant.paths[i];
+            double amount = config.getDepositFactor() * weight
+                * ant.quantities[i] / Math.max(1, table.quantity[ant.orders[i]]) / path.length;
+            for (int f : path) {
+                pheromone[f] = Math.min(max, pheromone[f] + amount);
+            }
+        }
+    }
+
+    // ========== CONVERSIÓN ==========
+
+    private static TabuSolution toSolution(RunContext run, AntResult ant, OrderTable table, AcoFlightGraph graph,
+                                           List<PlannerOrder> orders) {
+        TabuSolution solution = new TabuSolution();
+        for (int i = 0; i < ant.size; i++) {
+            List<PlannerFlight> route = new ArrayList<>(ant.paths[i].length);
+            for (int f : ant.paths[i]) route.add(graph.flights[f]);
+            solution.addPlannerShipment(new PlannerShipment(
+                run.nextShipmentId++, table.orders[ant.orders[i]], route, ant.quantities[i]));
+        }
+        solution.setAllOrders(orders);
+        return solution;
+    }
+
+    private void emitSnapshot(RunContext run, AntResult best, OrderTable table, AcoFlightGraph graph, List<PlannerOrder> orders,
+                              List<PlannerFlight> flights, List<PlannerAirport> airports, boolean force) {
+        long now = System.currentTimeMillis();
+        if (!force && now - run.lastSnapshotTime < run.snapshotMs) return;
+        run.lastSnapshotTime = now;
+        run.snapshotCounter++;
+        try {
+            TabuSolution snapshot = toSolution(run, best, table, graph, orders);
+            double cost = TabuSearchPlannerCostFunction.calculateCost(snapshot, flights, airports, run.totalIterations, config.getMaxIterations());
+            run.listener.onSnapshot(snapshot, run.totalIterations, cost, run.snapshotCounter, Instant.ofEpochMilli(now));
+        } catch (Exception ex) {
+            System.out.println("[ACO] Warning: listener threw exception: " + ex.getMessage());
+        }
+    }
+
+    public int getTotalIterations() {
+        RunContext run = lastRun;
+        return run != null ? run.totalIterations : 0;
+    }
+
+    /**
+     * Semilla de la siguiente ejecución: la primera usa la semilla del constructor (reproducible)
+     */
+    private long nextRunSeed() {
+        return randomSeed + runCount.getAndIncrement() * SEED_STRIDE;
+    }
+
+    /**
+     * Estado de una ejecución de construct(): aleatorio, ids de shipments, contadores y
+     * snapshots. El listener se fija al inicio de la ejecución.
+     */
+    private static final class RunContext {
+        private final Random random;
+        private final TabuSearchListener listener;
+        private final long snapshotMs;
+
+        private int nextShipmentId = 1;
+        private int totalIterations = 0;
+        private long lastSnapshotTime = 0;
+        private long snapshotCounter = 0;
+
+        RunContext(long seed, TabuSearchListener listener, long snapshotMs) {
+            this.random = new Random(seed);
+            this.listener = listener;
+            this.snapshotMs = snapshotMs;
+        }
+    }
+
+    /**
+     * Pedidos en arreglos primitivos, ordenados por deadline (más urgente primero).
+     */
+    private static final class OrderTable {
+        final PlannerOrder[] orders;
+        final int[] origin;
+        final int[] destination;
+        final int[] quantity;
+        final long[] ready;
+        final long[] maxHours;
+
+        OrderTable(List<PlannerOrder> orderList, AcoFlightGraph graph) {
+            this.orders = orderList.toArray(new PlannerOrder[0]);
+            Arrays.sort(orders, Comparator.comparing((PlannerOrder o) -> o.getOrderTime().plusHours(o.getMaxDeliveryHours())));
+            int n = orders.length;
+            this.origin = new int[n];
+            this.destination = new int[n];
+            this.quantity = new int[n];
+            this.ready = new long[n];
+            this.maxHours = new long[n];
+            for (int i = 0; i < n; i++) {
+                origin[i] = graph.airportIndex(orders[i].getOrigin());
+                destination[i] = graph.airportIndex(orders[i].getDestination());
+                quantity[i] = orders[i].getTotalQuantity();
+                ready[i] = AcoFlightGraph.toMinutes(orders[i].getOrderTime());
+                maxHours[i] = orders[i].getMaxDeliveryHours();
+            }
+        }
+
+        int size() {
+            return orders.length;
+        }
+    }
+
+    /**
+     * Solución de una hormiga: asignaciones (pedido, camino, cantidad) y su objetivo.
+     */
+    private static final class AntResult {
+        double objective = 0;
+        int size = 0;
+        int[] orders = new int[16];
+        int[][] paths = new int[16][];
+        int[] quantities = new int[16];
+
+        void add(int order, int[] path, int quantity) {
+            if (size == orders.length) {
+                orders = Arrays.copyOf(orders, size * 2);
+                paths = Arrays.copyOf(paths, size * 2);
+                quantities = Arrays.copyOf(quantities, size * 2);
+            }
+            orders[size] = order;
+            paths[size] = path;
+            quantities[size] = quantity;
+            size++;
+        }
+    }
+}
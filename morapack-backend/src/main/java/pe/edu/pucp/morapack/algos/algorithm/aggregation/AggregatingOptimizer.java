@@ -0,0 +1,127 @@
+package pe.edu.pucp.morapack.algos.algorithm.aggregation;
+
+import pe.edu.pucp.morapack.algos.algorithm.IOptimizer;
+import pe.edu.pucp.morapack.algos.algorithm.ObservableOptimizer;
+import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSearchListener;
+import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSolution;
+import pe.edu.pucp.morapack.algos.entities.PlannerAirport;
+import pe.edu.pucp.morapack.algos.entities.PlannerFlight;
+import pe.edu.pucp.morapack.algos.entities.PlannerOrder;
+import pe.edu.pucp.morapack.algos.entities.Solution;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Preprocesamiento de demanda delante de cualquier optimizador: agrupa pedidos compatibles
+ * (DemandAggregation), optimiza sobre las unidades agregadas y reparte los shipments
+ * resultantes entre los pedidos originales. La solución devuelta tiene la misma forma que la
+ * del optimizador envuelto (shipments por pedido original).
+ *
+ * Si ningún pedido tiene compañeros, delega directamente.
+ *
+ * La agregación de cada ejecución vive en un RunContext del hilo que llama a optimize(): los
+ * optimizadores envueltos publican sus snapshots desde ese hilo, así que ejecuciones
+ * concurrentes sobre la misma instancia traducen cada una sus propios snapshots.
+ */
+public class AggregatingOptimizer implements ObservableOptimizer {
+    public static final Duration DEFAULT_WINDOW = Duration.ofHours(1);
+
+    private final IOptimizer delegate;
+    private final Duration window;
+    // Ejecución en curso en cada hilo (para traducir los snapshots del listener)
+    private final ThreadLocal<RunContext> currentRun = new ThreadLocal<>();
+    private volatile boolean verbose = true;
+
+    public AggregatingOptimizer(IOptimizer delegate) {
+        this(delegate, DEFAULT_WINDOW);
+    }
+
+    /**
+     * @param window diferencia máxima entre horas de registro de pedidos agrupados
+     */
+    public AggregatingOptimizer(IOptimizer delegate, Duration window) {
+        this.delegate = delegate;
+        this.window = window;
+    }
+
+    public IOptimizer getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public Solution optimize(List<PlannerOrder> orders, List<PlannerFlight> flights, List<PlannerAirport> airports) {
+        if (orders == null || orders.isEmpty()) {
+            return delegate.optimize(orders, flights, airports);
+        }
+
+        DemandAggregation aggregation = new DemandAggregation(orders, window);
+        if (aggregation.isEmpty()) {
+            return delegate.optimize(orders, flights, airports);
+        }
+
+        List<PlannerOrder> aggregated = aggregation.getAggregatedOrders();
+        if (verbose) System.out.println(String.format("[AGGREGATION] %d orders -> %d demand units (%d aggregates, window %d min)",
+            orders.size(), aggregated.size(), aggregation.getAggregateCount(), window.toMinutes()));
+
+        RunContext previous = currentRun.get();
+        currentRun.set(new RunContext(aggregation));
+        try {
+            Solution solution = delegate.optimize(aggregated, flights, airports);
+            if (!(solution instanceof TabuSolution tabuSolution)) {
+                System.out.println("[AGGREGATION] Unsupported solution type, returning it unchanged");
+                return solution;
+            }
+            return aggregation.disaggregate(tabuSolution);
+        } finally {
+            if (previous != null) {
+                currentRun.set(previous);
+            } else {
+                currentRun.remove();
+            }
+        }
+    }
+
+    @Override
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+        delegate.setVerbose(verbose);
+    }
+
+    /**
+     * Los snapshots del optimizador envuelto se desagregan antes de reenviarse
+     */
+    @Override
+    public void setListener(TabuSearchListener listener, long snapshotMs) {
+        if (!(delegate instanceof ObservableOptimizer observable)) return;
+        if (listener == null) {
+            observable.setListener(null, snapshotMs);
+            return;
+        }
+        observable.setListener(new TabuSearchListener() {
+            @Override
+            public void onSnapshot(TabuSolution solution, int iteration, double bestCost, long snapshotId, Instant snapshotTime) {
+                RunContext run = currentRun.get();
+                listener.onSnapshot(run != null ? run.aggregation.disaggregate(solution) : solution,
+                    iteration, bestCost, snapshotId, snapshotTime);
+            }
+
+            @Override
+            public boolean isStopRequested() {
+                return listener.isStopRequested();
+            }
+        }, snapshotMs);
+    }
+
+    /**
+     * Estado de una ejecución de optimize(): la agregación con la que se traducen sus snapshots
+     */
+    private static final class RunContext {
+        private final DemandAggregation aggregation;
+
+        RunContext(DemandAggregation aggregation) {
+            this.aggregation = aggregation;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package pe.edu.pucp.morapack.algos.algorithm.aggregation;
+
+import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSolution;
+import pe.edu.pucp.morapack.algos.entities.PlannerOrder;
+import pe.edu.pucp.morapack.algos.entities.PlannerShipment;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Agregación de demanda: agrupa pedidos compatibles en unidades de demanda consolidadas.
+ *
+ * Dos pedidos son compatibles si comparten origen y destino y se registraron con menos de
+ * 'window' de diferencia.
+ *
+ * La unidad agregada es un PlannerOrder con la cantidad total del grupo, la hora de registro
+ * del ÚLTIMO miembro (ningún vuelo puede salir antes de que exista todo el pedido) y el plazo
+ * del miembro que vence PRIMERO (en horas enteras, redondeando hacia abajo).
+ * Al desagregar, las unidades que llegan antes se reparten primero a los pedidos con plazo
+ * más temprano. Los pedidos sin compañeros se pasan tal cual al optimizador.
+ */
+public class DemandAggregation {
+
+    private final List<PlannerOrder> originalOrders;
+    private final List<PlannerOrder> aggregatedOrders = new ArrayList<>();
+    // Unidad agregada -> miembros ordenados por plazo (identidad: PlannerOrder no redefine equals)
+    private final Map<PlannerOrder, List<PlannerOrder>> members = new IdentityHashMap<>();
+
+    public DemandAggregation(List<PlannerOrder> orders, Duration window) {
+        this.originalOrders = orders;
+
+        Map<String, List<PlannerOrder>> byPair = new LinkedHashMap<>();
+        for (PlannerOrder order : orders) {
+            if (order.getOrigin() == null || order.getDestination() == null || order.getOrderTime() == null) {
+                aggregatedOrders.add(order);
+                continue;
+            }
+            String key = order.getOrigin().getCode() + "->" + order.getDestination().getCode();
+            byPair.computeIfAbsent(key, k -> new ArrayList<>()).add(order);
+        }
+
+        int nextAggregateId = -1;  // ids negativos: no chocan con los pedidos reales
+        for (List<PlannerOrder> pairOrders : byPair.values()) {
+            pairOrders.sort(Comparator.comparing(PlannerOrder::getOrderTime));
+            int start = 0;
+            while (start < pairOrders.size()) {
+                LocalDateTime first = pairOrders.get(start).getOrderTime();
+                int end = start + 1;
+                while (end < pairOrders.size()
+                        && Duration.between(first, pairOrders.get(end).getOrderTime()).compareTo(window) <= 0) {
+                    end++;
+                }
+
+                List<PlannerOrder> group = pairOrders.subList(start, end);
+                if (group.size() == 1) {
+                    aggregatedOrders.add(group.get(0));
+                } else {
+                    aggregatedOrders.add(createAggregate(nextAggregateId--, group));
+                }
+                start = end;
+            }
+        }
+    }
+
+    private PlannerOrder createAggregate(int id, List<PlannerOrder> group) {
+        int quantity = 0;
+        for (PlannerOrder order : group) {
+            quantity += order.getTotalQuantity();
+        }
+        PlannerOrder last = group.get(group.size() - 1);
+        PlannerOrder aggregate = new PlannerOrder(id, quantity, last.getOrigin(), last.getDestination());
+        aggregate.setOrderTime(last.getOrderTime());
+
+        List<PlannerOrder> sorted = new ArrayList<>(group);
+        sorted.sort(Comparator.comparing((PlannerOrder o) -> o.getOrderTime().plusHours(o.getMaxDeliveryHours())));
+        PlannerOrder earliest = sorted.get(0);
+        LocalDateTime deadline = earliest.getOrderTime().plusHours(earliest.getMaxDeliveryHours());
+        aggregate.setMaxDeliveryHours(Math.max(0, Duration.between(last.getOrderTime(), deadline).toHours()));
+        members.put(aggregate, sorted);
+        return aggregate;
+    }
+
+    /**
+     * Pedidos a optimizar: unidades agregadas más los pedidos sin compañeros
+     */
+    public List<PlannerOrder> getAggregatedOrders() {
+        return Collections.unmodifiableList(aggregatedOrders);
+    }
+
+    public boolean isEmpty() {
+        return members.isEmpty();
+    }
+
+    public int getAggregateCount() {
+        return members.size();
+    }
+
+    /**
+     * Convierte una solución sobre unidades agregadas en una solución por pedido original.
+     * Los shipments de pedidos no agregados se conservan tal cual; los de unidades agregadas se
+     * reparten en orden de plazo con ids posteriores al mayor id de la solución.
+     */
+    public TabuSolution disaggregate(TabuSolution solution) {
+        TabuSolution result = new TabuSolution();
+        Map<PlannerOrder, List<PlannerShipment>> byAggregate = new IdentityHashMap<>();
+
+        int nextShipmentId = 1;
+        for (PlannerShipment shipment : solution.getPlannerShipments()) {
+            nextShipmentId = Math.max(nextShipmentId, shipment.getId() + 1);
+        }
+
+        for (PlannerShipment shipment : solution.getPlannerShipments()) {
+            PlannerOrder order = shipment.getOrder();
+            if (order != null && members.containsKey(order)) {
+                byAggregate.computeIfAbsent(order, k -> new ArrayList<>()).add(shipment);
+            } else {
+                result.addPlannerShipment(new PlannerShipment(shipment));
+            }
+        }
+
+        for (Map.Entry<PlannerOrder, List<PlannerShipment>> entry : byAggregate.entrySet()) {
+            List<PlannerShipment> shipments = entry.getValue();
+            shipments.sort(Comparator.comparing(PlannerShipment::getFinalArrivalTime,
+                Comparator.nullsLast(Comparator.naturalOrder())));
+
+            List<PlannerOrder> group = members.get(entry.getKey());
+            int memberIndex = 0;
+            int memberRemaining = group.get(0).getTotalQuantity();
+            for (PlannerShipment shipment : shipments) {
+                int shipmentRemaining = shipment.getQuantity();
+                while (shipmentRemaining > 0 && memberIndex < group.size()) {
+                    int quantity = Math.min(shipmentRemaining, memberRemaining);
+                    if (quantity > 0) {
+                        PlannerShipment part = new PlannerShipment(
+                            nextShipmentId++, group.get(memberIndex), shipment.getRoute(), quantity);
+                        part.setStatus(shipment.getStatus());
+                        result.addPlannerShipment(part);
+                    }
+
+                    shipmentRemaining -= quantity;
+                    memberRemaining -= quantity;
+                    if (memberRemaining == 0 && ++memberIndex < group.size()) {
+                        memberRemaining = group.get(memberIndex).getTotalQuantity();
+                    }
+                }
+            }
+        }
+
+        result.setAllOrders(originalOrders);
+        return result;
+    }
+}
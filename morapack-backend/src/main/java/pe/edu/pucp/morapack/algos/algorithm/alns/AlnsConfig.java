@@ -0,0 +1,80 @@
+package pe.edu.pucp.morapack.algos.algorithm.alns;
+
+public class AlnsConfig {
+    // Parámetros de búsqueda
+    private final int maxIterations;
+    private final int maxIterationsWithoutImprovement;
+
+    // Grado de destrucción (fracción de pedidos asignados que se retiran)
+    private final double minDestroyFraction;
+    private final double maxDestroyFraction;
+    private final int maxDestroyOrders;
+
+    // Pesos adaptativos de operadores
+    private final int segmentLength;
+    private final double reactionFactor;
+    private final double scoreNewBest;
+    private final double scoreBetter;
+    private final double scoreAccepted;
+
+    // Criterio de aceptación (recocido simulado)
+    private final double initialAcceptWorsening;  // % de empeoramiento aceptado con prob. 0.5 al inicio
+    private final double coolingRate;
+
+    public AlnsConfig(
+            int maxIterations,
+            int maxIterationsWithoutImprovement,
+            double minDestroyFraction,
+            double maxDestroyFraction,
+            int maxDestroyOrders,
+            int segmentLength,
+            double reactionFactor,
+            double scoreNewBest,
+            double scoreBetter,
+            double scoreAccepted,
+            double initialAcceptWorsening,
+            double coolingRate) {
+        this.maxIterations = maxIterations;
+        this.maxIterationsWithoutImprovement = maxIterationsWithoutImprovement;
+        this.minDestroyFraction = minDestroyFraction;
+        this.maxDestroyFraction = maxDestroyFraction;
+        this.maxDestroyOrders = maxDestroyOrders;
+        this.segmentLength = segmentLength;
+        this.reactionFactor = reactionFactor;
+        this.scoreNewBest = scoreNewBest;
+        this.scoreBetter = scoreBetter;
+        this.scoreAccepted = scoreAccepted;
+        this.initialAcceptWorsening = initialAcceptWorsening;
+        this.coolingRate = coolingRate;
+    }
+
+    // Constructor con valores por defecto (Ropke & Pisinger, ajustados al tamaño de ventana)
+    public AlnsConfig() {
+        this(600,    // maxIterations
+             150,    // maxIterationsWithoutImprovement
+             0.10,   // minDestroyFraction
+             0.30,   // maxDestroyFraction
+             30,     // maxDestroyOrders
+             50,     // segmentLength
+             0.20,   // reactionFactor
+             33,     // scoreNewBest
+             9,      // scoreBetter
+             13,     // scoreAccepted
+             0.05,   // initialAcceptWorsening (5%)
+             0.995); // coolingRate
+    }
+
+    // Getters
+    public int getMaxIterations() { return maxIterations; }
+    public int getMaxIterationsWithoutImprovement() { return maxIterationsWithoutImprovement; }
+    public double getMinDestroyFraction() { return minDestroyFraction; }
+    public double getMaxDestroyFraction() { return maxDestroyFraction; }
+    public int getMaxDestroyOrders() { return maxDestroyOrders; }
+    public int getSegmentLength() { return segmentLength; }
+    public double getReactionFactor() { return reactionFactor; }
+    public double getScoreNewBest() { return scoreNewBest; }
+    public double getScoreBetter() { return scoreBetter; }
+    public double getScoreAccepted() { return scoreAccepted; }
+    public double getInitialAcceptWorsening() { return initialAcceptWorsening; }
+    public double getCoolingRate() { return coolingRate; }
+}
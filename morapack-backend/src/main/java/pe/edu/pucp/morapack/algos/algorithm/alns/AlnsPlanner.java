@@ -0,0 +1,624 @@
+package pe.edu.pucp.morapack.algos.algorithm.alns;
+
+import pe.edu.pucp.morapack.algos.algorithm.ObservableOptimizer;
+import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSearchListener;
+import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSearchPlannerCostFunction;
+import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSolution;
+import pe.edu.pucp.morapack.algos.entities.AirportPairTable;
+import pe.edu.pucp.morapack.algos.entities.PlannerAirport;
+import pe.edu.pucp.morapack.algos.entities.PlannerFlight;
+import pe.edu.pucp.morapack.algos.entities.PlannerOrder;
+import pe.edu.pucp.morapack.algos.entities.PlannerShipment;
+import pe.edu.pucp.morapack.algos.entities.Route;
+import pe.edu.pucp.morapack.algos.entities.Solution;
+import pe.edu.pucp.morapack.algos.utils.RouteFinder;
+import pe.edu.pucp.morapack.algos.utils.RouteOption;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Adaptive Large Neighborhood Search (ALNS) para planificación de rutas con PlannerShipments.
+ *
+ * Alternativa a TabuSearchPlanner sobre el mismo modelo (TabuSolution, PlannerShipment)
+ * y la misma función de costo. En lugar de movimientos pequeños (split/merge/transfer/reroute),
+ * cada iteración DESTRUYE un grupo de pedidos y los REPARA de nuevo, lo que permite
+ * reorganizar de una vez varios pedidos que compiten por los mismos vuelos.
+ *
+ * FLUJO:
+ * 1. Construcción inicial: reparación greedy de todos los pedidos (mismas rutas que el greedy de Tabu)
+ * 2. Bucle ALNS: destroy + repair elegidos por ruleta con pesos adaptativos
+ * 3. Aceptación tipo recocido simulado sobre TabuSearchPlannerCostFunction
+ *
+ * Operadores destroy: pedidos aleatorios, pedidos del vuelo más cargado, pedidos geográficamente relacionados.
+ * Operadores repair: inserción greedy (RouteFinder) e inserción por arrepentimiento (regret-2).
+ *
+ * El planner solo guarda configuración; el estado de cada ejecución (aleatorio, ids de
+ * shipments, pesos, contadores, snapshots) vive en un RunContext creado por optimize().
+ */
+public class AlnsPlanner implements ObservableOptimizer {
+
+    enum DestroyOperator { RANDOM_ORDERS, MOST_LOADED_FLIGHT, RELATED_ORDERS }
+
+    enum RepairOperator { GREEDY, REGRET }
+
+    private static final int MAX_CANDIDATE_ROUTES = 40;
+
+    private final AlnsConfig config;
+
+    // Semilla base: cada ejecución usa una semilla derivada (la primera, la semilla tal cual)
+    private final long randomSeed;
+    private final AtomicLong runCount = new AtomicLong();
+
+    // Métricas de la última ejecución terminada
+    private volatile RunContext lastRun = null;
+
+    // Optional external listener for snapshots / stop requests
+    private volatile TabuSearchListener listener = null;
+    private volatile long snapshotMs = 1000;
+
+    // Logs de la ejecución; en corridas batch se apagan (ver setVerbose)
+    private volatile boolean verbose = true;
+
+    public AlnsPlanner() {
+        this(System.currentTimeMillis(), 1.0);
+    }
+
+    public AlnsPlanner(long seed) {
+        this(seed, 1.0);
+    }
+
+    /**
+     * @param seed Semilla para el generador aleatorio
+     * @param speedMultiplier Multiplicador de velocidad: reduce iteraciones igual que en Tabu
+     */
+    public AlnsPlanner(long seed, double speedMultiplier) {
+        this.randomSeed = seed;
+        AlnsConfig base = new AlnsConfig();
+        this.config = new AlnsConfig(
+            (int) Math.max(100, base.getMaxIterations() / speedMultiplier),
+            (int) Math.max(40, base.getMaxIterationsWithoutImprovement() / speedMultiplier),
+            base.getMinDestroyFraction(),
+            base.getMaxDestroyFraction(),
+            base.getMaxDestroyOrders(),
+            base.getSegmentLength(),
+            base.getReactionFactor(),
+            base.getScoreNewBest(),
+            base.getScoreBetter(),
+            base.getScoreAccepted(),
+            base.getInitialAcceptWorsening(),
+            base.getCoolingRate());
+        System.out.println("[ALNS] Initialized with seed: " + seed + ", speedMultiplier: " + speedMultiplier
+            + ", maxIterations: " + config.getMaxIterations());
+    }
+
+    public AlnsPlanner(long seed, AlnsConfig config) {
+        this.randomSeed = seed;
+        this.config = config;
+    }
+
+    /**
+     * Register a listener to receive snapshots and allow stop requests.
+     */
+    @Override
+    public void setListener(TabuSearchListener listener, long snapshotMs) {
+        this.listener = listener;
+        if (snapshotMs > 0) this.snapshotMs = snapshotMs;
+    }
+
+    @Override
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    private void log(String message) {
+        if (verbose) {
+            System.out.println(message);
+        }
+    }
+
+    @Override
+    public Solution optimize(List<PlannerOrder> orders, List<PlannerFlight> flights, List<PlannerAirport> airports) {
+        if (orders == null || orders.isEmpty()) return new TabuSolution();
+
+        long startTime = System.currentTimeMillis();
+        log("\n" + "=".repeat(80));
+        log("=== ALNS PLANNER - DESTROY & REPAIR ===");
+        log("=".repeat(80));
+        log("[ORDERS] To process: " + orders.size());
+        log("[FLIGHTS] Available: " + flights.size());
+
+        RunContext ctx = new RunContext(nextRunSeed(), listener, snapshotMs, flights);
+
+        // FASE 1: construcción inicial = reparación greedy desde la solución vacía
+        TabuSolution current = new TabuSolution();
+        current.setAllOrders(orders);
+        repairGreedy(current, new ArrayList<>(orders), ctx);
+
+        double currentCost = cost(current, flights, airports);
+        double initialCost = currentCost;
+        TabuSolution best = new TabuSolution(current);
+        double bestCost = currentCost;
+        log(String.format("[ALNS] Initial solution: cost=%.2f, shipments=%d",
+            initialCost, current.getPlannerShipments().size()));
+
+        emitSnapshot(ctx, best, 0, bestCost, true);
+
+        // FASE 2: bucle ALNS
+        double temperature = initialCost > 0
+            ? config.getInitialAcceptWorsening() * initialCost / Math.log(2)
+            : 1.0;
+        double[] destroyScores = new double[ctx.destroyWeights.length];
+        int[] destroyUses = new int[ctx.destroyWeights.length];
+        double[] repairScores = new double[ctx.repairWeights.length];
+        int[] repairUses = new int[ctx.repairWeights.length];
+
+        int iterationsWithoutImprovement = 0;
+
+        while (ctx.totalIterations < config.getMaxIterations()
+                && iterationsWithoutImprovement < config.getMaxIterationsWithoutImprovement()) {
+            int d = rouletteSelect(ctx, ctx.destroyWeights);
+            int r = rouletteSelect(ctx, ctx.repairWeights);
+
+            TabuSolution candidate = new TabuSolution(current);
+            List<PlannerOrder> removed = destroy(DestroyOperator.values()[d], candidate, ctx);
+            if (removed.isEmpty()) {
+                log("[ALNS] Nothing left to destroy. Stopping.");
+                break;
+            }
+            repair(RepairOperator.values()[r], candidate, removed, ctx);
+
+            double candidateCost = cost(candidate, flights, airports);
+            double score = 0;
+            boolean improved = false;
+
+            if (candidateCost < bestCost) {
+                best = new TabuSolution(candidate);
+                bestCost = candidateCost;
+                score = config.getScoreNewBest();
+                improved = true;
+            } else if (candidateCost < currentCost) {
+                score = config.getScoreBetter();
+            } else if (ctx.random.nextDouble() < Math.exp((currentCost - candidateCost) / temperature)) {
+                score = config.getScoreAccepted();
+            }
+
+            if (score > 0) {
+                current = candidate;
+                currentCost = candidateCost;
+            }
+
+            destroyScores[d] += score;
+            destroyUses[d]++;
+            repairScores[r] += score;
+            repairUses[r]++;
+
+            ctx.totalIterations++;
+            temperature *= config.getCoolingRate();
+
+            if (improved) {
+                iterationsWithoutImprovement = 0;
+                ctx.improvementIterations++;
+                log(String.format("[*] ALNS Iter %4d: NEW BEST %.2f | %s + %s",
+                    ctx.totalIterations, bestCost, DestroyOperator.values()[d], RepairOperator.values()[r]));
+            } else {
+                iterationsWithoutImprovement++;
+            }
+
+            // Actualizar pesos al final de cada segmento
+            if (ctx.totalIterations % config.getSegmentLength() == 0) {
+                updateWeights(ctx.destroyWeights, destroyScores, destroyUses);
+                updateWeights(ctx.repairWeights, repairScores, repairUses);
+            }
+
+            if (ctx.listener != null && ctx.listener.isStopRequested()) {
+                log("[ALNS] Stop requested by listener. Exiting optimization loop.");
+                break;
+            }
+            emitSnapshot(ctx, best, ctx.totalIterations, bestCost, improved);
+
+            if (ctx.totalIterations % 50 == 0) {
+                log(String.format("[ALNS] Iter %4d/%d | Current: %.2f | Best: %.2f | Stale: %d/%d | T=%.1f",
+                    ctx.totalIterations, config.getMaxIterations(), currentCost, bestCost,
+                    iterationsWithoutImprovement, config.getMaxIterationsWithoutImprovement(), temperature));
+            }
+        }
+
+        double executionTime = (System.currentTimeMillis() - startTime) / 1000.0;
+        log("\n=== ALNS COMPLETED ===");
+        log(String.format("   Execution time: %.2f seconds, iterations: %d (improvements: %d)",
+            executionTime, ctx.totalIterations, ctx.improvementIterations));
+        log(String.format("   Cost: %.2f -> %.2f", initialCost, bestCost));
+        log("   Destroy weights: " + describeWeights(DestroyOperator.values(), ctx.destroyWeights));
+        log("   Repair weights: " + describeWeights(RepairOperator.values(), ctx.repairWeights));
+
+        lastRun = ctx;
+        return best;
+    }
+
+    // ========== DESTROY ==========
+
+    /**
+     * Retira de la solución todos los shipments de los pedidos elegidos por el operador.
+     * @return pedidos retirados (a reinsertar por el operador repair)
+     */
+    private List<PlannerOrder> destroy(DestroyOperator operator, TabuSolution solution, RunContext ctx) {
+        List<PlannerOrder> assigned = new ArrayList<>(new LinkedHashSet<>(
+            solution.getPlannerShipments().stream().map(PlannerShipment::getOrder).toList()));
+        if (assigned.isEmpty()) return List.of();
+
+        double fraction = config.getMinDestroyFraction()
+            + ctx.random.nextDouble() * (config.getMaxDestroyFraction() - config.getMinDestroyFraction());
+        int k = (int) Math.round(assigned.size() * fraction);
+        k = Math.max(1, Math.min(k, Math.min(config.getMaxDestroyOrders(), assigned.size())));
+
+        List<PlannerOrder> selected = switch (operator) {
+            case RANDOM_ORDERS -> selectRandomOrders(assigned, k, ctx.random);
+            case MOST_LOADED_FLIGHT -> selectOrdersOnMostLoadedFlight(solution, k, ctx.random);
+            case RELATED_ORDERS -> selectRelatedOrders(assigned, k, ctx.random);
+        };
+
+        Set<PlannerOrder> removedSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        removedSet.addAll(selected);
+        List<PlannerShipment> kept = new ArrayList<>();
+        for (PlannerShipment shipment : solution.getPlannerShipments()) {
+            if (!removedSet.contains(shipment.getOrder())) kept.add(shipment);
+        }
+        solution.setPlannerShipments(kept);
+        return selected;
+    }
+
+    private static List<PlannerOrder> selectRandomOrders(List<PlannerOrder> assigned, int k, Random random) {
+        List<PlannerOrder> pool = new ArrayList<>(assigned);
+        Collections.shuffle(pool, random);
+        return new ArrayList<>(pool.subList(0, k));
+    }
+
+    /**
+     * Pedidos que viajan en el vuelo con mayor ocupación (carga / capacidad).
+     * Se elige al azar entre los 3 vuelos más cargados para diversificar.
+     */
+    private static List<PlannerOrder> selectOrdersOnMostLoadedFlight(TabuSolution solution, int k, Random random) {
+        Map<PlannerFlight, Integer> loads = new HashMap<>();
+        for (PlannerShipment shipment : solution.getPlannerShipments()) {
+            for (PlannerFlight flight : shipment.getFlights()) {
+                loads.merge(flight, shipment.getQuantity(), Integer::sum);
+            }
+        }
+        List<PlannerFlight> ranked = new ArrayList<>(loads.keySet());
+        ranked.sort(Comparator.comparingDouble(
+            (PlannerFlight f) -> (double) loads.get(f) / Math.max(1, f.getCapacity())).reversed());
+        PlannerFlight target = ranked.get(random.nextInt(Math.min(3, ranked.size())));
+
+        LinkedHashSet<PlannerOrder> onFlight = new LinkedHashSet<>();
+        for (PlannerShipment shipment : solution.getPlannerShipments()) {
+            if (shipment.getFlights().contains(target)) onFlight.add(shipment.getOrder());
+        }
+        List<PlannerOrder> pool = new ArrayList<>(onFlight);
+        Collections.shuffle(pool, random);
+        return new ArrayList<>(pool.subList(0, Math.min(k, pool.size())));
+    }
+
+    /**
+     * Shaw removal: pedidos cercanos (origen y destino) a un pedido semilla.
+     * La selección es aleatorizada (y^p) para no retirar siempre el mismo vecindario.
+     */
+    private List<PlannerOrder> selectRelatedOrders(List<PlannerOrder> assigned, int k, Random random) {
+        PlannerOrder seed = assigned.get(random.nextInt(assigned.size()));
+        List<PlannerOrder> pool = new ArrayList<>(assigned);
+        pool.remove(seed);
+        pool.sort(Comparator.comparingDouble(o -> relatedness(seed, o)));
+
+        List<PlannerOrder> selected = new ArrayList<>();
+        selected.add(seed);
+        while (selected.size() < k && !pool.isEmpty()) {
+            int idx = (int) (Math.pow(random.nextDouble(), 6) * pool.size());
+            selected.add(pool.remove(idx));
+        }
+        return selected;
+    }
+
+    private double relatedness(PlannerOrder a, PlannerOrder b) {
+        return distanceKm(a.getOrigin(), b.getOrigin()) + distanceKm(a.getDestination(), b.getDestination());
+    }
+
+    // ========== REPAIR ==========
+
+    private void repair(RepairOperator operator, TabuSolution solution, List<PlannerOrder> removed, RunContext ctx) {
+        switch (operator) {
+            case GREEDY -> {
+                List<PlannerOrder> pending = new ArrayList<>(removed);
+                pending.addAll(incompleteOrders(solution, removed));
+                repairGreedy(solution, pending, ctx);
+            }
+            case REGRET -> {
+                repairRegret(solution, removed, ctx);
+                repairGreedy(solution, incompleteOrders(solution, List.of()), ctx);
+            }
+        }
+    }
+
+    /**
+     * Inserción greedy por urgencia (deadline más próximo primero), igual que el greedy de Tabu:
+     * rutas directas primero, luego conexiones por hubs.
+     */
+    private void repairGreedy(TabuSolution solution, List<PlannerOrder> pending, RunContext ctx) {
+        if (pending.isEmpty()) return;
+        CapacityLedger ledger = new CapacityLedger(solution);
+        Map<PlannerOrder, Integer> assigned = assignedByOrder(solution);
+
+        Collections.shuffle(pending, ctx.random);  // desempate aleatorio entre pedidos igual de urgentes
+        pending.sort(Comparator.comparing(AlnsPlanner::deadlineOf));
+
+        for (PlannerOrder order : pending) {
+            int remaining = order.getTotalQuantity() - assigned.getOrDefault(order, 0);
+            if (remaining <= 0) continue;
+
+            List<Route> routes = new ArrayList<>(ctx.routesFor(order));
+            if (routes.size() > 1) {
+                Collections.shuffle(routes.subList(0, Math.min(3, routes.size())), ctx.random);
+            }
+            remaining = insert(solution, order, remaining, routes, ledger, ctx);
+            assigned.put(order, order.getTotalQuantity() - remaining);
+        }
+    }
+
+    /**
+     * Regret-2: inserta primero el pedido que más perdería si no obtiene su mejor ruta
+     * (diferencia entre la mejor y la segunda mejor ruta factible).
+     */
+    private void repairRegret(TabuSolution solution, List<PlannerOrder> pending, RunContext ctx) {
+        CapacityLedger ledger = new CapacityLedger(solution);
+        List<PlannerOrder> open = new ArrayList<>(pending);
+
+        while (!open.isEmpty()) {
+            PlannerOrder chosen = null;
+            double chosenRegret = Double.NEGATIVE_INFINITY;
+            double chosenBest = Double.MAX_VALUE;
+
+            Iterator<PlannerOrder> it = open.iterator();
+            while (it.hasNext()) {
+                PlannerOrder order = it.next();
+                double best = Double.MAX_VALUE;
+                double second = Double.MAX_VALUE;
+                for (Route route : ctx.routesFor(order)) {
+                    if (ledger.available(route) <= 0) continue;
+                    double c = estimateRouteCost(order, route);
+                    if (c < best) {
+                        second = best;
+                        best = c;
+                    } else if (c < second) {
+                        second = c;
+                    }
+                }
+                if (best == Double.MAX_VALUE) {
+                    it.remove();  // sin ruta factible: se queda fuera
+                    continue;
+                }
+                double regret = second == Double.MAX_VALUE ? Double.MAX_VALUE : second - best;
+                if (regret > chosenRegret || (regret == chosenRegret && best < chosenBest)) {
+                    chosen = order;
+                    chosenRegret = regret;
+                    chosenBest = best;
+                }
+            }
+            if (chosen == null) break;
+
+            PlannerOrder order = chosen;
+            List<Route> routes = new ArrayList<>(ctx.routesFor(order));
+            routes.sort(Comparator.comparingDouble(route -> estimateRouteCost(order, route)));
+            insert(solution, order, order.getTotalQuantity(), routes, ledger, ctx);
+            open.remove(order);
+        }
+    }
+
+    /**
+     * Reparte la cantidad pendiente del pedido entre las rutas (en orden) según la capacidad libre.
+     * @return cantidad que quedó sin asignar
+     */
+    private static int insert(TabuSolution solution, PlannerOrder order, int remaining,
+                              List<Route> routes, CapacityLedger ledger, RunContext ctx) {
+        for (Route route : routes) {
+            if (remaining <= 0) break;
+            int toAssign = Math.min(remaining, ledger.available(route));
+            if (toAssign <= 0) continue;
+            solution.addPlannerShipment(new PlannerShipment(ctx.nextShipmentId++, order, route, toAssign));
+            ledger.reserve(route, toAssign);
+            remaining -= toAssign;
+        }
+        return remaining;
+    }
+
+    private List<PlannerOrder> incompleteOrders(TabuSolution solution, List<PlannerOrder> exclude) {
+        Map<PlannerOrder, Integer> assigned = assignedByOrder(solution);
+        Set<PlannerOrder> excluded = Collections.newSetFromMap(new IdentityHashMap<>());
+        excluded.addAll(exclude);
+        List<PlannerOrder> incomplete = new ArrayList<>();
+        for (PlannerOrder order : solution.getAllOrders()) {
+            if (excluded.contains(order)) continue;
+            if (assigned.getOrDefault(order, 0) < order.getTotalQuantity()) incomplete.add(order);
+        }
+        return incomplete;
+    }
+
+    private static Map<PlannerOrder, Integer> assignedByOrder(TabuSolution solution) {
+        Map<PlannerOrder, Integer> assigned = new HashMap<>();
+        for (PlannerShipment shipment : solution.getPlannerShipments()) {
+            assigned.merge(shipment.getOrder(), shipment.getQuantity(), Integer::sum);
+        }
+        return assigned;
+    }
+
+    /**
+     * Costo estimado de enviar el pedido por la ruta: escalas + retraso con los pesos de la
+     * función de costo (+ horas de viaje como desempate)
+     */
+    private static double estimateRouteCost(PlannerOrder order, Route route) {
+        LocalDateTime arrival = route.getArrivalTime();
+        long deliveryHours = ChronoUnit.HOURS.between(order.getOrderTime(), arrival);
+        return TabuSearchPlannerCostFunction.shipmentPenalty(order, route.getNumberOfStops(), arrival) + deliveryHours;
+    }
+
+    private static LocalDateTime deadlineOf(PlannerOrder order) {
+        return order.getOrderTime().plusHours(order.getMaxDeliveryHours());
+    }
+
+    // ========== PESOS ADAPTATIVOS ==========
+
+    private static int rouletteSelect(RunContext ctx, double[] weights) {
+        double total = 0;
+        for (double w : weights) total += w;
+        double pick = ctx.random.nextDouble() * total;
+        for (int i = 0; i < weights.length; i++) {
+            pick -= weights[i];
+            if (pick <= 0) return i;
+        }
+        return weights.length - 1;
+    }
+
+    private void updateWeights(double[] weights, double[] scores, int[] uses) {
+        double reaction = config.getReactionFactor();
+        for (int i = 0; i < weights.length; i++) {
+            if (uses[i] > 0) {
+                weights[i] = Math.max(0.05, weights[i] * (1 - reaction) + reaction * scores[i] / uses[i]);
+            }
+            scores[i] = 0;
+            uses[i] = 0;
+        }
+    }
+
+    private static String describeWeights(Enum<?>[] operators, double[] weights) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < operators.length; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(String.format("%s=%.2f", operators[i], weights[i]));
+        }
+        return sb.toString();
+    }
+
+    // ========== UTILIDADES ==========
+
+    private static double cost(TabuSolution solution, List<PlannerFlight> flights, List<PlannerAirport> airports) {
+        return TabuSearchPlannerCostFunction.calculateCost(solution, flights, airports, 0, 1);
+    }
+
+    private static void emitSnapshot(RunContext ctx, TabuSolution best, int iteration, double bestCost, boolean force) {
+        if (ctx.listener == null) return;
+        long now = System.currentTimeMillis();
+        if (!force && now - ctx.lastSnapshotTime < ctx.snapshotMs) return;
+        ctx.lastSnapshotTime = now;
+        ctx.snapshotCounter++;
+        try {
+            ctx.listener.onSnapshot(new TabuSolution(best), iteration, bestCost, ctx.snapshotCounter, Instant.ofEpochMilli(now));
+        } catch (Exception ex) {
+            System.out.println("[ALNS] Warning: listener threw exception: " + ex.getMessage());
+        }
+    }
+
+    private static double distanceKm(PlannerAirport a, PlannerAirport b) {
+        return AirportPairTable.current().pair(a, b).getDistanceKm();
+    }
+
+    public int getTotalIterations() {
+        RunContext run = lastRun;
+        return run != null ? run.totalIterations : 0;
+    }
+
+    /**
+     * Semilla de la siguiente ejecución: la primera usa la semilla del constructor (reproducible)
+     */
+    private long nextRunSeed() {
+        return randomSeed + runCount.getAndIncrement() * 0x9E3779B97F4A7C15L;
+    }
+
+    /**
+     * Estado de una ejecución de optimize(): aleatorio, ids de shipments, pesos adaptativos,
+     * contadores y snapshots, más las rutas candidatas (internadas) por pedido, sin considerar
+     * capacidad. Los vuelos no cambian durante la búsqueda, así que las rutas se calculan una
+     * sola vez por pedido. El listener se fija al inicio de la ejecución.
+     */
+    private static final class RunContext {
+        private final Random random;
+        private final TabuSearchListener listener;
+        private final long snapshotMs;
+        private final List<PlannerFlight> flights;
+        private final Map<PlannerFlight, Integer> fullCapacity = new HashMap<>();
+        private final Map<PlannerOrder, List<Route>> routesByOrder = new IdentityHashMap<>();
+        private final double[] destroyWeights = new double[DestroyOperator.values().length];
+        private final double[] repairWeights = new double[RepairOperator.values().length];
+
+        private int nextShipmentId = 1;
+        private int totalIterations = 0;
+        private int improvementIterations = 0;
+        private long lastSnapshotTime = 0;
+        private long snapshotCounter = 0;
+
+        RunContext(long seed, TabuSearchListener listener, long snapshotMs, List<PlannerFlight> flights) {
+            this.random = new Random(seed);
+            this.listener = listener;
+            this.snapshotMs = snapshotMs;
+            Arrays.fill(destroyWeights, 1.0);
+            Arrays.fill(repairWeights, 1.0);
+            this.flights = flights;
+            for (PlannerFlight flight : flights) {
+                fullCapacity.put(flight, flight.getCapacity());
+            }
+        }
+
+        List<Route> routesFor(PlannerOrder order) {
+            return routesByOrder.computeIfAbsent(order, o -> {
+                List<Route> routes = new ArrayList<>();
+                for (RouteOption option : RouteFinder.findDirectRoutes(o, flights, fullCapacity)) {
+                    routes.add(Route.of(option.getFlights()));
+                }
+                for (RouteOption option : RouteFinder.findConnectionRoutes(o, flights, fullCapacity)) {
+                    if (routes.size() >= MAX_CANDIDATE_ROUTES) break;
+                    routes.add(Route.of(option.getFlights()));
+                }
+                return routes;
+            });
+        }
+    }
+
+    /**
+     * Capacidad libre de vuelos y de almacenes de escala, derivada de la solución a reparar.
+     */
+    private static final class CapacityLedger {
+        private final Map<PlannerFlight, Integer> flightRemaining = new HashMap<>();
+        private final Map<PlannerAirport, Integer> storageRemaining = new HashMap<>();
+
+        CapacityLedger(TabuSolution solution) {
+            for (PlannerShipment shipment : solution.getPlannerShipments()) {
+                reserve(shipment.getRoute(), shipment.getQuantity());
+            }
+        }
+
+        int available(Route route) {
+            int available = Integer.MAX_VALUE;
+            for (int i = 0; i < route.size(); i++) {
+                PlannerFlight flight = route.getFlight(i);
+                available = Math.min(available, flightRemaining.computeIfAbsent(flight, PlannerFlight::getCapacity));
+                if (i < route.size() - 1) {
+                    PlannerAirport stopover = flight.getDestination();
+                    available = Math.min(available,
+                        storageRemaining.computeIfAbsent(stopover, PlannerAirport::getStorageCapacity));
+                }
+            }
+            return Math.max(0, available);
+        }
+
+        void reserve(Route route, int quantity) {
+            for (int i = 0; i < route.size(); i++) {
+                PlannerFlight flight = route.getFlight(i);
+                flightRemaining.merge(flight, flight.getCapacity() - quantity, (old, ignored) -> old - quantity);
+                if (i < route.size() - 1) {
+                    PlannerAirport stopover = flight.getDestination();
+                    storageRemaining.merge(stopover, stopover.getStorageCapacity() - quantity, (old, ignored) -> old - quantity);
+                }
+            }
+        }
+    }
+}
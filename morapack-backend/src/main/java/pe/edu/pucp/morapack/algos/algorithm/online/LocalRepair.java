@@ -0,0 +1,495 @@
+package pe.edu.pucp.morapack.algos.algorithm.online;
+
+import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSearchPlannerCostFunction;
+import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSolution;
+import pe.edu.pucp.morapack.algos.entities.PlannerAirport;
+import pe.edu.pucp.morapack.algos.entities.PlannerFlight;
+import pe.edu.pucp.morapack.algos.entities.PlannerOrder;
+import pe.edu.pucp.morapack.algos.entities.PlannerShipment;
+import pe.edu.pucp.morapack.algos.entities.Route;
+import pe.edu.pucp.morapack.algos.utils.CapacityReservations;
+import pe.edu.pucp.morapack.algos.utils.RouteFinder;
+import pe.edu.pucp.morapack.algos.utils.RouteOption;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Reparación local de shipments que usan un vuelo cancelado, sin re-optimizar todo el plan.
+ *
+ * La carga de cada shipment obsoleto sigue en su posición actual: el origen del primer vuelo
+ * de su ruta que aún no salió (a lo sumo el cancelado), disponible al llegar el tramo previo
+ * (o desde ya, si no hubo tramo). El tramo previo, ya volado o en vuelo, se conserva y se
+ * busca un tramo nuevo desde esa escala hasta el destino
+ * (directo o por un hub), respetando la conexión mínima y la capacidad que deja el resto del
+ * plan en una CapacityReservations.
+ *
+ * 1. Greedy: las partes se reparan en orden de holgura (plazo menos ahora), cada una en el
+ *    tramo de menor penalización (retraso y escalas, pesos de TabuSearchPlannerCostFunction).
+ * 2. Búsqueda local acotada: para una parte que quedó tarde, si otra parte reparada ocupa un
+ *    tramo que la dejaría a tiempo y tiene una alternativa a tiempo con capacidad, se mueve
+ *    esa otra parte y la tardía toma el lugar liberado. Hasta maxMoves movimientos.
+ *
+ * improve() usa los mismos candidatos y pesos para la mejora continua entre ticks: mueve
+ * shipments que aún no salen a rutas de menor penalización mientras quede tiempo.
+ */
+public class LocalRepair {
+    public static final int DEFAULT_MAX_MOVES = 50;
+
+    private final List<PlannerFlight> flights;
+    private final List<PlannerAirport> airports;
+    private final int maxMoves;
+
+    public LocalRepair(List<PlannerFlight> flights, List<PlannerAirport> airports) {
+        this(flights, airports, DEFAULT_MAX_MOVES);
+    }
+
+    /**
+     * @param flights vuelos disponibles (sin los cancelados)
+     */
+    public LocalRepair(List<PlannerFlight> flights, List<PlannerAirport> airports, int maxMoves) {
+        this.flights = flights;
+        this.airports = airports;
+        this.maxMoves = maxMoves;
+    }
+
+    /**
+     * Repara sobre un solo plan: sus shipments activos no obsoletos ocupan capacidad
+     */
+    public RepairResult repair(TabuSolution solution, Collection<PlannerShipment> obsolete,
+                               Collection<PlannerFlight> cancelled, LocalDateTime now) {
+        return repair(solution.getPlannerShipments(), obsolete, cancelled, now);
+    }
+
+    /**
+     * @param committed shipments vigentes, de todos los planes (los activos no obsoletos ocupan capacidad)
+     * @param obsolete  shipments que usan algún vuelo cancelado
+     * @param cancelled vuelos cancelados
+     * @param now       tiempo actual de la simulación
+     */
+    public RepairResult repair(Collection<PlannerShipment> committed, Collection<PlannerShipment> obsolete,
+                               Collection<PlannerFlight> cancelled, LocalDateTime now) {
+        long start = System.nanoTime();
+
+        Set<PlannerShipment> obsoleteSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        obsoleteSet.addAll(obsolete);
+
+        CapacityReservations ledger = new CapacityReservations(flights, airports);
+        int nextId = 1;
+        for (PlannerShipment shipment : committed) {
+            nextId = Math.max(nextId, shipment.getId() + 1);
+            if (shipment.isActive() && !obsoleteSet.contains(shipment)) {
+                ledger.consume(shipment.getRoute(), shipment.getQuantity());
+            }
+        }
+
+        // Partes a reparar: el tramo ya recorrido (o en vuelo) sigue ocupando su capacidad
+        List<Part> parts = new ArrayList<>();
+        for (PlannerShipment shipment : obsolete) {
+            Part part = Part.of(shipment, cancelled, now);
+            if (part == null) continue;
+            ledger.consume(Route.of(part.prefix), part.quantity);
+            parts.add(part);
+        }
+        parts.sort(Comparator.comparing((Part p) -> p.deadline()).thenComparing(p -> p.ready));
+
+        // 1. Greedy por holgura
+        List<Piece> pieces = new ArrayList<>();
+        int unassigned = 0;
+        for (Part part : parts) {
+            int remaining = part.quantity;
+            for (Candidate candidate : candidates(part, ledger)) {
+                if (remaining <= 0) break;
+                int quantity = Math.min(remaining, ledger.available(candidate.suffix));
+                if (quantity <= 0 || !ledger.tryReserve(candidate.suffix, quantity)) continue;
+                pieces.add(new Piece(part, candidate, quantity));
+                remaining -= quantity;
+            }
+            unassigned += remaining;
+        }
+
+        // 2. Búsqueda local: liberar tramos a tiempo para las piezas tardías
+        int moves = 0;
+        boolean improved = true;
+        while (improved && moves < maxMoves) {
+            improved = false;
+            for (Piece late : new ArrayList<>(pieces)) {
+                if (moves >= maxMoves) break;
+                if (!late.candidate.late || !pieces.contains(late)) continue;
+                if (relocateBlocker(late, pieces, ledger)) {
+                    moves++;
+                    improved = true;
+                }
+            }
+        }
+
+        // Shipments nuevos: tramo conservado + tramo reparado
+        List<PlannerShipment> shipments = new ArrayList<>();
+        Map<PlannerShipment, PlannerShipment> replaced = new IdentityHashMap<>();
+        Map<Integer, Integer> reassigned = new HashMap<>();
+        pieces.sort(Comparator.comparing((Piece p) -> p.part.order.getId()).thenComparing(p -> p.candidate.arrival));
+        for (Piece piece : pieces) {
+            List<PlannerFlight> route = new ArrayList<>(piece.part.prefix);
+            route.addAll(piece.candidate.suffix.getFlights());
+            PlannerShipment shipment = new PlannerShipment(nextId++, piece.part.order, Route.of(route), piece.quantity);
+            shipments.add(shipment);
+            replaced.put(shipment, piece.part.source);
+            reassigned.merge(piece.part.order.getId(), piece.quantity, Integer::sum);
+        }
+
+        long elapsedMicros = (System.nanoTime() - start) / 1000;
+        return new RepairResult(shipments, replaced, reassigned, unassigned, moves, elapsedMicros);
+    }
+
+    /**
+     * Mejora un solo plan: sus shipments activos son toda la capacidad ocupada
+     */
+    public ImprovementResult improve(TabuSolution solution, LocalDateTime now, long deadlineNanos,
+                                     BooleanSupplier stop) {
+        return improve(solution.getPlannerShipments(), now, deadlineNanos, stop);
+    }
+
+    /**
+     * Mejora los shipments vigentes hasta 'deadlineNanos' (System.nanoTime) o hasta que 'stop' lo pida.
+     *
+     * Todos los activos ocupan capacidad; solo se toca la parte mutable: los cuyo primer vuelo
+     * sale después de 'now'.
+     * Por pasadas, empezando por los de mayor penalización, cada uno se cambia a la ruta desde
+     * el origen de su pedido de menor penalización (o igual penalización y llegada anterior)
+     * con capacidad para toda su carga; se repite hasta que una pasada no mejore nada.
+     * No modifica los shipments: devuelve la ruta nueva de cada shipment movido.
+     *
+     * @param committed shipments vigentes, de todos los planes
+     */
+    public ImprovementResult improve(Collection<PlannerShipment> committed, LocalDateTime now, long deadlineNanos,
+                                     BooleanSupplier stop) {
+        long start = System.nanoTime();
+
+        CapacityReservations ledger = new CapacityReservations(flights, airports);
+        List<Piece> pieces = new ArrayList<>();
+        for (PlannerShipment shipment : committed) {
+            if (!shipment.isActive()) continue;
+            ledger.consume(shipment.getRoute(), shipment.getQuantity());
+            Part part = Part.unstarted(shipment, now);
+            if (part != null) {
+                pieces.add(new Piece(part, new Candidate(part, shipment.getRoute()), part.quantity));
+            }
+        }
+        pieces.sort(Comparator.comparingDouble((Piece p) -> -p.candidate.penalty));
+        double penaltyBefore = pieces.stream().mapToDouble(p -> p.candidate.penalty).sum();
+
+        int moves = 0;
+        int passes = 0;
+        boolean converged = false;
+        search:
+        while (true) {
+            passes++;
+            boolean improved = false;
+            for (int i = 0; i < pieces.size(); i++) {
+                if (System.nanoTime() >= deadlineNanos || stop.getAsBoolean()) break search;
+
+                Piece piece = pieces.get(i);
+                ledger.release(piece.candidate.suffix, piece.quantity);
+                Candidate better = null;
+                for (Candidate candidate : candidates(piece.part, ledger)) {
+                    if (!isBetter(candidate, piece.candidate)) break;  // Ordenados: los siguientes no mejoran
+                    if (!candidate.suffix.getDepartureTime().isAfter(now)) continue;
+                    if (ledger.available(candidate.suffix) < piece.quantity) continue;
+                    if (ledger.tryReserve(candidate.suffix, piece.quantity)) {
+                        better = candidate;
+                        break;
+                    }
+                }
+                if (better == null) {
+                    ledger.consume(piece.candidate.suffix, piece.quantity);
+                    continue;
+                }
+                pieces.set(i, new Piece(piece.part, better, piece.quantity));
+                moves++;
+                improved = true;
+            }
+            if (!improved) {
+                converged = true;
+                break;
+            }
+        }
+
+        Map<PlannerShipment, Route> reroutes = new IdentityHashMap<>();
+        for (Piece piece : pieces) {
+            if (!piece.candidate.suffix.sameFlightsAs(piece.part.source.getRoute())) {
+                reroutes.put(piece.part.source, piece.candidate.suffix);
+            }
+        }
+        double penaltyAfter = pieces.stream().mapToDouble(p -> p.candidate.penalty).sum();
+
+        long elapsedMicros = (System.nanoTime() - start) / 1000;
+        return new ImprovementResult(reroutes, pieces.size(), moves, passes, converged,
+            penaltyBefore, penaltyAfter, elapsedMicros);
+    }
+
+    private static boolean isBetter(Candidate candidate, Candidate current) {
+        if (candidate.penalty != current.penalty) return candidate.penalty < current.penalty;
+        return candidate.arrival.isBefore(current.arrival);
+    }
+
+    /**
+     * Mueve una pieza que ocupa un tramo útil para 'late' a otra alternativa a tiempo
+     */
+    private boolean relocateBlocker(Piece late, List<Piece> pieces, CapacityReservations ledger) {
+        ledger.release(late.candidate.suffix, late.quantity);
+        List<Candidate> lateOptions = candidates(late.part, ledger, true);
+
+        for (Candidate target : lateOptions) {
+            if (target.late) break;  // Ordenados por penalización: los siguientes también son tardíos
+
+            // ¿Alcanza ya sin mover a nadie? (capacidad liberada por otro movimiento)
+            if (ledger.available(target.suffix) >= late.quantity) {
+                replace(late, target, pieces, ledger);
+                return true;
+            }
+
+            for (Piece blocker : pieces) {
+                if (blocker == late || !blocker.candidate.suffix.sameFlightsAs(target.suffix)) continue;
+                if (blocker.quantity < late.quantity - ledger.available(target.suffix)) continue;
+
+                ledger.release(blocker.candidate.suffix, blocker.quantity);
+                for (Candidate alternative : candidates(blocker.part, ledger)) {
+                    if (alternative.late) break;
+                    if (alternative.suffix.sameFlightsAs(blocker.candidate.suffix)) continue;
+                    if (ledger.available(alternative.suffix) < blocker.quantity) continue;
+                    if (!ledger.tryReserve(alternative.suffix, blocker.quantity)) continue;
+                    if (ledger.available(target.suffix) < late.quantity) {
+                        ledger.release(alternative.suffix, blocker.quantity);
+                        continue;
+                    }
+                    pieces.set(pieces.indexOf(blocker), new Piece(blocker.part, alternative, blocker.quantity));
+                    replace(late, target, pieces, ledger);
+                    return true;
+                }
+                ledger.tryReserve(blocker.candidate.suffix, blocker.quantity);
+            }
+        }
+
+        ledger.tryReserve(late.candidate.suffix, late.quantity);
+        return false;
+    }
+
+    private static void replace(Piece late, Candidate target, List<Piece> pieces, CapacityReservations ledger) {
+        ledger.tryReserve(target.suffix, late.quantity);
+        pieces.set(pieces.indexOf(late), new Piece(late.part, target, late.quantity));
+    }
+
+    private List<Candidate> candidates(Part part, CapacityReservations ledger) {
+        return candidates(part, ledger, false);
+    }
+
+    /**
+     * Tramos desde la posición de la carga hasta el destino, por penalización y llegada
+     *
+     * @param includeFull incluir tramos sin capacidad libre (para buscar quién los ocupa)
+     */
+    private List<Candidate> candidates(Part part, CapacityReservations ledger, boolean includeFull) {
+        // Pedido auxiliar para RouteFinder: sale de la escala actual cuando la carga está lista
+        PlannerOrder leg = new PlannerOrder(part.order.getId(), part.quantity, part.from, part.order.getDestination());
+        leg.setOrderTime(part.ready);
+
+        List<RouteOption> options = new ArrayList<>();
+        java.util.function.ToIntFunction<PlannerFlight> capacity = includeFull ? f -> 1 : ledger::remaining;
+        options.addAll(RouteFinder.findDirectRoutes(leg, flights, capacity));
+        options.addAll(RouteFinder.findConnectionRoutes(leg, flights, capacity));
+
+        List<Candidate> candidates = new ArrayList<>();
+        for (RouteOption option : options) {
+            List<PlannerFlight> suffix = option.getFlights();
+            if (!part.prefix.isEmpty()
+                    && !RouteFinder.isValidConnection(part.prefix.get(part.prefix.size() - 1), suffix.get(0))) {
+                continue;
+            }
+            Route route = Route.of(suffix);
+            if (!includeFull && ledger.available(route) <= 0) continue;
+            candidates.add(new Candidate(part, route));
+        }
+        candidates.sort(Comparator.comparingDouble((Candidate c) -> c.penalty).thenComparing(c -> c.arrival));
+        return candidates;
+    }
+
+    /**
+     * Carga de un shipment obsoleto: dónde está, desde cuándo puede salir y qué tramo conserva.
+     * Solo se conservan los vuelos que ya salieron (salida <= now) antes del cancelado; los que
+     * aún no salen se replanifican junto con el resto de la ruta.
+     */
+    private static final class Part {
+        private final PlannerShipment source;
+        private final PlannerOrder order;
+        private final List<PlannerFlight> prefix;
+        private final PlannerAirport from;
+        private final LocalDateTime ready;
+        private final int quantity;
+
+        private Part(PlannerShipment source, List<PlannerFlight> prefix, PlannerAirport from,
+                     LocalDateTime ready, int quantity) {
+            this.source = source;
+            this.order = source.getOrder();
+            this.prefix = prefix;
+            this.from = from;
+            this.ready = ready;
+            this.quantity = quantity;
+        }
+
+        static Part of(PlannerShipment shipment, Collection<PlannerFlight> cancelled, LocalDateTime now) {
+            if (shipment.getOrder() == null || shipment.getQuantity() <= 0) return null;
+            List<PlannerFlight> route = shipment.getFlights();
+            int cut = -1;
+            for (int i = 0; i < route.size(); i++) {
+                if (cancelled.contains(route.get(i))) {
+                    cut = i;
+                    break;
+                }
+            }
+            if (cut < 0) return null;
+
+            int kept = 0;
+            while (kept < cut && !route.get(kept).getDepartureTime().isAfter(now)) {
+                kept++;
+            }
+            List<PlannerFlight> prefix = List.copyOf(route.subList(0, kept));
+            PlannerAirport from = route.get(kept).getOrigin();
+            LocalDateTime ready = prefix.isEmpty()
+                ? shipment.getOrder().getOrderTime()
+                : prefix.get(prefix.size() - 1).getArrivalTime();
+            if (ready == null || ready.isBefore(now)) ready = now;
+            return new Part(shipment, prefix, from, ready, shipment.getQuantity());
+        }
+
+        /**
+         * Carga de un shipment que aún no sale: sigue en el origen del pedido, lista desde ahora
+         */
+        static Part unstarted(PlannerShipment shipment, LocalDateTime now) {
+            if (shipment.getOrder() == null || shipment.getQuantity() <= 0) return null;
+            if (shipment.getRoute().isEmpty() || !shipment.getRoute().getDepartureTime().isAfter(now)) return null;
+
+            LocalDateTime ready = shipment.getOrder().getOrderTime();
+            if (ready == null || ready.isBefore(now)) ready = now;
+            return new Part(shipment, List.of(), shipment.getOrder().getOrigin(), ready, shipment.getQuantity());
+        }
+
+        LocalDateTime deadline() {
+            return order.getOrderTime().plusHours(order.getMaxDeliveryHours());
+        }
+    }
+
+    private static final class Candidate {
+        private final Route suffix;
+        private final LocalDateTime arrival;
+        private final double penalty;
+        private final boolean late;
+
+        private Candidate(Part part, Route suffix) {
+            this.suffix = suffix;
+            this.arrival = suffix.getArrivalTime();
+            double delay = TabuSearchPlannerCostFunction.delayPenalty(part.order, arrival);
+            this.late = delay > 0;
+            this.penalty = TabuSearchPlannerCostFunction.stopoverPenalty(part.prefix.size() + suffix.size() - 1) + delay;
+        }
+    }
+
+    private static final class Piece {
+        private final Part part;
+        private final Candidate candidate;
+        private final int quantity;
+
+        private Piece(Part part, Candidate candidate, int quantity) {
+            this.part = part;
+            this.candidate = candidate;
+            this.quantity = quantity;
+        }
+    }
+
+    /**
+     * Resultado de la reparación: shipments de reemplazo y productos reasignados por pedido
+     */
+    public static class RepairResult {
+        private final List<PlannerShipment> shipments;
+        private final Map<PlannerShipment, PlannerShipment> replaced;
+        private final Map<Integer, Integer> reassignedPerOrder;
+        private final int unassignedQuantity;
+        private final int moves;
+        private final long elapsedMicros;
+
+        public RepairResult(List<PlannerShipment> shipments, Map<PlannerShipment, PlannerShipment> replaced,
+                            Map<Integer, Integer> reassignedPerOrder, int unassignedQuantity, int moves,
+                            long elapsedMicros) {
+            this.shipments = List.copyOf(shipments);
+            this.replaced = replaced;
+            this.reassignedPerOrder = Map.copyOf(reassignedPerOrder);
+            this.unassignedQuantity = unassignedQuantity;
+            this.moves = moves;
+            this.elapsedMicros = elapsedMicros;
+        }
+
+        public List<PlannerShipment> getShipments() { return shipments; }
+        public Map<Integer, Integer> getReassignedPerOrder() { return reassignedPerOrder; }
+
+        /**
+         * Shipment obsoleto al que reemplaza un shipment nuevo de la reparación
+         */
+        public PlannerShipment getReplacedShipment(PlannerShipment shipment) {
+            return replaced.get(shipment);
+        }
+        public int getUnassignedQuantity() { return unassignedQuantity; }
+        public int getMoves() { return moves; }
+        public long getElapsedMicros() { return elapsedMicros; }
+    }
+
+    /**
+     * Resultado de la mejora continua: ruta nueva por shipment movido (no aplicada aún)
+     */
+    public static class ImprovementResult {
+        private final Map<PlannerShipment, Route> reroutes;
+        private final int mutableShipments;
+        private final int moves;
+        private final int passes;
+        private final boolean converged;
+        private final double penaltyBefore;
+        private final double penaltyAfter;
+        private final long elapsedMicros;
+
+        public ImprovementResult(Map<PlannerShipment, Route> reroutes, int mutableShipments, int moves,
+                                 int passes, boolean converged, double penaltyBefore, double penaltyAfter,
+                                 long elapsedMicros) {
+            this.reroutes = reroutes;
+            this.mutableShipments = mutableShipments;
+            this.moves = moves;
+            this.passes = passes;
+            this.converged = converged;
+            this.penaltyBefore = penaltyBefore;
+            this.penaltyAfter = penaltyAfter;
+            this.elapsedMicros = elapsedMicros;
+        }
+
+        /**
+         * Shipment del plan (por identidad) -> su ruta mejorada
+         */
+        public Map<PlannerShipment, Route> getReroutes() { return reroutes; }
+        public int getMutableShipments() { return mutableShipments; }
+        public int getMoves() { return moves; }
+        public int getPasses() { return passes; }
+
+        /**
+         * true si terminó porque una pasada no mejoró nada (no por plazo ni por parada)
+         */
+        public boolean isConverged() { return converged; }
+        public double getPenaltyBefore() { return penaltyBefore; }
+        public double getPenaltyAfter() { return penaltyAfter; }
+        public long getElapsedMicros() { return elapsedMicros; }
+    }
+}
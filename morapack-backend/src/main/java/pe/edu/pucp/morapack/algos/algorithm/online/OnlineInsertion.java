@@ -0,0 +1,173 @@
+package pe.edu.pucp.morapack.algos.algorithm.online;
+
+import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSearchPlannerCostFunction;
+import pe.edu.pucp.morapack.algos.entities.PlannerAirport;
+import pe.edu.pucp.morapack.algos.entities.PlannerFlight;
+import pe.edu.pucp.morapack.algos.entities.PlannerOrder;
+import pe.edu.pucp.morapack.algos.entities.PlannerShipment;
+import pe.edu.pucp.morapack.algos.entities.Route;
+import pe.edu.pucp.morapack.algos.utils.CapacityReservations;
+import pe.edu.pucp.morapack.algos.utils.RouteFinder;
+import pe.edu.pucp.morapack.algos.utils.RouteOption;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+/**
+ * Inserción en línea de un pedido urgente sobre el plan vigente, sin re-optimizar.
+ *
+ * El plan comprometido se descuenta de una CapacityReservations (vuelos y almacenes de escala) y
+ * el pedido se reparte sobre las rutas candidatas (directas y por hubs, las mismas de
+ * RouteFinder) en orden de costo marginal: retraso y escalas con los pesos de
+ * TabuSearchPlannerCostFunction, luego llegada más temprana. Como mejora local, si el reparto
+ * quedó en varias partes y una sola ruta puede llevar todo el pedido con costo no mayor, se usa
+ * esa ruta.
+ *
+ * El resultado es provisional: la siguiente optimización completa incluye el pedido como uno
+ * más y puede reasignarlo.
+ */
+public class OnlineInsertion {
+    private final List<PlannerFlight> flights;
+    private final List<PlannerAirport> airports;
+
+    public OnlineInsertion(List<PlannerFlight> flights, List<PlannerAirport> airports) {
+        this.flights = flights;
+        this.airports = airports;
+    }
+
+    /**
+     * @param committed   shipments ya planificados (ocupan capacidad)
+     * @param shipmentIds fuente de ids para los shipments nuevos
+     */
+    public InsertionResult insert(PlannerOrder order, Collection<PlannerShipment> committed, IntSupplier shipmentIds) {
+        long start = System.nanoTime();
+
+        CapacityReservations ledger = new CapacityReservations(flights, airports);
+        for (PlannerShipment shipment : committed) {
+            if (shipment.isActive()) ledger.consume(shipment.getRoute(), shipment.getQuantity());
+        }
+
+        List<Candidate> candidates = new ArrayList<>();
+        for (RouteOption option : RouteFinder.findDirectRoutes(order, flights, ledger::remaining)) {
+            candidates.add(new Candidate(order, Route.of(option.getFlights()), option.getCost()));
+        }
+        for (RouteOption option : RouteFinder.findConnectionRoutes(order, flights, ledger::remaining)) {
+            candidates.add(new Candidate(order, Route.of(option.getFlights()), option.getCost()));
+        }
+        candidates.sort(Comparator.comparingDouble((Candidate c) -> c.penalty)
+            .thenComparing(c -> c.route.getArrivalTime())
+            .thenComparingDouble(c -> c.routeCost));
+
+        // Reparto greedy por costo marginal
+        List<Part> parts = new ArrayList<>();
+        int remaining = order.getTotalQuantity();
+        double greedyPenalty = 0;
+        for (Candidate candidate : candidates) {
+            if (remaining <= 0) break;
+            int quantity = Math.min(remaining, ledger.available(candidate.route));
+            if (quantity <= 0 || !ledger.tryReserve(candidate.route, quantity)) continue;
+            parts.add(new Part(candidate, quantity));
+            greedyPenalty += candidate.penalty;
+            remaining -= quantity;
+        }
+
+        // Mejora local: una sola ruta para todo el pedido si no cuesta más que las partes
+        if (remaining == 0 && parts.size() > 1) {
+            for (Part part : parts) ledger.release(part.candidate.route, part.quantity);
+            Candidate single = null;
+            for (Candidate candidate : candidates) {
+                if (candidate.penalty > greedyPenalty) break;
+                if (ledger.available(candidate.route) >= order.getTotalQuantity()) {
+                    single = candidate;
+                    break;
+                }
+            }
+            if (single != null) {
+                parts = List.of(new Part(single, order.getTotalQuantity()));
+            }
+        }
+
+        List<PlannerShipment> shipments = new ArrayList<>();
+        LocalDateTime eta = null;
+        int assigned = 0;
+        for (Part part : parts) {
+            shipments.add(new PlannerShipment(shipmentIds.getAsInt(), order, part.candidate.route, part.quantity));
+            assigned += part.quantity;
+            LocalDateTime arrival = part.candidate.route.getArrivalTime();
+            if (eta == null || arrival.isAfter(eta)) eta = arrival;
+        }
+
+        long elapsedMicros = (System.nanoTime() - start) / 1000;
+        return new InsertionResult(order, shipments, assigned, eta, candidates.size(), elapsedMicros);
+    }
+
+    private static final class Candidate {
+        private final Route route;
+        private final double penalty;
+        private final double routeCost;
+
+        private Candidate(PlannerOrder order, Route route, double routeCost) {
+            this.route = route;
+            this.routeCost = routeCost;
+            this.penalty = TabuSearchPlannerCostFunction.shipmentPenalty(order, route.getNumberOfStops(),
+                route.getArrivalTime());
+        }
+    }
+
+    private static final class Part {
+        private final Candidate candidate;
+        private final int quantity;
+
+        private Part(Candidate candidate, int quantity) {
+            this.candidate = candidate;
+            this.quantity = quantity;
+        }
+    }
+
+    /**
+     * Resultado de una inserción: shipments provisionales y ETA (llegada de la última parte)
+     */
+    public static class InsertionResult {
+        private final PlannerOrder order;
+        private final List<PlannerShipment> shipments;
+        private final int assignedQuantity;
+        private final LocalDateTime eta;
+        private final int candidatesEvaluated;
+        private final long elapsedMicros;
+
+        public InsertionResult(PlannerOrder order, List<PlannerShipment> shipments, int assignedQuantity,
+                               LocalDateTime eta, int candidatesEvaluated, long elapsedMicros) {
+            this.order = order;
+            this.shipments = List.copyOf(shipments);
+            this.assignedQuantity = assignedQuantity;
+            this.eta = eta;
+            this.candidatesEvaluated = candidatesEvaluated;
+            this.elapsedMicros = elapsedMicros;
+        }
+
+        public PlannerOrder getOrder() { return order; }
+        public List<PlannerShipment> getShipments() { return shipments; }
+        public int getAssignedQuantity() { return assignedQuantity; }
+        public int getUnassignedQuantity() { return order.getTotalQuantity() - assignedQuantity; }
+        public LocalDateTime getEta() { return eta; }
+        public int getCandidatesEvaluated() { return candidatesEvaluated; }
+        public long getElapsedMicros() { return elapsedMicros; }
+
+        public boolean isFullyAssigned() {
+            return assignedQuantity >= order.getTotalQuantity();
+        }
+
+        /**
+         * Todo el pedido asignado y la última parte llega dentro del plazo
+         */
+        public boolean isOnTime() {
+            return isFullyAssigned()
+                && ChronoUnit.HOURS.between(order.getOrderTime(), eta) <= order.getMaxDeliveryHours();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package pe.edu.pucp.morapack.algos.algorithm.portfolio;
+
+import pe.edu.pucp.morapack.algos.scheduler.ScenarioConfig;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Historial de carreras del portafolio: cuántas veces ganó cada algoritmo por
+ * tipo de escenario (DAILY/WEEKLY/COLLAPSE) y tamaño de instancia.
+ *
+ * Se comparte en memoria entre sesiones (ver shared()) para que las siguientes
+ * ejecuciones puedan elegir un algoritmo por defecto según el escenario. Con persistTo()
+ * además se guarda en un archivo (una línea "ESCENARIO/TAMAÑO,algoritmo,victorias")
+ * y sobrevive a reinicios.
+ */
+public class PortfolioHistory {
+
+    /**
+     * Tamaño de instancia según número de pedidos a planificar
+     */
+    public enum SizeBucket {
+        SMALL,   // < 50 pedidos
+        MEDIUM,  // < 200 pedidos
+        LARGE,   // < 1000 pedidos
+        HUGE;    // >= 1000 pedidos
+
+        public static SizeBucket of(int orderCount) {
+            if (orderCount < 50) return SMALL;
+            if (orderCount < 200) return MEDIUM;
+            if (orderCount < 1000) return LARGE;
+            return HUGE;
+        }
+    }
+
+    private static final PortfolioHistory SHARED = new PortfolioHistory();
+
+    // "SCENARIO/BUCKET" -> (algoritmo -> victorias)
+    private final Map<String, Map<String, Integer>> wins = new HashMap<>();
+    private Path file = null;
+
+    public static PortfolioHistory shared() {
+        return SHARED;
+    }
+
+    public synchronized void recordWin(ScenarioConfig.ScenarioType scenarioType, int orderCount, String winner) {
+        wins.computeIfAbsent(key(scenarioType, SizeBucket.of(orderCount)), k -> new LinkedHashMap<>())
+            .merge(winner, 1, Integer::sum);
+        save();
+    }
+
+    /**
+     * Carga el historial guardado en el archivo (sumándolo al que ya hay en memoria) y desde
+     * ahora lo reescribe después de cada victoria. Si el archivo no existe se crea con la
+     * primera victoria.
+     */
+    public synchronized void persistTo(Path file) {
+        this.file = file;
+        if (!Files.exists(file)) return;
+        try {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                String[] parts = line.split(",");
+                if (parts.length != 3) continue;
+                wins.computeIfAbsent(parts[0].trim(), k -> new LinkedHashMap<>())
+                    .merge(parts[1].trim(), Integer.parseInt(parts[2].trim()), Integer::sum);
+            }
+            System.out.println("[PORTFOLIO] Loaded history from " + file);
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("[PORTFOLIO] ⚠️ Could not read history " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reescribe el archivo completo (vía archivo temporal, para no dejarlo a medias)
+     */
+    private void save() {
+        if (file == null) return;
+        List<String> lines = new ArrayList<>();
+        wins.forEach((key, counts) -> counts.forEach((name, n) -> lines.add(key + "," + name + "," + n)));
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.write(tmp, lines, StandardCharsets.UTF_8);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.err.println("[PORTFOLIO] ⚠️ Could not save history " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Algoritmo con más victorias para ese escenario y tamaño (vacío si no hay datos)
+     */
+    public synchronized Optional<String> preferredFor(ScenarioConfig.ScenarioType scenarioType, int orderCount) {
+        return mostWins(wins.get(key(scenarioType, SizeBucket.of(orderCount))));
+    }
+
+    /**
+     * Algoritmo con más victorias para el escenario, sumando todos los tamaños
+     */
+    public synchronized Optional<String> preferredFor(ScenarioConfig.ScenarioType scenarioType) {
+        Map<String, Integer> total = new LinkedHashMap<>();
+        String prefix = String.valueOf(scenarioType) + "/";
+        wins.forEach((key, counts) -> {
+            if (key.startsWith(prefix)) counts.forEach((name, n) -> total.merge(name, n, Integer::sum));
+        });
+        return mostWins(total);
+    }
+
+    public synchronized Map<String, Integer> winsFor(ScenarioConfig.ScenarioType scenarioType, int orderCount) {
+        Map<String, Integer> counts = wins.get(key(scenarioType, SizeBucket.of(orderCount)));
+        return counts == null ? Collections.emptyMap() : new LinkedHashMap<>(counts);
+    }
+
+    private static Optional<String> mostWins(Map<String, Integer> counts) {
+        if (counts == null || counts.isEmpty()) return Optional.empty();
+        return counts.entrySet().stream()
+            .max(Map.Entry.comparingByValue())
+            .map(Map.Entry::getKey);
+    }
+
+    private static String key(ScenarioConfig.ScenarioType scenarioType, SizeBucket bucket) {
+        return scenarioType + "/" + bucket;
+    }
+}
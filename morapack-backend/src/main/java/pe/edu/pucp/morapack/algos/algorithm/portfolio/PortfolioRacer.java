@@ -0,0 +1,325 @@
+package pe.edu.pucp.morapack.algos.algorithm.portfolio;
+
+import pe.edu.pucp.morapack.algos.algorithm.IOptimizer;
+import pe.edu.pucp.morapack.algos.algorithm.ObservableOptimizer;
+import pe.edu.pucp.morapack.algos.algorithm.PlannerExecutors;
+import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSearchListener;
+import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSearchPlannerCostFunction;
+import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSolution;
+import pe.edu.pucp.morapack.algos.entities.PlannerAirport;
+import pe.edu.pucp.morapack.algos.entities.PlannerFlight;
+import pe.edu.pucp.morapack.algos.entities.PlannerOrder;
+import pe.edu.pucp.morapack.algos.entities.Solution;
+import pe.edu.pucp.morapack.algos.scheduler.ScenarioConfig;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Carrera de portafolio: ejecuta varios optimizadores en paralelo sobre la misma instancia
+ * con un presupuesto de tiempo compartido y devuelve la mejor solución.
+ *
+ * FLUJO:
+ * 1. Cada participante corre en su propio carril (hilo de PlannerExecutors.lanes()) y publica
+ *    snapshots (TabuSearchListener). Corren a la vez a lo sumo 'parallelism' carriles: con
+ *    menos cupo que participantes, corren por tandas que se reparten el presupuesto
+ * 2. Pasado el calentamiento, en cada checkpoint se detienen los rezagados: los que van
+ *    más de laggardMargin por encima del líder según su mejor costo publicado
+ * 3. Al vencer el presupuesto se pide parada a todos; quien no termine en el margen de gracia
+ *    se interrumpe y aporta su último snapshot
+ * 4. Los resultados se re-evalúan con TabuSearchPlannerCostFunction y el ganador se registra
+ *    en PortfolioHistory por escenario y tamaño de instancia
+ *
+ * Los participantes se reutilizan entre carreras (una carrera a la vez), igual que un planner normal.
+ * La carrera no retorna hasta que todos sus carriles terminan: un carril detenido libera su hilo
+ * dentro del presupuesto de la ejecución y nunca sigue corriendo en segundo plano.
+ */
+public class PortfolioRacer implements IOptimizer {
+    public static final double DEFAULT_LAGGARD_MARGIN = 0.25;
+    private static final double WARMUP_FRACTION = 0.3;
+    private static final long MIN_CHECKPOINT_MS = 25;
+    private static final long MAX_CHECKPOINT_MS = 250;
+    private static final long MIN_GRACE_MS = 1000;
+    private final ScenarioConfig.ScenarioType scenarioType;
+    private final long timeBudgetMs;
+    private final PortfolioHistory history;
+    private final Map<String, ObservableOptimizer> entrants = new LinkedHashMap<>();
+    private double laggardMargin = DEFAULT_LAGGARD_MARGIN;
+    private int parallelism = 0;
+    private volatile boolean verbose = true;
+
+    // Resultado de la última carrera
+    private String lastWinner = null;
+    private Map<String, Double> lastCosts = Collections.emptyMap();
+
+    public PortfolioRacer(ScenarioConfig.ScenarioType scenarioType, long timeBudgetMs, PortfolioHistory history) {
+        this.scenarioType = scenarioType;
+        this.timeBudgetMs = Math.max(1, timeBudgetMs);
+        this.history = history != null ? history : PortfolioHistory.shared();
+    }
+
+    public PortfolioRacer addEntrant(String name, ObservableOptimizer optimizer) {
+        if (entrants.containsKey(name)) {
+            throw new IllegalArgumentException("Duplicate portfolio entrant: " + name);
+        }
+        optimizer.setVerbose(verbose);
+        entrants.put(name, optimizer);
+        return this;
+    }
+
+    /**
+     * @param laggardMargin fracción sobre el costo del líder a partir de la cual un participante se detiene
+     */
+    public void setLaggardMargin(double laggardMargin) {
+        this.laggardMargin = Math.max(0, laggardMargin);
+    }
+
+    /**
+     * @param parallelism carriles que corren a la vez (0 o negativo = todos los participantes)
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = Math.max(0, parallelism);
+    }
+
+    /**
+     * También se aplica a los participantes
+     */
+    @Override
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+        for (ObservableOptimizer optimizer : entrants.values()) {
+            optimizer.setVerbose(verbose);
+        }
+    }
+
+    private void log(String message) {
+        if (verbose) {
+            System.out.println(message);
+        }
+    }
+
+    @Override
+    public Solution optimize(List<PlannerOrder> orders, List<PlannerFlight> flights, List<PlannerAirport> airports) {
+        if (orders == null || orders.isEmpty()) return new TabuSolution();
+        if (entrants.isEmpty()) throw new IllegalStateException("Portfolio has no entrants");
+
+        List<Map.Entry<String, ObservableOptimizer>> field = new ArrayList<>(entrants.entrySet());
+        long start = System.currentTimeMillis();
+        long deadline = start + timeBudgetMs;
+        long checkpointMs = Math.min(MAX_CHECKPOINT_MS, Math.max(MIN_CHECKPOINT_MS, timeBudgetMs / 20));
+        int lanesAtOnce = parallelism > 0 ? Math.min(parallelism, field.size()) : field.size();
+        int waves = (field.size() + lanesAtOnce - 1) / lanesAtOnce;
+
+        log("\n[PORTFOLIO] Racing " + field.stream().map(Map.Entry::getKey).toList() + " for " + timeBudgetMs + " ms ("
+            + scenarioType + ", " + orders.size() + " orders, size " + PortfolioHistory.SizeBucket.of(orders.size()) + ")");
+        history.preferredFor(scenarioType, orders.size())
+            .ifPresent(name -> log("[PORTFOLIO] Historical winner for this scenario/size: " + name));
+
+        List<Lane> lanes = new ArrayList<>();
+        try {
+            for (int wave = 0; wave < waves; wave++) {
+                // Cada tanda recibe su parte de lo que queda del presupuesto
+                long waveStart = System.currentTimeMillis();
+                long waveDeadline = waveStart + Math.max(1, (deadline - waveStart) / (waves - wave));
+                long warmupEnd = waveStart + (long) ((waveDeadline - waveStart) * WARMUP_FRACTION);
+
+                List<Lane> running = new ArrayList<>();
+                for (Map.Entry<String, ObservableOptimizer> entry
+                        : field.subList(wave * lanesAtOnce, Math.min(field.size(), (wave + 1) * lanesAtOnce))) {
+                    Lane lane = new Lane(entry.getKey(), waveDeadline);
+                    ObservableOptimizer optimizer = entry.getValue();
+                    optimizer.setListener(lane, checkpointMs);
+                    lane.future = PlannerExecutors.lanes().submit(() -> {
+                        if (!lane.claimed.compareAndSet(false, true)) return null;  // Cancelado antes de empezar
+                        try {
+                            return optimizer.optimize(orders, flights, airports);
+                        } finally {
+                            lane.finished.countDown();
+                        }
+                    });
+                    running.add(lane);
+                    lanes.add(lane);
+                }
+
+                // Checkpoints hasta el plazo o hasta que todos terminen (los de tandas anteriores
+                // siguen contando como líderes)
+                while (System.currentTimeMillis() < waveDeadline && !allDone(running)) {
+                    Thread.sleep(Math.min(checkpointMs, Math.max(1, waveDeadline - System.currentTimeMillis())));
+                    if (System.currentTimeMillis() >= warmupEnd) {
+                        stopLaggards(lanes);
+                    }
+                }
+
+                // Plazo vencido: los listeners ya piden parada; esperar a cada participante con un margen de gracia
+                long grace = Math.max(MIN_GRACE_MS, (waveDeadline - waveStart) / 2);
+                for (Lane lane : running) {
+                    lane.result = collect(lane, grace);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log("[PORTFOLIO] Interrupted, using latest snapshots");
+            for (Lane lane : lanes) {
+                if (lane.result == null) lane.result = lane.latestSnapshot;
+                lane.future.cancel(true);
+            }
+            for (Lane lane : lanes) {
+                lane.awaitStopped();
+            }
+        }
+
+        return pickWinner(lanes, orders, flights, airports, System.currentTimeMillis() - start);
+    }
+
+    private boolean allDone(List<Lane> lanes) {
+        for (Lane lane : lanes) {
+            if (!lane.future.isDone()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Detiene a los participantes cuyo mejor costo publicado supera al del líder en más de laggardMargin
+     */
+    private void stopLaggards(List<Lane> lanes) {
+        Lane leader = null;
+        for (Lane lane : lanes) {
+            if (Double.isFinite(lane.bestCost) && (leader == null || lane.bestCost < leader.bestCost)) {
+                leader = lane;
+            }
+        }
+        if (leader == null) return;
+
+        double threshold = leader.bestCost + laggardMargin * Math.max(1.0, Math.abs(leader.bestCost));
+        for (Lane lane : lanes) {
+            if (lane == leader || lane.stopped || lane.future.isDone()) continue;
+            if (Double.isFinite(lane.bestCost) && lane.bestCost > threshold) {
+                lane.stopped = true;
+                log(String.format("[PORTFOLIO] Stopping %s (best %.2f vs leader %s %.2f)",
+                    lane.name, lane.bestCost, leader.name, leader.bestCost));
+            }
+        }
+    }
+
+    private TabuSolution collect(Lane lane, long graceMs) throws InterruptedException {
+        try {
+            Solution solution = lane.future.get(graceMs, TimeUnit.MILLISECONDS);
+            if (solution instanceof TabuSolution) return (TabuSolution) solution;
+            log("[PORTFOLIO] " + lane.name + " returned an unsupported solution type");
+        } catch (TimeoutException e) {
+            // Se interrumpe y se espera a que retorne: el carril no queda corriendo después de la carrera
+            log("[PORTFOLIO] " + lane.name + " did not stop in time, interrupting it and using its latest snapshot");
+            lane.future.cancel(true);
+            lane.awaitStopped();
+        } catch (ExecutionException e) {
+            System.err.println("[PORTFOLIO] " + lane.name + " failed: " + e.getCause());
+        }
+        return lane.latestSnapshot;
+    }
+
+    private Solution pickWinner(List<Lane> lanes, List<PlannerOrder> orders, List<PlannerFlight> flights,
+                                List<PlannerAirport> airports, long elapsedMs) {
+        Map<String, Double> costs = new LinkedHashMap<>();
+        Lane winner = null;
+        double winnerCost = Double.POSITIVE_INFINITY;
+        for (Lane lane : lanes) {
+            if (lane.result == null) continue;
+            double cost = TabuSearchPlannerCostFunction.calculateCost(lane.result, flights, airports, 0, 1)
+                + TabuSearchPlannerCostFunction.unassignedOrderPenalty(lane.result, orders);  // Que una solución vacía no gane
+            costs.put(lane.name, cost);
+            if (cost < winnerCost) {
+                winnerCost = cost;
+                winner = lane;
+            }
+        }
+        this.lastCosts = costs;
+
+        if (winner == null) {
+            log("[PORTFOLIO] No entrant produced a solution");
+            this.lastWinner = null;
+            TabuSolution empty = new TabuSolution();
+            empty.setAllOrders(orders);
+            return empty;
+        }
+
+        this.lastWinner = winner.name;
+        history.recordWin(scenarioType, orders.size(), winner.name);
+        for (Lane lane : lanes) {
+            Double cost = costs.get(lane.name);
+            log(String.format("[PORTFOLIO]   %-10s %s%s", lane.name,
+                cost != null ? String.format("%.2f", cost) : "no result",
+                lane.stopped ? " (stopped early)" : ""));
+        }
+        log(String.format("[PORTFOLIO] Winner: %s (cost %.2f) in %d ms",
+            winner.name, winnerCost, elapsedMs));
+
+        winner.result.setAllOrders(orders);
+        return winner.result;
+    }
+
+    public String getLastWinner() { return lastWinner; }
+    public Map<String, Double> getLastCosts() { return lastCosts; }
+    public PortfolioHistory getHistory() { return history; }
+
+    /**
+     * Estado de un participante durante la carrera; también actúa como su listener
+     */
+    private static final class Lane implements TabuSearchListener {
+        private final String name;
+        private final long deadline;
+        private volatile double bestCost = Double.POSITIVE_INFINITY;
+        private volatile TabuSolution latestSnapshot = null;
+        private volatile boolean stopped = false;
+        // Lo toma el carril al empezar o la carrera al cancelarlo antes de que empiece
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private final CountDownLatch finished = new CountDownLatch(1);
+        private Future<Solution> future;
+        private TabuSolution result;
+
+        private Lane(String name, long deadline) {
+            this.name = name;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Espera a que el participante salga de optimize() (un Future cancelado ya figura como
+         * terminado aunque el hilo siga corriendo); si aún no había empezado, ya no empieza
+         */
+        private void awaitStopped() {
+            if (claimed.compareAndSet(false, true)) return;
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    finished.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) Thread.currentThread().interrupt();
+        }
+
+        @Override
+        public void onSnapshot(TabuSolution solution, int iteration, double bestCost, long snapshotId, Instant snapshotTime) {
+            if (bestCost <= this.bestCost) {
+                this.bestCost = bestCost;
+                this.latestSnapshot = solution;
+            }
+        }
+
+        @Override
+        public boolean isStopRequested() {
+            return stopped || System.currentTimeMillis() >= deadline;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package pe.edu.pucp.morapack.algos.algorithm.tabu;
+
+import pe.edu.pucp.morapack.algos.algorithm.PlannerExecutors;
+import pe.edu.pucp.morapack.algos.entities.PlannerAirport;
+import pe.edu.pucp.morapack.algos.entities.PlannerFlight;
+import pe.edu.pucp.morapack.algos.entities.PlannerOrder;
+import pe.edu.pucp.morapack.algos.entities.PlannerShipment;
+import pe.edu.pucp.morapack.algos.entities.Route;
+import pe.edu.pucp.morapack.algos.utils.CapacityReservations;
+import pe.edu.pucp.morapack.algos.utils.RouteFinder;
+import pe.edu.pucp.morapack.algos.utils.RouteOption;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Construcción greedy paralela (misma estrategia que el greedy dinámico de TabuSearchPlanner).
+ *
+ * Los pedidos se ordenan por urgencia y se procesan en lotes de prioridad: los lotes van en orden,
+ * y dentro de un lote cada pedido busca rutas en su propio hilo. La capacidad de vuelos y
+ * almacenes se reclama en una CapacityReservations (CAS); un pedido que pierde una carrera
+ * vuelve a buscar candidatos con las capacidades actuales.
+ *
+ * Los ids de shipment se asignan al final en orden de prioridad, así que dos corridas con la
+ * misma semilla y sin contención producen los mismos ids.
+ *
+ * Los hilos los pone quien llama (un executor acotado y compartido, p.ej. PlannerExecutors.compute()):
+ * la construcción solo decide cuántos pedidos corren a la vez ('threads', el cupo de la ejecución).
+ */
+public class ParallelGreedyConstruction {
+    private static final int MAX_ATTEMPTS = 4;
+    private static final int SHUFFLE_TOP = 5;
+    private static final int BATCH_PER_THREAD = 4;
+
+    private final ExecutorService executor;
+    private final int threads;
+    private final long seed;
+
+    // Estadísticas de la última construcción
+    private final AtomicInteger lostRaces = new AtomicInteger();
+
+    /**
+     * @param executor hilos donde corren los pedidos (el hilo que llama también trabaja)
+     * @param threads  pedidos que corren a la vez
+     */
+    public ParallelGreedyConstruction(ExecutorService executor, int threads, long seed) {
+        this.executor = executor;
+        this.threads = Math.max(1, threads);
+        this.seed = seed;
+    }
+
+    /**
+     * @param shipmentIds fuente de ids de shipment (la del planner)
+     */
+    public TabuSolution construct(List<PlannerOrder> orders, List<PlannerFlight> flights,
+                                  List<PlannerAirport> airports, AtomicInteger shipmentIds) {
+        lostRaces.set(0);
+        CapacityReservations reservations = new CapacityReservations(flights, airports);
+
+        List<PlannerOrder> prioritized = new ArrayList<>(orders);
+        prioritized.sort(Comparator.comparing(PlannerOrder::getOrderTime)
+            .thenComparingLong(PlannerOrder::getMaxDeliveryHours));
+
+        List<List<Assignment>> assignments = new ArrayList<>(prioritized.size());
+        int batchSize = threads * BATCH_PER_THREAD;
+        try {
+            for (int start = 0; start < prioritized.size(); start += batchSize) {
+                List<Callable<List<Assignment>>> batch = new ArrayList<>();
+                for (PlannerOrder order : prioritized.subList(start, Math.min(prioritized.size(), start + batchSize))) {
+                    batch.add(() -> assign(order, flights, reservations));
+                }
+                assignments.addAll(PlannerExecutors.invokeAll(executor, batch, threads));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.out.println("[TABU][PARALLEL-GREEDY] Interrupted, returning partial construction");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Parallel greedy construction failed", e.getCause());
+        }
+
+        TabuSolution solution = new TabuSolution();
+        int fullyAssigned = 0;
+        for (int i = 0; i < assignments.size(); i++) {
+            PlannerOrder order = prioritized.get(i);
+            int assigned = 0;
+            for (Assignment assignment : assignments.get(i)) {
+                solution.addPlannerShipment(new PlannerShipment(
+                    shipmentIds.getAndIncrement(), order, assignment.route, assignment.quantity));
+                assigned += assignment.quantity;
+            }
+            if (assigned >= order.getTotalQuantity()) fullyAssigned++;
+        }
+        solution.setAllOrders(orders);
+
+        System.out.println(String.format("[TABU][PARALLEL-GREEDY] %d threads, batches of %d: %d/%d orders fully assigned, %d lost races",
+            threads, batchSize, fullyAssigned, orders.size(), lostRaces.get()));
+        return solution;
+    }
+
+    /**
+     * Rutas directas primero y luego con conexión, reservando a medida que se eligen
+     */
+    private List<Assignment> assign(PlannerOrder order, List<PlannerFlight> flights, CapacityReservations reservations) {
+        Random random = new Random(seed ^ (31L * order.getId()));
+        List<Assignment> result = new ArrayList<>();
+        int remaining = order.getTotalQuantity();
+
+        for (int attempt = 0; attempt < MAX_ATTEMPTS && remaining > 0; attempt++) {
+            boolean lostRace = false;
+
+            List<RouteOption> direct = RouteFinder.findDirectRoutes(order, flights, reservations::remaining);
+            shuffleTop(direct, random);
+            for (RouteOption option : direct) {
+                if (remaining <= 0) break;
+                int reserved = reserve(option, remaining, reservations, result);
+                if (reserved < 0) lostRace = true;
+                else remaining -= reserved;
+            }
+
+            if (remaining > 0) {
+                List<RouteOption> connections = RouteFinder.findConnectionRoutes(order, flights, reservations::remaining);
+                shuffleTop(connections, random);
+                for (RouteOption option : connections) {
+                    if (remaining <= 0) break;
+                    int reserved = reserve(option, remaining, reservations, result);
+                    if (reserved < 0) lostRace = true;
+                    else remaining -= reserved;
+                }
+            }
+
+            // Sin carreras perdidas, otra búsqueda no encontraría nada nuevo
+            if (!lostRace) break;
+            lostRaces.incrementAndGet();
+        }
+        return result;
+    }
+
+    /**
+     * @return cantidad reservada, o -1 si otro hilo tomó la capacidad entre la lectura y el CAS
+     */
+    private static int reserve(RouteOption option, int remaining, CapacityReservations reservations,
+                               List<Assignment> result) {
+        Route route = Route.of(option.getFlights());
+        int quantity = Math.min(remaining, reservations.available(route));
+        if (quantity <= 0) return 0;
+        if (!reservations.tryReserve(route, quantity)) return -1;
+        result.add(new Assignment(route, quantity));
+        return quantity;
+    }
+
+    private static void shuffleTop(List<RouteOption> routes, Random random) {
+        if (routes.size() > 1) {
+            Collections.shuffle(routes.subList(0, Math.min(SHUFFLE_TOP, routes.size())), random);
+        }
+    }
+
+    public int getLostRaces() {
+        return lostRaces.get();
+    }
+
+    private static final class Assignment {
+        private final Route route;
+        private final int quantity;
+
+        private Assignment(Route route, int quantity) {
+            this.route = route;
+            this.quantity = quantity;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package pe.edu.pucp.morapack.algos.algorithm.tabu;
+
+/**
+ * Núcleo numérico de las penalizaciones de capacidad y retraso sobre arreglos primitivos.
+ *
+ * La implementación escalar siempre está disponible; con el perfil Maven 'vector-api' se compila
+ * además VectorPenaltyKernel (jdk.incubator.vector) y PenaltyKernels lo carga si el módulo está
+ * presente en tiempo de ejecución.
+ */
+public interface PenaltyKernel {
+
+    /**
+     * Suma de max(0, loads[i] - capacities[i]) para i en [0, n)
+     */
+    long capacityExcess(int[] loads, int[] capacities, int n);
+
+    /**
+     * Número de i en [0, n) con deliveryHours[i] > maxHours[i]
+     */
+    int lateCount(long[] deliveryHours, long[] maxHours, int n);
+
+    /**
+     * Suma de max(0, deliveryHours[i] - maxHours[i]) para i en [0, n)
+     */
+    long lateHours(long[] deliveryHours, long[] maxHours, int n);
+
+    String getName();
+}
@@ -0,0 +1,78 @@
+package pe.edu.pucp.morapack.algos.algorithm.tabu;
+
+/**
+ * Selección del PenaltyKernel: el vectorial si se compiló (perfil 'vector-api') y el módulo
+ * jdk.incubator.vector está cargado (--add-modules jdk.incubator.vector); si no, el escalar.
+ */
+public final class PenaltyKernels {
+    private static final String VECTOR_KERNEL_CLASS = "pe.edu.pucp.morapack.algos.algorithm.tabu.VectorPenaltyKernel";
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+    private static final PenaltyKernel SCALAR = new ScalarKernel();
+    private static final PenaltyKernel ACTIVE = load();
+
+    private PenaltyKernels() {
+    }
+
+    /**
+     * Kernel usado por TabuSearchPlannerCostFunction
+     */
+    public static PenaltyKernel active() {
+        return ACTIVE;
+    }
+
+    public static PenaltyKernel scalar() {
+        return SCALAR;
+    }
+
+    private static PenaltyKernel load() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            return SCALAR;
+        }
+        try {
+            PenaltyKernel kernel = (PenaltyKernel) Class.forName(VECTOR_KERNEL_CLASS)
+                .getDeclaredConstructor().newInstance();
+            System.out.println("[TABU] Using " + kernel.getName() + " penalty kernel");
+            return kernel;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // Clase no compilada (build sin el perfil) o módulo no accesible
+            return SCALAR;
+        }
+    }
+
+    private static final class ScalarKernel implements PenaltyKernel {
+        @Override
+        public long capacityExcess(int[] loads, int[] capacities, int n) {
+            long total = 0;
+            for (int i = 0; i < n; i++) {
+                int excess = loads[i] - capacities[i];
+                if (excess > 0) total += excess;
+            }
+            return total;
+        }
+
+        @Override
+        public int lateCount(long[] deliveryHours, long[] maxHours, int n) {
+            int count = 0;
+            for (int i = 0; i < n; i++) {
+                if (deliveryHours[i] > maxHours[i]) count++;
+            }
+            return count;
+        }
+
+        @Override
+        public long lateHours(long[] deliveryHours, long[] maxHours, int n) {
+            long total = 0;
+            for (int i = 0; i < n; i++) {
+                long late = deliveryHours[i] - maxHours[i];
+                if (late > 0) total += late;
+            }
+            return total;
+        }
+
+        @Override
+        public String getName() {
+            return "scalar";
+        }
+    }
+}
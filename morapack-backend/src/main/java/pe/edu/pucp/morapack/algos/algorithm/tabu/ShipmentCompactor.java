@@ -0,0 +1,155 @@
+package pe.edu.pucp.morapack.algos.algorithm.tabu;
+
+import pe.edu.pucp.morapack.algos.entities.PlannerAirport;
+import pe.edu.pucp.morapack.algos.entities.PlannerFlight;
+import pe.edu.pucp.morapack.algos.entities.PlannerOrder;
+import pe.edu.pucp.morapack.algos.entities.PlannerShipment;
+import pe.edu.pucp.morapack.algos.entities.Route;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compactación de shipments: SPLIT crea shipments libremente y su número por pedido crece
+ * durante la búsqueda. Este paso reduce la solución a menos shipments, más grandes:
+ *
+ * 1. Fusiona shipments ACTIVOS del mismo pedido y la misma ruta
+ * 2. Pliega remanentes pequeños (menos de tinyThreshold productos) en un shipment hermano
+ * 3. Pliega los más pequeños mientras el pedido tenga más de maxShipmentsPerOrder shipments
+ *
+ * Plegar s en un hermano t solo ocurre si los vuelos y escalas de t que s no usaba tienen
+ * capacidad libre para la cantidad de s. Así el costo nunca empeora: la llegada más tardía del
+ * pedido no aumenta y desaparecen las escalas (y conexiones inválidas) del shipment plegado.
+ */
+public final class ShipmentCompactor {
+
+    private ShipmentCompactor() {
+    }
+
+    /**
+     * @return número de shipments eliminados
+     */
+    public static int compact(TabuSolution solution, int maxShipmentsPerOrder, int tinyThreshold) {
+        // Cargas actuales (todos los shipments, igual que la función de costo)
+        Map<PlannerFlight, Integer> flightLoads = new HashMap<>();
+        Map<PlannerAirport, Integer> storageLoads = new HashMap<>();
+        Map<PlannerOrder, List<PlannerShipment>> byOrder = new LinkedHashMap<>();
+        for (PlannerShipment shipment : solution.getPlannerShipments()) {
+            addLoad(shipment.getRoute(), shipment.getQuantity(), flightLoads, storageLoads);
+            if (shipment.isActive() && shipment.getOrder() != null && !shipment.getRoute().isEmpty()) {
+                byOrder.computeIfAbsent(shipment.getOrder(), k -> new ArrayList<>()).add(shipment);
+            }
+        }
+
+        int removed = 0;
+        for (List<PlannerShipment> group : byOrder.values()) {
+            if (group.size() < 2) continue;
+            removed += mergeSameRoute(solution, group);
+            removed += foldSmall(solution, group, maxShipmentsPerOrder, tinyThreshold, flightLoads, storageLoads);
+        }
+        return removed;
+    }
+
+    private static int mergeSameRoute(TabuSolution solution, List<PlannerShipment> group) {
+        int removed = 0;
+        for (int i = 0; i < group.size(); i++) {
+            for (int j = group.size() - 1; j > i; j--) {
+                PlannerShipment duplicate = group.get(j);
+                if (!group.get(i).getRoute().sameFlightsAs(duplicate.getRoute())) continue;
+
+                PlannerShipment target = solution.editPlannerShipment(group.get(i));
+                target.setQuantity(target.getQuantity() + duplicate.getQuantity());
+                group.set(i, target);
+                solution.removePlannerShipment(duplicate);
+                group.remove(j);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private static int foldSmall(TabuSolution solution, List<PlannerShipment> group, int maxShipmentsPerOrder,
+                                 int tinyThreshold, Map<PlannerFlight, Integer> flightLoads,
+                                 Map<PlannerAirport, Integer> storageLoads) {
+        int removed = 0;
+        group.sort(Comparator.comparingInt(PlannerShipment::getQuantity));
+
+        int i = 0;
+        while (i < group.size() && group.size() > 1) {
+            PlannerShipment small = group.get(i);
+            boolean tooMany = maxShipmentsPerOrder > 0 && group.size() > maxShipmentsPerOrder;
+            if (!tooMany && small.getQuantity() >= tinyThreshold) break;  // ordenado: el resto es más grande
+
+            int targetIndex = findAbsorber(group, i, flightLoads, storageLoads);
+            if (targetIndex < 0) {
+                i++;  // nadie puede absorberlo: probar con el siguiente
+                continue;
+            }
+
+            PlannerShipment target = solution.editPlannerShipment(group.get(targetIndex));
+            removeLoad(small.getRoute(), small.getQuantity(), flightLoads, storageLoads);
+            addLoad(target.getRoute(), small.getQuantity(), flightLoads, storageLoads);
+            target.setQuantity(target.getQuantity() + small.getQuantity());
+            group.set(targetIndex, target);
+
+            solution.removePlannerShipment(small);
+            group.remove(i);
+            removed++;
+            group.sort(Comparator.comparingInt(PlannerShipment::getQuantity));
+            i = 0;
+        }
+        return removed;
+    }
+
+    /**
+     * Hermano (el que llega antes) capaz de absorber la cantidad del shipment en la posición 'index'
+     */
+    private static int findAbsorber(List<PlannerShipment> group, int index,
+                                    Map<PlannerFlight, Integer> flightLoads,
+                                    Map<PlannerAirport, Integer> storageLoads) {
+        PlannerShipment small = group.get(index);
+        int best = -1;
+        for (int k = 0; k < group.size(); k++) {
+            if (k == index) continue;
+            PlannerShipment candidate = group.get(k);
+            if (!canAbsorb(candidate.getRoute(), small.getRoute(), small.getQuantity(), flightLoads, storageLoads)) continue;
+            if (best < 0 || candidate.getFinalArrivalTime().isBefore(group.get(best).getFinalArrivalTime())) {
+                best = k;
+            }
+        }
+        return best;
+    }
+
+    private static boolean canAbsorb(Route target, Route source, int quantity,
+                                     Map<PlannerFlight, Integer> flightLoads,
+                                     Map<PlannerAirport, Integer> storageLoads) {
+        for (PlannerFlight flight : target.getFlights()) {
+            if (source.contains(flight)) continue;  // la carga no cambia en vuelos compartidos
+            if (flightLoads.getOrDefault(flight, 0) + quantity > flight.getCapacity()) return false;
+        }
+        for (PlannerAirport stopover : target.getStopoverAirports()) {
+            if (source.getStopoverAirports().contains(stopover)) continue;
+            if (storageLoads.getOrDefault(stopover, 0) + quantity > stopover.getStorageCapacity()) return false;
+        }
+        return true;
+    }
+
+    private static void addLoad(Route route, int quantity, Map<PlannerFlight, Integer> flightLoads,
+                                Map<PlannerAirport, Integer> storageLoads) {
+        for (PlannerFlight flight : route.getFlights()) {
+            flightLoads.merge(flight, quantity, Integer::sum);
+        }
+        for (PlannerAirport stopover : route.getStopoverAirports()) {
+            storageLoads.merge(stopover, quantity, Integer::sum);
+        }
+    }
+
+    private static void removeLoad(Route route, int quantity, Map<PlannerFlight, Integer> flightLoads,
+                                   Map<PlannerAirport, Integer> storageLoads) {
+        addLoad(route, -quantity, flightLoads, storageLoads);
+    }
+}
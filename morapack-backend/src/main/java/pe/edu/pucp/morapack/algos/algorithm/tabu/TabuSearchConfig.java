@@ -19,6 +19,19 @@ public class TabuSearchConfig {
     private final double cancellationPenalty;
     private final double replanificationPenalty;
 
+    // Parada temprana: detener cuando el mejor costo está dentro de este gap relativo
+    // de la cota inferior (TabuSearchPlannerCostFunction.calculateLowerBound)
+    public static final double DEFAULT_LOWER_BOUND_GAP = 0.02;
+    private final double lowerBoundGap;
+
+    // Compactación periódica de shipments (ShipmentCompactor)
+    public static final int DEFAULT_MAX_SHIPMENTS_PER_ORDER = 4;
+    public static final int DEFAULT_TINY_SHIPMENT_THRESHOLD = 5;
+    public static final int DEFAULT_COMPACTION_INTERVAL = 25;
+    private final int maxShipmentsPerOrder;
+    private final int tinyShipmentThreshold;
+    private final int compactionInterval;
+
     public TabuSearchConfig(
             int tabuListSize,
             int maxIterations,
@@ -34,6 +47,54 @@ public class TabuSearchConfig {
             double invalidStopoverTimePenalty,
             double cancellationPenalty,
             double replanificationPenalty) {
+        this(tabuListSize, maxIterations, maxIterationsWithoutImprovement, directRouteProbability,
+             oneStopRouteProbability, bottleneckCapacity, capacityViolationPenalty, emptyRoutePenalty,
+             delayBasePenalty, delayHourPenalty, stopoverPenalty, invalidStopoverTimePenalty,
+             cancellationPenalty, replanificationPenalty, DEFAULT_LOWER_BOUND_GAP);
+    }
+
+    public TabuSearchConfig(
+            int tabuListSize,
+            int maxIterations,
+            int maxIterationsWithoutImprovement,
+            int directRouteProbability,
+            int oneStopRouteProbability,
+            int bottleneckCapacity,
+            double capacityViolationPenalty,
+            double emptyRoutePenalty,
+            double delayBasePenalty,
+            double delayHourPenalty,
+            double stopoverPenalty,
+            double invalidStopoverTimePenalty,
+            double cancellationPenalty,
+            double replanificationPenalty,
+            double lowerBoundGap) {
+        this(tabuListSize, maxIterations, maxIterationsWithoutImprovement, directRouteProbability,
+             oneStopRouteProbability, bottleneckCapacity, capacityViolationPenalty, emptyRoutePenalty,
+             delayBasePenalty, delayHourPenalty, stopoverPenalty, invalidStopoverTimePenalty,
+             cancellationPenalty, replanificationPenalty, lowerBoundGap, DEFAULT_MAX_SHIPMENTS_PER_ORDER,
+             DEFAULT_TINY_SHIPMENT_THRESHOLD, DEFAULT_COMPACTION_INTERVAL);
+    }
+
+    public TabuSearchConfig(
+            int tabuListSize,
+            int maxIterations,
+            int maxIterationsWithoutImprovement,
+            int directRouteProbability,
+            int oneStopRouteProbability,
+            int bottleneckCapacity,
+            double capacityViolationPenalty,
+            double emptyRoutePenalty,
+            double delayBasePenalty,
+            double delayHourPenalty,
+            double stopoverPenalty,
+            double invalidStopoverTimePenalty,
+            double cancellationPenalty,
+            double replanificationPenalty,
+            double lowerBoundGap,
+            int maxShipmentsPerOrder,
+            int tinyShipmentThreshold,
+            int compactionInterval) {
         this.tabuListSize = tabuListSize;
         this.maxIterations = maxIterations;
         this.maxIterationsWithoutImprovement = maxIterationsWithoutImprovement;
@@ -48,6 +109,10 @@ public class TabuSearchConfig {
         this.invalidStopoverTimePenalty = invalidStopoverTimePenalty;
         this.cancellationPenalty = cancellationPenalty;
         this.replanificationPenalty = replanificationPenalty;
+        this.lowerBoundGap = lowerBoundGap;
+        this.maxShipmentsPerOrder = maxShipmentsPerOrder;
+        this.tinyShipmentThreshold = tinyShipmentThreshold;
+        this.compactionInterval = compactionInterval;
     }
 
     // Constructor con valores por defecto optimizados para mayor exploración
@@ -83,4 +148,8 @@ public class TabuSearchConfig {
     public double getInvalidStopoverTimePenalty() { return invalidStopoverTimePenalty; }
     public double getCancellationPenalty() { return cancellationPenalty; }
     public double getReplanificationPenalty() { return replanificationPenalty; }
+    public double getLowerBoundGap() { return lowerBoundGap; }
+    public int getMaxShipmentsPerOrder() { return maxShipmentsPerOrder; }
+    public int getTinyShipmentThreshold() { return tinyShipmentThreshold; }
+    public int getCompactionInterval() { return compactionInterval; }
 }
\ No newline at end of file
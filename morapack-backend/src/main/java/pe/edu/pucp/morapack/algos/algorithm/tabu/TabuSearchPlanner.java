@@ -1,19 +1,25 @@
 package pe.edu.pucp.morapack.algos.algorithm.tabu;
 
-import org.springframework.stereotype.Service;
-
 import java.time.temporal.ChronoUnit;
-import pe.edu.pucp.morapack.algos.algorithm.IOptimizer;
+import pe.edu.pucp.morapack.algos.algorithm.ObservableOptimizer;
+import pe.edu.pucp.morapack.algos.algorithm.PlannerExecutors;
+import pe.edu.pucp.morapack.algos.algorithm.aco.AcoConfig;
+import pe.edu.pucp.morapack.algos.algorithm.aco.AcoPlanner;
 import pe.edu.pucp.morapack.algos.entities.Solution;
+import pe.edu.pucp.morapack.algos.entities.AirportPairTable;
 import pe.edu.pucp.morapack.algos.entities.PlannerAirport;
 import pe.edu.pucp.morapack.algos.entities.PlannerFlight;
 import pe.edu.pucp.morapack.algos.entities.PlannerOrder;
 import pe.edu.pucp.morapack.algos.entities.PlannerShipment;
+import pe.edu.pucp.morapack.algos.utils.RouteFinder;
 import pe.edu.pucp.morapack.algos.utils.RouteOption;
 import pe.edu.pucp.morapack.algos.algorithm.tabu.moves.*;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Implementación del algoritmo Tabu Search para planificación de rutas con PlannerShipments.
@@ -22,38 +28,38 @@ import java.util.stream.Collectors;
  * 1. Greedy dinámico: Asigna productos a rutas de manera eficiente
  * 2. Tabu Search: Mejora la solución mediante movimientos (Split, Merge, Transfer, Reroute)
  * 3. Validación: Verifica restricciones y calcula métricas finales
+ *
+ * El planner solo guarda configuración; el estado de cada ejecución (aleatorio, ids de
+ * shipments, contadores, snapshots) vive en un RunContext creado por optimize(), así que
+ * varias ejecuciones concurrentes sobre la misma instancia no se pisan.
  */
-@Service
-public class TabuSearchPlanner implements IOptimizer {
+public class TabuSearchPlanner implements ObservableOptimizer {
     // Configuración del algoritmo
-    private TabuSearchConfig config;
-    
-    // Main hubs para conexiones
-    private static final String LIMA_CODE = "SPIM";
-    private static final String BRUSSELS_CODE = "EBCI";
-    private static final String BAKU_CODE = "UBBB";
-    
-    // Métricas del algoritmo
-    private double averageDeliveryTimeMinutes = 0.0;
-    private int totalIterations = 0;
-    private int improvementIterations = 0;
-    private int nextShipmentId = 1;
-    
-    // Estadísticas de movimientos
-    private int splitMovesApplied = 0;
-    private int mergeMovesApplied = 0;
-    private int transferMovesApplied = 0;
-    private int rerouteMovesApplied = 0;
+    private final TabuSearchConfig config;
     
-    // Generador de números aleatorios
-    private Random random;
-    private long randomSeed;
+    // Semilla base: cada ejecución usa una semilla derivada (la primera, la semilla tal cual)
+    private final long randomSeed;
+    private final AtomicLong runCount = new AtomicLong();
+
+    // Métricas de la última ejecución terminada
+    private volatile RunContext lastRun = null;
     
     // Optional external listener for snapshots / stop requests
-    private TabuSearchListener listener = null;
-    private long snapshotMs = 1000; // heartbeat default
-    private long lastSnapshotTime = 0;
-    private long snapshotCounter = 0;
+    private volatile TabuSearchListener listener = null;
+    private volatile long snapshotMs = 1000; // heartbeat default
+
+    // Siembra ACO: construcción acotada en paralelo al greedy (0 = deshabilitada)
+    public static final long DEFAULT_ACO_SEED_BUDGET_MS = 1500;
+    private long acoSeedBudgetMs = 0;
+
+    // Cupo de hilos por ejecución: construcción greedy paralela (ParallelGreedyConstruction),
+    // evaluación por bloques y siembra ACO; < 2 hilos = todo en el hilo que llama
+    public static final int PARALLEL_CONSTRUCTION_MIN_ORDERS = 64;
+    private int parallelism = 1;
+
+    // Logs de la ejecución (encabezado, configuración, leyenda, progreso, detalle por pedido y
+    // reporte final); en corridas batch se apagan (ver setVerbose)
+    private volatile boolean verbose = true;
 
     /**
      * Constructor por defecto: Usa timestamp para VARIABILIDAD en cada ejecución
@@ -77,8 +83,7 @@ public class TabuSearchPlanner implements IOptimizer {
      */
     public TabuSearchPlanner(long seed, double speedMultiplier) {
         this.randomSeed = seed;
-        this.random = new Random(seed);
-        initializeTabuSearchComponents(speedMultiplier);
+        this.config = createConfig(speedMultiplier);
         System.out.println("[RANDOM] Tabu Search initialized with seed: " + seed + ", speedMultiplier: " + speedMultiplier);
     }
 
@@ -87,9 +92,11 @@ public class TabuSearchPlanner implements IOptimizer {
      * This will attempt a best-effort DMS -> decimal conversion when values are obviously out of range
      * and will clamp to valid ranges otherwise. Because PlannerAirport doesn't expose setters for
      * latitude/longitude we apply changes by reflection and log any corrections.
+     * Returns true when at least one airport was corrected.
      */
-    private void sanitizeAirports(List<PlannerAirport> airports) {
-        if (airports == null) return;
+    private boolean sanitizeAirports(List<PlannerAirport> airports) {
+        if (airports == null) return false;
+        boolean anyChanged = false;
         for (PlannerAirport a : airports) {
             double lat = a.getLatitude();
             double lon = a.getLongitude();
@@ -128,6 +135,7 @@ public class TabuSearchPlanner implements IOptimizer {
                     lonField.setAccessible(true);
                     latField.setDouble(a, lat);
                     lonField.setDouble(a, lon);
+                    anyChanged = true;
                     System.out.println(String.format("[DATA] Sanitized airport %s: lat %.6f -> %.6f, lon %.6f -> %.6f",
                         a.getCode(), origLat, lat, origLon, lon));
                 } catch (Exception ex) {
@@ -135,6 +143,7 @@ public class TabuSearchPlanner implements IOptimizer {
                 }
             }
         }
+        return anyChanged;
     }
 
     /**
@@ -164,12 +173,58 @@ public class TabuSearchPlanner implements IOptimizer {
     /**
      * Register a listener to receive snapshots and allow stop requests.
      */
+    @Override
     public void setListener(TabuSearchListener listener, long snapshotMs) {
         this.listener = listener;
         if (snapshotMs > 0) this.snapshotMs = snapshotMs;
     }
     
-    private void initializeTabuSearchComponents(double speedMultiplier) {
+    /**
+     * Habilita la siembra ACO: mientras corre el greedy, una construcción ACO acotada a
+     * timeBudgetMs corre con el resto del cupo de hilos y se usa la mejor de las dos como solución inicial.
+     * Necesita un cupo de al menos 2 hilos (setParallelism); con uno solo se parte del greedy.
+     * @param timeBudgetMs presupuesto del ACO en ms (0 o negativo la deshabilita)
+     */
+    public void setAcoSeeding(long timeBudgetMs) {
+        this.acoSeedBudgetMs = Math.max(0, timeBudgetMs);
+    }
+
+    /**
+     * Hilos que puede usar una ejecución (pool compartido PlannerExecutors). La solución inicial
+     * se construye en paralelo cuando hay al menos PARALLEL_CONSTRUCTION_MIN_ORDERS pedidos (por
+     * debajo, el greedy secuencial es más rápido).
+     */
+    public void setParallelism(int threads) {
+        this.parallelism = Math.max(1, threads);
+    }
+
+    @Override
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    private void log(String message) {
+        if (verbose) {
+            System.out.println(message);
+        }
+    }
+
+    public int getTotalIterations() {
+        RunContext run = lastRun;
+        return run != null ? run.totalIterations : 0;
+    }
+
+    /**
+     * La cota inferior solo vale para soluciones que asignan todos los productos de todos los pedidos
+     */
+    private static boolean isFullyAssigned(TabuSolution solution, List<PlannerOrder> orders) {
+        for (PlannerOrder order : orders) {
+            if (solution.getAssignedQuantityForOrder(order) < order.getTotalQuantity()) return false;
+        }
+        return true;
+    }
+
+    private static TabuSearchConfig createConfig(double speedMultiplier) {
         // Ajustar maxIterations según speedMultiplier para que el tiempo total sea proporcional
         // Target: 40-90 minutos para simulación de 7 días (403 iteraciones) en 1x speed
         // Queremos ~6-13 segundos por iteración en 1x (incluyendo delay de 1.5s)
@@ -182,7 +237,7 @@ public class TabuSearchPlanner implements IOptimizer {
         int baseMaxIterationsWithoutImprovement = 200;
         int adjustedMaxIterationsWithoutImprovement = (int) Math.max(40, baseMaxIterationsWithoutImprovement / speedMultiplier);
 
-        this.config = new TabuSearchConfig(
+        TabuSearchConfig config = new TabuSearchConfig(
             20,     // tabuListSize inicial (se adapta dinámicamente)
             adjustedMaxIterations,    // maxIterations (ajustado por speedMultiplier)
             adjustedMaxIterationsWithoutImprovement,     // maxIterationsWithoutImprovement (ajustado por speedMultiplier)
@@ -200,6 +255,7 @@ public class TabuSearchPlanner implements IOptimizer {
         );
 
         System.out.println("[TABU] Adjusted maxIterations: " + adjustedMaxIterations + " (speedMultiplier: " + speedMultiplier + "x)");
+        return config;
     }
 
     @Override  
@@ -207,19 +263,24 @@ public class TabuSearchPlanner implements IOptimizer {
         if (orders == null || orders.isEmpty()) return new TabuSolution();
 
         // Sanitize input data (fix malformed coordinates that may come from CSVs)
-        sanitizeAirports(airports);
+        if (sanitizeAirports(airports)) {
+            // The pair table was built from the raw coordinates; rebuild it so its rows
+            // match the corrected airports instead of falling back to per-call haversine
+            AirportPairTable.refresh();
+        }
         
         long startTime = System.currentTimeMillis();
-        System.out.println("\n" + "=".repeat(80));
-        System.out.println("=== TABU SEARCH PLANNER - DYNAMIC SHIPMENT ALLOCATION ===");
-        System.out.println("=".repeat(80));
-        System.out.println("[ORDERS] To process: " + orders.size());
-        System.out.println("[FLIGHTS] Available: " + flights.size());
-        System.out.println("[AIRPORTS] Total: " + airports.size());
-        System.out.println();
+        RunContext run = new RunContext(nextRunSeed(), listener);
+        log("\n" + "=".repeat(80));
+        log("=== TABU SEARCH PLANNER - DYNAMIC SHIPMENT ALLOCATION ===");
+        log("=".repeat(80));
+        log("[ORDERS] To process: " + orders.size());
+        log("[FLIGHTS] Available: " + flights.size());
+        log("[AIRPORTS] Total: " + airports.size());
+        log("");
         
-        // FASE 1: Generar solución inicial con greedy dinámico
-        TabuSolution currentSolution = generateInitialSolutionDynamic(orders, flights, airports);
+        // FASE 1: Generar solución inicial con greedy dinámico (o la siembra ACO si es mejor)
+        TabuSolution currentSolution = buildInitialSolution(run, orders, flights, airports);
         TabuSolution bestSolution = new TabuSolution(currentSolution);
 
         // Demo fallback: if greedy assigned nothing, inject a tiny synthetic shipment so
@@ -227,13 +288,13 @@ public class TabuSearchPlanner implements IOptimizer {
         if ((currentSolution.getPlannerShipments() == null || currentSolution.getPlannerShipments().isEmpty())
                 && orders != null && !orders.isEmpty() && flights != null && !flights.isEmpty()) {
             try {
-                System.out.println("[TABU][DEMO-FALLBACK] No shipments produced by greedy. Injecting fallback shipment.");
+                log("[TABU][DEMO-FALLBACK] No shipments produced by greedy. Injecting fallback shipment.");
                 PlannerOrder firstOrder = orders.get(0);
                 // Prefer a direct flight matching origin->destination and time window
                 PlannerFlight chosen = null;
                 for (PlannerFlight f : flights) {
                     if (f.getOrigin().equals(firstOrder.getOrigin()) && f.getDestination().equals(firstOrder.getDestination())
-                            && isValidDepartureTime(firstOrder, f)) {
+                            && RouteFinder.isValidDepartureTime(firstOrder, f)) {
                         chosen = f;
                         break;
                     }
@@ -247,11 +308,11 @@ public class TabuSearchPlanner implements IOptimizer {
                 if (chosen == null) chosen = flights.get(0);
 
                 int demoQty = Math.max(1, Math.min(firstOrder.getTotalQuantity(), 10));
-                PlannerShipment demoShipment = new PlannerShipment(nextShipmentId++, firstOrder, List.of(chosen), demoQty);
+                PlannerShipment demoShipment = new PlannerShipment(run.nextShipmentId++, firstOrder, List.of(chosen), demoQty);
                 currentSolution.addPlannerShipment(demoShipment);
                 // Refresh bestSolution copy to include the injected shipment
                 bestSolution = new TabuSolution(currentSolution);
-                System.out.println(String.format("[TABU][DEMO-FALLBACK] Injected shipment id=%d order=%d qty=%d route=%s->%s",
+                log(String.format("[TABU][DEMO-FALLBACK] Injected shipment id=%d order=%d qty=%d route=%s->%s",
                         demoShipment.getId(), firstOrder.getId(), demoQty, chosen.getOrigin().getCode(), chosen.getDestination().getCode()));
             } catch (Exception ex) {
                 System.out.println("[TABU][DEMO-FALLBACK] Failed to inject fallback shipment: " + ex.getMessage());
@@ -259,71 +320,74 @@ public class TabuSearchPlanner implements IOptimizer {
         }
         
         double initialCost = TabuSearchPlannerCostFunction.calculateCost(
-            currentSolution, flights, airports, 0, config.getMaxIterations());
-        System.out.println("\n[OK] Initial solution generated:");
-        System.out.println("   Cost: " + String.format("%.2f", initialCost));
-        printSolutionSummary(currentSolution);
+            currentSolution, flights, airports, 0, config.getMaxIterations(), parallelism);
+        log("\n[OK] Initial solution generated:");
+        log("   Cost: " + String.format("%.2f", initialCost));
+        if (verbose) printSolutionSummary(currentSolution);
+
+        // Cota inferior de la instancia: si la solución ya está dentro del gap, no hace falta buscar más
+        double lowerBound = TabuSearchPlannerCostFunction.calculateLowerBound(orders, flights);
+        double lowerBoundTarget = lowerBound * (1 + config.getLowerBoundGap());
+        boolean lowerBoundReached = initialCost <= lowerBoundTarget && isFullyAssigned(currentSolution, orders);
+        log(String.format("   Lower bound: %.2f (gap %.1f%%)%s", lowerBound,
+            config.getLowerBoundGap() * 100, lowerBoundReached ? " -> initial solution is within gap, skipping search" : ""));
 
         // Emit an immediate snapshot of the initial solution so listeners (e.g. the STOMP bridge)
         // receive at least one payload even if the Tabu loop finds no candidate moves.
-        if (listener != null) {
+        if (run.listener != null) {
             try {
                 long now = System.currentTimeMillis();
-                snapshotCounter++;
-                lastSnapshotTime = now;
-                listener.onSnapshot(new TabuSolution(currentSolution), 0, initialCost, snapshotCounter, java.time.Instant.ofEpochMilli(now));
+                run.snapshotCounter++;
+                run.lastSnapshotTime = now;
+                run.listener.onSnapshot(new TabuSolution(currentSolution), 0, initialCost, run.snapshotCounter, java.time.Instant.ofEpochMilli(now));
             } catch (Exception ex) {
                 System.out.println("[TABU] Warning: failed to emit initial snapshot: " + ex.getMessage());
             }
         }
         
         // FASE 2: Optimización con Tabu Search
-        System.out.println("\n" + "=".repeat(80));
-        System.out.println("=== STARTING TABU SEARCH OPTIMIZATION ===");
-        System.out.println("=".repeat(80));
-        System.out.println("[CONFIG] Max iterations: " + config.getMaxIterations());
-        System.out.println("[CONFIG] Max iterations without improvement: " + config.getMaxIterationsWithoutImprovement());
-        System.out.println("[CONFIG] Tabu list size: " + config.getTabuListSize());
-        System.out.println("\n[LEGEND]");
-        System.out.println("   Status: [OK]=Improving [>>]=Searching [...]=Waiting [!!]=Stale [XX]=Critical");
-        System.out.println("   Trend:  [vv]=Decreasing [v]=Slight decrease [==]=Stable [^]=Increasing");
-        System.out.println();
+        log("\n" + "=".repeat(80));
+        log("=== STARTING TABU SEARCH OPTIMIZATION ===");
+        log("=".repeat(80));
+        log("[CONFIG] Max iterations: " + config.getMaxIterations());
+        log("[CONFIG] Max iterations without improvement: " + config.getMaxIterationsWithoutImprovement());
+        log("[CONFIG] Tabu list size: " + config.getTabuListSize());
+        log("\n[LEGEND]");
+        log("   Status: [OK]=Improving [>>]=Searching [...]=Waiting [!!]=Stale [XX]=Critical");
+        log("   Trend:  [vv]=Decreasing [v]=Slight decrease [==]=Stable [^]=Increasing");
+        log("");
         
         Set<String> tabuSet = new HashSet<>();
         int tabuSetMaxSize = config.getTabuListSize();
         int iterationsWithoutImprovement = 0;
-        totalIterations = 0;
-        
-        // Resetear estadísticas de movimientos
-        splitMovesApplied = 0;
-        mergeMovesApplied = 0;
-        transferMovesApplied = 0;
-        rerouteMovesApplied = 0;
         
         double bestCostEver = initialCost;
         List<Double> costHistory = new ArrayList<>();
         costHistory.add(initialCost);
         
-     while (totalIterations < config.getMaxIterations() && 
+     while (!lowerBoundReached && run.totalIterations < config.getMaxIterations() && 
          iterationsWithoutImprovement < config.getMaxIterationsWithoutImprovement()) {
             boolean improvedThisIteration = false;
             
             // Generar movimientos candidatos
-            List<TabuMoveBase> candidateMoves = generateCandidateMoves(currentSolution, flights, airports);
+            List<TabuMoveBase> candidateMoves = generateCandidateMoves(run, currentSolution, flights, airports);
             
             if (candidateMoves.isEmpty()) {
-                System.out.println("[WARNING] No candidate moves available. Stopping.");
+                log("[WARNING] No candidate moves available. Stopping.");
                 break;
             }
             
             // SHUFFLE para variabilidad en cada ejecución
-            Collections.shuffle(candidateMoves, random);
+            Collections.shuffle(candidateMoves, run.random);
             
             // Encontrar mejor movimiento no-tabú
             TabuMoveBase bestMove = null;
             double bestMoveCost = Double.MAX_VALUE;
             
             for (TabuMoveBase move : candidateMoves) {
+                // Una iteración puede evaluar decenas de candidatos: atender la parada sin esperar al final
+                if (bestMove != null && run.listener != null && run.listener.isStopRequested()) break;
+
                 String moveKey = move.getMoveKey();
                 
                 // Skip si está en lista tabú
@@ -337,7 +401,7 @@ public class TabuSearchPlanner implements IOptimizer {
                 
                 // Calcular costo
                 double moveCost = TabuSearchPlannerCostFunction.calculateCost(
-                    testSolution, flights, airports, totalIterations, config.getMaxIterations());
+                    testSolution, flights, airports, run.totalIterations, config.getMaxIterations(), parallelism);
                 
                 if (moveCost < bestMoveCost) {
                     bestMoveCost = moveCost;
@@ -350,10 +414,10 @@ public class TabuSearchPlanner implements IOptimizer {
                 // Contar tipo de movimiento
                 String moveType = bestMove.getMoveType();
                 switch (moveType) {
-                    case "SPLIT": splitMovesApplied++; break;
-                    case "MERGE": mergeMovesApplied++; break;
-                    case "TRANSFER": transferMovesApplied++; break;
-                    case "REROUTE": rerouteMovesApplied++; break;
+                    case "SPLIT": run.splitMovesApplied++; break;
+                    case "MERGE": run.mergeMovesApplied++; break;
+                    case "TRANSFER": run.transferMovesApplied++; break;
+                    case "REROUTE": run.rerouteMovesApplied++; break;
                 }
                 
                 bestMove.apply(currentSolution);
@@ -371,16 +435,16 @@ public class TabuSearchPlanner implements IOptimizer {
                 
                 // Evaluar si mejora la mejor solución
                 double currentCost = TabuSearchPlannerCostFunction.calculateCost(
-                    currentSolution, flights, airports, totalIterations, config.getMaxIterations());
+                    currentSolution, flights, airports, run.totalIterations, config.getMaxIterations(), parallelism);
                 double bestCost = TabuSearchPlannerCostFunction.calculateCost(
-                    bestSolution, flights, airports, totalIterations, config.getMaxIterations());
+                    bestSolution, flights, airports, run.totalIterations, config.getMaxIterations(), parallelism);
                 
                 costHistory.add(currentCost);
                 
                 if (currentCost < bestCost) {
                     bestSolution = new TabuSolution(currentSolution);
                     iterationsWithoutImprovement = 0;
-                    improvementIterations++;
+                    run.improvementIterations++;
                     improvedThisIteration = true;
                     
                     double stepImprovement = ((bestCost - currentCost) / bestCost) * 100;
@@ -390,39 +454,64 @@ public class TabuSearchPlanner implements IOptimizer {
                     // ADAPTATIVO: Reducir tamaño de lista tabú al encontrar mejora (intensificación)
                     if (tabuSetMaxSize > 20) {
                         tabuSetMaxSize = 20;
-                        System.out.println("   [DOWN] Tabu list reduced to " + tabuSetMaxSize + " (intensification)");
+                        log("   [DOWN] Tabu list reduced to " + tabuSetMaxSize + " (intensification)");
                     }
                     
                     // Mensaje de mejora con detalles
                     String improvementIcon = stepImprovement > 5 ? "[***]" : (stepImprovement > 1 ? "[**]" : "[*]");
-                    System.out.println(String.format("%s Iter %4d: NEW BEST! %.2f -> %.2f (Step: -%.2f%%, Total: %.2f%%) | Move: %s", 
-                        improvementIcon, totalIterations, bestCost, currentCost, stepImprovement, totalImprovement, moveType));
+                    log(String.format("%s Iter %4d: NEW BEST! %.2f -> %.2f (Step: -%.2f%%, Total: %.2f%%) | Move: %s", 
+                        improvementIcon, run.totalIterations, bestCost, currentCost, stepImprovement, totalImprovement, moveType));
+
+                    if (currentCost <= lowerBoundTarget && isFullyAssigned(currentSolution, orders)) {
+                        lowerBoundReached = true;
+                        log(String.format("[TABU][LB] Best cost %.2f within %.1f%% of lower bound %.2f. Stopping.",
+                            currentCost, config.getLowerBoundGap() * 100, lowerBound));
+                    }
                 } else {
                     iterationsWithoutImprovement++;
                     
                     // ADAPTATIVO: Aumentar tamaño de lista tabú si hay estancamiento (diversificación)
                     if (iterationsWithoutImprovement == 40 && tabuSetMaxSize < 30) {
                         tabuSetMaxSize = 30;
-                        System.out.println("   [UP] Tabu list increased to " + tabuSetMaxSize + " (diversification - stagnation detected)");
+                        log("   [UP] Tabu list increased to " + tabuSetMaxSize + " (diversification - stagnation detected)");
                     }
                 }
             }
             
-            totalIterations++;
+            run.totalIterations++;
+
+            // Compactación periódica: SPLIT hace crecer el número de shipments por pedido
+            if (config.getCompactionInterval() > 0 && run.totalIterations % config.getCompactionInterval() == 0) {
+                int compacted = ShipmentCompactor.compact(currentSolution,
+                    config.getMaxShipmentsPerOrder(), config.getTinyShipmentThreshold());
+                if (compacted > 0) {
+                    // La compactación cambia la solución actual: su costo anterior ya no vale
+                    double compactedCost = TabuSearchPlannerCostFunction.calculateCost(
+                        currentSolution, flights, airports, run.totalIterations, config.getMaxIterations(), parallelism);
+                    costHistory.set(costHistory.size() - 1, compactedCost);
+                    if (compactedCost < bestCostEver) {
+                        bestSolution = new TabuSolution(currentSolution);
+                        bestCostEver = compactedCost;
+                        improvedThisIteration = true;
+                    }
+                    log(String.format("[TABU][COMPACT] Iter %d: removed %d shipments (%d remaining) | Cost: %.2f",
+                        run.totalIterations, compacted, currentSolution.getPlannerShipments().size(), compactedCost));
+                }
+            }
 
             // Check stop request from listener
-            if (listener != null && listener.isStopRequested()) {
-                System.out.println("[TABU] Stop requested by listener. Exiting optimization loop.");
+            if (run.listener != null && run.listener.isStopRequested()) {
+                log("[TABU] Stop requested by listener. Exiting optimization loop.");
                 break;
             }
 
             // Emit snapshot on improvement or heartbeat
             long now = System.currentTimeMillis();
             boolean shouldSnapshot = false;
-            if (listener != null) {
+            if (run.listener != null) {
                 // Ensure we have a current cost to compare (recompute if necessary)
                 double currentCost = TabuSearchPlannerCostFunction.calculateCost(
-                    currentSolution, flights, airports, totalIterations, config.getMaxIterations());
+                    currentSolution, flights, airports, run.totalIterations, config.getMaxIterations(), parallelism);
 
                 // If we detected an improvement during this iteration, force a snapshot
                 if (improvedThisIteration) {
@@ -431,12 +520,12 @@ public class TabuSearchPlanner implements IOptimizer {
                     // Fallback: if for whatever reason bestCostEver lagged, treat as improvement
                     shouldSnapshot = true;
                 }
-                if (!shouldSnapshot && now - lastSnapshotTime >= snapshotMs) shouldSnapshot = true;
+                if (!shouldSnapshot && now - run.lastSnapshotTime >= snapshotMs) shouldSnapshot = true;
                 if (shouldSnapshot) {
-                    lastSnapshotTime = now;
-                    snapshotCounter++;
+                    run.lastSnapshotTime = now;
+                    run.snapshotCounter++;
                     try {
-                        listener.onSnapshot(new TabuSolution(currentSolution), totalIterations, bestCostEver, snapshotCounter, java.time.Instant.ofEpochMilli(now));
+                        run.listener.onSnapshot(new TabuSolution(currentSolution), run.totalIterations, bestCostEver, run.snapshotCounter, java.time.Instant.ofEpochMilli(now));
                     } catch (Exception ex) {
                         System.out.println("[TABU] Warning: listener threw exception: " + ex.getMessage());
                     }
@@ -444,9 +533,9 @@ public class TabuSearchPlanner implements IOptimizer {
             }
             
             // Log periódico mostrando ESTADO DE MEJORA
-            if (totalIterations % 20 == 0) {
+            if (verbose && run.totalIterations % 20 == 0) {
                 double currentCost = TabuSearchPlannerCostFunction.calculateCost(
-                    currentSolution, flights, airports, totalIterations, config.getMaxIterations());
+                    currentSolution, flights, airports, run.totalIterations, config.getMaxIterations(), parallelism);
                 
                 // Calcular tendencia
                 String trendIcon = getTrendIcon(costHistory, currentCost);
@@ -457,9 +546,9 @@ public class TabuSearchPlanner implements IOptimizer {
                 
                 // Racha de mejoras
                 
-                System.out.println(String.format("%s %s Iter %4d/%d | Current: %.2f | Best: %.2f %s | Improved: %.1f%% | Stale: %d/%d | Tabu: %d",
+                log(String.format("%s %s Iter %4d/%d | Current: %.2f | Best: %.2f %s | Improved: %.1f%% | Stale: %d/%d | Tabu: %d",
                     statusIcon, trendIcon, 
-                    totalIterations, config.getMaxIterations(),
+                    run.totalIterations, config.getMaxIterations(),
                     currentCost, bestCostEver,
                     getImprovementBadge(totalImprovement),
                     totalImprovement,
@@ -470,25 +559,36 @@ public class TabuSearchPlanner implements IOptimizer {
             // Advertencia si no hay mejora por mucho tiempo
             if (iterationsWithoutImprovement > 0 && iterationsWithoutImprovement % 30 == 0) {
                 double staleness = (double) iterationsWithoutImprovement / config.getMaxIterationsWithoutImprovement() * 100;
-                System.out.println(String.format("[WARNING] STAGNATION: %d iterations without improvement (%.0f%% to stop limit)",
+                log(String.format("[WARNING] STAGNATION: %d iterations without improvement (%.0f%% to stop limit)",
                     iterationsWithoutImprovement, staleness));
             }
             
             // Celebrar hitos de mejora
-            if (improvementIterations > 0 && improvementIterations % 10 == 0 && iterationsWithoutImprovement == 0) {
-                System.out.println(String.format("[HOT] STREAK: %d improvements found! Keep going!", improvementIterations));
+            if (run.improvementIterations > 0 && run.improvementIterations % 10 == 0 && iterationsWithoutImprovement == 0) {
+                log(String.format("[HOT] STREAK: %d improvements found! Keep going!", run.improvementIterations));
             }
         }
         
+        // Compactación final: la compactación nunca aumenta el costo
+        int compacted = ShipmentCompactor.compact(bestSolution,
+            config.getMaxShipmentsPerOrder(), config.getTinyShipmentThreshold());
+        if (compacted > 0) {
+            bestCostEver = Math.min(bestCostEver, TabuSearchPlannerCostFunction.calculateCost(
+                bestSolution, flights, airports, run.totalIterations, config.getMaxIterations(), parallelism));
+            log(String.format("[TABU][COMPACT] Final: removed %d shipments (%d remaining)",
+                compacted, bestSolution.getPlannerShipments().size()));
+        }
+
         long endTime = System.currentTimeMillis();
         double executionTime = (endTime - startTime) / 1000.0;
         
         // Calcular métricas finales
-        calculateFinalMetrics(bestSolution);
+        calculateFinalMetrics(run, bestSolution);
         
         // Imprimir resultados finales
-        printFinalResults(bestSolution, flights, airports, executionTime, initialCost, bestCostEver, costHistory);
+        if (verbose) printFinalResults(run, bestSolution, flights, airports, executionTime, initialCost, bestCostEver, costHistory);
 
+        lastRun = run;
         return bestSolution;
     }
     
@@ -554,15 +654,91 @@ public class TabuSearchPlanner implements IOptimizer {
         }
     }
     
+    // ========== SOLUCIÓN INICIAL ==========
+
+    /**
+     * Greedy dinámico en el hilo actual y, si está habilitada, construcción ACO acotada en paralelo
+     * en otro hilo del cupo (sus hormigas usan el resto). Sin un segundo hilo no se siembra: el ACO
+     * correría después del greedy y sumaría todo su presupuesto a la ejecución.
+     * Se usa la de menor costo; el ACO solo aporta diversidad en ventanas congestionadas.
+     */
+    private TabuSolution buildInitialSolution(RunContext run, List<PlannerOrder> orders, List<PlannerFlight> flights, List<PlannerAirport> airports) {
+        if (acoSeedBudgetMs <= 0 || flights == null || flights.isEmpty()) {
+            return generateGreedySolution(run, orders, flights, airports, parallelism);
+        }
+        if (parallelism < 2) {
+            log("[TABU][ACO-SEED] Skipped: no spare thread for the ACO (parallelism " + parallelism + "), using greedy start");
+            return generateGreedySolution(run, orders, flights, airports, parallelism);
+        }
+
+        AcoConfig acoConfig = new AcoConfig().withTimeLimitMs(acoSeedBudgetMs).withParallelism(parallelism - 1);
+        AcoPlanner aco = new AcoPlanner(run.random.nextLong(), acoConfig);
+        aco.setVerbose(verbose);
+        List<Callable<TabuSolution>> constructions = List.of(
+            () -> generateGreedySolution(run, orders, flights, airports, 1),
+            () -> {
+                try {
+                    return aco.construct(orders, flights, airports, acoSeedBudgetMs);
+                } catch (RuntimeException e) {
+                    System.out.println("[TABU][ACO-SEED] ACO construction unavailable (" + e + "), using greedy start");
+                    return null;
+                }
+            });
+
+        TabuSolution greedySolution;
+        TabuSolution acoSolution;
+        try {
+            // Dos tareas dentro del cupo: el greedy en este hilo y el ACO en un hilo de PlannerExecutors
+            List<TabuSolution> built = PlannerExecutors.invokeAll(constructions, 2);
+            greedySolution = built.get(0);
+            acoSolution = built.get(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Initial construction interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw new IllegalStateException("Initial construction failed", e.getCause());
+        }
+        if (acoSolution == null) return greedySolution;
+
+        double greedyCost = TabuSearchPlannerCostFunction.calculateCost(greedySolution, flights, airports, 0, config.getMaxIterations(), parallelism);
+        double acoCost = TabuSearchPlannerCostFunction.calculateCost(acoSolution, flights, airports, 0, config.getMaxIterations(), parallelism);
+        boolean useAco = !acoSolution.getPlannerShipments().isEmpty() && acoCost < greedyCost;
+        log(String.format("[TABU][ACO-SEED] Greedy cost: %.2f | ACO cost: %.2f -> starting from %s",
+            greedyCost, acoCost, useAco ? "ACO" : "GREEDY"));
+        if (!useAco) return greedySolution;
+
+        // Renumerar para no chocar con los ids que genera este planner (claves de la lista tabú)
+        TabuSolution seeded = new TabuSolution();
+        for (PlannerShipment shipment : acoSolution.getPlannerShipments()) {
+            seeded.addPlannerShipment(new PlannerShipment(
+                run.nextShipmentId++, shipment.getOrder(), shipment.getRoute(), shipment.getQuantity()));
+        }
+        seeded.setAllOrders(orders);
+        return seeded;
+    }
+
     // ========== GREEDY DINÁMICO ==========
+
+    private TabuSolution generateGreedySolution(RunContext run, List<PlannerOrder> orders, List<PlannerFlight> flights,
+                                                List<PlannerAirport> airports, int threads) {
+        if (threads < 2 || orders.size() < PARALLEL_CONSTRUCTION_MIN_ORDERS) {
+            return generateInitialSolutionDynamic(run, orders, flights, airports);
+        }
+        AtomicInteger shipmentIds = new AtomicInteger(run.nextShipmentId);
+        TabuSolution solution = new ParallelGreedyConstruction(PlannerExecutors.compute(), threads, run.random.nextLong())
+            .construct(orders, flights, airports, shipmentIds);
+        run.nextShipmentId = shipmentIds.get();
+        return solution;
+    }
     
     /**
      * Genera solución inicial distribuyendo productos dinámicamente entre rutas disponibles
      */
-    private TabuSolution generateInitialSolutionDynamic(List<PlannerOrder> orders, List<PlannerFlight> flights, List<PlannerAirport> airports) {
-        System.out.println("\n" + "-".repeat(80));
-        System.out.println("FASE 1: GREEDY DYNAMIC ALLOCATION");
-        System.out.println("-".repeat(80));
+    private TabuSolution generateInitialSolutionDynamic(RunContext run, List<PlannerOrder> orders, List<PlannerFlight> flights, List<PlannerAirport> airports) {
+        log("\n" + "-".repeat(80));
+        log("FASE 1: GREEDY DYNAMIC ALLOCATION");
+        log("-".repeat(80));
 
         TabuSolution solution = new TabuSolution();
         Map<PlannerFlight, Integer> flightCapacityRemaining = new HashMap<>();
@@ -580,7 +756,7 @@ public class TabuSearchPlanner implements IOptimizer {
             
             // Agregar pequeña aleatoriedad en órdenes con misma urgencia
             if (Math.abs(a.getMaxDeliveryHours() - b.getMaxDeliveryHours()) < 5) {
-                return random.nextBoolean() ? -1 : 1;  // Orden aleatorio si son similares
+                return run.random.nextBoolean() ? -1 : 1;  // Orden aleatorio si son similares
             }
             return Long.compare(a.getMaxDeliveryHours(), b.getMaxDeliveryHours());
         });
@@ -591,7 +767,7 @@ public class TabuSearchPlanner implements IOptimizer {
         int debugOrders = 10; // only print verbose debug for first N orders to avoid noisy logs
         int debugCount = 0;
         for (PlannerOrder order : prioritizedOrders) {
-            System.out.println(String.format("\nProcessing Order #%d: %d products, %s → %s, deadline: %d hours",
+            log(String.format("\nProcessing Order #%d: %d products, %s → %s, deadline: %d hours",
                 order.getId(), order.getTotalQuantity(), 
                 order.getOrigin().getCode(), order.getDestination().getCode(),
                 order.getMaxDeliveryHours()));
@@ -600,11 +776,11 @@ public class TabuSearchPlanner implements IOptimizer {
             List<PlannerShipment> orderShipments = new ArrayList<>();
             
             // 1. Intentar rutas directas PRIMERO
-            List<RouteOption> directRoutes = findDirectRoutes(order, flights, flightCapacityRemaining);
+            List<RouteOption> directRoutes = RouteFinder.findDirectRoutes(order, flights, flightCapacityRemaining);
             
             // ✨ DIVERSIDAD: Mezclar rutas para no siempre elegir las mismas
             if (directRoutes.size() > 1) {
-                Collections.shuffle(directRoutes.subList(0, Math.min(5, directRoutes.size())), random);
+                Collections.shuffle(directRoutes.subList(0, Math.min(5, directRoutes.size())), run.random);
             }
             
             for (RouteOption route : directRoutes) {
@@ -613,38 +789,38 @@ public class TabuSearchPlanner implements IOptimizer {
                 int toAssign = Math.min(remainingProducts, route.getMinCapacity());
                 if (toAssign > 0) {
                     PlannerShipment shipment = new PlannerShipment(
-                        nextShipmentId++,
+                        run.nextShipmentId++,
                         order,
                         route.getFlights(),
                         toAssign
                     );
                     orderShipments.add(shipment);
-                    updateCapacities(route.getFlights(), toAssign, flightCapacityRemaining);
+                    RouteFinder.updateCapacities(route.getFlights(), toAssign, flightCapacityRemaining);
                     remainingProducts -= toAssign;
                     
-                    System.out.println(String.format("   Assigned %d products to DIRECT route: %s",
+                    log(String.format("   Assigned %d products to DIRECT route: %s",
                         toAssign, shipment.getRouteDescription()));
                 }
             }
             
             // DEBUG: report candidate route counts and capacities for first few orders
             if (debugCount < debugOrders) {
-                System.out.println(String.format("   DEBUG: directRoutes=%d", directRoutes.size()));
+                log(String.format("   DEBUG: directRoutes=%d", directRoutes.size()));
                 // print top 3 direct route capacities
                 int idx = 0;
                 for (RouteOption r : directRoutes) {
                     if (idx++ >= 3) break;
-                    System.out.println(String.format("      direct candidate minCap=%d flights=%s", r.getMinCapacity(), r.getFlights().stream().map(f -> f.getOrigin().getCode() + "->" + f.getDestination().getCode()).toList()));
+                    log(String.format("      direct candidate minCap=%d flights=%s", r.getMinCapacity(), r.getFlights().stream().map(f -> f.getOrigin().getCode() + "->" + f.getDestination().getCode()).toList()));
                 }
             }
 
             // 2. Si quedan productos, intentar rutas con CONEXIONES
             if (remainingProducts > 0) {
-                List<RouteOption> connectionRoutes = findConnectionRoutes(order, flights, airports, flightCapacityRemaining);
+                List<RouteOption> connectionRoutes = RouteFinder.findConnectionRoutes(order, flights, flightCapacityRemaining);
                 
                 // ✨ DIVERSIDAD: Mezclar rutas con conexión también
                 if (connectionRoutes.size() > 1) {
-                    Collections.shuffle(connectionRoutes.subList(0, Math.min(5, connectionRoutes.size())), random);
+                    Collections.shuffle(connectionRoutes.subList(0, Math.min(5, connectionRoutes.size())), run.random);
                 }
                 
                 for (RouteOption route : connectionRoutes) {
@@ -653,26 +829,26 @@ public class TabuSearchPlanner implements IOptimizer {
                     int toAssign = Math.min(remainingProducts, route.getMinCapacity());
                     if (toAssign > 0) {
                         PlannerShipment shipment = new PlannerShipment(
-                            nextShipmentId++,
+                            run.nextShipmentId++,
                             order,
                             route.getFlights(),
                             toAssign
                         );
                         orderShipments.add(shipment);
-                        updateCapacities(route.getFlights(), toAssign, flightCapacityRemaining);
+                        RouteFinder.updateCapacities(route.getFlights(), toAssign, flightCapacityRemaining);
                         remainingProducts -= toAssign;
                         
-                        System.out.println(String.format("   Assigned %d products to CONNECTION route (%d stops): %s",
+                        log(String.format("   Assigned %d products to CONNECTION route (%d stops): %s",
                             toAssign, route.getNumberOfStops(), shipment.getRouteDescription()));
                     }
                 }
 
                 if (debugCount < debugOrders) {
-                    System.out.println(String.format("   DEBUG: connectionRoutes=%d", connectionRoutes.size()));
+                    log(String.format("   DEBUG: connectionRoutes=%d", connectionRoutes.size()));
                     int idx2 = 0;
                     for (RouteOption r : connectionRoutes) {
                         if (idx2++ >= 3) break;
-                        System.out.println(String.format("      conn candidate minCap=%d flights=%s", r.getMinCapacity(), r.getFlights().stream().map(f -> f.getOrigin().getCode() + "->" + f.getDestination().getCode()).toList()));
+                        log(String.format("      conn candidate minCap=%d flights=%s", r.getMinCapacity(), r.getFlights().stream().map(f -> f.getOrigin().getCode() + "->" + f.getDestination().getCode()).toList()));
                     }
                 }
 
@@ -683,7 +859,7 @@ public class TabuSearchPlanner implements IOptimizer {
             solution.addAllPlannerShipments(orderShipments);
             
             if (remainingProducts > 0) {
-                System.out.println(String.format("   WARNING: %d products NOT assigned (no capacity/route available)",
+                log(String.format("   WARNING: %d products NOT assigned (no capacity/route available)",
                     remainingProducts));
             } else {
                 ordersProcessed++;
@@ -693,113 +869,21 @@ public class TabuSearchPlanner implements IOptimizer {
         
         solution.setAllOrders(orders);
 
-        System.out.println("\n" + "-".repeat(80));
-        System.out.println("GREEDY ALLOCATION COMPLETED");
-        System.out.println(String.format("   Orders fully assigned: %d/%d", ordersProcessed, orders.size()));
-        System.out.println(String.format("   Total products assigned: %d", totalProductsAssigned));
-        System.out.println("-".repeat(80));
+        log("\n" + "-".repeat(80));
+        log("GREEDY ALLOCATION COMPLETED");
+        log(String.format("   Orders fully assigned: %d/%d", ordersProcessed, orders.size()));
+        log(String.format("   Total products assigned: %d", totalProductsAssigned));
+        log("-".repeat(80));
 
         return solution;
     }
 
-    /**
-     * Buscar rutas directas disponibles
-     */
-    private List<RouteOption> findDirectRoutes(PlannerOrder order, List<PlannerFlight> flights, 
-                                                Map<PlannerFlight, Integer> capacityRemaining) {
-        List<RouteOption> routes = new ArrayList<>();
-        
-        for (PlannerFlight flight : flights) {
-            if (flight.getOrigin().equals(order.getOrigin()) && 
-                flight.getDestination().equals(order.getDestination()) &&
-                isValidDepartureTime(order, flight)) {
-                
-                RouteOption route = new RouteOption(List.of(flight));
-                route.setMinCapacity(capacityRemaining.getOrDefault(flight, 0));
-                
-                if (route.getMinCapacity() > 0) {
-                    routes.add(route);
-                }
-            }
-        }
-        
-        // Ordenar por prioridad (tiempo, costo)
-        routes.sort(RouteOption::compareTo);
-        
-        return routes;
-    }
-    
-    /**
-     * Buscar rutas con conexiones disponibles
-     */
-    private List<RouteOption> findConnectionRoutes(PlannerOrder order, List<PlannerFlight> flights, 
-                                                    List<PlannerAirport> airports,
-                                                    Map<PlannerFlight, Integer> capacityRemaining) {
-        List<RouteOption> routes = new ArrayList<>();
-        String[] hubCodes = {LIMA_CODE, BRUSSELS_CODE, BAKU_CODE};
-        
-        for (String hubCode : hubCodes) {
-            // Buscar vuelo: origen → hub
-            List<PlannerFlight> firstLegs = flights.stream()
-                .filter(f -> f.getOrigin().equals(order.getOrigin()) &&
-                             f.getDestination().getCode().equals(hubCode) &&
-                             isValidDepartureTime(order, f))
-                .collect(Collectors.toList());
-            
-            for (PlannerFlight firstLeg : firstLegs) {
-                // Buscar vuelo: hub → destino
-                List<PlannerFlight> secondLegs = flights.stream()
-                    .filter(f -> f.getOrigin().getCode().equals(hubCode) &&
-                                 f.getDestination().equals(order.getDestination()) &&
-                                 isValidConnection(firstLeg, f))
-                    .collect(Collectors.toList());
-                
-                for (PlannerFlight secondLeg : secondLegs) {
-                    List<PlannerFlight> routeFlights = List.of(firstLeg, secondLeg);
-                    RouteOption route = new RouteOption(routeFlights);
-                    
-                    // Capacidad = mínimo de ambos vuelos (cuello de botella)
-                    int minCap = Math.min(
-                        capacityRemaining.getOrDefault(firstLeg, 0),
-                        capacityRemaining.getOrDefault(secondLeg, 0)
-                    );
-                    route.setMinCapacity(minCap);
-                    
-                    if (route.getMinCapacity() > 0) {
-                        routes.add(route);
-                    }
-                }
-            }
-        }
-        
-        routes.sort(RouteOption::compareTo);
-        
-        return routes;
-    }
-    
-    private boolean isValidDepartureTime(PlannerOrder order, PlannerFlight flight) {
-        long hoursUntilDeparture = ChronoUnit.HOURS.between(order.getOrderTime(), flight.getDepartureTime());
-        return hoursUntilDeparture >= 0 && hoursUntilDeparture <= order.getMaxDeliveryHours();
-    }
-
-    private boolean isValidConnection(PlannerFlight first, PlannerFlight second) {
-        long connectionHours = ChronoUnit.HOURS.between(first.getArrivalTime(), second.getDepartureTime());
-        return connectionHours >= 1 && connectionHours <= 24;
-    }
-    
-    private void updateCapacities(List<PlannerFlight> route, int quantity, Map<PlannerFlight, Integer> remaining) {
-        for (PlannerFlight flight : route) {
-            int current = remaining.get(flight);
-            remaining.put(flight, current - quantity);
-        }
-    }
-    
     // ========== TABU SEARCH - GENERACIÓN DE MOVIMIENTOS ==========
     
     /**
      * Generar movimientos candidatos
      */
-    private List<TabuMoveBase> generateCandidateMoves(TabuSolution solution, List<PlannerFlight> flights, List<PlannerAirport> airports) {
+    private List<TabuMoveBase> generateCandidateMoves(RunContext run, TabuSolution solution, List<PlannerFlight> flights, List<PlannerAirport> airports) {
         List<TabuMoveBase> moves = new ArrayList<>();
         List<PlannerShipment> shipments = solution.getPlannerShipments();
         
@@ -816,12 +900,12 @@ public class TabuSearchPlanner implements IOptimizer {
                     shipment.getQuantity() / 3,
                     shipment.getQuantity() / 4,
                     // Agregar puntos aleatorios para diversificar
-                    (int)(shipment.getQuantity() * (0.3 + random.nextDouble() * 0.4))  // 30%-70%
+                    (int)(shipment.getQuantity() * (0.3 + run.random.nextDouble() * 0.4))  // 30%-70%
                 };
                 
                 for (int splitQty : splitPoints) {
                     if (splitQty > 0 && splitQty < shipment.getQuantity()) {
-                        moves.add(new SplitShipmentMove(shipment, splitQty, nextShipmentId++));
+                        moves.add(new SplitShipmentMove(shipment, splitQty, run.nextShipmentId++));
                         if (moves.size() >= movesLimit) break;
                     }
                 }
@@ -831,7 +915,7 @@ public class TabuSearchPlanner implements IOptimizer {
             for (PlannerShipment other : shipments) {
                 if (shipment.equals(other)) continue;
                 if (!shipment.getOrder().equals(other.getOrder())) continue;
-                if (!shipment.getFlights().equals(other.getFlights())) continue;
+                if (!shipment.getRoute().sameFlightsAs(other.getRoute())) continue;
                 
                 moves.add(new MergeShipmentsMove(shipment, other));
                 if (moves.size() >= movesLimit) break;
@@ -844,7 +928,7 @@ public class TabuSearchPlanner implements IOptimizer {
                 
                 // ✨ Cantidad de transferencia con variabilidad
                 int maxTransfer = Math.max(1, shipment.getQuantity() / 3);
-                int transferQty = random.nextInt(maxTransfer) + 1;  // 1 a maxTransfer
+                int transferQty = run.random.nextInt(maxTransfer) + 1;  // 1 a maxTransfer
                 
                 if (transferQty > 0 && transferQty < shipment.getQuantity()) {
                     moves.add(new TransferQuantityMove(shipment, other, transferQty));
@@ -853,7 +937,7 @@ public class TabuSearchPlanner implements IOptimizer {
             }
             
             // 4. Reroute: Cambiar a ruta alternativa
-            List<List<PlannerFlight>> alternativeRoutes = findAlternativeRoutes(shipment, flights, airports);
+            List<List<PlannerFlight>> alternativeRoutes = RouteFinder.findAlternativeRoutes(shipment.getOrder(), flights, 5);
             for (List<PlannerFlight> newRoute : alternativeRoutes) {
                 if (!newRoute.equals(shipment.getFlights())) {
                     moves.add(new RerouteShipmentMove(shipment, newRoute));
@@ -865,49 +949,12 @@ public class TabuSearchPlanner implements IOptimizer {
         return moves;
     }
     
-    /**
-     * Encontrar rutas alternativas para un shipment
-     */
-    private List<List<PlannerFlight>> findAlternativeRoutes(PlannerShipment shipment, List<PlannerFlight> flights, List<PlannerAirport> airports) {
-        List<List<PlannerFlight>> alternatives = new ArrayList<>();
-        PlannerOrder order = shipment.getOrder();
-        
-        // Rutas directas
-        for (PlannerFlight flight : flights) {
-            if (flight.getOrigin().equals(order.getOrigin()) &&
-                flight.getDestination().equals(order.getDestination()) &&
-                isValidDepartureTime(order, flight)) {
-                alternatives.add(List.of(flight));
-            }
-        }
-        
-        // Rutas con conexión (limitar a 2 para eficiencia)
-        String[] hubCodes = {LIMA_CODE, BRUSSELS_CODE, BAKU_CODE};
-        for (String hubCode : hubCodes) {
-            for (PlannerFlight firstLeg : flights) {
-                if (!firstLeg.getOrigin().equals(order.getOrigin())) continue;
-                if (!firstLeg.getDestination().getCode().equals(hubCode)) continue;
-                if (!isValidDepartureTime(order, firstLeg)) continue;
-                
-                for (PlannerFlight secondLeg : flights) {
-                    if (!secondLeg.getOrigin().getCode().equals(hubCode)) continue;
-                    if (!secondLeg.getDestination().equals(order.getDestination())) continue;
-                    if (!isValidConnection(firstLeg, secondLeg)) continue;
-                    
-                    alternatives.add(List.of(firstLeg, secondLeg));
-                }
-            }
-        }
-        
-        return alternatives.stream().limit(5).collect(Collectors.toList());
-    }
-    
     // ========== MÉTRICAS Y REPORTING ==========
     
-    private void calculateFinalMetrics(TabuSolution solution) {
+    private void calculateFinalMetrics(RunContext run, TabuSolution solution) {
         List<PlannerShipment> shipments = solution.getPlannerShipments();
         if (shipments.isEmpty()) {
-            this.averageDeliveryTimeMinutes = 0.0;
+            run.averageDeliveryTimeMinutes = 0.0;
             return;
         }
         
@@ -923,63 +970,64 @@ public class TabuSearchPlanner implements IOptimizer {
             count++;
         }
         
-        this.averageDeliveryTimeMinutes = count > 0 ? totalMinutes / count : 0.0;
+        run.averageDeliveryTimeMinutes = count > 0 ? totalMinutes / count : 0.0;
     }
     
     public double getAverageDeliveryTimeMinutes() {
-        return averageDeliveryTimeMinutes;
+        RunContext run = lastRun;
+        return run != null ? run.averageDeliveryTimeMinutes : 0.0;
     }
     
     private void printSolutionSummary(TabuSolution solution) {
         Map<String, Object> stats = solution.getStatistics();
-        System.out.println("   Total shipments: " + stats.get("totalShipments"));
-        System.out.println("   Direct routes: " + stats.get("directShipments"));
-        System.out.println("   Connection routes: " + stats.get("connectionShipments"));
-        System.out.println("   Total products: " + stats.get("totalProducts"));
+        log("   Total shipments: " + stats.get("totalShipments"));
+        log("   Direct routes: " + stats.get("directShipments"));
+        log("   Connection routes: " + stats.get("connectionShipments"));
+        log("   Total products: " + stats.get("totalProducts"));
     }
     
-    private void printFinalResults(TabuSolution solution, List<PlannerFlight> flights, List<PlannerAirport> airports, 
+    private void printFinalResults(RunContext run, TabuSolution solution, List<PlannerFlight> flights, List<PlannerAirport> airports, 
                                     double executionTime, double initialCost, double finalCost, List<Double> costHistory) {
-        System.out.println("\n" + "=".repeat(80));
-        System.out.println("=== OPTIMIZATION COMPLETED ===");
-        System.out.println("=".repeat(80));
+        log("\n" + "=".repeat(80));
+        log("=== OPTIMIZATION COMPLETED ===");
+        log("=".repeat(80));
         
         // Tiempo y rendimiento
-        System.out.println("\n⏱️  PERFORMANCE METRICS:");
-        System.out.println("   Execution time: " + String.format("%.2f", executionTime) + " seconds");
-        System.out.println("   Iterations per second: " + String.format("%.1f", totalIterations / executionTime));
-        System.out.println("   Total iterations: " + totalIterations);
-        System.out.println("   Iterations with improvement: " + improvementIterations + " (" + 
-            String.format("%.1f%%", (double) improvementIterations / totalIterations * 100) + ")");
+        log("\n⏱️  PERFORMANCE METRICS:");
+        log("   Execution time: " + String.format("%.2f", executionTime) + " seconds");
+        log("   Iterations per second: " + String.format("%.1f", run.totalIterations / executionTime));
+        log("   Total iterations: " + run.totalIterations);
+        log("   Iterations with improvement: " + run.improvementIterations + " (" + 
+            String.format("%.1f%%", (double) run.improvementIterations / run.totalIterations * 100) + ")");
         
         // Costos
-        System.out.println("\nCOST ANALYSIS:");
+        log("\nCOST ANALYSIS:");
         double improvement = ((initialCost - finalCost) / initialCost) * 100;
-        System.out.println("   Initial cost: " + String.format("%.2f", initialCost));
-        System.out.println("   Final cost: " + String.format("%.2f", finalCost));
-        System.out.println("   Improvement: " + String.format("%.2f", initialCost - finalCost) + 
+        log("   Initial cost: " + String.format("%.2f", initialCost));
+        log("   Final cost: " + String.format("%.2f", finalCost));
+        log("   Improvement: " + String.format("%.2f", initialCost - finalCost) + 
             " (" + String.format("%.2f%%", improvement) + ")");
         
         // Movimientos aplicados
-        System.out.println("\nMOVES APPLIED:");
-        int totalMoves = splitMovesApplied + mergeMovesApplied + transferMovesApplied + rerouteMovesApplied;
-        System.out.println("   Split moves: " + splitMovesApplied + " (" + 
-            String.format("%.1f%%", totalMoves > 0 ? (double) splitMovesApplied / totalMoves * 100 : 0) + ")");
-        System.out.println("   Merge moves: " + mergeMovesApplied + " (" + 
-            String.format("%.1f%%", totalMoves > 0 ? (double) mergeMovesApplied / totalMoves * 100 : 0) + ")");
-        System.out.println("   Transfer moves: " + transferMovesApplied + " (" + 
-            String.format("%.1f%%", totalMoves > 0 ? (double) transferMovesApplied / totalMoves * 100 : 0) + ")");
-        System.out.println("   Reroute moves: " + rerouteMovesApplied + " (" + 
-            String.format("%.1f%%", totalMoves > 0 ? (double) rerouteMovesApplied / totalMoves * 100 : 0) + ")");
-        System.out.println("   TOTAL: " + totalMoves);
+        log("\nMOVES APPLIED:");
+        int totalMoves = run.splitMovesApplied + run.mergeMovesApplied + run.transferMovesApplied + run.rerouteMovesApplied;
+        log("   Split moves: " + run.splitMovesApplied + " (" + 
+            String.format("%.1f%%", totalMoves > 0 ? (double) run.splitMovesApplied / totalMoves * 100 : 0) + ")");
+        log("   Merge moves: " + run.mergeMovesApplied + " (" + 
+            String.format("%.1f%%", totalMoves > 0 ? (double) run.mergeMovesApplied / totalMoves * 100 : 0) + ")");
+        log("   Transfer moves: " + run.transferMovesApplied + " (" + 
+            String.format("%.1f%%", totalMoves > 0 ? (double) run.transferMovesApplied / totalMoves * 100 : 0) + ")");
+        log("   Reroute moves: " + run.rerouteMovesApplied + " (" + 
+            String.format("%.1f%%", totalMoves > 0 ? (double) run.rerouteMovesApplied / totalMoves * 100 : 0) + ")");
+        log("   TOTAL: " + totalMoves);
         
         // Entrega
-        System.out.println("\nDELIVERY METRICS:");
-        System.out.println("   Average delivery time: " + String.format("%.2f", averageDeliveryTimeMinutes) + " minutes");
-        System.out.println("   Average delivery time: " + String.format("%.2f", averageDeliveryTimeMinutes / 60.0) + " hours");
+        log("\nDELIVERY METRICS:");
+        log("   Average delivery time: " + String.format("%.2f", run.averageDeliveryTimeMinutes) + " minutes");
+        log("   Average delivery time: " + String.format("%.2f", run.averageDeliveryTimeMinutes / 60.0) + " hours");
         
         // Solución
-        System.out.println("\nSOLUTION SUMMARY:");
+        log("\nSOLUTION SUMMARY:");
         printSolutionSummary(solution);
         
         // Análisis de completitud de órdenes
@@ -996,8 +1044,8 @@ public class TabuSearchPlanner implements IOptimizer {
      * Análisis de completitud de órdenes
      */
     private void printOrderCompletionAnalysis(TabuSolution solution) {
-        System.out.println("\nORDER COMPLETION ANALYSIS:");
-        System.out.println("   " + "-".repeat(60));
+        log("\nORDER COMPLETION ANALYSIS:");
+        log("   " + "-".repeat(60));
         
         List<PlannerOrder> allOrders = solution.getAllOrders();
         int fullyCompleted = 0;
@@ -1032,20 +1080,20 @@ public class TabuSearchPlanner implements IOptimizer {
         double completionRate = totalOrders > 0 ? (double) fullyCompleted / totalOrders * 100 : 0;
         double onTimeRate = fullyCompleted > 0 ? (double) onTime / fullyCompleted * 100 : 0;
         
-        System.out.println(String.format("   Total orders: %d", totalOrders));
-        System.out.println(String.format("   Fully completed: %d (%.1f%%)", fullyCompleted, completionRate));
-        System.out.println(String.format("      └─ On time: %d (%.1f%% of completed)", onTime, onTimeRate));
-        System.out.println(String.format("      └─ Late: %d (%.1f%% of completed)", late, 
+        log(String.format("   Total orders: %d", totalOrders));
+        log(String.format("   Fully completed: %d (%.1f%%)", fullyCompleted, completionRate));
+        log(String.format("      └─ On time: %d (%.1f%% of completed)", onTime, onTimeRate));
+        log(String.format("      └─ Late: %d (%.1f%% of completed)", late, 
             fullyCompleted > 0 ? (double) late / fullyCompleted * 100 : 0));
-        System.out.println(String.format("   Partially completed: %d (%.1f%%)", partiallyCompleted,
+        log(String.format("   Partially completed: %d (%.1f%%)", partiallyCompleted,
             totalOrders > 0 ? (double) partiallyCompleted / totalOrders * 100 : 0));
-        System.out.println(String.format("   Not completed: %d (%.1f%%)", notCompleted,
+        log(String.format("   Not completed: %d (%.1f%%)", notCompleted,
             totalOrders > 0 ? (double) notCompleted / totalOrders * 100 : 0));
         
-        System.out.println("\n   📊 SUCCESS METRICS:");
-        System.out.println(String.format("      Completion rate: %.1f%% %s", 
+        log("\n   📊 SUCCESS METRICS:");
+        log(String.format("      Completion rate: %.1f%% %s", 
             completionRate, getCompletionRatingIcon(completionRate)));
-        System.out.println(String.format("      On-time delivery rate: %.1f%% %s", 
+        log(String.format("      On-time delivery rate: %.1f%% %s", 
             onTimeRate, getOnTimeRatingIcon(onTimeRate)));
         
         // Calcular productos
@@ -1054,10 +1102,10 @@ public class TabuSearchPlanner implements IOptimizer {
             .mapToInt(PlannerShipment::getQuantity).sum();
         double productCompletionRate = totalProducts > 0 ? (double) assignedProducts / totalProducts * 100 : 0;
         
-        System.out.println(String.format("      Product assignment rate: %.1f%% (%d/%d products)",
+        log(String.format("      Product assignment rate: %.1f%% (%d/%d products)",
             productCompletionRate, assignedProducts, totalProducts));
         
-        System.out.println("   " + "-".repeat(60));
+        log("   " + "-".repeat(60));
     }
     
     private String getCompletionRatingIcon(double rate) {
@@ -1084,8 +1132,8 @@ public class TabuSearchPlanner implements IOptimizer {
     private void printCostConvergenceGraph(List<Double> costHistory, double initialCost) {
         if (costHistory.size() < 2) return;
         
-        System.out.println("\nCOST CONVERGENCE GRAPH:");
-        System.out.println("   " + "-".repeat(60));
+        log("\nCOST CONVERGENCE GRAPH:");
+        log("   " + "-".repeat(60));
         
         // Tomar muestras (máximo 30 puntos para que quepa en pantalla)
         int samples = Math.min(30, costHistory.size());
@@ -1106,20 +1154,20 @@ public class TabuSearchPlanner implements IOptimizer {
                 bar.append("█");
             }
             
-            System.out.println(String.format("%4d: %s %.2f", i, bar.toString(), cost));
+            log(String.format("%4d: %s %.2f", i, bar.toString(), cost));
         }
         
-        System.out.println("   " + "-".repeat(60));
-        System.out.println("   Min: " + String.format("%.2f", minCost) + " | Max: " + String.format("%.2f", maxCost));
+        log("   " + "-".repeat(60));
+        log("   Min: " + String.format("%.2f", minCost) + " | Max: " + String.format("%.2f", maxCost));
     }
     
     /**
      * Imprimir reporte detallado por orden (LOGGING COMPLETO)
      */
     private void printDetailedOrderReport(TabuSolution solution) {
-        System.out.println("\n" + "=".repeat(80));
-        System.out.println("=== DETAILED ORDER AND ROUTE REPORT ===");
-        System.out.println("=".repeat(80));
+        log("\n" + "=".repeat(80));
+        log("=== DETAILED ORDER AND ROUTE REPORT ===");
+        log("=".repeat(80));
         
         List<PlannerOrder> allOrders = solution.getAllOrders();
         
@@ -1137,57 +1185,89 @@ public class TabuSearchPlanner implements IOptimizer {
                 orderStatusIcon = "⚠️";
             }
             
-            System.out.println(String.format("\n%s ORDER #%d", orderStatusIcon, order.getId()));
-            System.out.println(String.format("   Origin: %s → Destination: %s",
+            log(String.format("\n%s ORDER #%d", orderStatusIcon, order.getId()));
+            log(String.format("   Origin: %s → Destination: %s",
                 order.getOrigin().getCode(), order.getDestination().getCode()));
-            System.out.println(String.format("   Total quantity: %d products", order.getTotalQuantity()));
-            System.out.println(String.format("   Max delivery time: %d hours (%s)",
+            log(String.format("   Total quantity: %d products", order.getTotalQuantity()));
+            log(String.format("   Max delivery time: %d hours (%s)",
                 order.getMaxDeliveryHours(),
                 order.isInterContinental() ? "intercontinental" : "same continent"));
-            System.out.println(String.format("   Order time: %s", order.getOrderTime()));
+            log(String.format("   Order time: %s", order.getOrderTime()));
             
             if (orderShipments.isEmpty()) {
-                System.out.println("   NO SHIPMENTS ASSIGNED");
+                log("   NO SHIPMENTS ASSIGNED");
                 continue;
             }
             
-            System.out.println(String.format("   Assigned quantity: %d/%d %s %.1f%%",
+            log(String.format("   Assigned quantity: %d/%d %s %.1f%%",
                 assignedQty, order.getTotalQuantity(),
                 isComplete ? "✅" : (assignedQty > 0 ? "⚠️" : "❌"),
                 (double) assignedQty / order.getTotalQuantity() * 100));
-            System.out.println(String.format("   Number of shipments: %d", orderShipments.size()));
+            log(String.format("   Number of shipments: %d", orderShipments.size()));
             
             // Detalles de cada shipment
             int shipmentNum = 1;
             for (PlannerShipment shipment : orderShipments) {
                 String shipmentIcon = shipment.meetsDeadline() ? "✅" : "⚠️";
-                System.out.println(String.format("\n   %s Shipment #%d (ID: %d):", shipmentIcon, shipmentNum++, shipment.getId()));
-                System.out.println(String.format("      Quantity: %d products (%.1f%% of order)",
+                log(String.format("\n   %s Shipment #%d (ID: %d):", shipmentIcon, shipmentNum++, shipment.getId()));
+                log(String.format("      Quantity: %d products (%.1f%% of order)",
                     shipment.getQuantity(),
                     (double) shipment.getQuantity() / order.getTotalQuantity() * 100));
-                System.out.println(String.format("      Route type: %s (%d stops)",
+                log(String.format("      Route type: %s (%d stops)",
                     shipment.isDirect() ? "DIRECT" : "WITH CONNECTIONS",
                     shipment.getNumberOfStops()));
-                System.out.println(String.format("      Route: %s", shipment.getRouteDescription()));
+                log(String.format("      Route: %s", shipment.getRouteDescription()));
                 
                 if (!shipment.isDirect()) {
-                    System.out.println(String.format("      Stopovers: %s",
+                    log(String.format("      Stopovers: %s",
                         String.join(", ", shipment.getStopoverAirports())));
                 }
                 
-                System.out.println(String.format("      Flights: %s", shipment.getDetailedRouteDescription()));
-                System.out.println(String.format("      Departure: %s", shipment.getInitialDepartureTime()));
-                System.out.println(String.format("      Arrival: %s", shipment.getFinalArrivalTime()));
-                System.out.println(String.format("      Travel time: %d hours", shipment.getTotalTravelHours()));
-                System.out.println(String.format("      Delivery time: %d hours (max: %d) %s",
+                log(String.format("      Flights: %s", shipment.getDetailedRouteDescription()));
+                log(String.format("      Departure: %s", shipment.getInitialDepartureTime()));
+                log(String.format("      Arrival: %s", shipment.getFinalArrivalTime()));
+                log(String.format("      Travel time: %d hours", shipment.getTotalTravelHours()));
+                log(String.format("      Delivery time: %d hours (max: %d) %s",
                     shipment.getDeliveryTimeHours(),
                     order.getMaxDeliveryHours(),
                     shipment.meetsDeadline() ? "✅ ON TIME" : "LATE"));
-                System.out.println(String.format("      Valid sequence: %s",
+                log(String.format("      Valid sequence: %s",
                     shipment.isValidSequence() ? "✅ YES" : "NO"));
             }
         }
         
-        System.out.println("\n" + "=".repeat(80));
+        log("\n" + "=".repeat(80));
+    }
+
+    /**
+     * Semilla de la siguiente ejecución: la primera usa la semilla del constructor (reproducible)
+     */
+    private long nextRunSeed() {
+        return randomSeed + runCount.getAndIncrement() * 0x9E3779B97F4A7C15L;
+    }
+
+    /**
+     * Estado de una ejecución de optimize(): aleatorio, ids de shipments, contadores de
+     * movimientos y snapshots. El listener se fija al inicio de la ejecución.
+     */
+    private static final class RunContext {
+        private final Random random;
+        private final TabuSearchListener listener;
+
+        private int nextShipmentId = 1;
+        private int totalIterations = 0;
+        private int improvementIterations = 0;
+        private int splitMovesApplied = 0;
+        private int mergeMovesApplied = 0;
+        private int transferMovesApplied = 0;
+        private int rerouteMovesApplied = 0;
+        private long lastSnapshotTime = 0;
+        private long snapshotCounter = 0;
+        private double averageDeliveryTimeMinutes = 0.0;
+
+        RunContext(long seed, TabuSearchListener listener) {
+            this.random = new Random(seed);
+            this.listener = listener;
+        }
     }
 }
@@ -1,13 +1,18 @@
 package pe.edu.pucp.morapack.algos.algorithm.tabu;
 
+import pe.edu.pucp.morapack.algos.algorithm.PlannerExecutors;
 import pe.edu.pucp.morapack.algos.entities.PlannerAirport;
 import pe.edu.pucp.morapack.algos.entities.PlannerFlight;
 import pe.edu.pucp.morapack.algos.entities.PlannerOrder;
 import pe.edu.pucp.morapack.algos.entities.PlannerShipment;
+import pe.edu.pucp.morapack.algos.entities.Route;
 
+import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.time.LocalDateTime;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Función de costo para Tabu Search basada en PlannerShipments.
@@ -22,16 +27,32 @@ public class TabuSearchPlannerCostFunction {
     private static final double INVALID_STOPOVER_TIME_PENALTY = 22000;
     private static final double AIRPORT_CAPACITY_VIOLATION_PENALTY = 20000;
     private static final double AIRPORT_CAPACITY_UNIT_PENALTY = 150;
-    private static final double INCOMPLETE_ORDER_PENALTY = 50000;  // Orden no completada
+    public static final double INCOMPLETE_ORDER_PENALTY = 50000;  // Por unidad de un pedido no completado
     private static final double INVALID_SEQUENCE_PENALTY = 30000;  // Secuencia de vuelos inválida
 
+    // Evaluación por bloques en paralelo para soluciones muy grandes (COLLAPSE)
+    public static final int PARALLEL_EVALUATION_THRESHOLD = 4096;
+    private static final int EVALUATION_CHUNK_SIZE = 1024;
+
     /**
      * Calcular costo total de una solución
      */
     public static double calculateCost(TabuSolution solution, List<PlannerFlight> flights, 
                                        List<PlannerAirport> airports, int currentIteration, int maxIterations) {
+        return calculateCost(solution, flights, airports, currentIteration, maxIterations, 1);
+    }
+
+    /**
+     * Costo total usando hasta 'parallelism' hilos en soluciones muy grandes
+     */
+    public static double calculateCost(TabuSolution solution, List<PlannerFlight> flights,
+                                       List<PlannerAirport> airports, int currentIteration, int maxIterations,
+                                       int parallelism) {
         double totalCost = 0.0;
         List<PlannerShipment> shipments = solution.getPlannerShipments();
+        if (shipments.size() >= PARALLEL_EVALUATION_THRESHOLD) {
+            return calculateCostParallel(shipments, parallelism);
+        }
 
         // 1. Penalización por violación de capacidad de vuelos
         totalCost += calculateFlightCapacityPenalty(shipments, solution);
@@ -64,30 +85,47 @@ public class TabuSearchPlannerCostFunction {
 
         // Calcular carga de cada vuelo
         for (PlannerShipment shipment : shipments) {
-            for (PlannerFlight flight : shipment.getFlights()) {
-                flightLoads.merge(flight, shipment.getQuantity(), Integer::sum);
+            Route route = shipment.getRoute();
+            for (int i = 0; i < route.size(); i++) {
+                flightLoads.merge(route.getFlight(i), shipment.getQuantity(), Integer::sum);
             }
         }
 
         // Penalizar excesos de capacidad
+        penalty += flightCapacityPenalty(flightLoads);
+
+        return penalty;
+    }
+
+    /**
+     * Penalización por exceso de carga, calculada con el PenaltyKernel activo
+     */
+    private static double flightCapacityPenalty(Map<PlannerFlight, Integer> flightLoads) {
+        int n = flightLoads.size();
+        int[] loads = new int[n];
+        int[] capacities = new int[n];
+        int i = 0;
         for (Map.Entry<PlannerFlight, Integer> entry : flightLoads.entrySet()) {
-            PlannerFlight flight = entry.getKey();
-            int load = entry.getValue();
-            if (load > flight.getCapacity()) {
-                int excess = load - flight.getCapacity();
-                penalty += CAPACITY_VIOLATION_PENALTY * excess;
-            }
+            loads[i] = entry.getValue();
+            capacities[i] = entry.getKey().getCapacity();
+            i++;
         }
+        return CAPACITY_VIOLATION_PENALTY * PenaltyKernels.active().capacityExcess(loads, capacities, n);
+    }
 
-        return penalty;
+    /**
+     * Penalización base por pedido tardío más penalización por hora de retraso
+     */
+    private static double delayPenalty(long[] deliveryHours, long[] maxHours, int n) {
+        PenaltyKernel kernel = PenaltyKernels.active();
+        return DELAY_BASE_PENALTY * kernel.lateCount(deliveryHours, maxHours, n)
+            + DELAY_HOUR_PENALTY * kernel.lateHours(deliveryHours, maxHours, n);
     }
 
     /**
      * 2. Retrasos en entregas (por Order)
      */
     private static double calculateDeliveryDelayPenalty(List<PlannerShipment> shipments) {
-        double penalty = 0.0;
-        
         // Agrupar shipments por Order
         Map<PlannerOrder, List<PlannerShipment>> byOrder = new HashMap<>();
         for (PlannerShipment shipment : shipments) {
@@ -95,6 +133,9 @@ public class TabuSearchPlannerCostFunction {
         }
 
         // Evaluar cada Order
+        long[] deliveryHoursByOrder = new long[byOrder.size()];
+        long[] maxHoursByOrder = new long[byOrder.size()];
+        int n = 0;
         for (Map.Entry<PlannerOrder, List<PlannerShipment>> entry : byOrder.entrySet()) {
             PlannerOrder order = entry.getKey();
             List<PlannerShipment> orderShipments = entry.getValue();
@@ -114,17 +155,14 @@ public class TabuSearchPlannerCostFunction {
 
             // All timestamps are in UTC, no timezone conversion needed
             
-            // Obtener plazo máximo
-            long maxHours = order.getMaxDeliveryHours();
-
-            // Penalizar si excede el plazo
-            if (deliveryHours > maxHours) {
-                long delayHours = deliveryHours - maxHours;
-                penalty += DELAY_BASE_PENALTY + (delayHours * DELAY_HOUR_PENALTY);
-            }
+            // Guardar horas de entrega y plazo máximo
+            deliveryHoursByOrder[n] = deliveryHours;
+            maxHoursByOrder[n] = order.getMaxDeliveryHours();
+            n++;
         }
 
-        return penalty;
+        // Penalizar los que exceden el plazo
+        return delayPenalty(deliveryHoursByOrder, maxHoursByOrder, n);
     }
 
     /**
@@ -134,29 +172,13 @@ public class TabuSearchPlannerCostFunction {
         double penalty = 0.0;
 
         for (PlannerShipment shipment : shipments) {
-            int stops = shipment.getNumberOfStops();
-            
+            Route route = shipment.getRoute();
+
             // Penalizar cada escala
-            penalty += stops * STOPOVER_PENALTY;
-
-            // Validar tiempos de conexión
-            if (stops > 0) {
-                List<PlannerFlight> flights = shipment.getFlights();
-                for (int i = 0; i < flights.size() - 1; i++) {
-                    PlannerFlight current = flights.get(i);
-                    PlannerFlight next = flights.get(i + 1);
-
-                    long connectionHours = ChronoUnit.HOURS.between(
-                        current.getArrivalTime(),
-                        next.getDepartureTime()
-                    );
-
-                    // Penalizar conexiones demasiado cortas o largas
-                    if (connectionHours < 1 || connectionHours > 24) {
-                        penalty += INVALID_STOPOVER_TIME_PENALTY;
-                    }
-                }
-            }
+            penalty += route.getNumberOfStops() * STOPOVER_PENALTY;
+
+            // Penalizar conexiones demasiado cortas o largas (< 1h o > 24h, precalculado en Route)
+            penalty += route.getInvalidConnectionCount() * INVALID_STOPOVER_TIME_PENALTY;
         }
 
         return penalty;
@@ -187,11 +209,8 @@ public class TabuSearchPlannerCostFunction {
 
         // Calcular productos en tránsito por aeropuerto (escalas)
         for (PlannerShipment shipment : shipments) {
-            List<PlannerFlight> flights = shipment.getFlights();
-            
             // Solo contar aeropuertos intermedios (escalas)
-            for (int i = 0; i < flights.size() - 1; i++) {
-                PlannerAirport stopover = flights.get(i).getDestination();
+            for (PlannerAirport stopover : shipment.getRoute().getStopoverAirports()) {
                 airportLoads.merge(stopover, shipment.getQuantity(), Integer::sum);
             }
         }
@@ -250,5 +269,286 @@ public class TabuSearchPlannerCostFunction {
 
         return penalty;
     }
-}
 
+    /**
+     * Penalización de los pedidos sin ningún envío en la solución, con el peso de los pedidos
+     * incompletos. calculateCost solo ve los pedidos con envíos; esto permite comparar
+     * soluciones que dejan pedidos completos fuera (por ejemplo, una vacía).
+     */
+    public static double unassignedOrderPenalty(TabuSolution solution, List<PlannerOrder> orders) {
+        double penalty = 0.0;
+        for (PlannerOrder order : orders) {
+            if (solution.getAssignedQuantityForOrder(order) == 0) {
+                penalty += INCOMPLETE_ORDER_PENALTY * order.getTotalQuantity();
+            }
+        }
+        return penalty;
+    }
+
+    // ========== EVALUACIÓN PARALELA ==========
+
+    /**
+     * Mismo costo que las penalizaciones 1-6, calculado por bloques: cada bloque de shipments
+     * produce agregados parciales (cargas de vuelos y almacenes, llegada más tardía y cantidad
+     * asignada por pedido, penalizaciones por shipment) en paralelo, y las penalizaciones que
+     * dependen de los totales se calculan tras combinarlos.
+     * calculateCost la usa a partir de PARALLEL_EVALUATION_THRESHOLD shipments.
+     */
+    public static double calculateCostParallel(List<PlannerShipment> shipments) {
+        return calculateCostParallel(shipments, PlannerExecutors.defaultParallelism());
+    }
+
+    /**
+     * Igual, con a lo sumo 'parallelism' bloques a la vez en el pool compartido (PlannerExecutors)
+     */
+    public static double calculateCostParallel(List<PlannerShipment> shipments, int parallelism) {
+        int chunks = (shipments.size() + EVALUATION_CHUNK_SIZE - 1) / EVALUATION_CHUNK_SIZE;
+        List<Callable<CostPartial>> partials = new ArrayList<>(chunks);
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int from = chunk * EVALUATION_CHUNK_SIZE;
+            int to = Math.min(shipments.size(), from + EVALUATION_CHUNK_SIZE);
+            partials.add(() -> CostPartial.of(shipments, from, to));
+        }
+        CostPartial total = new CostPartial();
+        try {
+            for (CostPartial partial : PlannerExecutors.invokeAll(partials, parallelism)) {
+                total = CostPartial.merge(total, partial);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Parallel cost evaluation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Parallel cost evaluation failed", e.getCause());
+        }
+
+        double penalty = total.perShipmentPenalty;
+
+        // 1. Capacidad de vuelos
+        penalty += flightCapacityPenalty(total.flightLoads);
+
+        // 2. Retrasos y 6. pedidos incompletos
+        long[] deliveryHours = new long[total.latestArrivals.size()];
+        long[] maxHours = new long[total.latestArrivals.size()];
+        int n = 0;
+        for (Map.Entry<PlannerOrder, LocalDateTime> entry : total.latestArrivals.entrySet()) {
+            PlannerOrder order = entry.getKey();
+            LocalDateTime latestArrival = entry.getValue() != null ? entry.getValue() : order.getOrderTime();
+            deliveryHours[n] = ChronoUnit.HOURS.between(order.getOrderTime(), latestArrival);
+            maxHours[n] = order.getMaxDeliveryHours();
+            n++;
+
+            int missing = order.getTotalQuantity() - total.assignedQuantities.getOrDefault(order, 0);
+            if (missing > 0) penalty += INCOMPLETE_ORDER_PENALTY * missing;
+        }
+        penalty += delayPenalty(deliveryHours, maxHours, n);
+
+        // 5. Capacidad de almacenes
+        for (Map.Entry<PlannerAirport, Integer> entry : total.airportLoads.entrySet()) {
+            int excess = entry.getValue() - entry.getKey().getStorageCapacity();
+            if (excess > 0) {
+                System.err.println(String.format(
+                    "⚠️ CRITICAL: Airport %s OVERLOADED! Load=%d, Capacity=%d, Excess=%d",
+                    entry.getKey().getCode(), entry.getValue(), entry.getKey().getStorageCapacity(), excess));
+                penalty += AIRPORT_CAPACITY_VIOLATION_PENALTY * 1000;
+                penalty += excess * AIRPORT_CAPACITY_UNIT_PENALTY * 1000;
+            }
+        }
+
+        return penalty;
+    }
+
+    /**
+     * Agregados parciales de un bloque de shipments
+     */
+    private static final class CostPartial {
+        private final Map<PlannerFlight, Integer> flightLoads = new HashMap<>();
+        private final Map<PlannerAirport, Integer> airportLoads = new HashMap<>();
+        private final Map<PlannerOrder, LocalDateTime> latestArrivals = new HashMap<>();
+        private final Map<PlannerOrder, Integer> assignedQuantities = new HashMap<>();
+        // Escalas, conexiones inválidas y secuencias inválidas (3 y 4): no dependen de otros shipments
+        private double perShipmentPenalty = 0.0;
+
+        private static CostPartial of(List<PlannerShipment> shipments, int from, int to) {
+            CostPartial partial = new CostPartial();
+            for (int i = from; i < to; i++) {
+                partial.add(shipments.get(i));
+            }
+            return partial;
+        }
+
+        private void add(PlannerShipment shipment) {
+            Route route = shipment.getRoute();
+            int quantity = shipment.getQuantity();
+            for (int i = 0; i < route.size(); i++) {
+                flightLoads.merge(route.getFlight(i), quantity, Integer::sum);
+            }
+            for (PlannerAirport stopover : route.getStopoverAirports()) {
+                airportLoads.merge(stopover, quantity, Integer::sum);
+            }
+
+            PlannerOrder order = shipment.getOrder();
+            // Sin merge(): la llegada de una ruta vacía es null
+            latestArrivals.put(order, later(latestArrivals.get(order), route.getArrivalTime()));
+            assignedQuantities.merge(order, quantity, Integer::sum);
+
+            perShipmentPenalty += route.getNumberOfStops() * STOPOVER_PENALTY;
+            perShipmentPenalty += route.getInvalidConnectionCount() * INVALID_STOPOVER_TIME_PENALTY;
+            if (!route.isValidSequence()) perShipmentPenalty += INVALID_SEQUENCE_PENALTY;
+        }
+
+        private static CostPartial merge(CostPartial a, CostPartial b) {
+            b.flightLoads.forEach((flight, load) -> a.flightLoads.merge(flight, load, Integer::sum));
+            b.airportLoads.forEach((airport, load) -> a.airportLoads.merge(airport, load, Integer::sum));
+            b.assignedQuantities.forEach((order, quantity) -> a.assignedQuantities.merge(order, quantity, Integer::sum));
+            for (Map.Entry<PlannerOrder, LocalDateTime> entry : b.latestArrivals.entrySet()) {
+                LocalDateTime current = a.latestArrivals.get(entry.getKey());
+                a.latestArrivals.put(entry.getKey(), later(current, entry.getValue()));
+            }
+            a.perShipmentPenalty += b.perShipmentPenalty;
+            return a;
+        }
+
+        private static LocalDateTime later(LocalDateTime a, LocalDateTime b) {
+            if (a == null) return b;
+            if (b == null) return a;
+            return a.isAfter(b) ? a : b;
+        }
+    }
+
+    /**
+     * Cota inferior del costo de cualquier solución que asigne TODOS los pedidos.
+     *
+     * Capacidades, secuencias, almacenes y pedidos incompletos pueden llegar a costo 0, así que
+     * solo escalas y retrasos están acotados por debajo. Para cada pedido, el envío que llega último
+     * aporta al menos min(directo, 1 escala + retraso, 2 escalas):
+     * - directo: retraso del vuelo origen→destino que antes llega (saliendo desde la hora del pedido)
+     * - 1 escala: STOPOVER + retraso de la llegada más temprana vía cualquier aeropuerto
+     * - 2+ escalas: 2 × STOPOVER
+     * Se ignoran capacidades y ventanas de conexión (relajación), por lo que la cota es válida
+     * para las rutas que generan los planners (salida posterior a la hora del pedido).
+     */
+    public static double calculateLowerBound(List<PlannerOrder> orders, List<PlannerFlight> flights) {
+        if (orders == null || orders.isEmpty()) return 0.0;
+        ArrivalIndex index = new ArrivalIndex(flights != null ? flights : Collections.emptyList());
+
+        double bound = 0.0;
+        Map<String, Double> cache = new HashMap<>();
+        for (PlannerOrder order : orders) {
+            if (order.getOrigin() == null || order.getDestination() == null || order.getOrderTime() == null) continue;
+            String key = order.getOrigin().getCode() + ">" + order.getDestination().getCode()
+                + "@" + order.getOrderTime() + "/" + order.getMaxDeliveryHours();
+            bound += cache.computeIfAbsent(key, k -> orderLowerBound(order, index));
+        }
+        return bound;
+    }
+
+    private static double orderLowerBound(PlannerOrder order, ArrivalIndex index) {
+        long ready = ArrivalIndex.toSeconds(order.getOrderTime());
+
+        // Directo
+        double best = 2 * STOPOVER_PENALTY;
+        LocalDateTime direct = index.earliestArrival(order.getOrigin(), order.getDestination(), ready);
+        if (direct != null) {
+            best = Math.min(best, delayPenalty(order, direct));
+            if (best == 0.0) return 0.0;
+        }
+
+        // Una escala: llegada más temprana al destino vía cualquier aeropuerto intermedio
+        if (best > STOPOVER_PENALTY) {
+            LocalDateTime viaStop = null;
+            for (PlannerFlight first : index.departuresFrom(order.getOrigin())) {
+                if (first.getDestination().equals(order.getDestination())) continue;
+                if (ArrivalIndex.toSeconds(first.getDepartureTime()) < ready) continue;
+                LocalDateTime arrival = index.earliestArrival(first.getDestination(), order.getDestination(),
+                    ArrivalIndex.toSeconds(first.getArrivalTime()));
+                if (arrival != null && (viaStop == null || arrival.isBefore(viaStop))) {
+                    viaStop = arrival;
+                }
+            }
+            if (viaStop != null) {
+                best = Math.min(best, STOPOVER_PENALTY + delayPenalty(order, viaStop));
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Penalización de un shipment del pedido con 'stops' escalas que llega en 'arrival':
+     * los mismos pesos de escalas y retraso que calculateCost (heurísticas en línea)
+     */
+    public static double shipmentPenalty(PlannerOrder order, int stops, LocalDateTime arrival) {
+        return stopoverPenalty(stops) + delayPenalty(order, arrival);
+    }
+
+    public static double stopoverPenalty(int stops) {
+        return stops * STOPOVER_PENALTY;
+    }
+
+    /**
+     * Penalización por retraso de una llegada (0 si llega dentro del plazo del pedido)
+     */
+    public static double delayPenalty(PlannerOrder order, LocalDateTime arrival) {
+        return delayPenalty(ChronoUnit.HOURS.between(order.getOrderTime(), arrival), order.getMaxDeliveryHours());
+    }
+
+    /**
+     * Penalización por retraso de una entrega de 'deliveryHours' con plazo 'maxHours'
+     */
+    public static double delayPenalty(long deliveryHours, long maxHours) {
+        if (deliveryHours <= maxHours) return 0.0;
+        return DELAY_BASE_PENALTY + (deliveryHours - maxHours) * DELAY_HOUR_PENALTY;
+    }
+
+    /**
+     * Vuelos por par (origen, destino) ordenados por salida, con la llegada mínima de cada sufijo:
+     * "llegada más temprana saliendo en o después de t" es una búsqueda binaria.
+     */
+    private static final class ArrivalIndex {
+        private final Map<PlannerAirport, List<PlannerFlight>> byOrigin = new HashMap<>();
+        private final Map<PlannerAirport, Map<PlannerAirport, long[]>> departures = new HashMap<>();
+        private final Map<PlannerAirport, Map<PlannerAirport, LocalDateTime[]>> suffixMinArrival = new HashMap<>();
+
+        ArrivalIndex(List<PlannerFlight> flights) {
+            Map<PlannerAirport, Map<PlannerAirport, List<PlannerFlight>>> pairs = new HashMap<>();
+            for (PlannerFlight flight : flights) {
+                if (flight.getOrigin() == null || flight.getDestination() == null
+                        || flight.getDepartureTime() == null || flight.getArrivalTime() == null) continue;
+                byOrigin.computeIfAbsent(flight.getOrigin(), k -> new ArrayList<>()).add(flight);
+                pairs.computeIfAbsent(flight.getOrigin(), k -> new HashMap<>())
+                    .computeIfAbsent(flight.getDestination(), k -> new ArrayList<>()).add(flight);
+            }
+            pairs.forEach((origin, byDestination) -> byDestination.forEach((destination, list) -> {
+                list.sort(Comparator.comparing(PlannerFlight::getDepartureTime));
+                long[] deps = new long[list.size()];
+                LocalDateTime[] minArrival = new LocalDateTime[list.size()];
+                for (int i = list.size() - 1; i >= 0; i--) {
+                    deps[i] = toSeconds(list.get(i).getDepartureTime());
+                    LocalDateTime arrival = list.get(i).getArrivalTime();
+                    minArrival[i] = (i + 1 < list.size() && minArrival[i + 1].isBefore(arrival)) ? minArrival[i + 1] : arrival;
+                }
+                departures.computeIfAbsent(origin, k -> new HashMap<>()).put(destination, deps);
+                suffixMinArrival.computeIfAbsent(origin, k -> new HashMap<>()).put(destination, minArrival);
+            }));
+        }
+
+        List<PlannerFlight> departuresFrom(PlannerAirport airport) {
+            return byOrigin.getOrDefault(airport, Collections.emptyList());
+        }
+
+        LocalDateTime earliestArrival(PlannerAirport origin, PlannerAirport destination, long notBeforeSeconds) {
+            Map<PlannerAirport, long[]> byDestination = departures.get(origin);
+            long[] deps = byDestination != null ? byDestination.get(destination) : null;
+            if (deps == null) return null;
+            int lo = 0, hi = deps.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (deps[mid] < notBeforeSeconds) lo = mid + 1; else hi = mid;
+            }
+            return lo < deps.length ? suffixMinArrival.get(origin).get(destination)[lo] : null;
+        }
+
+        static long toSeconds(LocalDateTime time) {
+            return time.toEpochSecond(ZoneOffset.UTC);
+        }
+    }
+}
@@ -5,10 +5,14 @@ import pe.edu.pucp.morapack.algos.entities.PlannerFlight;
 import pe.edu.pucp.morapack.algos.entities.PlannerOrder;
 import pe.edu.pucp.morapack.algos.entities.PlannerShipment;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.RandomAccess;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 /**
@@ -18,52 +22,193 @@ import java.util.stream.Collectors;
  * Un Order puede tener múltiples PlannerShipments (diferentes rutas, diferentes cantidades).
  */
 public class TabuSolution extends Solution {
-    private List<PlannerShipment> plannerShipments;
+    // Shipments en bloques copy-on-write: copiar una solución comparte los bloques (O(1))
+    // y cada solución copia solo los bloques que modifica (con sus shipments) antes de escribir.
+    private static final int CHUNK_SHIFT = 5;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private PlannerShipment[][] chunks;
+    private Object[] chunkOwners;   // token de la solución dueña de cada bloque
+    private int size;
+    // Compartido por todas las soluciones que usan este arreglo de bloques; lo marca la copia
+    private AtomicBoolean spineShared;
+    private Object token = new Object();
+    private final List<PlannerShipment> shipmentsView = new ShipmentsView();
 
     public TabuSolution() {
         super();
-        this.plannerShipments = new ArrayList<>();
+        this.chunks = new PlannerShipment[0][];
+        this.chunkOwners = new Object[0];
+        this.spineShared = new AtomicBoolean(false);
     }
 
+    /**
+     * Copia en O(1): comparte bloques de shipments con la original sin modificarla (solo marca
+     * como compartido el arreglo de bloques). La copia no es dueña de ningún bloque y la original
+     * deja de serlo de forma perezosa en su próxima escritura: ambas copian antes de modificar.
+     * Se puede copiar desde varios hilos a la vez, pero no mientras otro hilo modifica la original.
+     * Las listas de pedidos también se comparten (nunca se modifican in situ, setAllOrders las reemplaza).
+     */
     public TabuSolution(Solution solution) {
-        super(solution);
-        this.plannerShipments = new ArrayList<>();
+        super();
+        this.allOrders = solution.getAllOrders();
+        this.completedOrders = solution.getCompletedOrders();
         if (solution instanceof TabuSolution) {
-            TabuSolution tabuSol = (TabuSolution) solution;
-            // Copia profunda de shipments
-            this.plannerShipments = tabuSol.getPlannerShipments().stream()
-                .map(PlannerShipment::new)  // Constructor de copia
-                .collect(Collectors.toList());
+            TabuSolution other = (TabuSolution) solution;
+            this.spineShared = other.spineShared;
+            this.spineShared.set(true);
+            this.chunks = other.chunks;
+            this.chunkOwners = other.chunkOwners;
+            this.size = other.size;
+        } else {
+            this.chunks = new PlannerShipment[0][];
+            this.chunkOwners = new Object[0];
+            this.spineShared = new AtomicBoolean(false);
         }
     }
 
     // ========== Getters/Setters ==========
 
+    /**
+     * Vista de solo lectura de los shipments. Los shipments pueden estar compartidos con
+     * copias de esta solución: para modificar uno usar editPlannerShipment().
+     */
     public List<PlannerShipment> getPlannerShipments() {
-        return plannerShipments != null ? plannerShipments : new ArrayList<>();
+        return shipmentsView;
     }
 
     public void setPlannerShipments(List<PlannerShipment> plannerShipments) {
-        this.plannerShipments = plannerShipments != null ? plannerShipments : new ArrayList<>();
+        this.chunks = new PlannerShipment[0][];
+        this.chunkOwners = new Object[0];
+        this.size = 0;
+        this.spineShared = new AtomicBoolean(false);
+        if (plannerShipments != null) {
+            addAllPlannerShipments(new ArrayList<>(plannerShipments));
+        }
     }
 
+    /**
+     * Agrega el shipment; la solución pasa a ser su dueña (no debe pertenecer a otra solución viva)
+     */
     public void addPlannerShipment(PlannerShipment shipment) {
-        if (this.plannerShipments == null) {
-            this.plannerShipments = new ArrayList<>();
+        int c = size >> CHUNK_SHIFT;
+        if ((size & CHUNK_MASK) == 0) {
+            ensureSpine(c + 1);
+            chunks[c] = new PlannerShipment[CHUNK_SIZE];
+            chunkOwners[c] = token;
         }
-        this.plannerShipments.add(shipment);
+        writableChunk(c)[size & CHUNK_MASK] = shipment;
+        size++;
     }
     
     public void addAllPlannerShipments(List<PlannerShipment> shipments) {
-        if (this.plannerShipments == null) {
-            this.plannerShipments = new ArrayList<>();
+        for (PlannerShipment shipment : shipments) {
+            addPlannerShipment(shipment);
         }
-        this.plannerShipments.addAll(shipments);
     }
 
+    /**
+     * Elimina el shipment (o una copia suya, ver indexOf).
+     * El último shipment ocupa su lugar: el orden de los shipments no es significativo.
+     */
     public void removePlannerShipment(PlannerShipment shipment) {
-        if (this.plannerShipments != null) {
-            this.plannerShipments.remove(shipment);
+        int index = indexOf(shipment);
+        if (index < 0) return;
+        ensureSpine(0);
+
+        int last = size - 1;
+        if (index != last) {
+            PlannerShipment moved = chunks[last >> CHUNK_SHIFT][last & CHUNK_MASK];
+            if (chunkOwners[last >> CHUNK_SHIFT] != token) moved = new PlannerShipment(moved);
+            writableChunk(index >> CHUNK_SHIFT)[index & CHUNK_MASK] = moved;
+        }
+        if ((last & CHUNK_MASK) == 0) {
+            chunks[last >> CHUNK_SHIFT] = null;  // bloque vacío
+            chunkOwners[last >> CHUNK_SHIFT] = null;
+        } else {
+            writableChunk(last >> CHUNK_SHIFT)[last & CHUNK_MASK] = null;
+        }
+        size--;
+    }
+
+    /**
+     * Shipment de esta solución (el mismo objeto o una copia suya), o null si no está
+     */
+    public PlannerShipment findPlannerShipment(PlannerShipment shipment) {
+        int index = indexOf(shipment);
+        return index < 0 ? null : chunks[index >> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    /**
+     * Versión modificable del shipment en ESTA solución: si su bloque se comparte con otra
+     * copia, el bloque se copia primero (el shipment devuelto puede ser otro objeto, en la
+     * misma posición). Devuelve null si no está.
+     */
+    public PlannerShipment editPlannerShipment(PlannerShipment shipment) {
+        int index = indexOf(shipment);
+        return index < 0 ? null : writableChunk(index >> CHUNK_SHIFT)[index & CHUNK_MASK];
+    }
+
+    /**
+     * Posición del shipment por identidad: el mismo objeto, o una copia suya hecha al copiar
+     * bloques entre soluciones (PlannerShipment.isSameShipment; los ids solo son únicos dentro
+     * de una corrida del planner)
+     */
+    private int indexOf(PlannerShipment shipment) {
+        if (shipment == null) return -1;
+        int copied = -1;
+        for (int i = 0; i < size; i++) {
+            PlannerShipment candidate = chunks[i >> CHUNK_SHIFT][i & CHUNK_MASK];
+            if (candidate == shipment) return i;
+            if (copied < 0 && candidate.isSameShipment(shipment)) copied = i;
+        }
+        return copied;
+    }
+
+    /**
+     * Asegura un arreglo de bloques propio con espacio para minChunks bloques. Si el arreglo
+     * estaba compartido, los bloques también: se renueva el token y ya no son propios.
+     */
+    private void ensureSpine(int minChunks) {
+        boolean shared = spineShared.get();
+        if (!shared && chunks.length >= minChunks) return;
+        int capacity = chunks.length;
+        if (capacity < minChunks) capacity = Math.max(minChunks, Math.max(4, capacity * 2));
+        chunks = Arrays.copyOf(chunks, capacity);
+        chunkOwners = Arrays.copyOf(chunkOwners, capacity);
+        if (shared) token = new Object();
+        spineShared = new AtomicBoolean(false);
+    }
+
+    private PlannerShipment[] writableChunk(int c) {
+        ensureSpine(c + 1);
+        if (chunkOwners[c] != token) {
+            PlannerShipment[] source = chunks[c];
+            PlannerShipment[] copy = new PlannerShipment[CHUNK_SIZE];
+            int used = Math.min(CHUNK_SIZE, size - (c << CHUNK_SHIFT));
+            for (int i = 0; i < used; i++) {
+                copy[i] = new PlannerShipment(source[i]);  // Constructor de copia (la ruta se comparte)
+            }
+            chunks[c] = copy;
+            chunkOwners[c] = token;
+        }
+        return chunks[c];
+    }
+
+    /**
+     * Lista de solo lectura sobre los bloques (sin copiar)
+     */
+    private final class ShipmentsView extends AbstractList<PlannerShipment> implements RandomAccess {
+        @Override
+        public PlannerShipment get(int index) {
+            if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            return chunks[index >> CHUNK_SHIFT][index & CHUNK_MASK];
+        }
+
+        @Override
+        public int size() {
+            return size;
         }
     }
     
@@ -73,7 +218,7 @@ public class TabuSolution extends Solution {
      * Obtener todos los shipments de un Order específico
      */
     public List<PlannerShipment> getShipmentsForOrder(PlannerOrder order) {
-        return plannerShipments.stream()
+        return shipmentsView.stream()
             .filter(ps -> ps.getOrder().equals(order))
             .collect(Collectors.toList());
     }
@@ -82,7 +227,7 @@ public class TabuSolution extends Solution {
      * Calcular cuántos productos de un Order están asignados
      */
     public int getAssignedQuantityForOrder(PlannerOrder order) {
-        return plannerShipments.stream()
+        return shipmentsView.stream()
             .filter(ps -> ps.getOrder().equals(order))
             .mapToInt(PlannerShipment::getQuantity)
             .sum();
@@ -100,7 +245,7 @@ public class TabuSolution extends Solution {
      * Calcular carga de un vuelo específico
      */
     public int getFlightLoad(PlannerFlight flight) {
-        return plannerShipments.stream()
+        return shipmentsView.stream()
             .filter(ps -> ps.getFlights().contains(flight))
             .mapToInt(PlannerShipment::getQuantity)
             .sum();
@@ -112,20 +257,20 @@ public class TabuSolution extends Solution {
     public Map<String, Object> getStatistics() {
         Map<String, Object> stats = new HashMap<>();
         
-        int totalOrders = (int) plannerShipments.stream()
+        int totalOrders = (int) shipmentsView.stream()
             .map(ps -> ps.getOrder().getId())
             .distinct()
             .count();
         
-        int totalShipments = plannerShipments.size();
+        int totalShipments = size;
         
-        int directShipments = (int) plannerShipments.stream()
+        int directShipments = (int) shipmentsView.stream()
             .filter(PlannerShipment::isDirect)
             .count();
         
         int connectionShipments = totalShipments - directShipments;
         
-        int totalProducts = plannerShipments.stream()
+        int totalProducts = shipmentsView.stream()
             .mapToInt(PlannerShipment::getQuantity)
             .sum();
         
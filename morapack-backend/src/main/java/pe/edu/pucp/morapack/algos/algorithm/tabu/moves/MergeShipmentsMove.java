@@ -19,22 +19,29 @@ public class MergeShipmentsMove extends TabuMoveBase {
     
     @Override
     public void apply(TabuSolution solution) {
+        // Resolver ambos shipments por id en ESTA solución
+        PlannerShipment first = solution.findPlannerShipment(shipment1);
+        PlannerShipment second = solution.findPlannerShipment(shipment2);
+        if (first == null || second == null || first == second) {
+            return;
+        }
+
         // Validar que son del mismo Order
-        if (!shipment1.getOrder().equals(shipment2.getOrder())) {
+        if (!first.getOrder().equals(second.getOrder())) {
             return;
         }
         
         // Validar que tienen la misma ruta
-        if (!shipment1.getFlights().equals(shipment2.getFlights())) {
+        if (!first.getRoute().sameFlightsAs(second.getRoute())) {
             return;
         }
         
         // Combinar cantidades en shipment1
-        int totalQuantity = shipment1.getQuantity() + shipment2.getQuantity();
-        shipment1.setQuantity(totalQuantity);
+        int totalQuantity = first.getQuantity() + second.getQuantity();
+        solution.editPlannerShipment(first).setQuantity(totalQuantity);
         
         // Eliminar shipment2
-        solution.removePlannerShipment(shipment2);
+        solution.removePlannerShipment(second);
     }
     
     @Override
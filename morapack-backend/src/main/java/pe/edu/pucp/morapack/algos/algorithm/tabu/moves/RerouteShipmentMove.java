@@ -22,21 +22,27 @@ public class RerouteShipmentMove extends TabuMoveBase {
     
     @Override
     public void apply(TabuSolution solution) {
+        // Resolver el shipment por id en ESTA solución
+        PlannerShipment target = solution.findPlannerShipment(shipment);
+        if (target == null) {
+            return;
+        }
+
         // Validar que la nueva ruta tiene capacidad
         for (PlannerFlight flight : newRoute) {
             int currentLoad = solution.getFlightLoad(flight);
             // Restar la carga actual del shipment si ya está en ese vuelo
-            if (shipment.getFlights().contains(flight)) {
-                currentLoad -= shipment.getQuantity();
+            if (target.getRoute().contains(flight)) {
+                currentLoad -= target.getQuantity();
             }
             
-            if (currentLoad + shipment.getQuantity() > flight.getCapacity()) {
+            if (currentLoad + target.getQuantity() > flight.getCapacity()) {
                 return;  // No hay capacidad
             }
         }
         
         // Cambiar la ruta
-        shipment.setFlights(newRoute);
+        solution.editPlannerShipment(target).setFlights(newRoute);
     }
     
     @Override
@@ -21,20 +21,24 @@ public class SplitShipmentMove extends TabuMoveBase {
     
     @Override
     public void apply(TabuSolution solution) {
+        // El movimiento se generó sobre otra solución: resolver el shipment por id en ESTA
+        PlannerShipment target = solution.findPlannerShipment(shipment);
+
         // Validar que hay suficiente cantidad
-        if (shipment.getQuantity() <= splitQuantity) {
+        if (target == null || target.getQuantity() <= splitQuantity) {
             return;  // No se puede dividir
         }
         
         // Reducir cantidad del original
-        int originalQuantity = shipment.getQuantity();
-        shipment.setQuantity(originalQuantity - splitQuantity);
+        target = solution.editPlannerShipment(target);
+        int originalQuantity = target.getQuantity();
+        target.setQuantity(originalQuantity - splitQuantity);
         
         // Crear nuevo shipment con la misma ruta
         PlannerShipment newShipment = new PlannerShipment(
             nextShipmentId,
-            shipment.getOrder(),
-            shipment.getFlights(),  // Misma ruta
+            target.getOrder(),
+            target.getRoute(),  // Misma ruta (compartida, sin copiar vuelos)
             splitQuantity
         );
         
@@ -22,18 +22,25 @@ public class TransferQuantityMove extends TabuMoveBase {
     
     @Override
     public void apply(TabuSolution solution) {
+        // Resolver ambos shipments por id en ESTA solución
+        PlannerShipment from = solution.findPlannerShipment(fromShipment);
+        PlannerShipment to = solution.findPlannerShipment(toShipment);
+        if (from == null || to == null || from == to) {
+            return;
+        }
+
         // Validar que son del mismo Order
-        if (!fromShipment.getOrder().equals(toShipment.getOrder())) {
+        if (!from.getOrder().equals(to.getOrder())) {
             return;
         }
         
         // Validar que 'from' tiene suficientes productos
-        if (fromShipment.getQuantity() < quantity) {
+        if (from.getQuantity() < quantity) {
             return;
         }
         
         // Validar que 'to' tiene capacidad en todos sus vuelos
-        for (PlannerFlight flight : toShipment.getFlights()) {
+        for (PlannerFlight flight : to.getFlights()) {
             int currentLoad = solution.getFlightLoad(flight);
             if (currentLoad + quantity > flight.getCapacity()) {
                 return;  // No hay capacidad
@@ -41,12 +48,13 @@ public class TransferQuantityMove extends TabuMoveBase {
         }
         
         // Realizar transferencia
-        fromShipment.setQuantity(fromShipment.getQuantity() - quantity);
-        toShipment.setQuantity(toShipment.getQuantity() + quantity);
+        from = solution.editPlannerShipment(from);
+        from.setQuantity(from.getQuantity() - quantity);
+        solution.editPlannerShipment(to).setQuantity(to.getQuantity() + quantity);
         
         // Si 'from' queda vacío, eliminarlo
-        if (fromShipment.getQuantity() == 0) {
-            solution.removePlannerShipment(fromShipment);
+        if (from.getQuantity() == 0) {
+            solution.removePlannerShipment(from);
         }
     }
     
@@ -1,5 +1,6 @@
 package pe.edu.pucp.morapack.algos.data;
 
+import pe.edu.pucp.morapack.algos.entities.AirportPairTable;
 import pe.edu.pucp.morapack.algos.entities.PlannerAirport;
 import pe.edu.pucp.morapack.algos.entities.PlannerFlight;
 import pe.edu.pucp.morapack.algos.entities.PlannerOrder;
@@ -97,6 +98,8 @@ public class DataLoader {
                 airports.add(new PlannerAirport(idCounter++, code, city, city, country, capacity, gmt, latitude, longitude));
             }
         }
+        // Distancias por par antes de construir vuelos (PlannerFlight calcula su costo con la tabla)
+        AirportPairTable.install(airports);
         return airports;
     }
 
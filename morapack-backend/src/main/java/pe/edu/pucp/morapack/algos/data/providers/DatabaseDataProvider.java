@@ -2,6 +2,7 @@ package pe.edu.pucp.morapack.algos.data.providers;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import pe.edu.pucp.morapack.algos.entities.AirportPairTable;
 import pe.edu.pucp.morapack.algos.entities.PlannerAirport;
 import pe.edu.pucp.morapack.algos.entities.PlannerFlight;
 import pe.edu.pucp.morapack.algos.entities.PlannerOrder;
@@ -34,7 +35,7 @@ public class DatabaseDataProvider implements DataProvider {
     private final SimOrderRepository orderRepository;
 
     // Cache de aeropuertos para evitar múltiples conversiones
-    private Map<String, PlannerAirport> airportCache;
+    private volatile Map<String, PlannerAirport> airportCache;
 
     @Autowired
     public DatabaseDataProvider(
@@ -56,16 +57,18 @@ public class DatabaseDataProvider implements DataProvider {
 
         List<SimAirport> dbAirports = airportRepository.findAll();
 
-        // Inicializar el cache
-        airportCache = new HashMap<>();
+        // Construir el cache completo antes de publicarlo (la precarga de ventanas lo lee en otro hilo)
+        Map<String, PlannerAirport> cache = new HashMap<>();
 
         List<PlannerAirport> plannerAirports = new ArrayList<>();
         for (SimAirport dbAirport : dbAirports) {
             PlannerAirport plannerAirport = convertAirportToPlanner(dbAirport);
             plannerAirports.add(plannerAirport);
-            airportCache.put(dbAirport.getCode(), plannerAirport);
+            cache.put(dbAirport.getCode(), plannerAirport);
         }
+        airportCache = cache;
 
+        AirportPairTable.install(plannerAirports);
         System.out.println("   ✓ Loaded " + plannerAirports.size() + " airports");
         return plannerAirports;
     }
@@ -0,0 +1,144 @@
+package pe.edu.pucp.morapack.algos.entities;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tabla inmutable de datos por par de aeropuertos: distancia de círculo máximo (haversine),
+ * rumbo inicial y coeficientes de interpolación de posición.
+ *
+ * Hay ~30 aeropuertos, así que la matriz completa se calcula una vez al cargarlos (install)
+ * y el costo de vuelos, el progreso en metros y la interpolación de posición de cada tick
+ * solo la leen. Un par que no está en la tabla (aeropuerto creado después, o con otras
+ * coordenadas bajo el mismo código) se calcula al vuelo con las mismas fórmulas.
+ */
+public final class AirportPairTable {
+    public static final double EARTH_RADIUS_KM = 6371.0;
+
+    private static volatile AirportPairTable current = new AirportPairTable(java.util.List.of());
+
+    private final Map<String, Integer> index = new HashMap<>();
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final PlannerAirport[] airports;
+    private final Pair[][] pairs;
+
+    private AirportPairTable(Collection<PlannerAirport> airports) {
+        int n = airports.size();
+        latitudes = new double[n];
+        longitudes = new double[n];
+        PlannerAirport[] byIndex = new PlannerAirport[n];
+        int i = 0;
+        for (PlannerAirport airport : airports) {
+            if (index.putIfAbsent(airport.getCode(), i) != null) continue;  // código repetido: gana el primero
+            byIndex[i] = airport;
+            latitudes[i] = airport.getLatitude();
+            longitudes[i] = airport.getLongitude();
+            i++;
+        }
+        this.airports = java.util.Arrays.copyOf(byIndex, i);
+
+        pairs = new Pair[i][i];
+        for (int from = 0; from < i; from++) {
+            for (int to = 0; to < i; to++) {
+                pairs[from][to] = new Pair(byIndex[from], byIndex[to]);
+            }
+        }
+    }
+
+    /**
+     * Construye la tabla para los aeropuertos cargados y la deja como tabla actual
+     */
+    public static AirportPairTable install(Collection<PlannerAirport> airports) {
+        AirportPairTable table = new AirportPairTable(airports);
+        current = table;
+        return table;
+    }
+
+    /**
+     * Recalcula la tabla actual con las coordenadas vigentes de los mismos aeropuertos
+     * (p. ej. después de que el planificador corrige coordenadas mal cargadas en el objeto)
+     */
+    public static AirportPairTable refresh() {
+        return install(java.util.Arrays.asList(current.airports));
+    }
+
+    public static AirportPairTable current() {
+        return current;
+    }
+
+    /**
+     * Datos del par origen→destino (de la tabla si ambos aeropuertos coinciden con los cargados)
+     */
+    public Pair pair(PlannerAirport from, PlannerAirport to) {
+        int i = indexOf(from);
+        int j = indexOf(to);
+        if (i >= 0 && j >= 0) return pairs[i][j];
+        return new Pair(from, to);
+    }
+
+    public int size() {
+        return pairs.length;
+    }
+
+    private int indexOf(PlannerAirport airport) {
+        Integer i = index.get(airport.getCode());
+        if (i == null) return -1;
+        // Mismo código con otras coordenadas (p. ej. datos de prueba): no usar la fila precalculada
+        if (latitudes[i] != airport.getLatitude() || longitudes[i] != airport.getLongitude()) return -1;
+        return i;
+    }
+
+    /**
+     * Datos precalculados de un par de aeropuertos
+     */
+    public static final class Pair {
+        private final double distanceKm;
+        private final double initialBearingDegrees;
+        // Interpolación lineal lat/lon (la misma que usa el frontend para dibujar el avance)
+        private final double originLatitude;
+        private final double originLongitude;
+        private final double deltaLatitude;
+        private final double deltaLongitude;
+
+        private Pair(PlannerAirport from, PlannerAirport to) {
+            // Coordenadas fuera de rango (CSV mal formado) se acotan antes del haversine
+            double lat1 = Math.toRadians(clamp(from.getLatitude(), -90, 90));
+            double lat2 = Math.toRadians(clamp(to.getLatitude(), -90, 90));
+            double dlat = lat2 - lat1;
+            double dlon = Math.toRadians(clamp(to.getLongitude(), -180, 180) - clamp(from.getLongitude(), -180, 180));
+
+            double a = Math.pow(Math.sin(dlat / 2), 2) + Math.cos(lat1) * Math.cos(lat2) * Math.pow(Math.sin(dlon / 2), 2);
+            this.distanceKm = 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(Math.min(1.0, a)));
+
+            double y = Math.sin(dlon) * Math.cos(lat2);
+            double x = Math.cos(lat1) * Math.sin(lat2) - Math.sin(lat1) * Math.cos(lat2) * Math.cos(dlon);
+            this.initialBearingDegrees = (Math.toDegrees(Math.atan2(y, x)) + 360) % 360;
+
+            this.originLatitude = from.getLatitude();
+            this.originLongitude = from.getLongitude();
+            this.deltaLatitude = to.getLatitude() - from.getLatitude();
+            this.deltaLongitude = to.getLongitude() - from.getLongitude();
+        }
+
+        private static double clamp(double value, double min, double max) {
+            return Math.max(min, Math.min(max, value));
+        }
+
+        public double getDistanceKm() { return distanceKm; }
+        public double getDistanceMeters() { return distanceKm * 1000.0; }
+        public double getInitialBearingDegrees() { return initialBearingDegrees; }
+
+        /**
+         * Latitud a la fracción 'fraction' (0 = origen, 1 = destino) del trayecto
+         */
+        public double latitudeAt(double fraction) {
+            return originLatitude + deltaLatitude * fraction;
+        }
+
+        public double longitudeAt(double fraction) {
+            return originLongitude + deltaLongitude * fraction;
+        }
+    }
+}
@@ -29,18 +29,8 @@ public class PlannerFlight {
     private static final double CAPACITY_FACTOR = 1.0;  // Factor de costo por unidad de capacidad
 
     private static double calculateCost(PlannerAirport origin, PlannerAirport destination, int capacity) {
-        // Calcular distancia usando la fórmula del haversine
-        double lat1 = Math.toRadians(origin.getLatitude());
-        double lon1 = Math.toRadians(origin.getLongitude());
-        double lat2 = Math.toRadians(destination.getLatitude());
-        double lon2 = Math.toRadians(destination.getLongitude());
-
-        double dlon = lon2 - lon1;
-        double dlat = lat2 - lat1;
-        double a = Math.pow(Math.sin(dlat/2), 2) + 
-                   Math.cos(lat1) * Math.cos(lat2) * Math.pow(Math.sin(dlon/2), 2);
-        double c = 2 * Math.asin(Math.sqrt(a));
-        double distance = 6371 * c; // Radio de la Tierra en kilómetros
+        // Distancia haversine precalculada al cargar los aeropuertos
+        double distance = AirportPairTable.current().pair(origin, destination).getDistanceKm();
 
         // El costo se calcula como:
         // Costo base + (distancia * factor_distancia) + (capacidad * factor_capacidad)
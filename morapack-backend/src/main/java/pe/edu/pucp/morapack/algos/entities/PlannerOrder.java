@@ -33,6 +33,7 @@ public class PlannerOrder {
     public PlannerAirport getOrigin() { return origin; }
     public PlannerAirport getDestination() { return destination; }
     public long getMaxDeliveryHours() { return maxDeliveryHours; }
+    public void setMaxDeliveryHours(long maxDeliveryHours) { this.maxDeliveryHours = maxDeliveryHours; }
 
     public LocalDateTime getOrderTime() { return orderTime; }
     public void setOrderTime(LocalDateTime orderTime) { this.orderTime = orderTime; }
@@ -30,25 +30,45 @@ public class PlannerShipment {
 
     private int id;
     private PlannerOrder order;
-    private List<PlannerFlight> flightSequence;  // Secuencia de vuelos (ruta completa)
+    private Route route;                   // Secuencia de vuelos (ruta internada, compartida entre shipments)
     private int quantity;                  // Cantidad de productos en ESTE envío
     private Status status;                 // Estado del shipment (ACTIVE por defecto)
+    private final Object lineage;          // Identidad compartida con sus copias (constructor de copia)
     
     public PlannerShipment(int id, PlannerOrder order, List<PlannerFlight> flights, int quantity) {
         this.id = id;
         this.order = order;
-        this.flightSequence = new ArrayList<>(flights);
+        this.route = Route.of(flights);
         this.quantity = quantity;
         this.status = Status.ACTIVE;  // Por defecto, los shipments son activos
+        this.lineage = new Object();
+    }
+
+    public PlannerShipment(int id, PlannerOrder order, Route route, int quantity) {
+        this.id = id;
+        this.order = order;
+        this.route = route != null ? route : Route.EMPTY;
+        this.quantity = quantity;
+        this.status = Status.ACTIVE;
+        this.lineage = new Object();
     }
 
     // Constructor de copia
     public PlannerShipment(PlannerShipment other) {
         this.id = other.id;
         this.order = other.order;
-        this.flightSequence = new ArrayList<>(other.flightSequence);
+        this.route = other.route;  // Inmutable: se comparte
         this.quantity = other.quantity;
         this.status = other.status;  // Copiar también el estado
+        this.lineage = other.lineage;
+    }
+
+    /**
+     * true si ambos son el mismo envío: el mismo objeto o copias (directas o no) uno del otro.
+     * No compara ids: solo son únicos dentro de una corrida del planner.
+     */
+    public boolean isSameShipment(PlannerShipment other) {
+        return other != null && lineage == other.lineage;
     }
     
     // ========== Getters/Setters ==========
@@ -61,8 +81,19 @@ public class PlannerShipment {
         return order; 
     }
     
+    /**
+     * Vuelos de la ruta (vista inmutable compartida; usar setFlights/setRoute para cambiarla)
+     */
     public List<PlannerFlight> getFlights() { 
-        return new ArrayList<>(flightSequence); 
+        return route.getFlights(); 
+    }
+
+    public Route getRoute() {
+        return route;
+    }
+
+    public void setRoute(Route route) {
+        this.route = route != null ? route : Route.EMPTY;
     }
     
     public int getQuantity() { 
@@ -74,7 +105,7 @@ public class PlannerShipment {
     }
     
     public void setFlights(List<PlannerFlight> flights) {
-        this.flightSequence = new ArrayList<>(flights);
+        this.route = Route.of(flights);
     }
 
     public Status getStatus() {
@@ -99,7 +130,7 @@ public class PlannerShipment {
      * ¿Es ruta directa (sin escalas)?
      */
     public boolean isDirect() {
-        return flightSequence.size() == 1;
+        return route.size() == 1;
     }
     
     /**
@@ -109,30 +140,28 @@ public class PlannerShipment {
      * - 2 = dos escalas, etc.
      */
     public int getNumberOfStops() {
-        return Math.max(0, flightSequence.size() - 1);
+        return route.getNumberOfStops();
     }
     
     /**
      * Tiempo de llegada final (último vuelo de la ruta)
      */
     public LocalDateTime getFinalArrivalTime() {
-        if (flightSequence.isEmpty()) return null;
-        return flightSequence.get(flightSequence.size() - 1).getArrivalTime();
+        return route.getArrivalTime();
     }
     
     /**
      * Tiempo de salida inicial (primer vuelo de la ruta)
      */
     public LocalDateTime getInitialDepartureTime() {
-        if (flightSequence.isEmpty()) return null;
-        return flightSequence.get(0).getDepartureTime();
+        return route.getDepartureTime();
     }
     
     /**
      * Duración total del viaje en horas
      */
     public long getTotalTravelHours() {
-        if (flightSequence.isEmpty()) return 0;
+        if (route.isEmpty()) return 0;
         LocalDateTime start = getInitialDepartureTime();
         LocalDateTime end = getFinalArrivalTime();
         return ChronoUnit.HOURS.between(start, end);
@@ -157,32 +186,7 @@ public class PlannerShipment {
      * 3. Los tiempos deben ser lógicos
      */
     public boolean isValidSequence() {
-        if (flightSequence.isEmpty()) return false;
-        if (flightSequence.size() == 1) return true;  // Directo siempre es válido
-        
-        for (int i = 0; i < flightSequence.size() - 1; i++) {
-            PlannerFlight current = flightSequence.get(i);
-            PlannerFlight next = flightSequence.get(i + 1);
-            
-            // Validación 1: Conectividad geográfica
-            if (!current.getDestination().equals(next.getOrigin())) {
-                return false;
-            }
-            
-            // Validación 2: Tiempo de conexión
-            long connectionHours = ChronoUnit.HOURS.between(
-                current.getArrivalTime(), 
-                next.getDepartureTime()
-            );
-            
-            if (connectionHours < 1) {  // Mínimo 1 hora
-                return false;
-            }
-            
-            // ✅ NO hay máximo de horas de conexión (no está en el enunciado)
-        }
-        
-        return true;
+        return route.isValidSequence();  // Precalculado en Route
     }
     
     /**
@@ -203,16 +207,16 @@ public class PlannerShipment {
      * Descripción de la ruta en formato: ORIGIN → HUB1 → HUB2 → DESTINATION
      */
     public String getRouteDescription() {
-        if (flightSequence.isEmpty()) return "No route";
+        if (route.isEmpty()) return "No route";
         
         StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < flightSequence.size(); i++) {
-            PlannerFlight f = flightSequence.get(i);
+        for (int i = 0; i < route.size(); i++) {
+            PlannerFlight f = route.getFlight(i);
             if (i > 0) sb.append(" → ");
             sb.append(f.getOrigin().getCode());
         }
         sb.append(" → ");
-        sb.append(flightSequence.get(flightSequence.size() - 1)
+        sb.append(route.getFlight(route.size() - 1)
                     .getDestination().getCode());
         
         return sb.toString();
@@ -222,9 +226,9 @@ public class PlannerShipment {
      * Descripción detallada con códigos de vuelo
      */
     public String getDetailedRouteDescription() {
-        if (flightSequence.isEmpty()) return "No route";
+        if (route.isEmpty()) return "No route";
         
-        return flightSequence.stream()
+        return route.getFlights().stream()
             .map(f -> String.format("%s (%s→%s)", 
                 f.getCode(),
                 f.getOrigin().getCode(),
@@ -236,11 +240,9 @@ public class PlannerShipment {
      * Obtener aeropuertos de escala (intermedios)
      */
     public List<String> getStopoverAirports() {
-        if (flightSequence.size() <= 1) return new ArrayList<>();
-        
         List<String> stopovers = new ArrayList<>();
-        for (int i = 0; i < flightSequence.size() - 1; i++) {
-            stopovers.add(flightSequence.get(i).getDestination().getCode());
+        for (PlannerAirport airport : route.getStopoverAirports()) {
+            stopovers.add(airport.getCode());
         }
         return stopovers;
     }
@@ -0,0 +1,185 @@
+package pe.edu.pucp.morapack.algos.entities;
+
+import java.lang.ref.WeakReference;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Ruta inmutable (secuencia de vuelos) compartida entre PlannerShipments.
+ *
+ * Las rutas se internan: Route.of() devuelve la misma instancia para la misma secuencia de
+ * objetos PlannerFlight, así que split/merge/copia de shipments solo copian la referencia.
+ * Todo lo que la función de costo consulta en cada iteración (salida, llegada, escalas,
+ * validez, conexiones fuera de rango, aeropuertos de escala) se calcula una sola vez.
+ *
+ * La igualdad es por IDENTIDAD de los vuelos (no por código): los códigos se repiten entre
+ * sesiones con vuelos distintos, y una ruta nunca debe mezclar vuelos de otra sesión.
+ * El internado usa referencias débiles: las rutas que ningún shipment usa se recolectan.
+ */
+public final class Route {
+
+    public static final Route EMPTY = new Route(new PlannerFlight[0]);
+
+    private static final Map<Route, WeakReference<Route>> INTERNED = new WeakHashMap<>();
+
+    private final PlannerFlight[] flights;
+    private final List<PlannerFlight> flightList;
+    private final int hash;
+
+    // Datos precalculados
+    private final LocalDateTime departureTime;
+    private final LocalDateTime arrivalTime;
+    private final boolean validSequence;
+    private final int invalidConnectionCount;
+    private final List<PlannerAirport> stopoverAirports;
+
+    private Route(PlannerFlight[] flights) {
+        this.flights = flights;
+        this.flightList = Collections.unmodifiableList(Arrays.asList(flights));
+
+        int h = 1;
+        for (PlannerFlight flight : flights) {
+            h = 31 * h + System.identityHashCode(flight);
+        }
+        this.hash = h;
+
+        this.departureTime = flights.length > 0 ? flights[0].getDepartureTime() : null;
+        this.arrivalTime = flights.length > 0 ? flights[flights.length - 1].getArrivalTime() : null;
+
+        boolean valid = flights.length > 0;
+        int invalidConnections = 0;
+        List<PlannerAirport> stopovers = new ArrayList<>(Math.max(0, flights.length - 1));
+        for (int i = 0; i < flights.length - 1; i++) {
+            PlannerFlight current = flights[i];
+            PlannerFlight next = flights[i + 1];
+            stopovers.add(current.getDestination());
+
+            // Conectividad geográfica y mínimo 1 hora de conexión (ver PlannerShipment.isValidSequence)
+            long connectionHours = ChronoUnit.HOURS.between(current.getArrivalTime(), next.getDepartureTime());
+            if (!current.getDestination().equals(next.getOrigin()) || connectionHours < 1) {
+                valid = false;
+            }
+            // Conexiones demasiado cortas o largas (penalizadas por la función de costo)
+            if (connectionHours < 1 || connectionHours > 24) {
+                invalidConnections++;
+            }
+        }
+        this.validSequence = valid;
+        this.invalidConnectionCount = invalidConnections;
+        this.stopoverAirports = Collections.unmodifiableList(stopovers);
+    }
+
+    /**
+     * Ruta internada para la secuencia de vuelos dada
+     */
+    public static Route of(List<PlannerFlight> flights) {
+        if (flights == null || flights.isEmpty()) return EMPTY;
+        return intern(new Route(flights.toArray(new PlannerFlight[0])));
+    }
+
+    private static Route intern(Route candidate) {
+        synchronized (INTERNED) {
+            WeakReference<Route> ref = INTERNED.get(candidate);
+            Route existing = ref != null ? ref.get() : null;
+            if (existing != null) return existing;
+            INTERNED.put(candidate, new WeakReference<>(candidate));
+            return candidate;
+        }
+    }
+
+    // ========== Consultas ==========
+
+    /**
+     * Vista inmutable de los vuelos (compartida, no se copia)
+     */
+    public List<PlannerFlight> getFlights() {
+        return flightList;
+    }
+
+    public int size() {
+        return flights.length;
+    }
+
+    public boolean isEmpty() {
+        return flights.length == 0;
+    }
+
+    public PlannerFlight getFlight(int index) {
+        return flights[index];
+    }
+
+    public boolean contains(PlannerFlight flight) {
+        for (PlannerFlight f : flights) {
+            if (f.equals(flight)) return true;
+        }
+        return false;
+    }
+
+    public LocalDateTime getDepartureTime() {
+        return departureTime;
+    }
+
+    public LocalDateTime getArrivalTime() {
+        return arrivalTime;
+    }
+
+    public int getNumberOfStops() {
+        return Math.max(0, flights.length - 1);
+    }
+
+    public boolean isValidSequence() {
+        return validSequence;
+    }
+
+    /**
+     * Conexiones con menos de 1 hora o más de 24 horas
+     */
+    public int getInvalidConnectionCount() {
+        return invalidConnectionCount;
+    }
+
+    public List<PlannerAirport> getStopoverAirports() {
+        return stopoverAirports;
+    }
+
+    /**
+     * Misma secuencia de vuelos por código (criterio de PlannerFlight.equals).
+     * Para rutas internadas de la misma sesión equivale a comparar referencias.
+     */
+    public boolean sameFlightsAs(Route other) {
+        return this == other || (other != null && Arrays.equals(flights, other.flights));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Route other = (Route) o;
+        if (hash != other.hash || flights.length != other.flights.length) return false;
+        for (int i = 0; i < flights.length; i++) {
+            if (flights[i] != other.flights[i]) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Route{");
+        for (int i = 0; i < flights.length; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(flights[i].getCode());
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -6,9 +6,14 @@ import pe.edu.pucp.morapack.algos.entities.PlannerFlight;
 import pe.edu.pucp.morapack.algos.entities.PlannerOrder;
 import pe.edu.pucp.morapack.algos.entities.Solution;
 import pe.edu.pucp.morapack.algos.data.DataLoader;
+import pe.edu.pucp.morapack.algos.algorithm.OptimizerType;
+import pe.edu.pucp.morapack.algos.data.providers.FileDataProvider;
+import pe.edu.pucp.morapack.algos.scheduler.ScenarioConfig;
+import pe.edu.pucp.morapack.service.HeadlessSimulationRunner;
 import pe.edu.pucp.morapack.model.*;
 
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
@@ -20,6 +25,11 @@ public class MorapackPlanner {
     private static final String DEFAULT_ORDERS_FILE   = "data/pedidos.csv";
 
     public static void main(String[] args) {
+        if (args.length > 0 && "--headless".equals(args[0])) {
+            runHeadless(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
         String airportsFile = args.length > 0 ? args[0] : DEFAULT_AIRPORTS_FILE;
         String flightsFile  = args.length > 1 ? args[1] : DEFAULT_FLIGHTS_FILE;
         String ordersFile   = args.length > 2 ? args[2] : DEFAULT_ORDERS_FILE;
@@ -89,6 +99,58 @@ public class MorapackPlanner {
         System.out.println("\n--- Test Finished ---");
     }
 
+    /**
+     * Simulación completa sin UI a máxima velocidad (estudios de capacidad), con los archivos por defecto:
+     *   --headless [WEEKLY|COLLAPSE|DAILY] [fecha inicio yyyy-MM-dd] [progreso cada N ticks] [CSV de ticks] [optimizador]
+     * Imprime el reporte final y escribe las métricas por tick en el CSV.
+     */
+    private static void runHeadless(String[] args) {
+        String scenarioType = args.length > 0 ? args[0].toUpperCase() : "WEEKLY";
+        LocalDate startDate = args.length > 1 ? LocalDate.parse(args[1]) : LocalDate.of(2025, 12, 1);
+        int reportEvery = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+        String csvFile = args.length > 3 ? args[3] : "batch-results/headless-" + scenarioType.toLowerCase() + "-ticks.csv";
+        OptimizerType optimizer = OptimizerType.fromString(args.length > 4 ? args[4] : null);
+
+        ScenarioConfig scenario = switch (scenarioType) {
+            case "COLLAPSE" -> ScenarioConfig.collapse();
+            case "DAILY" -> ScenarioConfig.daily();
+            default -> ScenarioConfig.weekly();
+        };
+
+        try {
+            FileDataProvider dataProvider = new FileDataProvider(DEFAULT_AIRPORTS_FILE, DEFAULT_FLIGHTS_FILE,
+                    DEFAULT_ORDERS_FILE, startDate.getYear(), startDate.getMonthValue(), startDate.lengthOfMonth());
+
+            // WEEKLY: duración fija; COLLAPSE/DAILY: hasta fin de mes (o hasta el colapso)
+            LocalDateTime startTime = startDate.atStartOfDay();
+            LocalDateTime endTime = scenario.getType() == ScenarioConfig.ScenarioType.WEEKLY
+                    ? startTime.plusMinutes(scenario.getTotalDurationMinutes())
+                    : startDate.withDayOfMonth(startDate.lengthOfMonth()).atTime(23, 59, 59);
+
+            HeadlessSimulationRunner runner = new HeadlessSimulationRunner(null, optimizer, 1.0, reportEvery);
+            HeadlessSimulationRunner.Result result = runner.run("cli", dataProvider, scenario, startTime, endTime);
+            result.writeCsv(Paths.get(csvFile));
+
+            var report = result.getReport();
+            System.out.println("\n=== HEADLESS " + report.scenarioType + " " + report.startTime + " → " + report.endTime + " ===");
+            System.out.println("Final state: " + result.getState() + ", ticks: " + report.totalIterations +
+                    ", wall time: " + result.getWallTimeMs() + " ms");
+            System.out.printf("Orders: %d (completed %d, partial %d, none %d) - completion %.1f%%%n",
+                    report.totalOrders, report.fullyCompleted, report.partiallyCompleted, report.notCompleted,
+                    report.completionRate);
+            System.out.printf("Products assigned: %d/%d (%.1f%%), on time: %.1f%%, rating: %s%n",
+                    report.totalProductsAssigned, report.totalProductsRequested, report.productAssignmentRate,
+                    report.onTimeRate, report.rating);
+            if (report.collapseDetected) {
+                System.out.println("Collapse: " + report.collapseReason);
+            }
+            System.out.println("Per-tick metrics: " + Paths.get(csvFile).toAbsolutePath());
+        } catch (IOException e) {
+            System.err.println("Error running headless simulation: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
     private static void printDetailedStatistics(Solution solution, List<PlannerOrder> originalOrders) {
         if (solution == null) {
             System.out.println("No solution to analyze.");
@@ -0,0 +1,234 @@
+package pe.edu.pucp.morapack.algos.scheduler;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Controlador de cadencia de planificación por sesión: mide Ta (tiempo real del optimizador) y
+ * la duración de cada tick, y mantiene Sa > Ta con holgura.
+ *
+ * Sa en tiempo real es el objetivo de duración del tick (targetTickMs) escalado por K/K base:
+ * si un tick consume más tiempo simulado, puede durar proporcionalmente más sin que la sesión
+ * se atrase respecto al reloj. Sobre el promedio móvil (EWMA) de la duración del tick:
+ *
+ * - Por encima del HIGH_WATERMARK del objetivo se degrada: primero se recorta el presupuesto
+ *   del planner (factor de velocidad del planner, ver PLANNER_SPEED_LEVELS) y, agotado eso y
+ *   si el escenario lo permite, se sube K en pasos de K base (hasta MAX_K_FACTOR × K base).
+ * - Por debajo del LOW_WATERMARK durante RECOVERY_TICKS ticks se recupera en orden inverso.
+ * - Tras cada cambio se esperan COOLDOWN_TICKS ticks para medir su efecto.
+ *
+ * Si con el menor presupuesto y el mayor K permitido el tick sigue pasándose del objetivo, el
+ * escenario no es sostenible: record() lo informa una vez en la transición.
+ * No es thread-safe: lo usa solo el hilo de la sesión (los getters pueden leerse desde otros).
+ */
+public class CadenceController {
+
+    /** Factores de velocidad del planner (dividen su presupuesto de iteraciones/tiempo) */
+    public static final double[] PLANNER_SPEED_LEVELS = {1.0, 1.5, 2.0, 3.0, 4.0, 6.0, 8.0};
+    public static final int MAX_K_FACTOR = 4;
+    public static final int HISTORY_LIMIT = 2000;
+
+    private static final double HIGH_WATERMARK = 0.9;  // Tick > 90% de Sa: degradar
+    private static final double LOW_WATERMARK = 0.5;   // Tick < 50% de Sa: recuperar
+    private static final int RECOVERY_TICKS = 3;
+    private static final int COOLDOWN_TICKS = 2;
+    private static final double EWMA_ALPHA = 0.3;
+
+    private final int baseK;
+    private final int saMinutes;
+    private final boolean adjustK;
+
+    private volatile int k;
+    private volatile int speedLevel = 0;
+    private volatile double ewmaTaMs = -1;
+    private volatile double ewmaTickMs = -1;
+    private volatile boolean sustainable = true;
+    private int calmTicks = 0;
+    private int cooldown = 0;
+
+    private final Deque<Sample> history = new ArrayDeque<>();
+
+    /**
+     * @param baseK     K del escenario (no se baja de él)
+     * @param saMinutes Sa del escenario (Sc = K × Sa)
+     * @param adjustK   permitir subir K (no en escenarios de tiempo real)
+     */
+    public CadenceController(int baseK, int saMinutes, boolean adjustK) {
+        this.baseK = Math.max(1, baseK);
+        this.saMinutes = saMinutes;
+        this.adjustK = adjustK;
+        this.k = this.baseK;
+    }
+
+    public static CadenceController forScenario(ScenarioConfig scenario, boolean adjustK) {
+        return new CadenceController(scenario.getK(), scenario.getSaMinutes(), adjustK && !scenario.isRealTime());
+    }
+
+    /**
+     * Registra un tick y ajusta presupuesto del planner y K para el siguiente
+     *
+     * @param taMs         tiempo del optimizador en el tick (0 si no corrió)
+     * @param tickMs       duración del tick sin la pausa entre ticks
+     * @param targetTickMs Sa en tiempo real para K base (ya escalado por la velocidad de la sesión)
+     * @return decisión tomada (STEADY si no cambió nada)
+     */
+    public Decision record(int iteration, LocalDateTime simulatedTime, long taMs, long tickMs, long targetTickMs) {
+        ewmaTaMs = ewmaTaMs < 0 ? taMs : EWMA_ALPHA * taMs + (1 - EWMA_ALPHA) * ewmaTaMs;
+        ewmaTickMs = ewmaTickMs < 0 ? tickMs : EWMA_ALPHA * tickMs + (1 - EWMA_ALPHA) * ewmaTickMs;
+        double allowedMs = allowedTickMs(targetTickMs);
+
+        Decision decision = Decision.STEADY;
+        if (cooldown > 0) {
+            cooldown--;
+        } else if (ewmaTickMs > HIGH_WATERMARK * allowedMs) {
+            calmTicks = 0;
+            decision = degrade();
+        } else if (ewmaTickMs < LOW_WATERMARK * allowedMs) {
+            if (++calmTicks >= RECOVERY_TICKS) {
+                calmTicks = 0;
+                decision = recover();
+            }
+        } else {
+            calmTicks = 0;
+        }
+        if (decision != Decision.STEADY) cooldown = COOLDOWN_TICKS;
+
+        // Sostenible mientras quede margen para degradar o el tick quepa en Sa
+        boolean canDegrade = speedLevel < PLANNER_SPEED_LEVELS.length - 1 || (adjustK && k < baseK * MAX_K_FACTOR);
+        boolean nowSustainable = canDegrade || ewmaTickMs <= allowedTickMs(targetTickMs);
+        if (sustainable && !nowSustainable) {
+            decision = Decision.UNSUSTAINABLE;
+        } else if (!sustainable && nowSustainable && decision == Decision.STEADY) {
+            decision = Decision.SUSTAINABLE_AGAIN;
+        }
+        sustainable = nowSustainable;
+
+        synchronized (history) {
+            history.addLast(new Sample(iteration, simulatedTime, k, getScMinutes(), getPlannerSpeedFactor(),
+                taMs, tickMs, Math.round(allowedTickMs(targetTickMs)), decision));
+            while (history.size() > HISTORY_LIMIT) history.removeFirst();
+        }
+        return decision;
+    }
+
+    private Decision degrade() {
+        if (speedLevel < PLANNER_SPEED_LEVELS.length - 1) {
+            speedLevel++;
+            return Decision.PLANNER_BUDGET_REDUCED;
+        }
+        if (adjustK && k < baseK * MAX_K_FACTOR) {
+            k += baseK;
+            return Decision.K_INCREASED;
+        }
+        return Decision.STEADY;
+    }
+
+    private Decision recover() {
+        if (k > baseK) {
+            k -= baseK;
+            return Decision.K_DECREASED;
+        }
+        if (speedLevel > 0) {
+            speedLevel--;
+            return Decision.PLANNER_BUDGET_RESTORED;
+        }
+        return Decision.STEADY;
+    }
+
+    private double allowedTickMs(long targetTickMs) {
+        return (double) targetTickMs * k / baseK;
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    /**
+     * Sc vigente: K actual × Sa
+     */
+    public int getScMinutes() {
+        return k * saMinutes;
+    }
+
+    /**
+     * Multiplicador de velocidad del planner (1.0 = presupuesto completo)
+     */
+    public double getPlannerSpeedFactor() {
+        return PLANNER_SPEED_LEVELS[speedLevel];
+    }
+
+    /**
+     * Promedio móvil de Ta en ms (-1 antes del primer tick)
+     */
+    public double getAverageTaMs() {
+        return ewmaTaMs;
+    }
+
+    public double getAverageTickMs() {
+        return ewmaTickMs;
+    }
+
+    public boolean isSustainable() {
+        return sustainable;
+    }
+
+    public List<Sample> getHistory() {
+        synchronized (history) {
+            return new ArrayList<>(history);
+        }
+    }
+
+    /**
+     * Decisión del controlador en un tick
+     */
+    public enum Decision {
+        STEADY,
+        PLANNER_BUDGET_REDUCED,
+        PLANNER_BUDGET_RESTORED,
+        K_INCREASED,
+        K_DECREASED,
+        UNSUSTAINABLE,
+        SUSTAINABLE_AGAIN
+    }
+
+    /**
+     * Medición de un tick y los parámetros elegidos para el siguiente
+     */
+    public static class Sample {
+        private final int iteration;
+        private final LocalDateTime simulatedTime;
+        private final int k;
+        private final int scMinutes;
+        private final double plannerSpeedFactor;
+        private final long taMs;
+        private final long tickMs;
+        private final long allowedTickMs;
+        private final Decision decision;
+
+        public Sample(int iteration, LocalDateTime simulatedTime, int k, int scMinutes, double plannerSpeedFactor,
+                      long taMs, long tickMs, long allowedTickMs, Decision decision) {
+            this.iteration = iteration;
+            this.simulatedTime = simulatedTime;
+            this.k = k;
+            this.scMinutes = scMinutes;
+            this.plannerSpeedFactor = plannerSpeedFactor;
+            this.taMs = taMs;
+            this.tickMs = tickMs;
+            this.allowedTickMs = allowedTickMs;
+            this.decision = decision;
+        }
+
+        public int getIteration() { return iteration; }
+        public LocalDateTime getSimulatedTime() { return simulatedTime; }
+        public int getK() { return k; }
+        public int getScMinutes() { return scMinutes; }
+        public double getPlannerSpeedFactor() { return plannerSpeedFactor; }
+        public long getTaMs() { return taMs; }
+        public long getTickMs() { return tickMs; }
+        public long getAllowedTickMs() { return allowedTickMs; }
+        public Decision getDecision() { return decision; }
+    }
+}
@@ -0,0 +1,205 @@
+package pe.edu.pucp.morapack.algos.scheduler;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cola calendario (Brown, 1988) de eventos de simulación, para avanzar el tiempo de evento en
+ * evento en lugar de en ventanas fijas.
+ *
+ * Los eventos se reparten en bucketCount cubetas de bucketWidth de ancho ("días" de un "año"
+ * circular); cada cubeta se mantiene ordenada por tiempo. peek()/poll() recorren las cubetas desde
+ * el día actual y toman la cabeza de la primera cuyo evento cae dentro de ese día: O(1) amortizado
+ * cuando el ancho se parece a la separación típica entre eventos (p. ej. Sc). Si en una vuelta
+ * completa no hay ninguno, se busca el mínimo directamente (eventos lejanos, más de un año).
+ * Eventos con el mismo tiempo salen en orden de inserción. No es thread-safe.
+ */
+public class EventCalendar {
+
+    public static final int DEFAULT_BUCKET_COUNT = 256;
+
+    /**
+     * Tipos de evento que mueven la simulación
+     */
+    public enum EventType {
+        ORDER_ARRIVAL,
+        FLIGHT_DEPARTURE,
+        FLIGHT_ARRIVAL,
+        DYNAMIC_INJECTION,
+        CANCELLATION,
+        DEADLINE
+    }
+
+    private final long bucketWidthSeconds;
+    private final List<List<Event>> buckets;
+    private final int mask;
+    private int size = 0;
+    private long sequence = 0;
+
+    // Día actual: cubeta y fin (exclusivo) del día; ningún evento es anterior a su inicio
+    private int cursor = 0;
+    private long dayEnd = Long.MIN_VALUE;
+
+    /**
+     * @param bucketWidthMinutes ancho de cada cubeta (separación típica entre eventos)
+     * @param bucketCount        cubetas por año (se redondea a potencia de 2)
+     */
+    public EventCalendar(long bucketWidthMinutes, int bucketCount) {
+        this.bucketWidthSeconds = Math.max(1, bucketWidthMinutes) * 60;
+        int count = Integer.highestOneBit(Math.max(2, bucketCount - 1)) << 1;
+        this.mask = count - 1;
+        this.buckets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            buckets.add(new ArrayList<>());
+        }
+    }
+
+    public EventCalendar(long bucketWidthMinutes) {
+        this(bucketWidthMinutes, DEFAULT_BUCKET_COUNT);
+    }
+
+    public void add(EventType type, LocalDateTime time, String detail) {
+        Event event = new Event(type, time, detail, sequence++);
+        List<Event> bucket = buckets.get(bucketOf(event.key));
+        int index = bucket.size();
+        while (index > 0 && bucket.get(index - 1).compareTo(event) > 0) {
+            index--;
+        }
+        bucket.add(index, event);
+        size++;
+
+        // Evento anterior al día actual (o primer evento): el día pasa a ser el suyo
+        if (size == 1 || event.key < dayEnd - bucketWidthSeconds) {
+            moveTo(event.key);
+        }
+    }
+
+    /**
+     * Próximo evento sin quitarlo (null si no hay)
+     */
+    public Event peek() {
+        int bucket = findNext();
+        return bucket < 0 ? null : buckets.get(bucket).get(0);
+    }
+
+    /**
+     * Quita y devuelve el próximo evento (null si no hay)
+     */
+    public Event poll() {
+        int bucket = findNext();
+        if (bucket < 0) return null;
+        size--;
+        return buckets.get(bucket).remove(0);
+    }
+
+    /**
+     * Descarta los eventos con tiempo menor o igual que 'time' (ya observados)
+     *
+     * @return cantidad descartada
+     */
+    public int discardUntil(LocalDateTime time) {
+        int discarded = 0;
+        Event next;
+        while ((next = peek()) != null && !next.time.isAfter(time)) {
+            poll();
+            discarded++;
+        }
+        return discarded;
+    }
+
+    /**
+     * Descarta los eventos con tiempo estrictamente menor que 'time' (los de 'time' quedan)
+     *
+     * @return cantidad descartada
+     */
+    public int discardBefore(LocalDateTime time) {
+        int discarded = 0;
+        Event next;
+        while ((next = peek()) != null && next.time.isBefore(time)) {
+            poll();
+            discarded++;
+        }
+        return discarded;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private int findNext() {
+        if (size == 0) return -1;
+
+        int index = cursor;
+        long end = dayEnd;
+        for (int i = 0; i <= mask; i++) {
+            List<Event> bucket = buckets.get(index);
+            if (!bucket.isEmpty() && bucket.get(0).key < end) {
+                cursor = index;
+                dayEnd = end;
+                return index;
+            }
+            index = (index + 1) & mask;
+            end += bucketWidthSeconds;
+        }
+
+        // Nada en este año: búsqueda directa del mínimo y se salta a su día
+        Event min = null;
+        for (List<Event> bucket : buckets) {
+            if (!bucket.isEmpty() && (min == null || bucket.get(0).compareTo(min) < 0)) {
+                min = bucket.get(0);
+            }
+        }
+        moveTo(min.key);
+        return cursor;
+    }
+
+    private void moveTo(long key) {
+        long day = Math.floorDiv(key, bucketWidthSeconds);
+        cursor = (int) (day & mask);
+        dayEnd = (day + 1) * bucketWidthSeconds;
+    }
+
+    private int bucketOf(long key) {
+        return (int) (Math.floorDiv(key, bucketWidthSeconds) & mask);
+    }
+
+    /**
+     * Evento de simulación: tipo, instante y detalle para logs
+     */
+    public static final class Event implements Comparable<Event> {
+        private final EventType type;
+        private final LocalDateTime time;
+        private final String detail;
+        private final long key;
+        private final long sequence;
+
+        private Event(EventType type, LocalDateTime time, String detail, long sequence) {
+            this.type = type;
+            this.time = time;
+            this.detail = detail;
+            this.key = time.toEpochSecond(ZoneOffset.UTC);
+            this.sequence = sequence;
+        }
+
+        public EventType getType() { return type; }
+        public LocalDateTime getTime() { return time; }
+        public String getDetail() { return detail; }
+
+        @Override
+        public int compareTo(Event other) {
+            int byTime = Long.compare(key, other.key);
+            return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+        }
+
+        @Override
+        public String toString() {
+            return type + "@" + time + (detail != null ? " (" + detail + ")" : "");
+        }
+    }
+}
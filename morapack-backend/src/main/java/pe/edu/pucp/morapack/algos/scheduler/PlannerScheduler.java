@@ -7,6 +7,7 @@ import pe.edu.pucp.morapack.algos.entities.PlannerFlight;
 import pe.edu.pucp.morapack.algos.entities.PlannerOrder;
 import pe.edu.pucp.morapack.algos.entities.PlannerShipment;
 import pe.edu.pucp.morapack.algos.entities.Solution;
+import pe.edu.pucp.morapack.algos.utils.FlightReachability;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -161,7 +162,9 @@ public class PlannerScheduler {
         
         // 3. Run Tabu Search
         System.out.println("\n🔄 RUNNING TABU SEARCH...");
-        Solution solution = planner.optimize(ordersToProcess, newFlights, dataProvider.getAirports());
+        List<PlannerFlight> reachableFlights = FlightReachability.prune(ordersToProcess, newFlights);
+        System.out.println("   Reachable Flights: " + reachableFlights.size() + "/" + newFlights.size());
+        Solution solution = planner.optimize(ordersToProcess, reachableFlights, dataProvider.getAirports());
         List<PlannerShipment> newShipments = ((TabuSolution) solution).getPlannerShipments();
         
         // 4. Process results
@@ -34,6 +34,8 @@ package pe.edu.pucp.morapack.algos.scheduler;
  * 
  * IMPORTANT: Sa must be "reasonably greater" than Ta to avoid solution collapse.
  *            If Sa is too small (Sa < Ta), executions overlap causing instability.
+ *            Sessions measure this at runtime with CadenceController, which trims the planner
+ *            budget and (outside real time) raises K when ticks can't keep up.
  */
 public class ScenarioConfig {
     
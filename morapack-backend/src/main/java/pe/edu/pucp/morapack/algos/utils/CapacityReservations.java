@@ -0,0 +1,143 @@
+package pe.edu.pucp.morapack.algos.utils;
+
+import pe.edu.pucp.morapack.algos.entities.PlannerAirport;
+import pe.edu.pucp.morapack.algos.entities.PlannerFlight;
+import pe.edu.pucp.morapack.algos.entities.Route;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Tabla de reservas de capacidad sin locks para construcciones concurrentes.
+ *
+ * Capacidad restante de vuelos y almacenes de escala en AtomicIntegerArray. Una reserva sobre una
+ * ruta es todo-o-nada: se descuenta recurso por recurso con CAS y, si alguno ya no alcanza
+ * (otro hilo lo tomó), se devuelve lo descontado y tryReserve retorna false para que el llamador
+ * reintente con candidatos frescos.
+ *
+ * Los índices se construyen una vez; vuelos y aeropuertos desconocidos no tienen capacidad
+ * (vuelos) o no restringen (almacenes).
+ */
+public final class CapacityReservations {
+
+    private final Map<PlannerFlight, Integer> flightIndex = new HashMap<>();
+    private final Map<String, Integer> airportIndex = new HashMap<>();
+    private final AtomicIntegerArray flightRemaining;
+    private final AtomicIntegerArray storageRemaining;
+
+    public CapacityReservations(List<PlannerFlight> flights, List<PlannerAirport> airports) {
+        flightRemaining = new AtomicIntegerArray(flights.size());
+        for (int i = 0; i < flights.size(); i++) {
+            PlannerFlight flight = flights.get(i);
+            flightIndex.put(flight, i);
+            flightRemaining.set(i, flight.getCapacity());
+        }
+
+        int airportCount = airports != null ? airports.size() : 0;
+        storageRemaining = new AtomicIntegerArray(airportCount);
+        for (int i = 0; i < airportCount; i++) {
+            PlannerAirport airport = airports.get(i);
+            airportIndex.put(airport.getCode(), i);
+            storageRemaining.set(i, airport.getStorageCapacity());
+        }
+    }
+
+    /**
+     * Capacidad restante del vuelo (0 si no está en la tabla)
+     */
+    public int remaining(PlannerFlight flight) {
+        Integer index = flightIndex.get(flight);
+        return index != null ? flightRemaining.get(index) : 0;
+    }
+
+    /**
+     * Máxima cantidad reservable en la ruta ahora mismo (vuelos y almacenes de escala)
+     */
+    public int available(Route route) {
+        if (route.isEmpty()) return 0;
+        int available = Integer.MAX_VALUE;
+        for (PlannerFlight flight : route.getFlights()) {
+            available = Math.min(available, remaining(flight));
+        }
+        for (PlannerAirport stopover : route.getStopoverAirports()) {
+            Integer index = airportIndex.get(stopover.getCode());
+            if (index != null) available = Math.min(available, storageRemaining.get(index));
+        }
+        return Math.max(0, available);
+    }
+
+    /**
+     * Reserva 'quantity' en todos los vuelos y almacenes de escala de la ruta, o en ninguno
+     */
+    public boolean tryReserve(Route route, int quantity) {
+        if (quantity <= 0 || route.isEmpty()) return false;
+
+        List<PlannerFlight> flights = route.getFlights();
+        for (int i = 0; i < flights.size(); i++) {
+            Integer index = flightIndex.get(flights.get(i));
+            if (index == null || !tryTake(flightRemaining, index, quantity)) {
+                releaseFlights(flights, i, quantity);
+                return false;
+            }
+        }
+
+        List<PlannerAirport> stopovers = route.getStopoverAirports();
+        for (int i = 0; i < stopovers.size(); i++) {
+            Integer index = airportIndex.get(stopovers.get(i).getCode());
+            if (index != null && !tryTake(storageRemaining, index, quantity)) {
+                releaseStopovers(stopovers, i, quantity);
+                releaseFlights(flights, flights.size(), quantity);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Descuenta carga ya comprometida (p. ej. el plan vigente) sin verificar capacidad; un recurso
+     * sobrecargado queda en negativo y available() lo ve como 0
+     */
+    public void consume(Route route, int quantity) {
+        if (quantity <= 0) return;
+        for (PlannerFlight flight : route.getFlights()) {
+            Integer index = flightIndex.get(flight);
+            if (index != null) flightRemaining.addAndGet(index, -quantity);
+        }
+        for (PlannerAirport stopover : route.getStopoverAirports()) {
+            Integer index = airportIndex.get(stopover.getCode());
+            if (index != null) storageRemaining.addAndGet(index, -quantity);
+        }
+    }
+
+    /**
+     * Devuelve una reserva hecha con tryReserve
+     */
+    public void release(Route route, int quantity) {
+        releaseFlights(route.getFlights(), route.size(), quantity);
+        releaseStopovers(route.getStopoverAirports(), route.getStopoverAirports().size(), quantity);
+    }
+
+    private static boolean tryTake(AtomicIntegerArray remaining, int index, int quantity) {
+        while (true) {
+            int current = remaining.get(index);
+            if (current < quantity) return false;
+            if (remaining.compareAndSet(index, current, current - quantity)) return true;
+        }
+    }
+
+    private void releaseFlights(List<PlannerFlight> flights, int count, int quantity) {
+        for (int i = 0; i < count; i++) {
+            Integer index = flightIndex.get(flights.get(i));
+            if (index != null) flightRemaining.addAndGet(index, quantity);
+        }
+    }
+
+    private void releaseStopovers(List<PlannerAirport> stopovers, int count, int quantity) {
+        for (int i = 0; i < count; i++) {
+            Integer index = airportIndex.get(stopovers.get(i).getCode());
+            if (index != null) storageRemaining.addAndGet(index, quantity);
+        }
+    }
+}
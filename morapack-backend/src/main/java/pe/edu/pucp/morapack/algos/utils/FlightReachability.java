@@ -0,0 +1,101 @@
+package pe.edu.pucp.morapack.algos.utils;
+
+import pe.edu.pucp.morapack.algos.entities.PlannerFlight;
+import pe.edu.pucp.morapack.algos.entities.PlannerOrder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Poda de vuelos por alcanzabilidad antes de optimizar.
+ *
+ * Un vuelo se conserva solo si está en algún camino factible:
+ * - Hacia adelante (por hora de salida): sale de un origen de pedido después de su registro,
+ *   o de un aeropuerto alcanzado con al menos 1 hora de conexión
+ * - Hacia atrás (por hora de llegada): llega a un destino de pedido antes de su plazo
+ *   (más lateSlackHours), o a un aeropuerto desde el que aún se puede seguir con 1 hora de conexión
+ *
+ * Es una relajación (no empareja origen y destino de un mismo pedido): solo se descartan vuelos que
+ * ningún pedido podría usar, salvo con más de lateSlackHours de retraso. El margen conserva las
+ * entregas tardías que los planners también construyen (la función de costo penaliza el retraso
+ * mucho menos que dejar el pedido sin asignar).
+ */
+public final class FlightReachability {
+    public static final long DEFAULT_LATE_SLACK_HOURS = 48;
+    private static final long MIN_CONNECTION_HOURS = 1;
+
+    private FlightReachability() {
+    }
+
+    public static List<PlannerFlight> prune(List<PlannerOrder> orders, List<PlannerFlight> flights) {
+        return prune(orders, flights, DEFAULT_LATE_SLACK_HOURS);
+    }
+
+    /**
+     * @return vuelos alcanzables, en el mismo orden que 'flights'
+     */
+    public static List<PlannerFlight> prune(List<PlannerOrder> orders, List<PlannerFlight> flights, long lateSlackHours) {
+        if (orders == null || orders.isEmpty() || flights == null || flights.isEmpty()) {
+            return flights;
+        }
+
+        // Hora de registro más temprana por origen y plazo más tardío por destino
+        Map<String, LocalDateTime> readyAt = new HashMap<>();
+        Map<String, LocalDateTime> latestArrival = new HashMap<>();
+        for (PlannerOrder order : orders) {
+            if (order.getOrigin() == null || order.getDestination() == null || order.getOrderTime() == null) {
+                return flights;  // pedido sin datos completos: no se puede razonar sobre él, no podar
+            }
+            readyAt.merge(order.getOrigin().getCode(), order.getOrderTime(), FlightReachability::min);
+            LocalDateTime deadline = order.getOrderTime().plusHours(order.getMaxDeliveryHours() + lateSlackHours);
+            latestArrival.merge(order.getDestination().getCode(), deadline, FlightReachability::max);
+        }
+
+        int n = flights.size();
+        boolean[] forward = new boolean[n];
+        boolean[] backward = new boolean[n];
+        Integer[] indices = new Integer[n];
+        for (int i = 0; i < n; i++) indices[i] = i;
+
+        // Adelante: una conexión solo puede usar vuelos que salen después, así que basta una pasada por salida
+        Arrays.sort(indices, Comparator.comparing(i -> flights.get(i).getDepartureTime()));
+        for (int i : indices) {
+            PlannerFlight flight = flights.get(i);
+            LocalDateTime ready = readyAt.get(flight.getOrigin().getCode());
+            if (ready == null || flight.getDepartureTime().isBefore(ready)) continue;
+            forward[i] = true;
+            readyAt.merge(flight.getDestination().getCode(),
+                flight.getArrivalTime().plusHours(MIN_CONNECTION_HOURS), FlightReachability::min);
+        }
+
+        // Atrás: simétrico, una pasada por llegada descendente
+        Arrays.sort(indices, Comparator.comparing((Integer i) -> flights.get(i).getArrivalTime()).reversed());
+        for (int i : indices) {
+            PlannerFlight flight = flights.get(i);
+            LocalDateTime latest = latestArrival.get(flight.getDestination().getCode());
+            if (latest == null || flight.getArrivalTime().isAfter(latest)) continue;
+            backward[i] = true;
+            latestArrival.merge(flight.getOrigin().getCode(),
+                flight.getDepartureTime().minusHours(MIN_CONNECTION_HOURS), FlightReachability::max);
+        }
+
+        List<PlannerFlight> reachable = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (forward[i] && backward[i]) reachable.add(flights.get(i));
+        }
+        return reachable;
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
@@ -0,0 +1,176 @@
+package pe.edu.pucp.morapack.algos.utils;
+
+import pe.edu.pucp.morapack.algos.entities.PlannerFlight;
+import pe.edu.pucp.morapack.algos.entities.PlannerOrder;
+
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * Búsqueda de rutas candidatas (directas y con conexión por hubs) para un pedido.
+ *
+ * Compartido por los optimizadores (Tabu, ALNS, ...) para que todos generen
+ * exactamente el mismo espacio de rutas y las mismas reglas de tiempo.
+ */
+public final class RouteFinder {
+    // Main hubs para conexiones
+    public static final String LIMA_CODE = "SPIM";
+    public static final String BRUSSELS_CODE = "EBCI";
+    public static final String BAKU_CODE = "UBBB";
+    public static final String[] HUB_CODES = {LIMA_CODE, BRUSSELS_CODE, BAKU_CODE};
+
+    private RouteFinder() {
+    }
+
+    /**
+     * Buscar rutas directas con capacidad disponible, ordenadas por prioridad (tiempo, costo)
+     */
+    public static List<RouteOption> findDirectRoutes(PlannerOrder order, List<PlannerFlight> flights,
+                                                     Map<PlannerFlight, Integer> capacityRemaining) {
+        return findDirectRoutes(order, flights, flight -> capacityRemaining.getOrDefault(flight, 0));
+    }
+
+    /**
+     * Igual que findDirectRoutes, con la capacidad restante leída de cualquier fuente
+     * (p. ej. una tabla de reservas concurrente)
+     */
+    public static List<RouteOption> findDirectRoutes(PlannerOrder order, List<PlannerFlight> flights,
+                                                     ToIntFunction<PlannerFlight> capacityRemaining) {
+        List<RouteOption> routes = new ArrayList<>();
+
+        for (PlannerFlight flight : flights) {
+            if (flight.getOrigin().equals(order.getOrigin()) &&
+                flight.getDestination().equals(order.getDestination()) &&
+                isValidDepartureTime(order, flight)) {
+
+                RouteOption route = new RouteOption(List.of(flight));
+                route.setMinCapacity(capacityRemaining.applyAsInt(flight));
+
+                if (route.getMinCapacity() > 0) {
+                    routes.add(route);
+                }
+            }
+        }
+
+        routes.sort(RouteOption::compareTo);
+        return routes;
+    }
+
+    /**
+     * Buscar rutas de una escala a través de los hubs principales
+     */
+    public static List<RouteOption> findConnectionRoutes(PlannerOrder order, List<PlannerFlight> flights,
+                                                         Map<PlannerFlight, Integer> capacityRemaining) {
+        return findConnectionRoutes(order, flights, flight -> capacityRemaining.getOrDefault(flight, 0));
+    }
+
+    public static List<RouteOption> findConnectionRoutes(PlannerOrder order, List<PlannerFlight> flights,
+                                                         ToIntFunction<PlannerFlight> capacityRemaining) {
+        List<RouteOption> routes = new ArrayList<>();
+
+        for (String hubCode : HUB_CODES) {
+            // Buscar vuelo: origen → hub
+            List<PlannerFlight> firstLegs = new ArrayList<>();
+            List<PlannerFlight> hubDepartures = new ArrayList<>();
+            for (PlannerFlight f : flights) {
+                if (f.getOrigin().equals(order.getOrigin()) &&
+                    f.getDestination().getCode().equals(hubCode) &&
+                    isValidDepartureTime(order, f)) {
+                    firstLegs.add(f);
+                }
+                if (f.getOrigin().getCode().equals(hubCode) &&
+                    f.getDestination().equals(order.getDestination())) {
+                    hubDepartures.add(f);
+                }
+            }
+
+            for (PlannerFlight firstLeg : firstLegs) {
+                // Buscar vuelo: hub → destino
+                for (PlannerFlight secondLeg : hubDepartures) {
+                    if (!isValidConnection(firstLeg, secondLeg)) continue;
+
+                    RouteOption route = new RouteOption(List.of(firstLeg, secondLeg));
+
+                    // Capacidad = mínimo de ambos vuelos (cuello de botella)
+                    int minCap = Math.min(
+                        capacityRemaining.applyAsInt(firstLeg),
+                        capacityRemaining.applyAsInt(secondLeg)
+                    );
+                    route.setMinCapacity(minCap);
+
+                    if (route.getMinCapacity() > 0) {
+                        routes.add(route);
+                    }
+                }
+            }
+        }
+
+        routes.sort(RouteOption::compareTo);
+        return routes;
+    }
+
+    /**
+     * Rutas alternativas sin considerar capacidad (directas primero, luego por hubs)
+     */
+    public static List<List<PlannerFlight>> findAlternativeRoutes(PlannerOrder order, List<PlannerFlight> flights, int limit) {
+        List<List<PlannerFlight>> alternatives = new ArrayList<>();
+
+        // Rutas directas
+        for (PlannerFlight flight : flights) {
+            if (flight.getOrigin().equals(order.getOrigin()) &&
+                flight.getDestination().equals(order.getDestination()) &&
+                isValidDepartureTime(order, flight)) {
+                alternatives.add(List.of(flight));
+                if (alternatives.size() >= limit) return alternatives;
+            }
+        }
+
+        // Rutas con conexión
+        for (String hubCode : HUB_CODES) {
+            for (PlannerFlight firstLeg : flights) {
+                if (!firstLeg.getOrigin().equals(order.getOrigin())) continue;
+                if (!firstLeg.getDestination().getCode().equals(hubCode)) continue;
+                if (!isValidDepartureTime(order, firstLeg)) continue;
+
+                for (PlannerFlight secondLeg : flights) {
+                    if (!secondLeg.getOrigin().getCode().equals(hubCode)) continue;
+                    if (!secondLeg.getDestination().equals(order.getDestination())) continue;
+                    if (!isValidConnection(firstLeg, secondLeg)) continue;
+
+                    alternatives.add(List.of(firstLeg, secondLeg));
+                    if (alternatives.size() >= limit) return alternatives;
+                }
+            }
+        }
+
+        return alternatives;
+    }
+
+    /**
+     * El vuelo sale después de registrado el pedido y dentro del plazo máximo
+     */
+    public static boolean isValidDepartureTime(PlannerOrder order, PlannerFlight flight) {
+        long hoursUntilDeparture = ChronoUnit.HOURS.between(order.getOrderTime(), flight.getDepartureTime());
+        return hoursUntilDeparture >= 0 && hoursUntilDeparture <= order.getMaxDeliveryHours();
+    }
+
+    /**
+     * Conexión válida: entre 1 y 24 horas en la escala
+     */
+    public static boolean isValidConnection(PlannerFlight first, PlannerFlight second) {
+        long connectionHours = ChronoUnit.HOURS.between(first.getArrivalTime(), second.getDepartureTime());
+        return connectionHours >= 1 && connectionHours <= 24;
+    }
+
+    /**
+     * Descontar la cantidad asignada de la capacidad restante de cada vuelo de la ruta
+     */
+    public static void updateCapacities(List<PlannerFlight> route, int quantity, Map<PlannerFlight, Integer> remaining) {
+        for (PlannerFlight flight : route) {
+            remaining.merge(flight, -quantity, Integer::sum);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package pe.edu.pucp.morapack.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import pe.edu.pucp.morapack.algos.scheduler.ScenarioConfig;
+import pe.edu.pucp.morapack.dto.simulation.FinalReportDTO;
+import pe.edu.pucp.morapack.service.BatchSimulationService;
+import pe.edu.pucp.morapack.service.BatchSimulationService.BatchJob;
+import pe.edu.pucp.morapack.service.HeadlessSimulationRunner;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST controller for headless batch simulations (capacity studies).
+ * Runs WEEKLY / COLLAPSE scenarios without UI pacing or STOMP and returns only the final
+ * report and the per-tick metrics CSV.
+ */
+@RestController
+@RequestMapping("/api/simulation/batch")
+public class BatchSimulationController {
+
+    private final BatchSimulationService batchSimulationService;
+
+    public BatchSimulationController(BatchSimulationService batchSimulationService) {
+        this.batchSimulationService = batchSimulationService;
+    }
+
+    /**
+     * Queue a batch run.
+     *
+     * POST /api/simulation/batch?scenarioType=WEEKLY&startDate=2025-01-02&customK=24&reportEvery=50&plannerSpeed=1.0
+     */
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> submit(
+            @RequestParam(defaultValue = "WEEKLY") String scenarioType,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) Integer customK,
+            @RequestParam(defaultValue = "0") int reportEvery,
+            @RequestParam(defaultValue = "1.0") double plannerSpeed) {
+        try {
+            LocalDate start = startDate != null ? LocalDate.parse(startDate) : null;
+            BatchJob job = batchSimulationService.submit(createScenarioConfig(scenarioType, customK), start,
+                reportEvery, plannerSpeed);
+            return ResponseEntity.accepted().body(toSummary(job));
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    /**
+     * All batch jobs with their status.
+     *
+     * GET /api/simulation/batch
+     */
+    @GetMapping
+    public ResponseEntity<List<Map<String, Object>>> getJobs() {
+        return ResponseEntity.ok(batchSimulationService.getJobs().stream().map(this::toSummary).toList());
+    }
+
+    /**
+     * Status and progress of a batch job.
+     *
+     * GET /api/simulation/batch/{jobId}
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<Map<String, Object>> getJob(@PathVariable String jobId) {
+        BatchJob job = batchSimulationService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(toSummary(job));
+    }
+
+    /**
+     * Final report of a finished batch job.
+     *
+     * GET /api/simulation/batch/{jobId}/final-report
+     */
+    @GetMapping("/{jobId}/final-report")
+    public ResponseEntity<FinalReportDTO> getFinalReport(@PathVariable String jobId) {
+        BatchJob job = batchSimulationService.getJob(jobId);
+        if (job == null || job.getResult() == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(job.getResult().getReport());
+    }
+
+    /**
+     * Per-tick metrics of a finished batch job as CSV.
+     *
+     * GET /api/simulation/batch/{jobId}/ticks.csv
+     */
+    @GetMapping("/{jobId}/ticks.csv")
+    public ResponseEntity<String> getTickMetrics(@PathVariable String jobId) {
+        BatchJob job = batchSimulationService.getJob(jobId);
+        if (job == null || job.getResult() == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType("text/csv"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + jobId + "-ticks.csv\"")
+            .body(job.getResult().toCsv());
+    }
+
+    /**
+     * Stop a running or queued batch job (the final report covers what was simulated).
+     *
+     * POST /api/simulation/batch/{jobId}/stop
+     */
+    @PostMapping("/{jobId}/stop")
+    public ResponseEntity<Map<String, Object>> stop(@PathVariable String jobId) {
+        if (!batchSimulationService.stop(jobId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(toSummary(batchSimulationService.getJob(jobId)));
+    }
+
+    /**
+     * Forget a finished batch job (its CSV stays on disk).
+     *
+     * DELETE /api/simulation/batch/{jobId}
+     */
+    @DeleteMapping("/{jobId}")
+    public ResponseEntity<Map<String, Object>> delete(@PathVariable String jobId) {
+        try {
+            if (!batchSimulationService.delete(jobId)) {
+                return ResponseEntity.notFound().build();
+            }
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("jobId", jobId);
+            return ResponseEntity.ok(response);
+        } catch (IllegalStateException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+        }
+    }
+
+    private Map<String, Object> toSummary(BatchJob job) {
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("success", true);
+        summary.put("jobId", job.getJobId());
+        summary.put("scenarioType", job.getScenario().getType().toString());
+        summary.put("startTime", job.getStartTime().toString());
+        summary.put("endTime", job.getEndTime().toString());
+        summary.put("status", job.getStatus().toString());
+        summary.put("iteration", job.getIteration());
+        summary.put("simulatedTime", job.getSimulatedTime() != null ? job.getSimulatedTime().toString() : null);
+        summary.put("csvPath", job.getCsvPath());
+        summary.put("error", job.getError());
+
+        HeadlessSimulationRunner.Result result = job.getResult();
+        if (result != null) {
+            summary.put("finalState", result.getState().toString());
+            summary.put("ticks", result.getTicks().size());
+            summary.put("skippedWindows", result.getSkippedWindows());
+            summary.put("wallTimeMs", result.getWallTimeMs());
+        }
+        return summary;
+    }
+
+    private ScenarioConfig createScenarioConfig(String scenarioType, Integer customK) {
+        return switch (scenarioType.toUpperCase()) {
+            case "WEEKLY" -> customK != null ?
+                ScenarioConfig.weekly(customK) :
+                ScenarioConfig.weekly();
+            case "COLLAPSE" -> ScenarioConfig.collapse();
+            case "DAILY" -> ScenarioConfig.daily();
+            default -> throw new IllegalArgumentException("Unknown scenario type: " + scenarioType);
+        };
+    }
+}
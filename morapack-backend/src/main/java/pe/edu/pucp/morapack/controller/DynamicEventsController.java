@@ -5,12 +5,17 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import pe.edu.pucp.morapack.algos.algorithm.online.OnlineInsertion;
+import pe.edu.pucp.morapack.algos.entities.PlannerOrder;
 import pe.edu.pucp.morapack.dto.FlightCancellationDTO;
 import pe.edu.pucp.morapack.dto.DynamicOrderDTO;
 import pe.edu.pucp.morapack.model.FlightCancellation;
 import pe.edu.pucp.morapack.model.DynamicOrder;
 import pe.edu.pucp.morapack.service.CancellationService;
 import pe.edu.pucp.morapack.service.DynamicOrderService;
+import pe.edu.pucp.morapack.service.OrderInjectionService;
+import pe.edu.pucp.morapack.service.SimulationManager;
+import pe.edu.pucp.morapack.service.SimulationSession;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -37,17 +42,23 @@ public class DynamicEventsController {
     private final DynamicOrderService dynamicOrderService;
     private final pe.edu.pucp.morapack.service.FlightStatusTracker flightStatusTracker;
     private final pe.edu.pucp.morapack.service.ReplanificationService replanificationService;
+    private final OrderInjectionService orderInjectionService;
+    private final SimulationManager simulationManager;
 
     public DynamicEventsController(
             CancellationService cancellationService,
             DynamicOrderService dynamicOrderService,
             pe.edu.pucp.morapack.service.FlightStatusTracker flightStatusTracker,
-            pe.edu.pucp.morapack.service.ReplanificationService replanificationService) {
+            pe.edu.pucp.morapack.service.ReplanificationService replanificationService,
+            OrderInjectionService orderInjectionService,
+            SimulationManager simulationManager) {
 
         this.cancellationService = cancellationService;
         this.dynamicOrderService = dynamicOrderService;
         this.flightStatusTracker = flightStatusTracker;
         this.replanificationService = replanificationService;
+        this.orderInjectionService = orderInjectionService;
+        this.simulationManager = simulationManager;
     }
     
     // ═══════════════════════════════════════════════════════════════
@@ -284,6 +295,95 @@ public class DynamicEventsController {
         }
     }
     
+    /**
+     * Insertar un pedido urgente en la simulación en curso y responder con su ETA.
+     *
+     * A diferencia de /add-order (que espera al siguiente tick y a la optimización completa),
+     * el pedido se inserta de inmediato en el plan vigente por inserción de menor costo
+     * (OnlineInsertion); la siguiente optimización completa lo incluye como un pedido más.
+     *
+     * POST /api/simulation/events/{userId}/insert-order
+     * {
+     *   "destination": "SUAA",
+     *   "quantity": 250,
+     *   "reason": "Pedido urgente"
+     * }
+     */
+    @PostMapping("/{userId}/insert-order")
+    public ResponseEntity<Map<String, Object>> insertUrgentOrder(
+            @PathVariable String userId,
+            @RequestBody DynamicOrderDTO orderDto) {
+
+        if (orderDto.getDestination() == null || orderDto.getDestination().isEmpty()) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "Destination is required");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+
+        SimulationSession session = simulationManager.getSession(userId);
+        if (session == null) {
+            session = simulationManager.getSessionBySessionId(userId);
+        }
+        if (session == null || session.getCurrentSimulationTime() == null) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "No active simulation found for: " + userId);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+
+        try {
+            String origin = determineOptimalOrigin(orderDto.getDestination());
+            PlannerOrder order = orderInjectionService.injectManualOrder(
+                origin,
+                orderDto.getDestination(),
+                orderDto.getQuantity(),
+                48, // Se recalcula en PlannerOrder (48h / 72h)
+                session.getCurrentSimulationTime(),
+                orderDto.getReason() != null ? orderDto.getReason() : "Urgent order"
+            );
+            if (order == null) {
+                Map<String, Object> error = new HashMap<>();
+                error.put("success", false);
+                error.put("message", "Invalid order data");
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+            }
+
+            OnlineInsertion.InsertionResult result = session.insertUrgentOrder(order);
+
+            List<Map<String, Object>> shipments = result.getShipments().stream()
+                .map(shipment -> {
+                    Map<String, Object> dto = new HashMap<>();
+                    dto.put("quantity", shipment.getQuantity());
+                    dto.put("route", shipment.getRouteDescription());
+                    dto.put("departure", shipment.getInitialDepartureTime().toString());
+                    dto.put("arrival", shipment.getFinalArrivalTime().toString());
+                    return dto;
+                })
+                .collect(Collectors.toList());
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("orderId", order.getId());
+            response.put("origin", origin);
+            response.put("assignedQuantity", result.getAssignedQuantity());
+            response.put("unassignedQuantity", result.getUnassignedQuantity());
+            response.put("eta", result.getEta() != null ? result.getEta().toString() : null);
+            response.put("deadline", order.getOrderTime().plusHours(order.getMaxDeliveryHours()).toString());
+            response.put("onTime", result.isOnTime());
+            response.put("shipments", shipments);
+            response.put("elapsedMs", result.getElapsedMicros() / 1000.0);
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            logger.error("Online insertion failed: {}", e.getMessage(), e);
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "Failed to insert order: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+
     /**
      * Determina el origen óptimo basado en el destino.
      * Sigue las mismas reglas que DataLoader.determineOptimalOrigin().
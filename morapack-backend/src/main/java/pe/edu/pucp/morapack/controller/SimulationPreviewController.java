@@ -2,6 +2,7 @@ package pe.edu.pucp.morapack.controller;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import pe.edu.pucp.morapack.algos.scheduler.CadenceController;
 import pe.edu.pucp.morapack.algos.scheduler.ScenarioConfig;
 import pe.edu.pucp.morapack.dto.simulation.SimulationPreviewResponse;
 import pe.edu.pucp.morapack.dto.simulation.FinalReportDTO;
@@ -186,6 +187,39 @@ public class SimulationPreviewController {
         }
     }
 
+    /**
+     * Planning cadence of a session: K and planner budget in use, average Ta and tick time,
+     * whether Sa > Ta holds, and the per-tick history of those decisions.
+     *
+     * GET /api/simulation/{userId}/cadence
+     */
+    @GetMapping("/{userId}/cadence")
+    public ResponseEntity<Map<String, Object>> getCadence(@PathVariable String userId) {
+        SimulationSession session = simulationManager.getSession(userId);
+        if (session == null) {
+            session = simulationManager.getSessionBySessionId(userId);
+        }
+
+        if (session == null) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "No active simulation found for: " + userId);
+            return ResponseEntity.badRequest().body(error);
+        }
+
+        CadenceController cadence = session.getCadence();
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("k", cadence.getK());
+        response.put("scMinutes", cadence.getScMinutes());
+        response.put("plannerSpeedFactor", cadence.getPlannerSpeedFactor());
+        response.put("averageTaMs", Math.round(cadence.getAverageTaMs()));
+        response.put("averageTickMs", Math.round(cadence.getAverageTickMs()));
+        response.put("sustainable", cadence.isSustainable());
+        response.put("history", cadence.getHistory());
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Get final simulation report with all metrics.
      * This endpoint is called when the simulation finishes or when the user requests a summary.
@@ -0,0 +1,30 @@
+package pe.edu.pucp.morapack.dto.simulation;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Lightweight plan update sent between ticks when the idle-time improvement reroutes
+ * shipments that have not departed yet. Only the changed itineraries are included;
+ * the frontend replaces them by id in the latest tick result.
+ */
+public class PlanUpdateDTO {
+    @JsonProperty("iteration")
+    public int iteration;             // Tick whose plan was improved
+
+    @JsonProperty("simulatedTime")
+    public String simulatedTime;      // ISO simulated time of the update
+
+    @JsonProperty("movedShipments")
+    public int movedShipments;
+
+    @JsonProperty("penaltyBefore")
+    public double penaltyBefore;      // Delay/stopover penalty of the mutable part
+
+    @JsonProperty("penaltyAfter")
+    public double penaltyAfter;
+
+    @JsonProperty("itineraries")
+    public ItineraryDTO[] itineraries; // Rerouted shipments only
+
+    public PlanUpdateDTO() {}
+}
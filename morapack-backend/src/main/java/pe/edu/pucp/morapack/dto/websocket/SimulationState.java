@@ -5,6 +5,7 @@ package pe.edu.pucp.morapack.dto.websocket;
  */
 public enum SimulationState {
     IDLE,        // Not started yet
+    QUEUED,      // Waiting for a free simulation slot (admission control)
     STARTING,    // Initializing data
     RUNNING,     // Actively executing iterations
     PAUSED,      // Temporarily stopped by user
@@ -21,6 +21,14 @@ public class SimulationStatusUpdate {
     
     // Speed control
     private Double currentSpeed;  // 1.0 = normal, 2.0 = 2x faster, etc.
+
+    // Admission control (if state = QUEUED): 1 = next to start
+    private Integer queuePosition;
+
+    // Planning cadence: K in use, average optimizer time (Ta) and whether Sa > Ta holds
+    private Integer currentK;
+    private Long averageTaMs;
+    private Boolean sustainable;
     
     // Latest iteration result (if available)
     private TabuSimulationResponse latestResult;
@@ -89,6 +97,15 @@ public class SimulationStatusUpdate {
         return update;
     }
 
+    public static SimulationStatusUpdate queued(int position) {
+        SimulationStatusUpdate update = new SimulationStatusUpdate(
+            SimulationState.QUEUED,
+            "Waiting for a free simulation slot (position " + position + ")"
+        );
+        update.setQueuePosition(position);
+        return update;
+    }
+    
     public static SimulationStatusUpdate collapsed(String collapseReason, int currentIteration) {
         SimulationStatusUpdate update = new SimulationStatusUpdate(
             SimulationState.COLLAPSED,
@@ -116,6 +133,38 @@ public class SimulationStatusUpdate {
         this.message = message;
     }
     
+    public Integer getQueuePosition() {
+        return queuePosition;
+    }
+    
+    public void setQueuePosition(Integer queuePosition) {
+        this.queuePosition = queuePosition;
+    }
+    
+    public Integer getCurrentK() {
+        return currentK;
+    }
+    
+    public void setCurrentK(Integer currentK) {
+        this.currentK = currentK;
+    }
+    
+    public Long getAverageTaMs() {
+        return averageTaMs;
+    }
+    
+    public void setAverageTaMs(Long averageTaMs) {
+        this.averageTaMs = averageTaMs;
+    }
+    
+    public Boolean getSustainable() {
+        return sustainable;
+    }
+    
+    public void setSustainable(Boolean sustainable) {
+        this.sustainable = sustainable;
+    }
+    
     public LocalDateTime getTimestamp() {
         return timestamp;
     }
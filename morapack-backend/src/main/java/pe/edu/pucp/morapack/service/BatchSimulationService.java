@@ -0,0 +1,278 @@
+package pe.edu.pucp.morapack.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import pe.edu.pucp.morapack.algos.algorithm.OptimizerType;
+import pe.edu.pucp.morapack.algos.data.providers.DatabaseDataProvider;
+import pe.edu.pucp.morapack.algos.scheduler.ScenarioConfig;
+import pe.edu.pucp.morapack.repository.simulation.SimFlightRepository;
+import pe.edu.pucp.morapack.repository.simulation.SimOrderRepository;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Trabajos batch de simulación (REST): corren con HeadlessSimulationRunner sobre la base de
+ * datos, sin UI, en un pool propio de simulation.batch.max-concurrent-jobs hilos (no ocupan
+ * cupo del SimulationScheduler de las sesiones interactivas). Al terminar, el CSV de métricas
+ * por tick queda en simulation.batch.output-dir y el reporte final en el trabajo; la sesión se
+ * suelta. Se conservan los últimos simulation.batch.max-finished-jobs trabajos terminados (los
+ * más antiguos se descartan, igual que con delete()); los CSV quedan en disco.
+ */
+@Service
+public class BatchSimulationService {
+
+    public enum JobStatus {
+        QUEUED,
+        RUNNING,
+        FINISHED,
+        FAILED
+    }
+
+    private final DatabaseDataProvider databaseDataProvider;
+    private final SimOrderRepository simOrderRepository;
+    private final SimFlightRepository simFlightRepository;
+
+    @Value("${simulation.planner.optimizer:TABU}")
+    private String optimizer;
+
+    @Value("${simulation.planner.demand-aggregation:false}")
+    private boolean demandAggregation;
+
+    @Value("${simulation.batch.output-dir:batch-results}")
+    private String outputDir;
+
+    private final ExecutorService jobs;
+    private final Map<String, BatchJob> jobsById = new ConcurrentHashMap<>();
+    private final int maxFinishedJobs;
+
+    public BatchSimulationService(
+            DatabaseDataProvider databaseDataProvider,
+            SimOrderRepository simOrderRepository,
+            SimFlightRepository simFlightRepository,
+            @Value("${simulation.batch.max-concurrent-jobs:1}") int maxConcurrentJobs,
+            @Value("${simulation.batch.max-finished-jobs:20}") int maxFinishedJobs) {
+        this.databaseDataProvider = databaseDataProvider;
+        this.simOrderRepository = simOrderRepository;
+        this.simFlightRepository = simFlightRepository;
+        this.maxFinishedJobs = Math.max(0, maxFinishedJobs);
+
+        AtomicInteger threadIds = new AtomicInteger();
+        this.jobs = Executors.newFixedThreadPool(Math.max(1, maxConcurrentJobs), runnable -> {
+            Thread thread = new Thread(runnable, "sim-batch-" + threadIds.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Encola una corrida batch
+     *
+     * @param startDate              inicio (null = primer día con pedidos)
+     * @param reportingIntervalTicks línea de progreso cada N ticks (0 = sin progreso)
+     * @param plannerSpeed           multiplicador de velocidad del planner (1.0 = presupuesto completo)
+     */
+    public BatchJob submit(ScenarioConfig scenario, LocalDate startDate, int reportingIntervalTicks, double plannerSpeed) {
+        LocalDate firstDataDate = simOrderRepository.findMinOrderDate();
+        LocalDate lastDataDate = simOrderRepository.findMaxOrderDate();
+        if (firstDataDate == null || lastDataDate == null) {
+            throw new IllegalStateException("No orders in database");
+        }
+        LocalDate start = startDate != null ? startDate : firstDataDate;
+        if (start.isBefore(firstDataDate) || start.isAfter(lastDataDate)) {
+            throw new IllegalArgumentException("Start date " + start + " outside available data (" +
+                firstDataDate + " to " + lastDataDate + ")");
+        }
+
+        // Mismo horizonte que SimulationManager: WEEKLY duración fija, COLLAPSE/DAILY hasta el fin de los datos
+        LocalDateTime startTime = start.atStartOfDay();
+        LocalDateTime endTime = scenario.getType() == ScenarioConfig.ScenarioType.WEEKLY
+            ? startTime.plusMinutes(scenario.getTotalDurationMinutes())
+            : lastDataDate.atTime(23, 59, 59);
+        if (endTime.toLocalDate().isAfter(lastDataDate)) {
+            throw new IllegalArgumentException("Simulation would extend to " + endTime.toLocalDate() +
+                ", beyond available data (latest: " + lastDataDate + ")");
+        }
+
+        String jobId = UUID.randomUUID().toString();
+        HeadlessSimulationRunner runner = new HeadlessSimulationRunner(simFlightRepository,
+            OptimizerType.fromString(optimizer), plannerSpeed, reportingIntervalTicks, demandAggregation);
+        SimulationSession session = runner.createSession("batch-" + jobId, databaseDataProvider, scenario,
+            startTime, endTime);
+        BatchJob job = new BatchJob(jobId, scenario, startTime, endTime, session);
+        jobsById.put(jobId, job);
+
+        jobs.submit(() -> runJob(job, runner));
+        System.out.println("[BatchSimulationService] Job " + jobId + " queued: " + scenario.getType() +
+                         " " + startTime + " → " + endTime);
+        return job;
+    }
+
+    private void runJob(BatchJob job, HeadlessSimulationRunner runner) {
+        try {
+            runJobSession(job, runner);
+        } finally {
+            job.release();
+            evictFinishedJobs();
+        }
+    }
+
+    private void runJobSession(BatchJob job, HeadlessSimulationRunner runner) {
+        if (job.session.isStopRequested()) {
+            job.fail("Cancelled before start");
+            return;
+        }
+        job.status = JobStatus.RUNNING;
+        try {
+            HeadlessSimulationRunner.Result result = runner.run(job.session);
+            Path csv = Paths.get(outputDir, job.jobId + "-ticks.csv");
+            try {
+                result.writeCsv(csv);
+                job.csvPath = csv.toAbsolutePath().toString();
+            } catch (IOException e) {
+                System.err.println("[BatchSimulationService] ⚠️ Could not write " + csv + ": " + e.getMessage());
+            }
+            job.result = result;
+            job.status = JobStatus.FINISHED;
+        } catch (Exception e) {
+            System.err.println("[BatchSimulationService] ❌ Job " + job.jobId + " failed: " + e.getMessage());
+            e.printStackTrace();
+            job.fail(e.getMessage());
+        }
+    }
+
+    public BatchJob getJob(String jobId) {
+        return jobsById.get(jobId);
+    }
+
+    public List<BatchJob> getJobs() {
+        return new ArrayList<>(jobsById.values());
+    }
+
+    /**
+     * Detiene un trabajo (corriendo o en cola); el reporte final cubre lo simulado hasta ahí.
+     * Sobre un trabajo ya terminado no hace nada.
+     */
+    public boolean stop(String jobId) {
+        BatchJob job = jobsById.get(jobId);
+        if (job == null) return false;
+        SimulationSession session = job.session;
+        if (session != null) session.stop();
+        return true;
+    }
+
+    /**
+     * Olvida un trabajo terminado (el CSV queda en disco)
+     *
+     * @return false si no existe
+     * @throws IllegalStateException si todavía está en cola o corriendo (detenerlo antes)
+     */
+    public boolean delete(String jobId) {
+        BatchJob job = jobsById.get(jobId);
+        if (job == null) return false;
+        if (!job.isDone()) {
+            throw new IllegalStateException("Job " + jobId + " is still " + job.status + "; stop it first");
+        }
+        jobsById.remove(jobId);
+        return true;
+    }
+
+    /**
+     * Descarta los trabajos terminados más antiguos por encima de maxFinishedJobs
+     */
+    private void evictFinishedJobs() {
+        List<BatchJob> finished = new ArrayList<>();
+        for (BatchJob job : jobsById.values()) {
+            if (job.isDone()) finished.add(job);
+        }
+        finished.sort(Comparator.comparingLong(job -> job.finishedAtMs));
+        for (int i = 0; i < finished.size() - maxFinishedJobs; i++) {
+            jobsById.remove(finished.get(i).jobId);
+            System.out.println("[BatchSimulationService] Job " + finished.get(i).jobId + " evicted");
+        }
+    }
+
+    /**
+     * Corrida batch y su estado
+     */
+    public static class BatchJob {
+        private final String jobId;
+        private final ScenarioConfig scenario;
+        private final LocalDateTime startTime;
+        private final LocalDateTime endTime;
+        // Solo mientras está en cola o corriendo: al terminar quedan el resultado y el progreso final
+        private volatile SimulationSession session;
+        private volatile JobStatus status = JobStatus.QUEUED;
+        private volatile HeadlessSimulationRunner.Result result;
+        private volatile String csvPath;
+        private volatile String error;
+        private volatile int finalIteration;
+        private volatile LocalDateTime finalSimulatedTime;
+        private volatile long finishedAtMs;
+
+        private BatchJob(String jobId, ScenarioConfig scenario, LocalDateTime startTime, LocalDateTime endTime,
+                         SimulationSession session) {
+            this.jobId = jobId;
+            this.scenario = scenario;
+            this.startTime = startTime;
+            this.endTime = endTime;
+            this.session = session;
+        }
+
+        private void fail(String message) {
+            this.error = message;
+            this.status = JobStatus.FAILED;
+        }
+
+        /**
+         * Guarda el progreso final y suelta la sesión (pedidos, vuelos y plan de toda la corrida)
+         */
+        private void release() {
+            SimulationSession finished = session;
+            if (finished == null) return;
+            finalIteration = finished.getIterationCount();
+            finalSimulatedTime = finished.getCurrentTime();
+            finishedAtMs = System.currentTimeMillis();
+            session = null;
+        }
+
+        private boolean isDone() {
+            return session == null;
+        }
+
+        public String getJobId() { return jobId; }
+        public ScenarioConfig getScenario() { return scenario; }
+        public LocalDateTime getStartTime() { return startTime; }
+        public LocalDateTime getEndTime() { return endTime; }
+        public JobStatus getStatus() { return status; }
+        public HeadlessSimulationRunner.Result getResult() { return result; }
+        public String getCsvPath() { return csvPath; }
+        public String getError() { return error; }
+
+        /**
+         * Tick en curso y tiempo simulado (progreso mientras corre)
+         */
+        public int getIteration() {
+            SimulationSession running = session;
+            return running != null ? running.getIterationCount() : finalIteration;
+        }
+
+        public LocalDateTime getSimulatedTime() {
+            SimulationSession running = session;
+            return running != null ? running.getCurrentTime() : finalSimulatedTime;
+        }
+    }
+}
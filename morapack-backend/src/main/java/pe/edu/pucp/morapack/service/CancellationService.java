@@ -4,6 +4,7 @@ import pe.edu.pucp.morapack.model.FlightCancellation;
 import pe.edu.pucp.morapack.model.simulation.SimFlight;
 import pe.edu.pucp.morapack.repository.simulation.SimFlightRepository;
 import pe.edu.pucp.morapack.algos.data.loaders.CancellationFileLoader;
+import pe.edu.pucp.morapack.utils.TimeOrderedQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -35,6 +36,9 @@ public class CancellationService {
     // Almacenamiento de cancelaciones
     private final Map<String, FlightCancellation> cancellations = new ConcurrentHashMap<>();
 
+    // Índice por hora de cancelación: cada tick revisa solo las ya vencidas
+    private final TimeOrderedQueue<FlightCancellation> pendingByTime = new TimeOrderedQueue<>();
+
     // ═══════════════════════════════════════════════════════════════
     // CONSTRUCTOR
     // ═══════════════════════════════════════════════════════════════
@@ -69,7 +73,7 @@ public class CancellationService {
         
         // Agregar al mapa
         for (FlightCancellation cancellation : loaded) {
-            cancellations.put(cancellation.getId(), cancellation);
+            store(cancellation);
         }
         
         logger.info("✅ {} cancelaciones programadas cargadas", loaded.size());
@@ -116,7 +120,7 @@ public class CancellationService {
         );
         
         // 3. Agregar al mapa
-        cancellations.put(cancellation.getId(), cancellation);
+        store(cancellation);
         
         logger.info("✅ Cancelación manual creada: {}", cancellation.getId());
         
@@ -134,38 +138,14 @@ public class CancellationService {
      * @return Lista de cancelaciones ejecutadas en esta iteración
      */
     public List<FlightCancellation> processCancellationsAt(LocalDateTime currentSimulationTime) {
-        logger.info("🟢 [processCancellationsAt] LLAMADO - CurrentTime: {}", currentSimulationTime);
+        logger.debug("🟢 [processCancellationsAt] CurrentTime: {}, en cola: {}",
+            currentSimulationTime, pendingByTime.size());
 
         List<FlightCancellation> executed = new ArrayList<>();
 
-        // DEBUG: Log total cancellations in memory
-        int totalCancellations = cancellations.size();
-        long pendingCount = cancellations.values().stream()
-            .filter(c -> c.getStatus() == FlightCancellation.CancellationStatus.PENDING)
-            .count();
-
-        logger.info("🟢 [processCancellationsAt] Total: {}, Pending: {}", totalCancellations, pendingCount);
-
-        if (totalCancellations > 0) {
-            logger.info("🔍 [CANCEL DEBUG] Total cancellations: {}, Pending: {}, CurrentTime: {}",
-                totalCancellations, pendingCount, currentSimulationTime);
-
-            // DEBUG: Log first 5 pending cancellations for debugging
-            cancellations.values().stream()
-                .filter(c -> c.getStatus() == FlightCancellation.CancellationStatus.PENDING)
-                .limit(5)
-                .forEach(c -> {
-                    logger.info("  📅 Pending: {} @ {}", c.getFlightIdentifier(), c.getCancellationTime());
-                    logger.info("     shouldExecute: {}", c.shouldExecuteAt(currentSimulationTime));
-                    logger.info("     reason: cancellationTime ({}) <= currentTime ({})",
-                        c.getCancellationTime(), currentSimulationTime);
-                });
-        }
-
-        // Filtrar cancelaciones pendientes que deben ejecutarse
-        List<FlightCancellation> toExecute = cancellations.values().stream()
-            .filter(c -> c.shouldExecuteAt(currentSimulationTime))
-            .collect(Collectors.toList());
+        // Cancelaciones pendientes ya vencidas (la cola solo recorre las de hora <= actual)
+        List<FlightCancellation> toExecute = pendingByTime.due(currentSimulationTime,
+            c -> isCurrent(c) && c.shouldExecuteAt(currentSimulationTime));
 
         if (toExecute.isEmpty()) {
             return executed;
@@ -422,7 +402,7 @@ public class CancellationService {
         int added = 0;
         for (FlightCancellation cancellation : bulkCancellations) {
             String id = cancellation.getId();
-            cancellations.put(id, cancellation);
+            store(cancellation);
             added++;
 
             // Log first 3 cancellations for debugging
@@ -437,10 +417,6 @@ public class CancellationService {
 
         logger.info("✅ {} cancelaciones agregadas en masa", added);
         logger.info("🔵 [addBulkCancellations] Estado del mapa DESPUÉS: {} cancelaciones en memoria", cancellations.size());
-        logger.info("🔵 [addBulkCancellations] Pending count: {}",
-            cancellations.values().stream()
-                .filter(c -> c.getStatus() == FlightCancellation.CancellationStatus.PENDING)
-                .count());
 
         return added;
     }
@@ -449,11 +425,42 @@ public class CancellationService {
     // UTILIDADES
     // ═══════════════════════════════════════════════════════════════
 
+    /**
+     * Hora de la próxima cancelación pendiente (null si no hay). Permite al modo sin UI saltar
+     * directamente hasta ella.
+     */
+    public LocalDateTime getNextCancellationTime() {
+        return pendingByTime.nextTime(this::isPending);
+    }
+
+    /**
+     * Hora de la próxima cancelación pendiente en o después de 'from' (null si no hay); las
+     * pendientes con hora anterior se procesan en el siguiente tick y no ocultan a las demás.
+     */
+    public LocalDateTime getNextCancellationTime(LocalDateTime from) {
+        return pendingByTime.nextTime(from, this::isPending);
+    }
+
+    private boolean isPending(FlightCancellation cancellation) {
+        return isCurrent(cancellation) && cancellation.getStatus() == FlightCancellation.CancellationStatus.PENDING;
+    }
+
+    private void store(FlightCancellation cancellation) {
+        cancellations.put(cancellation.getId(), cancellation);
+        pendingByTime.add(cancellation.getCancellationTime(), cancellation);
+    }
+
+    // Una cancelación reemplazada por otra con el mismo id queda obsoleta en la cola
+    private boolean isCurrent(FlightCancellation cancellation) {
+        return cancellations.get(cancellation.getId()) == cancellation;
+    }
+
     /**
      * Limpia todas las cancelaciones.
      */
     public void clear() {
         cancellations.clear();
+        pendingByTime.clear();
         logger.info("🧹 Todas las cancelaciones limpiadas");
     }
     
@@ -504,6 +511,7 @@ public class CancellationService {
     public void clearCancellations() {
         int previousCount = cancellations.size();
         cancellations.clear();
+        pendingByTime.clear();
         logger.info("🧹 [clearCancellations] Limpiadas {} cancelaciones del servicio", previousCount);
     }
 }
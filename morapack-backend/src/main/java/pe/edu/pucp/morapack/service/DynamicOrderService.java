@@ -2,6 +2,7 @@ package pe.edu.pucp.morapack.service;
 
 import pe.edu.pucp.morapack.model.DynamicOrder;
 import pe.edu.pucp.morapack.algos.data.loaders.OrderFileLoader;
+import pe.edu.pucp.morapack.utils.TimeOrderedQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -29,6 +30,9 @@ public class DynamicOrderService {
     
     // Almacenamiento de pedidos dinámicos
     private final Map<String, DynamicOrder> orders = new ConcurrentHashMap<>();
+
+    // Índice por hora de inyección: cada tick revisa solo los pedidos ya vencidos
+    private final TimeOrderedQueue<DynamicOrder> pendingByTime = new TimeOrderedQueue<>();
     
     // Generador de IDs de pedidos del sistema
     private final AtomicInteger nextSystemOrderId = new AtomicInteger(10000);
@@ -58,7 +62,7 @@ public class DynamicOrderService {
         
         // Agregar al mapa
         for (DynamicOrder order : loaded) {
-            orders.put(order.getId(), order);
+            store(order);
         }
         
         logger.info("✅ {} pedidos dinámicos programados cargados", loaded.size());
@@ -110,7 +114,7 @@ public class DynamicOrderService {
         );
         
         // 3. Agregar al mapa
-        orders.put(order.getId(), order);
+        store(order);
         
         logger.info("✅ Pedido manual creado: {} - {}", order.getId(), order.getDescription());
         
@@ -155,9 +159,37 @@ public class DynamicOrderService {
      * @return Lista de pedidos a inyectar
      */
     public List<DynamicOrder> getOrdersToInjectAt(LocalDateTime currentSimulationTime) {
-        return orders.values().stream()
-            .filter(order -> order.shouldInjectAt(currentSimulationTime))
-            .collect(Collectors.toList());
+        return pendingByTime.due(currentSimulationTime,
+            order -> isCurrent(order) && order.shouldInjectAt(currentSimulationTime));
+    }
+
+    /**
+     * Hora de inyección del próximo pedido pendiente (null si no hay).
+     */
+    public LocalDateTime getNextInjectionTime() {
+        return pendingByTime.nextTime(this::isPending);
+    }
+
+    /**
+     * Hora de inyección del próximo pedido pendiente en o después de 'from' (null si no hay);
+     * los pendientes con hora anterior se inyectan en el siguiente tick y no ocultan a los demás.
+     */
+    public LocalDateTime getNextInjectionTime(LocalDateTime from) {
+        return pendingByTime.nextTime(from, this::isPending);
+    }
+
+    private boolean isPending(DynamicOrder order) {
+        return isCurrent(order) && order.getStatus() == DynamicOrder.OrderStatus.PENDING;
+    }
+
+    private void store(DynamicOrder order) {
+        orders.put(order.getId(), order);
+        pendingByTime.add(order.getInjectionTime(), order);
+    }
+
+    // Un pedido reemplazado por otro con el mismo id queda obsoleto en la cola
+    private boolean isCurrent(DynamicOrder order) {
+        return orders.get(order.getId()) == order;
     }
     
     /**
@@ -289,6 +321,7 @@ public class DynamicOrderService {
      */
     public void clear() {
         orders.clear();
+        pendingByTime.clear();
         nextSystemOrderId.set(10000);
         logger.info("🧹 Todos los pedidos dinámicos limpiados");
     }
@@ -0,0 +1,155 @@
+package pe.edu.pucp.morapack.service;
+
+import pe.edu.pucp.morapack.algos.algorithm.OptimizerType;
+import pe.edu.pucp.morapack.algos.data.providers.DataProvider;
+import pe.edu.pucp.morapack.algos.scheduler.ScenarioConfig;
+import pe.edu.pucp.morapack.dto.simulation.FinalReportDTO;
+import pe.edu.pucp.morapack.dto.websocket.SimulationState;
+import pe.edu.pucp.morapack.repository.simulation.SimFlightRepository;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Corre una simulación completa sin UI, tan rápido como da el hardware (estudios de capacidad).
+ *
+ * Usa la misma lógica de tick de SimulationSession en modo batch: avance de evento en evento,
+ * sin pausas, sin STOMP (SimulationPublisher.NO_OP), sin DTOs de UI ni logs por tick, y sin
+ * ajuste de cadencia (no hay reloj de pared que acompañar: el planner usa siempre su
+ * presupuesto completo). Cada corrida tiene sus propios servicios de eventos dinámicos, así no
+ * comparte cancelaciones ni pedidos con las sesiones interactivas.
+ *
+ * Sirve tanto desde Spring (BatchSimulationService) como desde la línea de comandos
+ * (MorapackPlanner --headless, sin base de datos: simFlightRepository null).
+ */
+public class HeadlessSimulationRunner {
+
+    private final SimFlightRepository simFlightRepository;
+    private final OptimizerType optimizerType;
+    private final double plannerSpeed;
+    private final int reportingIntervalTicks;
+    private final boolean demandAggregation;
+
+    public HeadlessSimulationRunner(SimFlightRepository simFlightRepository, OptimizerType optimizerType,
+                                    double plannerSpeed, int reportingIntervalTicks) {
+        this(simFlightRepository, optimizerType, plannerSpeed, reportingIntervalTicks, false);
+    }
+
+    /**
+     * @param simFlightRepository    vuelos en BD para validar cancelaciones (null = solo el tracker)
+     * @param optimizerType          planner de la corrida
+     * @param plannerSpeed           multiplicador de velocidad del planner (1.0 = presupuesto completo)
+     * @param reportingIntervalTicks línea de progreso cada N ticks (0 = sin progreso)
+     * @param demandAggregation      agrupar pedidos compatibles antes de optimizar
+     */
+    public HeadlessSimulationRunner(SimFlightRepository simFlightRepository, OptimizerType optimizerType,
+                                    double plannerSpeed, int reportingIntervalTicks, boolean demandAggregation) {
+        this.simFlightRepository = simFlightRepository;
+        this.optimizerType = optimizerType != null ? optimizerType : OptimizerType.TABU;
+        this.plannerSpeed = plannerSpeed > 0 ? plannerSpeed : 1.0;
+        this.reportingIntervalTicks = reportingIntervalTicks;
+        this.demandAggregation = demandAggregation;
+    }
+
+    /**
+     * Crea la sesión batch (aún no arranca)
+     */
+    public SimulationSession createSession(String label, DataProvider dataProvider, ScenarioConfig scenario,
+                                           LocalDateTime startTime, LocalDateTime endTime) {
+        FlightStatusTracker flightStatusTracker = new FlightStatusTracker();
+        CancellationService cancellationService = new CancellationService(flightStatusTracker, simFlightRepository);
+        DynamicOrderService dynamicOrderService = new DynamicOrderService();
+
+        SimulationSession session = new SimulationSession(
+            label,
+            dataProvider,
+            scenario,
+            startTime,
+            endTime,
+            SimulationPublisher.NO_OP,
+            cancellationService,
+            dynamicOrderService,
+            new OrderInjectionService(dynamicOrderService),
+            new ReplanificationService(cancellationService),
+            flightStatusTracker,
+            plannerSpeed,
+            optimizerType
+        );
+        session.configureCadence(Long.MAX_VALUE, false);
+        session.configureBatch(reportingIntervalTicks);
+        session.configureDemandAggregation(demandAggregation);
+        return session;
+    }
+
+    /**
+     * Corre la sesión en el hilo que llama hasta terminar (fin del horizonte, colapso o stop)
+     */
+    public Result run(SimulationSession session) {
+        long start = System.currentTimeMillis();
+        session.run();
+        long wallTimeMs = System.currentTimeMillis() - start;
+
+        Result result = new Result(session.getSessionId(), session.getState(), session.getFinalReport(),
+            session.getTickMetrics(), session.getSkippedWindows(), wallTimeMs);
+        System.out.println("[HeadlessSimulationRunner] " + session.getSessionId() + " finished (" + result.getState() +
+                         "): " + result.getTicks().size() + " tick(s), " + result.getSkippedWindows() +
+                         " window(s) skipped, " + wallTimeMs + "ms wall time");
+        return result;
+    }
+
+    public Result run(String label, DataProvider dataProvider, ScenarioConfig scenario,
+                      LocalDateTime startTime, LocalDateTime endTime) {
+        return run(createSession(label, dataProvider, scenario, startTime, endTime));
+    }
+
+    /**
+     * Resultado de una corrida batch: reporte final y métricas por tick
+     */
+    public static class Result {
+        private final String sessionId;
+        private final SimulationState state;
+        private final FinalReportDTO report;
+        private final List<SimulationSession.TickMetrics> ticks;
+        private final int skippedWindows;
+        private final long wallTimeMs;
+
+        public Result(String sessionId, SimulationState state, FinalReportDTO report,
+                      List<SimulationSession.TickMetrics> ticks, int skippedWindows, long wallTimeMs) {
+            this.sessionId = sessionId;
+            this.state = state;
+            this.report = report;
+            this.ticks = ticks;
+            this.skippedWindows = skippedWindows;
+            this.wallTimeMs = wallTimeMs;
+        }
+
+        public String getSessionId() { return sessionId; }
+        public SimulationState getState() { return state; }
+        public FinalReportDTO getReport() { return report; }
+        public List<SimulationSession.TickMetrics> getTicks() { return ticks; }
+        public int getSkippedWindows() { return skippedWindows; }
+        public long getWallTimeMs() { return wallTimeMs; }
+
+        /**
+         * Métricas por tick en CSV (una fila por tick, con cabecera)
+         */
+        public String toCsv() {
+            StringBuilder csv = new StringBuilder(SimulationSession.TickMetrics.CSV_HEADER).append('\n');
+            for (SimulationSession.TickMetrics tick : ticks) {
+                csv.append(tick.toCsvRow()).append('\n');
+            }
+            return csv.toString();
+        }
+
+        public void writeCsv(Path path) throws IOException {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            Files.writeString(path, toCsv(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -6,8 +6,7 @@ import pe.edu.pucp.morapack.algos.entities.PlannerOrder;
 import pe.edu.pucp.morapack.algos.entities.PlannerFlight;
 import pe.edu.pucp.morapack.algos.entities.PlannerAirport;
 import pe.edu.pucp.morapack.algos.entities.PlannerShipment;
-import pe.edu.pucp.morapack.algos.entities.Solution;
-import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSearchPlanner;
+import pe.edu.pucp.morapack.algos.algorithm.online.LocalRepair;
 import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSolution;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,7 +23,8 @@ import java.util.stream.Collectors;
  * 1. Identificar productos afectados por vuelo cancelado
  * 2. Extraer pedidos completos de esos productos
  * 3. Filtrar: NO reasignar productos que ya están en destino final
- * 4. Ejecutar TabuSearch solo con pedidos afectados
+ * 4. Reparación local (LocalRepair): tramo nuevo desde la posición actual de la carga,
+ *    solo para los shipments afectados y con la capacidad que deja el resto del plan
  * 5. Aplicar nueva solución
  * 6. Registrar métricas y resultados
  */
@@ -34,7 +34,6 @@ public class ReplanificationService {
     private static final Logger logger = LoggerFactory.getLogger(ReplanificationService.class);
     
     private final CancellationService cancellationService;
-    private final TabuSearchPlanner tabuSearchPlanner;
     
     // Historial de replanificaciones
     private final Map<String, ReplanificationTask> replanificationHistory = new LinkedHashMap<>();
@@ -43,11 +42,8 @@ public class ReplanificationService {
     // CONSTRUCTOR
     // ═══════════════════════════════════════════════════════════════
     
-    public ReplanificationService(
-            CancellationService cancellationService,
-            TabuSearchPlanner tabuSearchPlanner) {
+    public ReplanificationService(CancellationService cancellationService) {
         this.cancellationService = cancellationService;
-        this.tabuSearchPlanner = tabuSearchPlanner;
     }
     
     // ═══════════════════════════════════════════════════════════════
@@ -72,274 +68,229 @@ public class ReplanificationService {
             List<PlannerFlight> availableFlights,
             List<PlannerAirport> airports,
             LocalDateTime currentTime) {
-        
-        logger.info("🔄 Disparando replanificación por cancelación: {}", 
-            cancellation.getFlightIdentifier());
-        
-        // 1. Crear tarea de replanificación
-        ReplanificationTask task = new ReplanificationTask(
-            cancellation.getId(),
-            cancellation.getFlightIdentifier(),
-            currentTime
-        );
-        
-        task.markAsStarted(currentTime);
-        
-        try {
-            // 2. Identificar pedidos afectados
-            Set<Integer> affectedOrderIds = identifyAffectedOrders(
-                cancellation,
-                currentSolution
-            );
-            
-            if (affectedOrderIds.isEmpty()) {
-                logger.info("ℹ️ No hay pedidos afectados por la cancelación");
-                task.markAsCompleted(currentTime, 0, 0, 0);
-                replanificationHistory.put(task.getId(), task);
-                return task;
-            }
-            
-            task.addAffectedOrders(new ArrayList<>(affectedOrderIds));
-
-            logger.info("📊 Pedidos afectados: {}", affectedOrderIds.size());
-
-            // 3. Extraer pedidos completos
-            List<PlannerOrder> affectedOrders = allOrders.stream()
-                .filter(order -> affectedOrderIds.contains(order.getId()))
-                .collect(Collectors.toList());
-
-            if (affectedOrders.isEmpty()) {
-                logger.error("❌ [REPLAN] ERROR: affectedOrders está vacío pero affectedOrderIds tiene {} IDs!",
-                    affectedOrderIds.size());
-                logger.error("   Esto significa que los pedidos afectados NO están en allOrders");
-                task.markAsCompleted(currentTime, 0, 0, 0);
-                replanificationHistory.put(task.getId(), task);
-                return task;
-            }
 
-            // 🆕 4. CRITICAL: Calcular cuántos productos de cada pedido fueron afectados
-            // Esto es necesario porque TabuSearch asume que order.getTotalQuantity() = productos pendientes
-            // pero en replanificación, solo parte del pedido puede estar afectada
-            logger.info("📊 [REPLAN] Calculando productos afectados por pedido...");
+        return triggerBatchReplanification(
+            List.of(cancellation), currentSolution, allOrders, availableFlights, airports, currentTime
+        ).get(0);
+    }
 
-            Map<Integer, Integer> productsToReassign = new HashMap<>();
+    /**
+     * Replanificación conjunta sobre un solo plan: los afectados y la capacidad ocupada salen
+     * de currentSolution.
+     */
+    public List<ReplanificationTask> triggerBatchReplanification(
+            List<FlightCancellation> cancellations,
+            TabuSolution currentSolution,
+            List<PlannerOrder> allOrders,
+            List<PlannerFlight> availableFlights,
+            List<PlannerAirport> airports,
+            LocalDateTime currentTime) {
+
+        return triggerBatchReplanification(cancellations, currentSolution, currentSolution.getPlannerShipments(),
+            allOrders, availableFlights, airports, currentTime, new IdentityHashMap<>());
+    }
+
+    /**
+     * Replanificación conjunta de todas las cancelaciones ejecutadas en un tick.
+     *
+     * Calcula una sola vez la unión de shipments afectados y los repara en una sola pasada
+     * (LocalRepair), así las cancelaciones no compiten por la misma capacidad ni reparan sobre
+     * una solución que la siguiente vuelve a modificar. Cada shipment se atribuye a la primera
+     * cancelación que toca en su ruta, y cada tarea recibe sus shipments obsoletos y los que los
+     * reemplazan: el reporte por cancelación no cambia.
+     *
+     * Los afectados y la capacidad ocupada salen de committedShipments (los shipments vigentes
+     * de todos los planes, no solo del último). Los obsoletos de currentSolution se marcan en
+     * su copia propia; los de planes anteriores, en una copia nueva. Los shipments de reemplazo
+     * se agregan a currentSolution.
+     *
+     * @param committedShipments Shipments activos de todos los planes (incluye los de currentSolution)
+     * @param cancelledCopies Output: cada shipment obsoleto y su copia marcada como CANCELLED
+     * @return Una tarea por cancelación, en el mismo orden
+     */
+    public List<ReplanificationTask> triggerBatchReplanification(
+            List<FlightCancellation> cancellations,
+            TabuSolution currentSolution,
+            Collection<PlannerShipment> committedShipments,
+            List<PlannerOrder> allOrders,
+            List<PlannerFlight> availableFlights,
+            List<PlannerAirport> airports,
+            LocalDateTime currentTime,
+            Map<PlannerShipment, PlannerShipment> cancelledCopies) {
+
+        logger.info("🔄 Disparando replanificación conjunta por {} cancelación(es): {}",
+            cancellations.size(),
+            cancellations.stream().map(FlightCancellation::getFlightIdentifier).collect(Collectors.joining(", ")));
+
+        // 1. Una tarea por cancelación
+        List<ReplanificationTask> tasks = new ArrayList<>();
+        List<List<PlannerShipment>> obsoleteByTask = new ArrayList<>();
+        for (FlightCancellation cancellation : cancellations) {
+            ReplanificationTask task = new ReplanificationTask(
+                cancellation.getId(),
+                cancellation.getFlightIdentifier(),
+                currentTime
+            );
+            task.markAsStarted(currentTime);
+            tasks.add(task);
+            obsoleteByTask.add(new ArrayList<>());
+        }
+
+        try {
+            // 2. Unión de shipments afectados; cada uno va a la primera cancelación de su ruta
             List<PlannerShipment> obsoleteShipments = new ArrayList<>();
+            Set<PlannerFlight> cancelledFlights = new HashSet<>();
+            for (PlannerShipment shipment : committedShipments) {
+                if (!shipment.isActive() || shipment.getOrder() == null) continue;
 
-            for (PlannerShipment shipment : currentSolution.getPlannerShipments()) {
-                // Verificar si este shipment usa el vuelo cancelado
-                boolean usesCancelledFlight = false;
+                int owner = -1;
                 for (PlannerFlight flight : shipment.getFlights()) {
-                    if (matchesCancellation(flight, cancellation)) {
-                        usesCancelledFlight = true;
-                        break;
+                    for (int i = 0; i < cancellations.size(); i++) {
+                        if (matchesCancellation(flight, cancellations.get(i))) {
+                            cancelledFlights.add(flight);
+                            if (owner < 0) owner = i;
+                        }
                     }
                 }
-
-                if (usesCancelledFlight && shipment.getOrder() != null) {
-                    int orderId = shipment.getOrder().getId();
-                    int qty = shipment.getQuantity();
-                    productsToReassign.merge(orderId, qty, Integer::sum);
+                if (owner >= 0) {
                     obsoleteShipments.add(shipment);
+                    obsoleteByTask.get(owner).add(shipment);
                     logger.debug("   ❌ Shipment #{} (Order #{}): {} productos a reasignar",
-                        shipment.getId(), orderId, qty);
+                        shipment.getId(), shipment.getOrder().getId(), shipment.getQuantity());
                 }
             }
 
-            int totalProductsToReassign = productsToReassign.values().stream()
-                .mapToInt(Integer::intValue)
-                .sum();
-
-            logger.info("   📦 [REPLAN] Productos a reasignar:");
-            logger.info("      Total shipments cancelados: {}", obsoleteShipments.size());
-            logger.info("      Total productos afectados: {}", totalProductsToReassign);
-            productsToReassign.forEach((orderId, qty) ->
-                logger.info("         Order #{}: {} productos", orderId, qty));
-
-            // 🆕 Guardar tracking detallado en task
-            task.setProductsToReassign(productsToReassign);
-
-            // 🆕 5. Crear pedidos ajustados con SOLO la cantidad afectada
-            // Esto garantiza que TabuSearch no intente asignar productos que ya están en rutas válidas
-            List<PlannerOrder> adjustedOrders = new ArrayList<>();
-
-            for (PlannerOrder originalOrder : affectedOrders) {
-                int orderId = originalOrder.getId();
-                int qtyToReassign = productsToReassign.getOrDefault(orderId, 0);
-
-                if (qtyToReassign == 0) {
-                    logger.warn("   ⚠️ [REPLAN] Order #{} marcado como afectado pero sin productos a reasignar?", orderId);
-                    continue;
+            // 3. Una sola reparación local para todos los afectados
+            LocalRepair.RepairResult repair = null;
+            if (!obsoleteShipments.isEmpty()) {
+                List<PlannerFlight> filteredFlights = filterCancelledFlights(availableFlights, cancellations);
+                logger.info("✈️ Vuelos disponibles para replanificación: {}", filteredFlights.size());
+                logger.info("🔧 [REPLAN] Reparación local de {} shipments ({} productos)...",
+                    obsoleteShipments.size(),
+                    obsoleteShipments.stream().mapToInt(PlannerShipment::getQuantity).sum());
+
+                repair = new LocalRepair(filteredFlights, airports)
+                    .repair(committedShipments, obsoleteShipments, cancelledFlights, currentTime);
+
+                logger.info("📦 [REPLAN] Reparación generó {} shipments ({} productos sin ruta, {} movimientos, {} ms)",
+                    repair.getShipments().size(),
+                    repair.getUnassignedQuantity(),
+                    repair.getMoves(),
+                    repair.getElapsedMicros() / 1000.0);
+
+                if (repair.getShipments().isEmpty()) {
+                    logger.warn("⚠️ [REPLAN] La reparación NO generó ningún shipment nuevo!");
+                    logger.warn("   Posibles causas:");
+                    logger.warn("   - No hay rutas alternativas disponibles");
+                    logger.warn("   - Todos los vuelos alternativos están llenos");
+                    logger.warn("   - Los pedidos no cumplen restricciones de tiempo");
                 }
+            }
 
-                // Crear orden ajustada con solo los productos afectados
-                PlannerOrder adjustedOrder = new PlannerOrder(
-                    originalOrder.getId(),
-                    qtyToReassign,  // ✅ Solo productos afectados, NO totalQuantity completo
-                    originalOrder.getOrigin(),
-                    originalOrder.getDestination()
-                );
-                adjustedOrder.setOrderTime(originalOrder.getOrderTime());
-                adjustedOrder.setClientId(originalOrder.getClientId());
-
-                adjustedOrders.add(adjustedOrder);
-
-                logger.info("   ✅ [REPLAN] Order #{}: {} productos de {} totales",
-                    orderId, qtyToReassign, originalOrder.getTotalQuantity());
+            // 4. Atribuir resultados a cada cancelación
+            for (int i = 0; i < cancellations.size(); i++) {
+                completeTask(tasks.get(i), cancellations.get(i), obsoleteByTask.get(i), repair,
+                    currentSolution, allOrders, currentTime, cancelledCopies);
             }
+            return tasks;
 
-            if (adjustedOrders.isEmpty()) {
-                logger.warn("⚠️ [REPLAN] No hay pedidos ajustados para replanificar");
-                task.markAsCompleted(currentTime, obsoleteShipments.size(), 0, 0);
-                replanificationHistory.put(task.getId(), task);
-                return task;
+        } catch (Exception e) {
+            logger.error("❌ Error en replanificación: {}", e.getMessage(), e);
+            for (ReplanificationTask task : tasks) {
+                if (task.getStatus() != ReplanificationTask.ReplanificationStatus.COMPLETED) {
+                    task.markAsFailed(LocalDateTime.now(), e.getMessage());
+                    replanificationHistory.put(task.getId(), task);
+                }
             }
+            return tasks;
+        }
+    }
 
-            // 6. Filtrar vuelos (excluir el cancelado)
-            List<PlannerFlight> filteredFlights = filterCancelledFlight(
-                availableFlights,
-                cancellation
-            );
+    /**
+     * Aplica a la solución la parte de la reparación que corresponde a una cancelación y
+     * completa su tarea (productos a reasignar, reasignados, shipments cancelados y nuevos).
+     */
+    private void completeTask(
+            ReplanificationTask task,
+            FlightCancellation cancellation,
+            List<PlannerShipment> obsoleteShipments,
+            LocalRepair.RepairResult repair,
+            TabuSolution currentSolution,
+            List<PlannerOrder> allOrders,
+            LocalDateTime currentTime,
+            Map<PlannerShipment, PlannerShipment> cancelledCopies) {
 
-            logger.info("✈️ Vuelos disponibles para replanificación: {}",
-                filteredFlights.size());
+        if (obsoleteShipments.isEmpty()) {
+            logger.info("ℹ️ No hay pedidos afectados por la cancelación {}", cancellation.getFlightIdentifier());
+            task.markAsCompleted(currentTime, 0, 0, 0);
+            replanificationHistory.put(task.getId(), task);
+            return;
+        }
 
-            // 7. Ejecutar TabuSearch con pedidos AJUSTADOS
-            logger.info("🔍 Ejecutando TabuSearch para replanificación...");
-            logger.info("📋 [REPLAN] Pasando {} pedidos ajustados a TabuSearch (total {} productos)",
-                adjustedOrders.size(), totalProductsToReassign);
+        // Productos afectados por pedido (solo parte del pedido puede estar afectada)
+        Map<Integer, Integer> productsToReassign = new HashMap<>();
+        for (PlannerShipment shipment : obsoleteShipments) {
+            productsToReassign.merge(shipment.getOrder().getId(), shipment.getQuantity(), Integer::sum);
+        }
+        Set<Integer> affectedOrderIds = productsToReassign.keySet();
+        task.addAffectedOrders(new ArrayList<>(affectedOrderIds));
+        task.setProductsToReassign(productsToReassign);
 
-            Solution solution = tabuSearchPlanner.optimize(
-                adjustedOrders,      // ✅ Pedidos con cantidades ajustadas
-                filteredFlights,
-                airports
-            );
-            
-            // Cast a TabuSolution para acceder a shipments
-            TabuSolution newSolution = (solution instanceof TabuSolution)
-                ? (TabuSolution) solution
-                : new TabuSolution(solution);
-
-            // 🔍 DEBUG: Ver cuántos shipments generó TabuSearch
-            logger.info("📦 [REPLAN] TabuSearch generó {} shipments para {} pedidos afectados",
-                newSolution.getPlannerShipments().size(),
-                affectedOrders.size());
-
-            if (newSolution.getPlannerShipments().isEmpty()) {
-                logger.warn("⚠️ [REPLAN] TabuSearch NO generó ningún shipment nuevo!");
-                logger.warn("   Posibles causas:");
-                logger.warn("   - No hay rutas alternativas disponibles");
-                logger.warn("   - Todos los vuelos alternativos están llenos");
-                logger.warn("   - Los pedidos no cumplen restricciones de tiempo");
-            }
+        logger.info("📊 [REPLAN] {}: {} pedidos afectados, {} shipments, {} productos",
+            cancellation.getFlightIdentifier(),
+            affectedOrderIds.size(),
+            obsoleteShipments.size(),
+            productsToReassign.values().stream().mapToInt(Integer::intValue).sum());
+
+        // Shipments de reemplazo de los obsoletos de esta cancelación
+        Set<PlannerShipment> own = Collections.newSetFromMap(new IdentityHashMap<>());
+        own.addAll(obsoleteShipments);
+        List<PlannerShipment> newShipments = repair.getShipments().stream()
+            .filter(shipment -> own.contains(repair.getReplacedShipment(shipment)))
+            .collect(Collectors.toList());
 
-            // 8. 🆕 APLICAR CAMBIOS A LA SOLUCIÓN ACTUAL
-            logger.info("🔄 Aplicando replanificación a la solución global...");
-            Map<Integer, Integer> reassignedProducts = new HashMap<>();
-            int cancelledCount = applyReplanificationToSolution(
-                currentSolution,
-                obsoleteShipments,  // ✅ Pasar shipments obsoletos ya calculados
-                newSolution,
-                productsToReassign,
-                reassignedProducts  // ✅ Output: productos efectivamente reasignados
-            );
+        logger.info("🔄 Aplicando replanificación a la solución global...");
+        Map<Integer, Integer> reassignedProducts = new HashMap<>();
+        int cancelledCount = applyReplanificationToSolution(
+            currentSolution,
+            obsoleteShipments,
+            newShipments,
+            productsToReassign,
+            reassignedProducts,  // ✅ Output: productos efectivamente reasignados
+            cancelledCopies
+        );
+        task.setProductsReassigned(reassignedProducts);
 
-            // 🆕 Guardar productos reasignados en task para tracking
-            task.setProductsReassigned(reassignedProducts);
-
-            // 🔍 DEBUG: Log detallado de tracking
-            logger.info("🔍 [DEBUG] Tracking de replanificación guardado en task:");
-            logger.info("   📋 productsToReassign: {}", productsToReassign);
-            logger.info("   ✅ productsReassigned: {}", reassignedProducts);
-            logger.info("   ⏳ productsPending: {}", task.getProductsPending());
-            logger.info("   📊 Total pending: {}", task.getTotalProductsPending());
-
-            // 7. Registrar resultados
-            int newShipmentsCount = newSolution.getPlannerShipments().size();
-            int totalProducts = affectedOrders.stream()
-                .mapToInt(PlannerOrder::getTotalQuantity)
-                .sum();
-
-            task.markAsCompleted(
-                LocalDateTime.now(),
-                cancelledCount,            // Shipments cancelados (mantenidos como historial)
-                newShipmentsCount,         // Nuevos shipments creados
-                totalProducts
-            );
+        logger.info("🔍 [DEBUG] Tracking de replanificación guardado en task:");
+        logger.info("   📋 productsToReassign: {}", productsToReassign);
+        logger.info("   ✅ productsReassigned: {}", reassignedProducts);
+        logger.info("   ⏳ productsPending: {}", task.getProductsPending());
+        logger.info("   📊 Total pending: {}", task.getTotalProductsPending());
 
-            logger.info("✅ Replanificación completada: {}", task.getSummary());
-            logger.info("   ❌ Cancelados: {} shipments obsoletos (mantenidos en historial)", cancelledCount);
-            logger.info("   ✨ Agregados: {} shipments nuevos", newShipmentsCount);
+        List<PlannerOrder> affectedOrders = allOrders.stream()
+            .filter(order -> affectedOrderIds.contains(order.getId()))
+            .collect(Collectors.toList());
+        if (affectedOrders.isEmpty()) {
+            logger.warn("⚠️ [REPLAN] Los pedidos afectados ({}) no están en allOrders", affectedOrderIds);
+        }
+        int totalProducts = affectedOrders.stream()
+            .mapToInt(PlannerOrder::getTotalQuantity)
+            .sum();
 
-            // 8. Actualizar contador de productos afectados en la cancelación
-            cancellationService.updateAffectedProducts(
-                cancellation.getId(),
-                totalProducts
-            );
-            cancellationService.markReplanificationTriggered(cancellation.getId());
+        task.markAsCompleted(
+            LocalDateTime.now(),
+            cancelledCount,            // Shipments cancelados (mantenidos como historial)
+            newShipments.size(),       // Nuevos shipments creados
+            totalProducts
+        );
 
-            // 9. Guardar en historial
-            replanificationHistory.put(task.getId(), task);
+        logger.info("✅ Replanificación completada: {}", task.getSummary());
+        logger.info("   ❌ Cancelados: {} shipments obsoletos (mantenidos en historial)", cancelledCount);
+        logger.info("   ✨ Agregados: {} shipments nuevos", newShipments.size());
 
-            return task;
-            
-        } catch (Exception e) {
-            logger.error("❌ Error en replanificación: {}", e.getMessage(), e);
-            task.markAsFailed(LocalDateTime.now(), e.getMessage());
-            replanificationHistory.put(task.getId(), task);
-            return task;
-        }
-    }
-    
-    // ═══════════════════════════════════════════════════════════════
-    // IDENTIFICACIÓN DE PEDIDOS AFECTADOS
-    // ═══════════════════════════════════════════════════════════════
-    
-    /**
-     * Identifica qué pedidos están afectados por un vuelo cancelado.
-     * 
-     * Lógica:
-     * - Buscar en la solución actual de TabuSearch
-     * - Encontrar shipments que usan el vuelo cancelado
-     * - Extraer IDs de pedidos de esos shipments
-     * 
-     * @param cancellation Cancelación del vuelo
-     * @param currentSolution Solución actual de TabuSearch
-     * @return Set de IDs de pedidos afectados
-     */
-    private Set<Integer> identifyAffectedOrders(
-            FlightCancellation cancellation,
-            TabuSolution currentSolution) {
-        
-        Set<Integer> affectedOrderIds = new HashSet<>();
-        
-        logger.debug("🔍 Buscando envíos que usan vuelo: {}-{}-{}",
-            cancellation.getFlightOrigin(),
-            cancellation.getFlightDestination(),
-            cancellation.getScheduledDepartureTime()
-        );
-        
-        // Iterar sobre todos los shipments en la solución actual
-        for (PlannerShipment shipment : currentSolution.getPlannerShipments()) {
-            
-            // Verificar si este shipment usa el vuelo cancelado
-            boolean usesCancelledFlight = false;
-            
-            for (PlannerFlight flight : shipment.getFlights()) {
-                if (matchesCancellation(flight, cancellation)) {
-                    usesCancelledFlight = true;
-                    break;
-                }
-            }
-            
-            // Si usa el vuelo cancelado, agregar el pedido a la lista
-            if (usesCancelledFlight) {
-                int orderId = shipment.getOrder().getId();
-                affectedOrderIds.add(orderId);
-                logger.debug("  ✓ Pedido {} afectado (shipment {})", orderId, shipment.getId());
-            }
-        }
-        
-        return affectedOrderIds;
+        cancellationService.updateAffectedProducts(cancellation.getId(), totalProducts);
+        cancellationService.markReplanificationTriggered(cancellation.getId());
+        replanificationHistory.put(task.getId(), task);
     }
     
     // ═══════════════════════════════════════════════════════════════
@@ -347,18 +298,18 @@ public class ReplanificationService {
     // ═══════════════════════════════════════════════════════════════
     
     /**
-     * Filtra vuelos para excluir el cancelado.
+     * Filtra vuelos para excluir los cancelados.
      * 
      * @param allFlights Todos los vuelos disponibles
-     * @param cancellation Cancelación a excluir
-     * @return Lista de vuelos sin el cancelado
+     * @param cancellations Cancelaciones a excluir
+     * @return Lista de vuelos sin los cancelados
      */
-    private List<PlannerFlight> filterCancelledFlight(
+    private List<PlannerFlight> filterCancelledFlights(
             List<PlannerFlight> allFlights,
-            FlightCancellation cancellation) {
+            List<FlightCancellation> cancellations) {
         
         return allFlights.stream()
-            .filter(flight -> !matchesCancellation(flight, cancellation))
+            .filter(flight -> cancellations.stream().noneMatch(c -> matchesCancellation(flight, c)))
             .collect(Collectors.toList());
     }
     
@@ -393,17 +344,19 @@ public class ReplanificationService {
      *
      * @param currentSolution Solución global actual (será modificada)
      * @param obsoleteShipments Shipments obsoletos que usaban el vuelo cancelado
-     * @param newSolution Nueva solución con rutas alternativas
+     * @param newShipments Shipments de reemplazo con rutas alternativas
      * @param productsToReassign Mapa de productos a reasignar por pedido
      * @param reassignedProducts Output: Mapa de productos efectivamente reasignados por pedido
+     * @param cancelledCopies Output: copias marcadas como CANCELLED de los obsoletos
      * @return Número de shipments marcados como CANCELLED
      */
     private int applyReplanificationToSolution(
             TabuSolution currentSolution,
             List<PlannerShipment> obsoleteShipments,
-            TabuSolution newSolution,
+            List<PlannerShipment> newShipments,
             Map<Integer, Integer> productsToReassign,
-            Map<Integer, Integer> reassignedProducts) {
+            Map<Integer, Integer> reassignedProducts,
+            Map<PlannerShipment, PlannerShipment> cancelledCopies) {
 
         logger.info("   🔄 [APPLY] Iniciando aplicación de replanificación...");
 
@@ -421,7 +374,12 @@ public class ReplanificationService {
         // 2. ✅ MARCAR como CANCELLED (en lugar de eliminar) para mantener historial
         int cancelledCount = 0;
         for (PlannerShipment obsoleteShipment : obsoleteShipments) {
-            obsoleteShipment.setStatus(PlannerShipment.Status.CANCELLED);
+            // La solución puede compartir shipments con snapshots previos: modificar su propia versión.
+            // Los de planes anteriores no están en la solución: se marca una copia nueva
+            PlannerShipment owned = currentSolution.editPlannerShipment(obsoleteShipment);
+            if (owned == null) owned = new PlannerShipment(obsoleteShipment);
+            owned.setStatus(PlannerShipment.Status.CANCELLED);
+            if (owned != obsoleteShipment) cancelledCopies.put(obsoleteShipment, owned);
             cancelledCount++;
             logger.debug("      ❌ Shipment #{} marcado como CANCELLED", obsoleteShipment.getId());
         }
@@ -429,11 +387,10 @@ public class ReplanificationService {
         logger.info("   ❌ [APPLY] Marcados {} shipments como CANCELLED (mantenidos en historial)", cancelledCount);
 
         // 3. Agregar nuevos shipments de la replanificación
-        List<PlannerShipment> newShipments = newSolution.getPlannerShipments();
         int addedCount = 0;
 
         for (PlannerShipment newShipment : newShipments) {
-            currentSolution.getPlannerShipments().add(newShipment);
+            currentSolution.addPlannerShipment(newShipment);
             addedCount++;
         }
 
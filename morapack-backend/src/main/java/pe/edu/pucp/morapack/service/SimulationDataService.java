@@ -4,6 +4,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import pe.edu.pucp.morapack.algos.data.DataLoader;
+import pe.edu.pucp.morapack.algos.entities.AirportPairTable;
 import pe.edu.pucp.morapack.algos.entities.PlannerAirport;
 import pe.edu.pucp.morapack.algos.entities.PlannerFlight;
 import pe.edu.pucp.morapack.algos.entities.PlannerOrder;
@@ -208,6 +209,7 @@ public class SimulationDataService {
             } else {
                 airportsCache = loadAirportsFromFiles();
             }
+            AirportPairTable.install(airportsCache);
         }
         return airportsCache;
     }
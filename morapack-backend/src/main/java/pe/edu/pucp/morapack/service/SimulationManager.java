@@ -1,9 +1,12 @@
 package pe.edu.pucp.morapack.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
+import pe.edu.pucp.morapack.algos.algorithm.OptimizerType;
+import pe.edu.pucp.morapack.algos.algorithm.portfolio.PortfolioHistory;
 import pe.edu.pucp.morapack.algos.data.providers.DataProvider;
 import pe.edu.pucp.morapack.algos.data.providers.DatabaseDataProvider;
 import pe.edu.pucp.morapack.algos.scheduler.ScenarioConfig;
@@ -11,12 +14,11 @@ import pe.edu.pucp.morapack.dto.websocket.SimulationState;
 import pe.edu.pucp.morapack.dto.websocket.SimulationStatusUpdate;
 import pe.edu.pucp.morapack.repository.simulation.SimOrderRepository;
 
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * Manages multiple concurrent simulation sessions (one per user).
@@ -45,8 +47,22 @@ public class SimulationManager {
     // Map of userId -> SimulationSession
     private final Map<String, SimulationSession> activeSessions = new ConcurrentHashMap<>();
 
-    // Thread pool for running simulations
-    private final ExecutorService executorService = Executors.newCachedThreadPool();
+    // Admission control + virtual-thread session loops + bounded, fair planner pool
+    private final SimulationScheduler scheduler;
+
+    // Optimizer used by new sessions: "TABU", "ALNS", "ACO", "TABU_ACO", "PORTFOLIO" or "AUTO"
+    @Value("${simulation.planner.optimizer:TABU}")
+    private String optimizer;
+
+    // Planning cadence: tick wall-time target (Sa at 1x) and whether K may be raised to keep up
+    @Value("${simulation.cadence.target-tick-ms:11000}")
+    private long cadenceTargetTickMs;
+
+    @Value("${simulation.cadence.adjust-k:true}")
+    private boolean cadenceAdjustK;
+
+    // Agregación de demanda delante del optimizador de cada sesión
+    private final boolean demandAggregation;
 
     // Default simulation parameters
     private final int simulationDays = 7;    // 1 week
@@ -64,7 +80,11 @@ public class SimulationManager {
             ReplanificationService replanificationService,
             FlightStatusTracker flightStatusTracker,
             DatabaseDataProvider databaseDataProvider,
-            SimOrderRepository simOrderRepository) {
+            SimOrderRepository simOrderRepository,
+            @Value("${simulation.scheduler.max-running-sessions:0}") int maxRunningSessions,
+            @Value("${simulation.scheduler.planner-threads:0}") int plannerThreads,
+            @Value("${simulation.planner.demand-aggregation:false}") boolean demandAggregation,
+            @Value("${simulation.planner.portfolio-history-file:portfolio-history.csv}") String portfolioHistoryFile) {
 
         this.messagingTemplate = messagingTemplate;
         this.cancellationService = cancellationService;
@@ -74,6 +94,11 @@ public class SimulationManager {
         this.flightStatusTracker = flightStatusTracker;
         this.databaseDataProvider = databaseDataProvider;
         this.simOrderRepository = simOrderRepository;
+        this.scheduler = new SimulationScheduler(maxRunningSessions, plannerThreads);
+        this.demandAggregation = demandAggregation;
+        if (portfolioHistoryFile != null && !portfolioHistoryFile.isBlank()) {
+            PortfolioHistory.shared().persistTo(Paths.get(portfolioHistoryFile));
+        }
 
         // Query the database to find the actual date range
         try {
@@ -178,8 +203,11 @@ public class SimulationManager {
                 orderInjectionService,
                 replanificationService,
                 flightStatusTracker,
-                initialSpeedMultiplier
+                initialSpeedMultiplier,
+                OptimizerType.fromString(optimizer)
             );
+            session.configureCadence(cadenceTargetTickMs, cadenceAdjustK);
+            session.configureDemandAggregation(demandAggregation);
             
             // Store and start
             activeSessions.put(userId, session);
@@ -187,8 +215,8 @@ public class SimulationManager {
             // Send session ID to user FIRST so they can subscribe to the correct topic
             sendSessionId(userId, session.getSessionId());
             
-            // Then start the simulation
-            executorService.submit(session);
+            // Then start the simulation (or queue it until a slot is free)
+            scheduler.submit(session);
             
             System.out.println("[SimulationManager] Started simulation for user: " + userId);
             System.out.println("   Scenario: " + scenario.getType());
@@ -243,20 +271,16 @@ public class SimulationManager {
         }
 
         session.stop();
+        scheduler.cancel(session);
 
         // Clear all loaded cancellations to avoid them persisting to next simulation
         cancellationService.clearCancellations();
 
         // Clean up after a short delay
-        new Thread(() -> {
-            try {
-                Thread.sleep(1000);  // Wait 1 second
-                activeSessions.remove(userId);
-                System.out.println("[SimulationManager] Cleaned up simulation for user: " + userId);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        }).start();
+        scheduler.runLater(1000, () -> {
+            activeSessions.remove(userId, session);
+            System.out.println("[SimulationManager] Cleaned up simulation for user: " + userId);
+        });
 
         System.out.println("[SimulationManager] Stopped simulation for user: " + userId);
     }
@@ -268,6 +292,7 @@ public class SimulationManager {
         SimulationSession session = activeSessions.get(userId);
         if (session != null) {
             session.stop();
+            scheduler.cancel(session);
             activeSessions.remove(userId);
         }
 
@@ -364,8 +389,8 @@ public class SimulationManager {
         activeSessions.values().forEach(SimulationSession::stop);
         activeSessions.clear();
         
-        // Shutdown executor
-        executorService.shutdown();
+        // Shutdown scheduler
+        scheduler.shutdown();
         
         System.out.println("[SimulationManager] Shutdown complete");
     }
@@ -0,0 +1,15 @@
+package pe.edu.pucp.morapack.service;
+
+/**
+ * Destino de las actualizaciones de una sesión (estado por tick, actualizaciones del plan).
+ *
+ * Las sesiones con UI publican por STOMP (SimpMessagingTemplate::convertAndSend); las corridas
+ * batch sin UI usan NO_OP.
+ */
+@FunctionalInterface
+public interface SimulationPublisher {
+
+    SimulationPublisher NO_OP = (destination, payload) -> { };
+
+    void send(String destination, Object payload);
+}
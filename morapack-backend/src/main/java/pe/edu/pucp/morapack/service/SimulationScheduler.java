@@ -0,0 +1,239 @@
+package pe.edu.pucp.morapack.service;
+
+import pe.edu.pucp.morapack.algos.algorithm.PlannerExecutors;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Planificador de sesiones de simulación con presupuesto de CPU acotado.
+ *
+ * - Admisión: a lo sumo maxRunningSessions sesiones corren a la vez; las demás esperan en una
+ *   cola FIFO y reciben su posición (estado QUEUED) cada vez que la cola avanza.
+ * - Bucles de control (pausa, sondeo, esperas entre ticks) en hilos virtuales: dormir no ocupa
+ *   un hilo de plataforma.
+ * - Cómputo del planner en un pool de plataforma de plannerThreads hilos. La cola del pool es
+ *   justa entre sesiones: primero va la tarea de la sesión que menos tiempo de planner lleva
+ *   consumido, así una sesión rápida (2x, 5x) no acapara los hilos.
+ * - Cupo por tarea: los núcleos se reparten entre los hilos del pool; cada ejecución del planner
+ *   usa a lo sumo getTaskParallelism() hilos del pool compartido de los optimizadores
+ *   (PlannerExecutors), así el total no pasa de los núcleos disponibles. Los carriles de la
+ *   carrera de portafolio usan un pool del mismo tamaño (plannerThreads × cupo por tarea).
+ */
+public class SimulationScheduler {
+
+    private final int maxRunningSessions;
+    private final int plannerThreads;
+    private final int taskParallelism;
+
+    private final ExecutorService controlLoops;
+    private final ThreadPoolExecutor plannerPool;
+
+    // Admisión (protegido por 'this')
+    private final Deque<SimulationSession> waiting = new ArrayDeque<>();
+    private int running = 0;
+
+    // Tiempo de planner consumido por sesión (nanosegundos) y desempate FIFO
+    private final Map<String, AtomicLong> plannerNanosBySession = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * @param maxRunningSessions sesiones simultáneas (0 o negativo = núcleos disponibles)
+     * @param plannerThreads     hilos de cómputo del planner (0 o negativo = núcleos disponibles)
+     */
+    public SimulationScheduler(int maxRunningSessions, int plannerThreads) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        this.maxRunningSessions = maxRunningSessions > 0 ? maxRunningSessions : cores;
+        this.plannerThreads = plannerThreads > 0 ? plannerThreads : cores;
+        this.taskParallelism = Math.max(1, cores / this.plannerThreads);
+        PlannerExecutors.setLaneThreads(this.plannerThreads * this.taskParallelism);
+
+        this.controlLoops = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sim-session-", 0).factory());
+
+        AtomicInteger plannerThreadIds = new AtomicInteger();
+        this.plannerPool = new ThreadPoolExecutor(
+            this.plannerThreads, this.plannerThreads, 0L, TimeUnit.MILLISECONDS,
+            new PriorityBlockingQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "sim-planner-" + plannerThreadIds.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+        System.out.println("[SimulationScheduler] Max running sessions: " + this.maxRunningSessions +
+                         ", planner threads: " + this.plannerThreads +
+                         ", threads per planner task: " + this.taskParallelism);
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // ADMISIÓN
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * Arranca la sesión si hay cupo; si no, la encola e informa su posición
+     */
+    public synchronized void submit(SimulationSession session) {
+        session.attachScheduler(this);
+        if (running < maxRunningSessions) {
+            launch(session);
+            return;
+        }
+        waiting.addLast(session);
+        System.out.println("[SimulationScheduler] Session " + session.getSessionId() + " queued at position " + waiting.size());
+        session.markQueued(waiting.size());
+    }
+
+    /**
+     * Saca de la cola una sesión que se detuvo antes de arrancar
+     */
+    public synchronized void cancel(SimulationSession session) {
+        if (waiting.remove(session)) {
+            notifyPositions();
+        }
+    }
+
+    /**
+     * Posición en la cola (1 = la siguiente), 0 si no está esperando
+     */
+    public synchronized int getQueuePosition(SimulationSession session) {
+        int position = 1;
+        for (SimulationSession queued : waiting) {
+            if (queued == session) return position;
+            position++;
+        }
+        return 0;
+    }
+
+    public synchronized int getRunningCount() {
+        return running;
+    }
+
+    private void launch(SimulationSession session) {
+        running++;
+        controlLoops.submit(() -> {
+            try {
+                session.run();
+            } finally {
+                finished(session);
+            }
+        });
+    }
+
+    private synchronized void finished(SimulationSession session) {
+        running--;
+        plannerNanosBySession.remove(session.getSessionId());
+        boolean admitted = false;
+        while (running < maxRunningSessions && !waiting.isEmpty()) {
+            SimulationSession next = waiting.pollFirst();
+            if (next.isStopRequested()) continue;
+            System.out.println("[SimulationScheduler] Admitting queued session " + next.getSessionId());
+            launch(next);
+            admitted = true;
+        }
+        if (admitted) notifyPositions();
+    }
+
+    private void notifyPositions() {
+        int position = 1;
+        for (SimulationSession queued : waiting) {
+            queued.markQueued(position++);
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // CÓMPUTO DEL PLANNER
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * Ejecuta 'work' en el pool del planner y espera su resultado (el hilo que llama, normalmente
+     * el hilo virtual de la sesión, solo queda bloqueado)
+     */
+    public <T> T runPlanner(String sessionId, Callable<T> work) throws InterruptedException, ExecutionException {
+        AtomicLong used = plannerNanosBySession.computeIfAbsent(sessionId, id -> new AtomicLong());
+        CompletableFuture<T> result = new CompletableFuture<>();
+        plannerPool.execute(new PlannerTask(used.get(), sequence.getAndIncrement(), () -> {
+            if (result.isDone()) return;  // El que esperaba ya se fue (interrumpido)
+            long start = System.nanoTime();
+            try {
+                result.complete(work.call());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            } finally {
+                used.addAndGet(System.nanoTime() - start);
+            }
+        }));
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            throw e;
+        }
+    }
+
+    /**
+     * Hilos que puede usar una ejecución del planner (se pasa a OptimizerFactory)
+     */
+    public int getTaskParallelism() {
+        return taskParallelism;
+    }
+
+    /**
+     * Tareas del planner esperando un hilo
+     */
+    public int getQueuedPlannerTasks() {
+        return plannerPool.getQueue().size();
+    }
+
+    /**
+     * Ejecuta 'task' después de 'delayMs' en un hilo virtual
+     */
+    public void runLater(long delayMs, Runnable task) {
+        CompletableFuture.runAsync(task, CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS, controlLoops));
+    }
+
+    public void shutdown() {
+        synchronized (this) {
+            waiting.clear();
+        }
+        controlLoops.shutdown();
+        plannerPool.shutdown();
+    }
+
+    /**
+     * Tarea del pool del planner: menor tiempo consumido por su sesión primero, luego FIFO
+     */
+    private static final class PlannerTask implements Runnable, Comparable<PlannerTask> {
+        private final long sessionNanos;
+        private final long sequence;
+        private final Runnable work;
+
+        private PlannerTask(long sessionNanos, long sequence, Runnable work) {
+            this.sessionNanos = sessionNanos;
+            this.sequence = sequence;
+            this.work = work;
+        }
+
+        @Override
+        public void run() {
+            work.run();
+        }
+
+        @Override
+        public int compareTo(PlannerTask other) {
+            int byUsage = Long.compare(sessionNanos, other.sessionNanos);
+            return byUsage != 0 ? byUsage : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -1,14 +1,24 @@
 package pe.edu.pucp.morapack.service;
 
 import org.springframework.messaging.simp.SimpMessagingTemplate;
-import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSearchPlanner;
+import pe.edu.pucp.morapack.algos.algorithm.OptimizerPool;
+import pe.edu.pucp.morapack.algos.algorithm.PlannerExecutors;
+import pe.edu.pucp.morapack.algos.algorithm.OptimizerType;
+import pe.edu.pucp.morapack.algos.algorithm.online.LocalRepair;
+import pe.edu.pucp.morapack.algos.algorithm.online.OnlineInsertion;
 import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSolution;
 import pe.edu.pucp.morapack.algos.data.providers.DataProvider;
 import pe.edu.pucp.morapack.algos.entities.PlannerAirport;
 import pe.edu.pucp.morapack.algos.entities.PlannerFlight;
 import pe.edu.pucp.morapack.algos.entities.PlannerOrder;
+import pe.edu.pucp.morapack.algos.entities.PlannerShipment;
+import pe.edu.pucp.morapack.algos.entities.Route;
 import pe.edu.pucp.morapack.algos.entities.Solution;
+import pe.edu.pucp.morapack.algos.scheduler.CadenceController;
+import pe.edu.pucp.morapack.algos.scheduler.EventCalendar;
 import pe.edu.pucp.morapack.algos.scheduler.ScenarioConfig;
+import pe.edu.pucp.morapack.algos.utils.FlightReachability;
+import pe.edu.pucp.morapack.dto.simulation.PlanUpdateDTO;
 import pe.edu.pucp.morapack.dto.simulation.TabuSimulationResponse;
 import pe.edu.pucp.morapack.dto.websocket.SimulationState;
 import pe.edu.pucp.morapack.dto.websocket.SimulationStatusUpdate;
@@ -23,7 +33,15 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -38,7 +56,7 @@ public class SimulationSession implements Runnable {
     private final ScenarioConfig scenario;
     private final LocalDateTime startTime;
     private final LocalDateTime endTime;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final SimulationPublisher publisher;
     
     // 🆕 Dynamic event services
     private final CancellationService cancellationService;
@@ -54,7 +72,7 @@ public class SimulationSession implements Runnable {
     private volatile double speedMultiplier = 1.0;  // 1.0 = normal speed
     
     // Simulation progress
-    private LocalDateTime currentTime;
+    private volatile LocalDateTime currentTime;
     private int iterationCount = 0;
     private int totalExpectedIterations = 0;
 
@@ -63,11 +81,41 @@ public class SimulationSession implements Runnable {
     private String collapseReason = null;
     private int consecutiveHighUnassignedIterations = 0;
 
-    // Tabu Search planner (not final so it can be recreated when speed changes)
-    private TabuSearchPlanner planner;
+    // Planner (Tabu by default): se pide prestado al pool en cada iteración con la velocidad vigente
+    private final OptimizerType optimizerType;
+
+    // Planificador que corre esta sesión (null = el planner corre en el hilo de la sesión)
+    private volatile SimulationScheduler scheduler;
     
-    // Results accumulation
-    private final List<TabuSimulationResponse> allResults = new ArrayList<>();
+    // Results accumulation (written only by the publish stage)
+    private final List<TabuSimulationResponse> allResults = java.util.Collections.synchronizedList(new ArrayList<>());
+
+    // Pipeline: prefetch of the next window and asynchronous publishing (depth 1: tick N is
+    // published while tick N+1 is planned)
+    private final ExecutorService pipelineStages = Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name("sim-pipeline-", 0).factory());
+    private CompletableFuture<WindowData> prefetchedWindow = null;
+    private LocalDateTime prefetchedWindowStart = null;
+    private LocalDateTime prefetchedWindowEnd = null;
+
+    // Cadencia: Sa > Ta medido por tick (presupuesto del planner y K adaptativos)
+    public static final long DEFAULT_CADENCE_TARGET_TICK_MS = 11000;  // Sa en tiempo real a 1x (ver applySpeedControlledDelay)
+    private volatile CadenceController cadence;
+    private volatile long cadenceTargetTickMs = DEFAULT_CADENCE_TARGET_TICK_MS;
+    private long lastTaMs = 0;
+
+    // Modo headless: sin pausas de UI y con avance de evento en evento (ver advanceToNextEvent)
+    private volatile boolean headless = false;
+    private EventCalendar eventCalendar = null;
+    private int skippedWindows = 0;
+    private CompletableFuture<Void> publishing = CompletableFuture.completedFuture(null);
+
+    // Modo batch (estudios de capacidad): headless, sin DTOs de UI ni logs por tick, con
+    // progreso cada reportingIntervalTicks ticks y métricas por tick para el CSV
+    private volatile boolean batch = false;
+    private boolean demandAggregation = false;  // Optimizador envuelto en AggregatingOptimizer (ver configureDemandAggregation)
+    private int reportingIntervalTicks = 0;
+    private final List<TickMetrics> tickMetrics = new ArrayList<>();
     
     // Pending orders accumulation (orders not fully assigned in previous iterations)
     private final List<PlannerOrder> pendingOrders = new ArrayList<>();
@@ -78,13 +126,31 @@ public class SimulationSession implements Runnable {
     private int totalShipmentsCreated = 0;
     
     // 🆕 Tracking for replanification and rendering
-    private TabuSolution lastSolution = null;
+    private volatile TabuSolution lastSolution = null;
+    // Instantánea de lastSolution: comparte sus bloques, así lastSolution copia antes de editar (ver publishCommittedPlan)
+    private volatile TabuSolution committedPlan = null;
+    // Shipments acumulados que aún ocupan capacidad, para lectores de otros hilos
+    private volatile List<PlannerShipment> committedShipments = List.of();
+
+    // 🆕 Inserción en línea de pedidos urgentes (ver insertUrgentOrder)
+    private static final int ONLINE_HORIZON_HOURS = 72;  // Plazo máximo de un pedido
+
+    // Mejora continua en la pausa entre ticks
+    private static final long IDLE_IMPROVEMENT_MIN_BUDGET_MS = 200;   // Pausas más cortas solo duermen
+    private static final long IDLE_IMPROVEMENT_APPLY_MARGIN_MS = 50;  // Reserva para aplicar y enviar
+    private final Object onlineInsertionLock = new Object();
+    private final List<PlannerShipment> onlineShipments = new ArrayList<>();  // Provisionales, hasta la siguiente optimización
+    private final ConcurrentLinkedQueue<PlannerOrder> onlineOrders = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger onlineShipmentIds = new AtomicInteger(-1);  // Negativos: no chocan con los del planner
+    private LocalDateTime onlineFlightsTime = null;
+    private List<PlannerFlight> onlineFlights = null;
+    private List<PlannerAirport> onlineAirports = null;
     
     // 🆕 Accumulated shipments from ALL iterations (for continuous plane rendering)
     private java.util.List<pe.edu.pucp.morapack.algos.entities.PlannerShipment> allShipments = new java.util.ArrayList<>();
     
     // 🆕 Track completed orders (once completed, they stay completed)
-    private java.util.Set<Integer> completedOrderIds = new java.util.HashSet<>();
+    private final java.util.Set<Integer> completedOrderIds = java.util.concurrent.ConcurrentHashMap.newKeySet();
     
     public SimulationSession(
             String userId,
@@ -98,7 +164,30 @@ public class SimulationSession implements Runnable {
             OrderInjectionService orderInjectionService,
             ReplanificationService replanificationService,
             FlightStatusTracker flightStatusTracker,
-            double initialSpeedMultiplier) {
+            double initialSpeedMultiplier,
+            OptimizerType optimizerType) {
+        this(userId, dataProvider, scenario, startTime, endTime, stomp(messagingTemplate),
+            cancellationService, dynamicOrderService, orderInjectionService, replanificationService,
+            flightStatusTracker, initialSpeedMultiplier, optimizerType);
+    }
+
+    /**
+     * Sesión con un destino de publicación propio (SimulationPublisher.NO_OP en corridas batch)
+     */
+    public SimulationSession(
+            String userId,
+            DataProvider dataProvider,
+            ScenarioConfig scenario,
+            LocalDateTime startTime,
+            LocalDateTime endTime,
+            SimulationPublisher publisher,
+            CancellationService cancellationService,
+            DynamicOrderService dynamicOrderService,
+            OrderInjectionService orderInjectionService,
+            ReplanificationService replanificationService,
+            FlightStatusTracker flightStatusTracker,
+            double initialSpeedMultiplier,
+            OptimizerType optimizerType) {
 
         this.sessionId = UUID.randomUUID().toString();
         this.userId = userId;
@@ -107,11 +196,9 @@ public class SimulationSession implements Runnable {
         this.startTime = startTime;
         this.endTime = endTime;
         this.currentTime = startTime;
-        this.messagingTemplate = messagingTemplate;
-        // Initialize speedMultiplier BEFORE creating planner
+        this.publisher = publisher;
         this.speedMultiplier = initialSpeedMultiplier;
-        // Initialize planner with initial speedMultiplier
-        this.planner = new TabuSearchPlanner(System.currentTimeMillis(), this.speedMultiplier);
+        this.optimizerType = optimizerType != null ? optimizerType : OptimizerType.TABU;
         
         // 🆕 Assign dynamic services
         this.cancellationService = cancellationService;
@@ -120,6 +207,8 @@ public class SimulationSession implements Runnable {
         this.replanificationService = replanificationService;
         this.flightStatusTracker = flightStatusTracker;
         
+        this.cadence = CadenceController.forScenario(scenario, true);
+
         // Calculate expected iterations
         long totalMinutes = java.time.Duration.between(startTime, endTime).toMinutes();
         this.totalExpectedIterations = (int) Math.ceil((double) totalMinutes / scenario.getScMinutes());
@@ -127,10 +216,15 @@ public class SimulationSession implements Runnable {
         System.out.println("[SimulationSession] Created: " + sessionId + " for user: " + userId);
         System.out.println("   Scenario: " + scenario.getType() + " (K=" + scenario.getK() + ", Sc=" + scenario.getScMinutes() + ")");
         System.out.println("   Expected iterations: " + totalExpectedIterations);
+        System.out.println("   Optimizer: " + this.optimizerType);
         
         // 🆕 Load scheduled cancellations and dynamic orders
         initializeDynamicEvents();
     }
+
+    private static SimulationPublisher stomp(SimpMessagingTemplate messagingTemplate) {
+        return messagingTemplate::convertAndSend;
+    }
     
     /**
      * Initialize dynamic events (cancellations and orders) from files.
@@ -171,10 +265,13 @@ public class SimulationSession implements Runnable {
             sendStatusUpdate(SimulationStatusUpdate.starting());
             
             // Brief delay to ensure frontend is ready
-            Thread.sleep(500);
+            if (!batch) {
+                Thread.sleep(500);
+            }
             
             state.set(SimulationState.RUNNING);
             runSimulation();
+            awaitPublishing();
             
             if (state.get() == SimulationState.RUNNING) {
                 state.set(SimulationState.COMPLETED);
@@ -196,10 +293,16 @@ public class SimulationSession implements Runnable {
             ));
             System.err.println("[SimulationSession] " + sessionId + " error: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            pipelineStages.shutdownNow();
         }
     }
     
     private void runSimulation() throws InterruptedException {
+        if (headless) {
+            seedEventCalendar();
+        }
+
         while (currentTime.isBefore(endTime) && !stopRequested.get()) {
             
             // Check for pause
@@ -238,11 +341,21 @@ public class SimulationSession implements Runnable {
                 break; // Exit simulation loop
             }
 
-            // Speed-controlled delay (ALWAYS apply, even for empty iterations)
-            applySpeedControlledDelay();
+            if (headless) {
+                // Sin UI que acompañar: saltar directo al siguiente evento relevante
+                advanceToNextEvent();
+            } else {
+                // Speed-controlled delay (ALWAYS apply, even for empty iterations)
+                applySpeedControlledDelay();
+            }
         }
 
         System.out.println("\n[SimulationSession] " + sessionId + " ending simulation loop");
+        if (headless) {
+            System.out.println("   ⏭️ Event-driven advance: " + iterationCount + " tick(s) run, " + skippedWindows +
+                             " empty window(s) skipped");
+        }
+        awaitPublishing();
         if (collapseDetected) {
             System.out.println("🚨 SIMULATION ENDED DUE TO COLLAPSE");
             System.out.println("   " + collapseReason);
@@ -255,11 +368,12 @@ public class SimulationSession implements Runnable {
         long iterationStartTime = System.currentTimeMillis();
 
         iterationCount++;
+        lastTaMs = 0;
 
         // Calculate time window for this iteration
-        // ✅ Sc remains constant - speedMultiplier only affects delay between iterations
-        int baseScMinutes = scenario.getScMinutes();
-        int scMinutes = baseScMinutes;  // NO multiply by speedMultiplier
+        // ✅ speedMultiplier only affects delay between iterations; Sc = K × Sa, with K chosen
+        // by the cadence controller (scenario K unless ticks can't keep up)
+        int scMinutes = cadence.getScMinutes();
 
         LocalDateTime windowStart = currentTime;
         LocalDateTime windowEnd = currentTime.plusMinutes(scMinutes);
@@ -268,11 +382,11 @@ public class SimulationSession implements Runnable {
             windowEnd = endTime;
         }
 
-        System.out.println("\n━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
-        System.out.println("[SimulationSession] " + sessionId + " - Iteration #" + iterationCount);
-        System.out.println("   Window: " + windowStart + " → " + windowEnd + " (+" + scMinutes + " min)");
-        System.out.println("   Current time will advance from " + currentTime + " to " + windowEnd);
-        System.out.println("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
+        trace("\n━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
+        trace("[SimulationSession] " + sessionId + " - Iteration #" + iterationCount);
+        trace("   Window: " + windowStart + " → " + windowEnd + " (+" + scMinutes + " min)");
+        trace("   Current time will advance from " + currentTime + " to " + windowEnd);
+        trace("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
 
         // 🆕 STEP 1: Process cancellations at current time (ONLY for WEEKLY and DAILY scenarios)
         List<FlightCancellation> newCancellations;
@@ -282,9 +396,9 @@ public class SimulationSession implements Runnable {
         } else {
             newCancellations = cancellationService.processCancellationsAt(currentTime);
             if (!newCancellations.isEmpty()) {
-                System.out.println("   🚫 " + newCancellations.size() + " flight(s) cancelled:");
+                trace("   🚫 " + newCancellations.size() + " flight(s) cancelled:");
                 for (FlightCancellation c : newCancellations) {
-                    System.out.println("      • " + c.getFlightOrigin() + " → " + c.getFlightDestination() +
+                    trace("      • " + c.getFlightOrigin() + " → " + c.getFlightDestination() +
                                      " @ " + c.getScheduledDepartureTime());
                 }
             }
@@ -293,9 +407,9 @@ public class SimulationSession implements Runnable {
         // 🆕 STEP 2: Process dynamic order injection
         List<DynamicOrder> newDynamicOrders = dynamicOrderService.getOrdersToInjectAt(currentTime);
         if (!newDynamicOrders.isEmpty()) {
-            System.out.println("   📦 " + newDynamicOrders.size() + " dynamic order(s) injected:");
+            trace("   📦 " + newDynamicOrders.size() + " dynamic order(s) injected:");
             for (DynamicOrder o : newDynamicOrders) {
-                System.out.println("      • " + o.getOrigin() + " → " + o.getDestination() + 
+                trace("      • " + o.getOrigin() + " → " + o.getDestination() + 
                                  " (" + o.getQuantity() + " units)");
             }
         }
@@ -303,23 +417,36 @@ public class SimulationSession implements Runnable {
         // 🆕 STEP 3: Convert dynamic orders to PlannerOrders
         List<PlannerOrder> injectedOrders = orderInjectionService.processOrderInjections(currentTime);
         if (!injectedOrders.isEmpty()) {
-            System.out.println("   ✅ " + injectedOrders.size() + " order(s) converted to planner format");
+            trace("   ✅ " + injectedOrders.size() + " order(s) converted to planner format");
+        }
+
+        // 🆕 Pedidos insertados en línea desde el último tick: entran a la optimización completa
+        List<PlannerOrder> onlineInserted = drainOnlineOrders();
+        if (!onlineInserted.isEmpty()) {
+            injectedOrders.addAll(onlineInserted);
+            trace("   ⚡ " + onlineInserted.size() + " online-inserted order(s) folded into this optimization");
         }
         
-        // Get data for this window
-        List<PlannerFlight> flights = dataProvider.getFlights(windowStart, windowEnd);
-        List<PlannerOrder> newOrders = dataProvider.getOrders(windowStart, windowEnd);
+        // Get data for this window (prefetched during the previous tick when possible)
+        WindowData window = takeWindowData(windowStart, windowEnd);
+        prefetchWindowData(windowEnd);
+        List<PlannerFlight> flights = window.flights;
+        List<PlannerOrder> newOrders = window.orders;
         
         // 🆕 STEP 4: Filter out cancelled flights and register them in the tracker
         List<PlannerFlight> activeFlights = filterActiveFlightsAndRegisterCancelled(flights, newCancellations);
         if (flights.size() != activeFlights.size()) {
-            System.out.println("   ⚠️ " + (flights.size() - activeFlights.size()) +
+            trace("   ⚠️ " + (flights.size() - activeFlights.size()) +
                              " cancelled flight(s) filtered out and registered as cancelled");
         }
         
         // Add new orders to pending queue (including injected ones)
         pendingOrders.addAll(newOrders);
         pendingOrders.addAll(injectedOrders);
+        if (eventCalendar != null) {
+            scheduleDeadlines(newOrders);
+            scheduleDeadlines(injectedOrders);
+        }
         
         // Track all orders for metrics
         for (PlannerOrder order : newOrders) {
@@ -347,7 +474,7 @@ public class SimulationSession implements Runnable {
             });
         }
 
-        System.out.println("   Flights: " + activeFlights.size() + ", Orders: " + allOrders.size() +
+        trace("   Flights: " + activeFlights.size() + ", Orders: " + allOrders.size() +
                          " (new: " + newOrders.size() + ", injected: " + injectedOrders.size() +
                          ", pending: " + (allOrders.size() - newOrders.size() - injectedOrders.size()) + ")");
 
@@ -357,16 +484,25 @@ public class SimulationSession implements Runnable {
         }
 
         // Run Tabu Search
+        int tickShipments = 0;
         if (!allOrders.isEmpty() && !activeFlights.isEmpty()) {
             // Get airports from data provider
             List<PlannerAirport> airports = new ArrayList<>(dataProvider.getAirports());
 
+            // Podar vuelos que ningún pedido pendiente puede usar (ver FlightReachability)
+            List<PlannerFlight> plannerFlights = FlightReachability.prune(allOrders, activeFlights);
+            if (plannerFlights.size() < activeFlights.size()) {
+                trace("   ✂️ Reachability pruning: " + activeFlights.size() + " -> " +
+                                 plannerFlights.size() + " flights");
+            }
+
             // 🔍 DEBUG: Measure TabuSearch execution time
             long tabuStartTime = System.currentTimeMillis();
-            Solution solution = planner.optimize(allOrders, activeFlights, airports);
+            Solution solution = runPlanner(allOrders, plannerFlights, airports);
             long tabuEndTime = System.currentTimeMillis();
             long tabuDuration = tabuEndTime - tabuStartTime;
-            System.out.println("   ⏱️ TabuSearch execution time: " + tabuDuration + "ms (speedMultiplier: " + speedMultiplier + "x)");
+            lastTaMs = tabuDuration;
+            trace("   ⏱️ TabuSearch execution time: " + tabuDuration + "ms (speedMultiplier: " + speedMultiplier + "x)");
             
                 // Cast to TabuSolution and convert to DTO
                 if (solution instanceof TabuSolution tabuSolution) {
@@ -376,8 +512,11 @@ public class SimulationSession implements Runnable {
                     // 🆕 Accumulate shipments for continuous rendering (don't lose old shipments)
                     if (tabuSolution.getPlannerShipments() != null) {
                         allShipments.addAll(tabuSolution.getPlannerShipments());
-                        System.out.println("   📦 Accumulated " + tabuSolution.getPlannerShipments().size() + " new shipments (total: " + allShipments.size() + ")");
+                        if (eventCalendar != null) scheduleShipmentEvents(tabuSolution.getPlannerShipments());
+                        trace("   📦 Accumulated " + tabuSolution.getPlannerShipments().size() + " new shipments (total: " + allShipments.size() + ")");
                     }
+                    publishCommittedPlan();
+                    releaseOnlineShipments(allOrders);
                     
                     // ✅ FIX: Actualizar solo los pedidos de esta iteración
                     // TabuSearch devuelve una solución para los pedidos pendientes actuales,
@@ -406,166 +545,41 @@ public class SimulationSession implements Runnable {
                     
                     // Update total shipments counter (accumulative across all iterations)
                     totalShipmentsCreated += shipmentsThisIteration;
+                    tickShipments = shipmentsThisIteration;
                     
                     // Remove fully assigned orders from pending queue
                     updatePendingOrders(tabuSolution, allOrders);
                 
-                // Build response manually (similar to TabuSimulationService)
-                TabuSimulationResponse response = new TabuSimulationResponse();
-                response.airports = TabuSolutionToDtoConverter.toAirportDtos(airports);
-
-                // Enrich airports with dynamic runtime data
-                enrichAirportData(response.airports, tabuSolution);
-                
-                // Convert simulated time to Instant for animation interpolation
-                java.time.Instant simulatedInstant = currentTime
-                    .atZone(java.time.ZoneId.systemDefault())
-                    .toInstant();
-                
-                // ✅ FIX: Generate itineraries from ALL accumulated shipments (not just new ones)
-                // Filter to show only active flights (not yet arrived)
-                java.util.List<pe.edu.pucp.morapack.algos.entities.PlannerShipment> activeShipments = new java.util.ArrayList<>();
-                for (pe.edu.pucp.morapack.algos.entities.PlannerShipment shipment : allShipments) {
-                    if (shipment.getFlights() != null && !shipment.getFlights().isEmpty()) {
-                        PlannerFlight lastFlight = shipment.getFlights().get(shipment.getFlights().size() - 1);
-                        if (lastFlight.getArrivalTime().isAfter(currentTime)) {
-                            activeShipments.add(shipment);
-                        }
-                    }
-                }
-                
-                TabuSolution accumulatedSolution = new TabuSolution();
-                accumulatedSolution.addAllPlannerShipments(activeShipments);
-                response.itineraries = TabuSolutionToDtoConverter.toItineraryDtos(accumulatedSolution, simulatedInstant);
-                System.out.println("   ✈️  Itinerarios generated: " + activeShipments.size() + " planes in flight (from " + allShipments.size() + " total shipments)");
-                
-                // 🔍 DEBUG: Ver estructura del primer itinerario
-                if (response.itineraries != null && response.itineraries.length > 0) {
-                    var firstItin = response.itineraries[0];
-                    System.out.println("   🔍 DEBUG Primer itinerario:");
-                    System.out.println("      ID: " + firstItin.id);
-                    System.out.println("      OrderID: " + firstItin.orderId);
-                    System.out.println("      Segmentos: " + (firstItin.segments != null ? firstItin.segments.length : 0));
-                    if (firstItin.segments != null && firstItin.segments.length > 0) {
-                        var firstSeg = firstItin.segments[0];
-                        System.out.println("      Primer segmento vuelo:");
-                        System.out.println("         codigo: " + firstSeg.flight.code);
-                        System.out.println("         salidaProgramadaISO: " + firstSeg.flight.scheduledDepartureISO);
-                        System.out.println("         llegadaProgramadaISO: " + firstSeg.flight.scheduledArrivalISO);
-                        System.out.println("         capacidad: " + firstSeg.flight.capacity);
-                    }
-                }
-                
-                // Add order tracking data
-                response.orders = buildOrderSummaries();
-                response.metrics = calculateOrderMetrics();
-                
-                // 🆕 Update flight status tracker
-                flightStatusTracker.updateFlightStatuses(
-                    java.util.Arrays.asList(response.itineraries), 
-                    currentTime
-                );
-                
-                // NOTE: response.meta not populated (algorithm doesn't expose costs)
-                // All relevant metrics already included in pedidos/metricas
-                allResults.add(response);
-                
-                // Send update to user
-                SimulationStatusUpdate update = SimulationStatusUpdate.running(
-                    iterationCount,
-                    totalExpectedIterations,
-                    currentTime
-                );
-                update.setCurrentSpeed(speedMultiplier);
-                update.setLatestResult(response);
-                sendStatusUpdate(update);
+                // DTOs y envío en la etapa de publicación, sobre una vista inmutable de este tick
+                publishTick(snapshotTick(tabuSolution, airports));
             }
             
         } else {
-            System.out.println("   Skipping iteration (no orders or flights)");
+            trace("   Skipping iteration (no orders or flights)");
             
             // IMPORTANT: Even without new data, we must:
             // 1. Update order statuses (IN_TRANSIT -> COMPLETED when flight arrives)
             // 2. Regenerate itinerarios with current simulated time (for plane positions)
-            TabuSimulationResponse response = new TabuSimulationResponse();
-            response.orders = buildOrderSummaries();
-            response.metrics = calculateOrderMetrics();
-            
-            // ✅ Regenerate itinerarios with CURRENT simulated time for proper plane positions
-            // Filter to show ONLY active shipments (flights still in transit, not arrived yet)
-            if (!allShipments.isEmpty()) {
-                java.time.Instant simulatedInstant = currentTime
-                    .atZone(java.time.ZoneId.systemDefault())
-                    .toInstant();
-                
-                // Filter: only shipments whose last flight hasn't arrived yet
-                java.util.List<pe.edu.pucp.morapack.algos.entities.PlannerShipment> activeShipments = new java.util.ArrayList<>();
-                for (pe.edu.pucp.morapack.algos.entities.PlannerShipment shipment : allShipments) {
-                    if (shipment.getFlights() != null && !shipment.getFlights().isEmpty()) {
-                        PlannerFlight lastFlight = shipment.getFlights().get(shipment.getFlights().size() - 1);
-                        // Keep if flight hasn't arrived yet
-                        if (lastFlight.getArrivalTime().isAfter(currentTime)) {
-                            activeShipments.add(shipment);
-                        }
-                    }
-                }
-                
-                System.out.println("   ℹ️  Active shipments: " + activeShipments.size() + " / " + allShipments.size() + " (filtered out arrived flights)");
-                
-                // Create solution with only active shipments
-                TabuSolution accumulatedSolution = new TabuSolution();
-                accumulatedSolution.addAllPlannerShipments(activeShipments);
-                
-                response.itineraries = TabuSolutionToDtoConverter.toItineraryDtos(accumulatedSolution, simulatedInstant);
-                System.out.println("   ✈️  Itinerarios generated: " + response.itineraries.length + " planes in flight");
-                
-                // 🔍 DEBUG: Ver estructura del primer itinerario
-                if (response.itineraries != null && response.itineraries.length > 0) {
-                    var firstItin = response.itineraries[0];
-                    System.out.println("   🔍 DEBUG Primer itinerario (no-data path):");
-                    System.out.println("      ID: " + firstItin.id);
-                    System.out.println("      OrderID: " + firstItin.orderId);
-                    System.out.println("      Segmentos: " + (firstItin.segments != null ? firstItin.segments.length : 0));
-                    if (firstItin.segments != null && firstItin.segments.length > 0) {
-                        var firstSeg = firstItin.segments[0];
-                        System.out.println("      Primer segmento vuelo:");
-                        System.out.println("         codigo: " + firstSeg.flight.code);
-                        System.out.println("         salidaProgramadaISO: " + firstSeg.flight.scheduledDepartureISO);
-                        System.out.println("         llegadaProgramadaISO: " + firstSeg.flight.scheduledArrivalISO);
-                        System.out.println("         capacidad: " + firstSeg.flight.capacity);
-                    }
-                }
-                
-                System.out.println("   📊 Sending to frontend: " + response.itineraries.length + " itinerarios, " + 
-                                 (response.orders != null ? response.orders.length : 0) + " orders");
-            } else {
-                response.itineraries = new pe.edu.pucp.morapack.dto.simulation.ItineraryDTO[0];
-                System.out.println("   ⚠️  No accumulated shipments, no itinerarios to show");
-            }
-            
-            // Send update with current state
-            SimulationStatusUpdate update = SimulationStatusUpdate.running(
-                iterationCount,
-                totalExpectedIterations,
-                currentTime
-            );
-            update.setCurrentSpeed(speedMultiplier);
-            update.setMessage("Iteration " + iterationCount + " (no data to process)");
-            update.setLatestResult(response);
-            sendStatusUpdate(update);
+            publishTick(snapshotTick(null, null));
         }
         
         // Advance simulation time
         LocalDateTime previousTime = currentTime;
         currentTime = windowEnd;
 
-        System.out.println("   ⏰ Time advanced: " + previousTime + " → " + currentTime);
+        trace("   ⏰ Time advanced: " + previousTime + " → " + currentTime);
 
         // 🔍 DEBUG: Total iteration time
         long iterationEndTime = System.currentTimeMillis();
         long totalIterationDuration = iterationEndTime - iterationStartTime;
-        System.out.println("   ⏱️ TOTAL iteration time: " + totalIterationDuration + "ms");
-        System.out.println("   ✅ Iteration completed, sending update to frontend");
+        trace("   ⏱️ TOTAL iteration time: " + totalIterationDuration + "ms");
+        // Sa es el ciclo completo en tiempo real: el tick más la pausa que le sigue
+        adjustCadence(lastTaMs, totalIterationDuration + interTickPauseMs());
+        if (batch) {
+            recordTick(windowStart, windowEnd, newOrders.size(), injectedOrders.size(), newCancellations.size(),
+                tickShipments, totalIterationDuration);
+        }
+        trace("   ✅ Iteration completed, sending update to frontend");
     }
 
     /**
@@ -645,6 +659,24 @@ public class SimulationSession implements Runnable {
     }
 
     private void applySpeedControlledDelay() throws InterruptedException {
+        long adjustedDelay = interTickPauseMs();
+
+        // 🔍 DEBUG: Log actual delay being applied
+        System.out.println("   ⏱️ Applying delay: " + adjustedDelay + "ms (speedMultiplier: " + speedMultiplier + "x)");
+
+        long delayStartTime = System.currentTimeMillis();
+        improveDuringDelay(adjustedDelay);
+        long delayEndTime = System.currentTimeMillis();
+        long actualDelayDuration = delayEndTime - delayStartTime;
+        System.out.println("   ⏱️ Actual delay duration: " + actualDelayDuration + "ms");
+    }
+
+    /**
+     * Pausa entre ticks según la velocidad (0 en modo headless, que no pausa)
+     */
+    private long interTickPauseMs() {
+        if (headless) return 0;
+
         // Base delay between iterations (in ms)
         // Reality check from measurements:
         // - TabuSearch at 1x: ~1300ms, at 2x: ~430ms
@@ -681,31 +713,634 @@ public class SimulationSession implements Runnable {
         }
 
         // Ensure minimum delay of 50ms
-        adjustedDelay = Math.max(50, adjustedDelay);
+        return Math.max(50, adjustedDelay);
+    }
+    
+    /**
+     * Optimiza con un planner del pool; con scheduler, el cómputo va a su pool de plataforma
+     * (cupo justo entre sesiones), el planner usa el cupo de hilos por tarea y este hilo solo espera
+     */
+    private Solution runPlanner(List<PlannerOrder> orders, List<PlannerFlight> flights, List<PlannerAirport> airports) {
+        SimulationScheduler current = scheduler;
+        int parallelism = current != null ? current.getTaskParallelism() : PlannerExecutors.defaultParallelism();
+        return runOnPlannerPool(() -> {
+            double plannerSpeed = speedMultiplier * cadence.getPlannerSpeedFactor();
+            try (OptimizerPool.Lease lease = OptimizerPool.shared().borrow(optimizerType, plannerSpeed, scenario.getType(),
+                                                                          parallelism, !batch, demandAggregation)) {
+                return lease.getOptimizer().optimize(orders, flights, airports);
+            }
+        });
+    }
 
-        // 🔍 DEBUG: Log actual delay being applied
-        System.out.println("   ⏱️ Applying delay: " + adjustedDelay + "ms (speedMultiplier: " + speedMultiplier + "x)");
+    private <T> T runOnPlannerPool(Callable<T> work) {
+        SimulationScheduler current = scheduler;
+        try {
+            return current != null ? current.runPlanner(sessionId, work) : work.call();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Planner interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) throw runtime;
+            throw new IllegalStateException("Planner failed: " + cause.getMessage(), cause);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Planner failed: " + e.getMessage(), e);
+        }
+    }
 
-        long delayStartTime = System.currentTimeMillis();
-        Thread.sleep(adjustedDelay);
-        long delayEndTime = System.currentTimeMillis();
-        long actualDelayDuration = delayEndTime - delayStartTime;
-        System.out.println("   ⏱️ Actual delay duration: " + actualDelayDuration + "ms");
+    // ========== IDLE-TIME IMPROVEMENT ==========
+
+    /**
+     * Usa la pausa entre ticks para mejorar la parte mutable de los shipments vigentes de todos
+     * los ticks (los que aún no salen) con LocalRepair.improve, con el plazo de la pausa como
+     * presupuesto. Las rutas mejoradas se aplican antes de que empiece el siguiente tick y se
+     * envían como actualización ligera del plan; luego se duerme lo que quede de la pausa.
+     */
+    private void improveDuringDelay(long delayMs) throws InterruptedException {
+        long delayEnd = System.nanoTime() + delayMs * 1_000_000;
+        TabuSolution plan = lastSolution;
+        long budgetMs = delayMs - IDLE_IMPROVEMENT_APPLY_MARGIN_MS;
+
+        if (plan != null && budgetMs >= IDLE_IMPROVEMENT_MIN_BUDGET_MS
+                && currentTime.isBefore(endTime) && !stopRequested.get()) {
+            List<PlannerFlight> horizon;
+            List<PlannerAirport> airports;
+            synchronized (onlineInsertionLock) {
+                horizon = horizonFlights();
+                airports = onlineAirports;
+            }
+            LocalDateTime now = currentTime;
+            List<PlannerShipment> committed = activeAccumulatedShipments();
+            long deadline = System.nanoTime() + budgetMs * 1_000_000;
+            try {
+                LocalRepair.ImprovementResult result = runOnPlannerPool(() -> new LocalRepair(horizon, airports)
+                    .improve(committed, now, deadline, () -> stopRequested.get() || pauseRequested.get()));
+                applyImprovement(plan, result);
+            } catch (IllegalStateException e) {
+                if (Thread.interrupted()) throw new InterruptedException("Idle improvement interrupted");
+                System.err.println("   ⚠️ Idle improvement failed: " + e.getMessage());
+            }
+        }
+
+        long remainingMs = (delayEnd - System.nanoTime()) / 1_000_000;
+        if (remainingMs > 0) {
+            Thread.sleep(remainingMs);
+        }
     }
-    
+
+    /**
+     * Aplica las rutas mejoradas (si el plan sigue vigente) y publica los itinerarios cambiados.
+     * Los shipments del plan se editan en su copia propia; los de ticks anteriores, en una copia
+     * nueva que reemplaza al acumulado.
+     */
+    private void applyImprovement(TabuSolution plan, LocalRepair.ImprovementResult result) {
+        System.out.println("   🌱 Idle improvement: " + result.getMoves() + " move(s) over " +
+                         result.getMutableShipments() + " mutable shipment(s), penalty " +
+                         String.format("%.0f", result.getPenaltyBefore()) + " -> " +
+                         String.format("%.0f", result.getPenaltyAfter()) + " (" + result.getPasses() + " pass(es), " +
+                         (result.isConverged() ? "converged" : "budget exhausted") + ", " +
+                         (result.getElapsedMicros() / 1000) + " ms)");
+        if (result.getReroutes().isEmpty() || plan != lastSolution) return;
+
+        // La etapa de publicación puede estar leyendo estos shipments
+        awaitPublishing();
+
+        List<PlannerShipment> changed = new ArrayList<>();
+        java.util.Map<PlannerShipment, PlannerShipment> copies = new java.util.IdentityHashMap<>();
+        for (java.util.Map.Entry<PlannerShipment, Route> reroute : result.getReroutes().entrySet()) {
+            PlannerShipment original = reroute.getKey();
+            PlannerShipment owned = plan.editPlannerShipment(original);
+            if (owned == null) owned = new PlannerShipment(original);
+            owned.setFlights(reroute.getValue().getFlights());
+            if (owned != original) copies.put(original, owned);
+            changed.add(owned);
+        }
+        replaceAccumulatedShipments(copies);
+        publishCommittedPlan();
+        if (changed.isEmpty()) return;
+
+        TabuSolution changedPlan = new TabuSolution();
+        changedPlan.addAllPlannerShipments(changed);
+        PlanUpdateDTO update = new PlanUpdateDTO();
+        update.iteration = iterationCount;
+        update.simulatedTime = currentTime.toString();
+        update.movedShipments = changed.size();
+        update.penaltyBefore = result.getPenaltyBefore();
+        update.penaltyAfter = result.getPenaltyAfter();
+        update.itineraries = TabuSolutionToDtoConverter.toItineraryDtos(changedPlan,
+            currentTime.atZone(java.time.ZoneId.systemDefault()).toInstant());
+        try {
+            publisher.send("/topic/simulation/" + sessionId + "/plan", update);
+        } catch (Exception e) {
+            System.err.println("[SimulationSession] ❌ Error sending plan update: " + e.getMessage());
+        }
+    }
+
+    // ========== EVENT-DRIVEN ADVANCE ==========
+
+    /**
+     * Calendario inicial: llegada de cada pedido del horizonte. Los demás eventos (salidas y
+     * llegadas de los shipments planificados, vencimientos de pedidos pendientes, inyecciones,
+     * cancelaciones y vuelos útiles para pendientes) se agregan a medida que aparecen.
+     */
+    private void seedEventCalendar() {
+        eventCalendar = new EventCalendar(cadence.getScMinutes());
+        List<PlannerOrder> orders = dataProvider.getOrders(startTime, endTime);
+        for (PlannerOrder order : orders) {
+            if (order.getOrderTime() != null) {
+                eventCalendar.add(EventCalendar.EventType.ORDER_ARRIVAL, order.getOrderTime(), "order " + order.getId());
+            }
+        }
+        System.out.println("   📅 Event calendar seeded with " + orders.size() + " order arrival(s)");
+    }
+
+    private void scheduleDeadlines(List<PlannerOrder> orders) {
+        for (PlannerOrder order : orders) {
+            if (order.getOrderTime() == null) continue;
+            eventCalendar.add(EventCalendar.EventType.DEADLINE,
+                order.getOrderTime().plusHours(order.getMaxDeliveryHours()), "order " + order.getId());
+        }
+    }
+
+    private void scheduleShipmentEvents(List<PlannerShipment> shipments) {
+        for (PlannerShipment shipment : shipments) {
+            Route route = shipment.getRoute();
+            if (route.isEmpty()) continue;
+            eventCalendar.add(EventCalendar.EventType.FLIGHT_DEPARTURE, route.getDepartureTime(), "shipment " + shipment.getId());
+            eventCalendar.add(EventCalendar.EventType.FLIGHT_ARRIVAL, route.getArrivalTime(), "shipment " + shipment.getId());
+        }
+    }
+
+    /**
+     * Avance de evento en evento: descarta lo anterior a currentTime (ya lo cubrieron los ticks
+     * corridos, incluida la última ventana completa) y, si el próximo
+     * evento es posterior al inicio de la siguiente ventana, salta hasta él (o al final si no
+     * quedan eventos). Las ventanas salteadas no tienen pedidos, cancelaciones ni inyecciones,
+     * ni vuelos que cambien algo del plan; no se reconstruyen DTOs ni se planifica en ellas.
+     */
+    private void advanceToNextEvent() {
+        if (!currentTime.isBefore(endTime)) return;
+        eventCalendar.discardBefore(currentTime);
+        scheduleExternalEvents();
+
+        EventCalendar.Event next = eventCalendar.peek();
+        LocalDateTime target = next == null || next.getTime().isAfter(endTime) ? endTime : next.getTime();
+        if (!target.isAfter(currentTime)) return;
+
+        long skippedMinutes = java.time.Duration.between(currentTime, target).toMinutes();
+        skippedWindows += (int) (skippedMinutes / cadence.getScMinutes());
+        trace("   ⏭️ No events until " + target + (next != null ? " (" + next + ")" : " (end)") +
+                         ": skipping " + skippedMinutes + " min");
+        currentTime = target;
+
+        long remainingMinutes = java.time.Duration.between(currentTime, endTime).toMinutes();
+        totalExpectedIterations = iterationCount + (int) Math.ceil((double) remainingMinutes / cadence.getScMinutes());
+    }
+
+    /**
+     * Próxima inyección, próxima cancelación y próximo vuelo que sale del origen de un pedido
+     * pendiente (oportunidad de asignarlo); pueden cambiar entre ticks, se consultan al decidir
+     */
+    private void scheduleExternalEvents() {
+        LocalDateTime now = currentTime;
+
+        // Las colas por hora de los servicios dan el próximo pendiente desde ahora en O(log n); los
+        // pendientes vencidos no lo ocultan (el siguiente tick los procesa igual)
+        LocalDateTime nextInjection = dynamicOrderService.getNextInjectionTime(now);
+        if (nextInjection != null) {
+            eventCalendar.add(EventCalendar.EventType.DYNAMIC_INJECTION, nextInjection, null);
+        }
+
+        if (scenario.getType() != ScenarioConfig.ScenarioType.COLLAPSE) {
+            LocalDateTime nextCancellation = cancellationService.getNextCancellationTime(now);
+            if (nextCancellation != null) {
+                eventCalendar.add(EventCalendar.EventType.CANCELLATION, nextCancellation, null);
+            }
+        }
+
+        if (!pendingOrders.isEmpty()) {
+            Set<String> origins = new java.util.HashSet<>();
+            for (PlannerOrder order : pendingOrders) {
+                if (order.getOrigin() != null) origins.add(order.getOrigin().getCode());
+            }
+            List<PlannerFlight> horizon;
+            synchronized (onlineInsertionLock) {
+                horizon = horizonFlights();
+            }
+            horizon.stream()
+                .filter(flight -> flight.getDepartureTime().isAfter(now) && origins.contains(flight.getOrigin().getCode()))
+                .map(PlannerFlight::getDepartureTime)
+                .min(LocalDateTime::compareTo)
+                .ifPresent(time -> eventCalendar.add(EventCalendar.EventType.FLIGHT_DEPARTURE, time, "for pending orders"));
+        }
+    }
+
+    /**
+     * Modo headless (sin UI): avance de evento en evento en lugar de ventanas fijas con pausa;
+     * llamar antes de arrancar la sesión
+     */
+    public void setHeadless(boolean headless) {
+        this.headless = headless;
+    }
+
+    public boolean isHeadless() {
+        return headless;
+    }
+
+    // ========== BATCH MODE ==========
+
+    /**
+     * Modo batch: headless, sin DTOs de UI ni logs por tick (tampoco los del planner, que se pide
+     * al pool sin logs), con una línea de progreso cada reportingIntervalTicks ticks (0 = sin
+     * progreso); llamar antes de arrancar la sesión
+     */
+    void configureBatch(int reportingIntervalTicks) {
+        this.batch = true;
+        this.headless = true;
+        this.reportingIntervalTicks = Math.max(0, reportingIntervalTicks);
+    }
+
+    public boolean isBatch() {
+        return batch;
+    }
+
+    /**
+     * Métricas de cada tick corrido (solo en modo batch)
+     */
+    public List<TickMetrics> getTickMetrics() {
+        synchronized (tickMetrics) {
+            return new ArrayList<>(tickMetrics);
+        }
+    }
+
+    public int getSkippedWindows() {
+        return skippedWindows;
+    }
+
+    private void recordTick(LocalDateTime windowStart, LocalDateTime windowEnd, int newOrders, int injectedOrders,
+                            int cancellations, int shipments, long tickMs) {
+        TickMetrics metrics = new TickMetrics(iterationCount, windowStart, windowEnd, newOrders, injectedOrders,
+            cancellations, pendingOrders.size(), shipments, allShipments.size(), lastTaMs, tickMs,
+            cadence.getK(), cadence.getPlannerSpeedFactor());
+        synchronized (tickMetrics) {
+            tickMetrics.add(metrics);
+        }
+        if (reportingIntervalTicks > 0 && iterationCount % reportingIntervalTicks == 0) {
+            System.out.println("[SimulationSession] " + sessionId + " batch: tick " + iterationCount +
+                             " @ " + windowEnd + ", pending " + pendingOrders.size() +
+                             ", shipments " + allShipments.size() + ", avg Ta " +
+                             Math.round(cadence.getAverageTaMs()) + "ms, skipped windows " + skippedWindows);
+        }
+    }
+
+    // Logs por tick: se omiten en modo batch
+    private void trace(String message) {
+        if (!batch) {
+            System.out.println(message);
+        }
+    }
+
+    // ========== CADENCE ==========
+
+    /**
+     * Registra Ta y la duración del tick (con su pausa) en el controlador de cadencia y aplica su decisión:
+     * el nuevo K cambia Sc desde el siguiente tick (y las iteraciones esperadas); un escenario
+     * no sostenible se informa al usuario.
+     */
+    private void adjustCadence(long taMs, long tickMs) {
+        long targetTickMs = Math.max(1, (long) (cadenceTargetTickMs / speedMultiplier));
+        int previousK = cadence.getK();
+        CadenceController.Decision decision = cadence.record(iterationCount, currentTime, taMs, tickMs, targetTickMs);
+        if (decision == CadenceController.Decision.STEADY) return;
+
+        System.out.println("   🎚️ Cadence: " + decision + " (Ta avg " + Math.round(cadence.getAverageTaMs()) +
+                         " ms, tick avg " + Math.round(cadence.getAverageTickMs()) + " ms, Sa " + targetTickMs +
+                         " ms × K/K0) → K=" + cadence.getK() + ", Sc=" + cadence.getScMinutes() +
+                         " min, planner speed x" + cadence.getPlannerSpeedFactor());
+
+        if (cadence.getK() != previousK) {
+            long remainingMinutes = java.time.Duration.between(currentTime, endTime).toMinutes();
+            totalExpectedIterations = iterationCount + (int) Math.ceil((double) remainingMinutes / cadence.getScMinutes());
+        }
+
+        if (decision == CadenceController.Decision.UNSUSTAINABLE || decision == CadenceController.Decision.SUSTAINABLE_AGAIN) {
+            SimulationStatusUpdate update = SimulationStatusUpdate.running(iterationCount, totalExpectedIterations, currentTime);
+            update.setCurrentSpeed(speedMultiplier);
+            update.setMessage(decision == CadenceController.Decision.UNSUSTAINABLE
+                ? "Scenario cannot be sustained: ticks take " + Math.round(cadence.getAverageTickMs()) +
+                  " ms with the minimum planner budget (Sa " + targetTickMs + " ms, K=" + cadence.getK() + ")"
+                : "Scenario sustainable again (K=" + cadence.getK() + ")");
+            attachCadence(update);
+            awaitPublishing();  // Después de la actualización del tick
+            sendStatusUpdate(update);
+        }
+    }
+
+    private void attachCadence(SimulationStatusUpdate update) {
+        update.setCurrentK(cadence.getK());
+        update.setAverageTaMs(Math.round(cadence.getAverageTaMs()));
+        update.setSustainable(cadence.isSustainable());
+    }
+
+    /**
+     * Objetivo de duración del tick (Sa en tiempo real a 1x) y si el controlador puede subir K;
+     * llamar antes de arrancar la sesión
+     */
+    void configureCadence(long targetTickMs, boolean adjustK) {
+        this.cadenceTargetTickMs = Math.max(1, targetTickMs);
+        this.cadence = CadenceController.forScenario(scenario, adjustK);
+    }
+
+    /**
+     * Agrupa pedidos compatibles antes de optimizar (simulation.planner.demand-aggregation);
+     * llamar antes de arrancar la sesión
+     */
+    void configureDemandAggregation(boolean enabled) {
+        this.demandAggregation = enabled;
+    }
+
+    public CadenceController getCadence() {
+        return cadence;
+    }
+
+    void attachScheduler(SimulationScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * La sesión espera cupo en el planificador; 'position' 1 = la siguiente en arrancar
+     */
+    void markQueued(int position) {
+        if (stopRequested.get()) return;
+        state.set(SimulationState.QUEUED);
+        sendStatusUpdate(SimulationStatusUpdate.queued(position));
+    }
+
+    public boolean isStopRequested() {
+        return stopRequested.get();
+    }
+
+    // ========== PIPELINE ==========
+
+    /**
+     * Datos de una ventana (vuelos y pedidos nuevos)
+     */
+    private static final class WindowData {
+        private final List<PlannerFlight> flights;
+        private final List<PlannerOrder> orders;
+
+        private WindowData(List<PlannerFlight> flights, List<PlannerOrder> orders) {
+            this.flights = flights;
+            this.orders = orders;
+        }
+    }
+
+    /**
+     * Vista inmutable de un tick para la etapa de publicación: copias del estado que leen los
+     * DTOs, así el tick siguiente puede modificar el estado de la sesión mientras se publica.
+     * La solución es una copia copy-on-write: las ediciones posteriores del plan vigente
+     * (replanificación, mejora en la pausa) copian sus shipments y no tocan los de la vista.
+     */
+    private static final class TickView {
+        private final int iteration;
+        private final int totalIterations;
+        private final LocalDateTime time;
+        private final double speed;
+        private final TabuSolution solution;          // null si el tick no tuvo datos
+        private final List<PlannerAirport> airports;  // null si el tick no tuvo datos
+        private final List<PlannerShipment> shipments;
+        private final List<PlannerOrder> pendingOrders;
+        private final Set<PlannerOrder> pendingSet;
+        private final List<PlannerOrder> orders;
+        private final java.util.Map<Integer, Integer> assignedPerOrder;
+
+        private TickView(int iteration, int totalIterations, LocalDateTime time, double speed,
+                         TabuSolution solution, List<PlannerAirport> airports,
+                         List<PlannerShipment> shipments, List<PlannerOrder> pendingOrders,
+                         List<PlannerOrder> orders, java.util.Map<Integer, Integer> assignedPerOrder) {
+            this.iteration = iteration;
+            this.totalIterations = totalIterations;
+            this.time = time;
+            this.speed = speed;
+            this.solution = solution != null ? new TabuSolution(solution) : null;
+            this.airports = airports;
+            this.shipments = List.copyOf(shipments);
+            this.pendingOrders = List.copyOf(pendingOrders);
+            this.pendingSet = new java.util.HashSet<>(pendingOrders);
+            this.orders = List.copyOf(orders);
+            this.assignedPerOrder = java.util.Map.copyOf(assignedPerOrder);
+        }
+
+        private boolean hasData() {
+            return solution != null;
+        }
+    }
+
+    /**
+     * Toma los datos de la ventana: los precargados si corresponden a ella, si no los consulta
+     */
+    private WindowData takeWindowData(LocalDateTime windowStart, LocalDateTime windowEnd) {
+        CompletableFuture<WindowData> prefetched = prefetchedWindow;
+        boolean matches = prefetched != null && windowStart.equals(prefetchedWindowStart)
+            && windowEnd.equals(prefetchedWindowEnd);  // K pudo cambiar desde la precarga
+        prefetchedWindow = null;
+        prefetchedWindowStart = null;
+        prefetchedWindowEnd = null;
+        if (matches) {
+            try {
+                return prefetched.join();
+            } catch (RuntimeException e) {
+                System.err.println("   ⚠️ Prefetch failed (" + e.getMessage() + "), fetching window again");
+            }
+        }
+        return fetchWindowData(windowStart, windowEnd);
+    }
+
+    /**
+     * Consulta en segundo plano la ventana que empieza en 'nextStart' (mientras este tick planifica)
+     */
+    private void prefetchWindowData(LocalDateTime nextStart) {
+        if (!nextStart.isBefore(endTime)) return;
+        LocalDateTime nextEnd = nextStart.plusMinutes(cadence.getScMinutes());
+        LocalDateTime boundedEnd = nextEnd.isAfter(endTime) ? endTime : nextEnd;
+        prefetchedWindowStart = nextStart;
+        prefetchedWindowEnd = boundedEnd;
+        prefetchedWindow = CompletableFuture.supplyAsync(() -> fetchWindowData(nextStart, boundedEnd), pipelineStages);
+    }
+
+    private WindowData fetchWindowData(LocalDateTime windowStart, LocalDateTime windowEnd) {
+        return new WindowData(
+            dataProvider.getFlights(windowStart, windowEnd),
+            dataProvider.getOrders(windowStart, windowEnd));
+    }
+
+    private TickView snapshotTick(TabuSolution solution, List<PlannerAirport> airports) {
+        return new TickView(iterationCount, totalExpectedIterations, currentTime, speedMultiplier,
+            solution, airports, allShipments, pendingOrders,
+            new ArrayList<>(allProcessedOrdersMap.values()), totalAssignedPerOrder);
+    }
+
+    /**
+     * Entrega el tick a la etapa de publicación. Espera a que termine la publicación anterior
+     * (profundidad 1): los envíos salen en orden y la cola no crece si publicar es más lento.
+     */
+    private void publishTick(TickView view) {
+        awaitPublishing();
+        publishing = CompletableFuture.runAsync(() -> publish(view), pipelineStages)
+            .exceptionally(e -> {
+                System.err.println("[SimulationSession] ❌ Publishing iteration " + view.iteration + " failed: " + e.getMessage());
+                return null;
+            });
+    }
+
+    private void awaitPublishing() {
+        publishing.join();
+    }
+
+    /**
+     * Publicación en modo batch: sin DTOs de aeropuertos, pedidos ni métricas ni envío. Solo se
+     * mantiene el tracker de vuelos al día (la ejecución de cancelaciones lo consulta); en
+     * COLLAPSE no hay cancelaciones y no se hace nada.
+     */
+    private void publishBatch(TickView view) {
+        if (scenario.getType() == ScenarioConfig.ScenarioType.COLLAPSE || view.shipments.isEmpty()) return;
+        flightStatusTracker.updateFlightStatuses(java.util.Arrays.asList(buildItineraries(view)), view.time);
+    }
+
+    /**
+     * Etapa de publicación: DTOs, enriquecimiento, resúmenes, tracker de vuelos y envío STOMP.
+     * Aeropuertos e itinerarios se construyen en paralelo; los resúmenes de pedidos, cuando
+     * los aeropuertos ya marcaron los pedidos completados. Todas las subtareas terminan (o
+     * fallan) antes de que termine la etapa.
+     */
+    private void publish(TickView view) {
+        if (batch) {
+            publishBatch(view);
+            return;
+        }
+        long publishStart = System.currentTimeMillis();
+        TabuSimulationResponse response = new TabuSimulationResponse();
+
+        try (ExecutorService subtasks = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<pe.edu.pucp.morapack.dto.simulation.AirportDTO[]> airportsTask = subtasks.submit(() -> {
+                if (!view.hasData()) return null;
+                var airportDtos = TabuSolutionToDtoConverter.toAirportDtos(view.airports);
+                // Enrich airports with dynamic runtime data
+                enrichAirportData(airportDtos, view.solution, view);
+                return airportDtos;
+            });
+            Future<pe.edu.pucp.morapack.dto.simulation.ItineraryDTO[]> itinerariesTask = subtasks.submit(() -> buildItineraries(view));
+
+            response.airports = airportsTask.get();
+            Future<pe.edu.pucp.morapack.dto.simulation.OrderSummaryDTO[]> ordersTask = subtasks.submit(() -> buildOrderSummaries(view));
+            Future<pe.edu.pucp.morapack.dto.simulation.OrderMetricsDTO> metricsTask = subtasks.submit(() -> calculateOrderMetrics(view));
+
+            response.itineraries = itinerariesTask.get();
+            response.orders = ordersTask.get();
+            response.metrics = metricsTask.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to build iteration " + view.iteration + ": " + e.getCause().getMessage(), e.getCause());
+        }
+
+        SimulationStatusUpdate update = SimulationStatusUpdate.running(
+            view.iteration,
+            view.totalIterations,
+            view.time
+        );
+        update.setCurrentSpeed(view.speed);
+        update.setLatestResult(response);
+        attachCadence(update);
+
+        if (view.hasData()) {
+            // 🆕 Update flight status tracker
+            flightStatusTracker.updateFlightStatuses(
+                java.util.Arrays.asList(response.itineraries),
+                view.time
+            );
+
+            // NOTE: response.meta not populated (algorithm doesn't expose costs)
+            // All relevant metrics already included in pedidos/metricas
+            allResults.add(response);
+        } else {
+            trace("   📊 Sending to frontend: " + response.itineraries.length + " itinerarios, " +
+                             (response.orders != null ? response.orders.length : 0) + " orders");
+            update.setMessage("Iteration " + view.iteration + " (no data to process)");
+        }
+
+        // Send update to user
+        sendStatusUpdate(update);
+        trace("   ⏱️ Publish stage (iteration " + view.iteration + "): " +
+                         (System.currentTimeMillis() - publishStart) + "ms");
+    }
+
+    /**
+     * Itinerarios de TODOS los shipments acumulados que aún no llegan (posiciones de aviones
+     * con el tiempo simulado del tick)
+     */
+    private pe.edu.pucp.morapack.dto.simulation.ItineraryDTO[] buildItineraries(TickView view) {
+        if (view.shipments.isEmpty()) {
+            trace("   ⚠️  No accumulated shipments, no itinerarios to show");
+            return new pe.edu.pucp.morapack.dto.simulation.ItineraryDTO[0];
+        }
+
+        // Convert simulated time to Instant for animation interpolation
+        java.time.Instant simulatedInstant = view.time
+            .atZone(java.time.ZoneId.systemDefault())
+            .toInstant();
+
+        // Filter: only shipments whose last flight hasn't arrived yet
+        List<PlannerShipment> activeShipments = new ArrayList<>();
+        for (PlannerShipment shipment : view.shipments) {
+            if (shipment.getFlights() != null && !shipment.getFlights().isEmpty()) {
+                PlannerFlight lastFlight = shipment.getFlights().get(shipment.getFlights().size() - 1);
+                if (lastFlight.getArrivalTime().isAfter(view.time)) {
+                    activeShipments.add(shipment);
+                }
+            }
+        }
+
+        TabuSolution accumulatedSolution = new TabuSolution();
+        accumulatedSolution.addAllPlannerShipments(activeShipments);
+        var itineraries = TabuSolutionToDtoConverter.toItineraryDtos(accumulatedSolution, simulatedInstant);
+        trace("   ✈️  Itinerarios generated: " + activeShipments.size() + " planes in flight (from " + view.shipments.size() + " total shipments)");
+
+        // 🔍 DEBUG: Ver estructura del primer itinerario
+        if (itineraries != null && itineraries.length > 0) {
+            var firstItin = itineraries[0];
+            trace("   🔍 DEBUG Primer itinerario" + (view.hasData() ? "" : " (no-data path)") + ":");
+            trace("      ID: " + firstItin.id);
+            trace("      OrderID: " + firstItin.orderId);
+            trace("      Segmentos: " + (firstItin.segments != null ? firstItin.segments.length : 0));
+            if (firstItin.segments != null && firstItin.segments.length > 0) {
+                var firstSeg = firstItin.segments[0];
+                trace("      Primer segmento vuelo:");
+                trace("         codigo: " + firstSeg.flight.code);
+                trace("         salidaProgramadaISO: " + firstSeg.flight.scheduledDepartureISO);
+                trace("         llegadaProgramadaISO: " + firstSeg.flight.scheduledArrivalISO);
+                trace("         capacidad: " + firstSeg.flight.capacity);
+            }
+        }
+        return itineraries;
+    }
+
     private void sendStatusUpdate(SimulationStatusUpdate update) {
         try {
-            System.out.println("Sending update to session '" + sessionId + "': " + update.getState() + 
+            trace("Sending update to session '" + sessionId + "': " + update.getState() + 
                              " (iter " + update.getCurrentIteration() + "/" + update.getTotalIterations() + ")");
             
             // Send to specific session topic
             // Each session has its own topic: /topic/simulation/{sessionId}
-            messagingTemplate.convertAndSend(
+            publisher.send(
                 "/topic/simulation/" + sessionId,
                 update
             );
             
-            System.out.println("   ✅ Update sent to /topic/simulation/" + sessionId);
+            trace("   ✅ Update sent to /topic/simulation/" + sessionId);
         } catch (Exception e) {
             System.err.println("[SimulationSession] ❌ Error sending update: " + e.getMessage());
             e.printStackTrace();
@@ -743,7 +1378,7 @@ public class SimulationSession implements Runnable {
         }
         
         if (removedCount > 0 || !assignedPerOrder.isEmpty()) {
-            System.out.println(String.format("   ✅ Order queue updated: %d fully assigned removed, %d still pending",
+            trace(String.format("   ✅ Order queue updated: %d fully assigned removed, %d still pending",
                    removedCount, pendingOrders.size()));
         }
     }
@@ -762,7 +1397,8 @@ public class SimulationSession implements Runnable {
      */
     private void enrichAirportData(
             pe.edu.pucp.morapack.dto.simulation.AirportDTO[] airportDtos,
-            TabuSolution solution) {
+            TabuSolution solution,
+            TickView view) {
         
         if (airportDtos == null) return;
         
@@ -777,7 +1413,7 @@ public class SimulationSession implements Runnable {
         }
         
         // 1. Calculate pending orders per airport (origin) - these are ON GROUND
-        for (PlannerOrder order : pendingOrders) {
+        for (PlannerOrder order : view.pendingOrders) {
             String originCode = order.getOrigin().getCode();
             var dto = airportMap.get(originCode);
             if (dto != null) {
@@ -820,14 +1456,14 @@ public class SimulationSession implements Runnable {
                         destDto.activeFlightsTo++;
 
                         // Products are IN TRANSIT if flight hasn't arrived yet
-                        if (currentTime.isBefore(flight.getArrivalTime())) {
+                        if (view.time.isBefore(flight.getArrivalTime())) {
                             productsInTransit.put(destCode,
                                 productsInTransit.getOrDefault(destCode, 0) + shipment.getQuantity());
                         }
 
                         // If this is the last flight and it has arrived, products are at destination
                         if (i == shipment.getFlights().size() - 1 &&
-                            currentTime.isAfter(flight.getArrivalTime()) &&
+                            view.time.isAfter(flight.getArrivalTime()) &&
                             !completedOrderIds.contains(shipment.getOrder().getId())) {
                             productsArrived.put(destCode,
                                 productsArrived.getOrDefault(destCode, 0) + shipment.getQuantity());
@@ -836,7 +1472,7 @@ public class SimulationSession implements Runnable {
                     }
 
                     // Track flight at origin airport (before departure)
-                    if (currentTime.isBefore(flight.getDepartureTime())) {
+                    if (view.time.isBefore(flight.getDepartureTime())) {
                         if (originDto != null && !originDto.groundedFlights.contains(flight.getCode())) {
                             originDto.groundedFlights.add(flight.getCode());
                         }
@@ -931,38 +1567,103 @@ public class SimulationSession implements Runnable {
             List<PlannerOrder> allOrders,
             List<PlannerFlight> availableFlights) {
         
-        System.out.println("   🔄 REPLANIFICATION triggered for " + cancellations.size() + " cancellation(s)");
+        trace("   🔄 REPLANIFICATION triggered for " + cancellations.size() + " cancellation(s)");
+
+        // La replanificación modifica lastSolution: que termine antes la publicación del tick anterior
+        awaitPublishing();
         
         // Get airports
         List<PlannerAirport> airports = new ArrayList<>(dataProvider.getAirports());
-        
-        // Trigger replanification for each cancellation
-        for (FlightCancellation cancellation : cancellations) {
-            try {
-                ReplanificationTask task = replanificationService.triggerReplanification(
-                    cancellation,
-                    lastSolution,
-                    allOrders,
-                    availableFlights,
-                    airports,
-                    currentTime
-                );
-                
-                if (task != null) {
-                    int affectedCount = task.getAffectedOrderIds() != null ? 
-                        task.getAffectedOrderIds().size() : 0;
-                    System.out.println("      ✅ Replanification task " + task.getId() + " - " + 
-                                     task.getStatus() + " (" + affectedCount + " affected orders)");
-                } else {
-                    System.out.println("      ⚠️ No replanification needed (no affected orders)");
-                }
-            } catch (Exception e) {
-                System.err.println("      ❌ Replanification failed: " + e.getMessage());
-                e.printStackTrace();
+
+        // La reparación local busca tramos nuevos en todo el horizonte de entrega, no solo en la ventana
+        List<PlannerFlight> repairFlights = new ArrayList<>(availableFlights);
+        synchronized (onlineInsertionLock) {
+            Set<PlannerFlight> known = new java.util.HashSet<>(repairFlights);
+            for (PlannerFlight flight : horizonFlights()) {
+                if (known.add(flight)) repairFlights.add(flight);
+            }
+        }
+
+        // La replanificación solo edita y agrega shipments: los nuevos quedan al final del plan
+        int planSizeBefore = lastSolution.getPlannerShipments().size();
+
+        // Todas las cancelaciones del tick se resuelven en un solo trabajo de replanificación,
+        // sobre los shipments vigentes de todos los ticks (no solo los del último plan)
+        try {
+            java.util.Map<PlannerShipment, PlannerShipment> copies = new java.util.IdentityHashMap<>();
+            List<ReplanificationTask> tasks = replanificationService.triggerBatchReplanification(
+                cancellations,
+                lastSolution,
+                activeAccumulatedShipments(),
+                allOrders,
+                repairFlights,
+                airports,
+                currentTime,
+                copies
+            );
+
+            for (ReplanificationTask task : tasks) {
+                int affectedCount = task.getAffectedOrderIds() != null ?
+                    task.getAffectedOrderIds().size() : 0;
+                trace("      ✅ Replanification task " + task.getId() + " - " +
+                                 task.getStatus() + " (" + affectedCount + " affected orders)");
+            }
+
+            // Los shipments marcados CANCELLED son copias: reemplazar los acumulados y acumular los nuevos
+            replaceAccumulatedShipments(copies);
+            List<PlannerShipment> after = lastSolution.getPlannerShipments();
+            if (after.size() > planSizeBefore) {
+                List<PlannerShipment> repaired = new ArrayList<>(after.subList(planSizeBefore, after.size()));
+                allShipments.addAll(repaired);
+                if (eventCalendar != null) scheduleShipmentEvents(repaired);
             }
+        } catch (Exception e) {
+            System.err.println("      ❌ Replanification failed: " + e.getMessage());
+            e.printStackTrace();
         }
+        publishCommittedPlan();
+    }
+
+    /**
+     * Publica una copia copy-on-write de lastSolution y los shipments acumulados activos para
+     * insertUrgentOrder (hilos HTTP). Solo desde el hilo de la sesión, después de cada cambio de
+     * lastSolution o de allShipments: la copia comparte los bloques y, como lastSolution copia
+     * sus bloques antes de volver a escribirlos, los shipments de la instantánea ya no se
+     * modifican (los de ticks anteriores se reemplazan por copias, ver replaceAccumulatedShipments).
+     */
+    private void publishCommittedPlan() {
+        TabuSolution plan = lastSolution;
+        committedPlan = plan != null ? new TabuSolution(plan) : null;
+        committedShipments = List.copyOf(activeAccumulatedShipments());
+    }
+
+    /**
+     * Shipments de todos los ticks que todavía ocupan capacidad: activos y sin llegar a destino.
+     * lastSolution está incluida (sus shipments se acumulan en allShipments).
+     */
+    private List<PlannerShipment> activeAccumulatedShipments() {
+        List<PlannerShipment> active = new ArrayList<>();
+        for (PlannerShipment shipment : allShipments) {
+            LocalDateTime arrival = shipment.getFinalArrivalTime();
+            if (shipment.isActive() && arrival != null && arrival.isAfter(currentTime)) {
+                active.add(shipment);
+            }
+        }
+        return active;
     }
     
+    /**
+     * Reemplaza en allShipments los shipments por las copias propias que el plan hizo al
+     * editarlos (editPlannerShipment), para que la UI y el reporte vean el cambio
+     */
+    private void replaceAccumulatedShipments(java.util.Map<PlannerShipment, PlannerShipment> copies) {
+        if (copies.isEmpty()) return;
+        for (int i = 0; i < allShipments.size(); i++) {
+            PlannerShipment owned = copies.get(allShipments.get(i));
+            if (owned != null) allShipments.set(i, owned);
+        }
+    }
+
     /**
      * Get the current simulation time.
      * Used by external services to synchronize with simulation progress.
@@ -973,6 +1674,80 @@ public class SimulationSession implements Runnable {
         return currentTime;
     }
 
+    /**
+     * Inserta un pedido urgente en el plan vigente y responde de inmediato con su ETA.
+     *
+     * Usa OnlineInsertion sobre los shipments activos de todos los ticks que aún no llegan más
+     * las inserciones previas aún no optimizadas (todos ocupan capacidad). El pedido queda en cola y el siguiente tick lo incluye en la
+     * optimización completa, que reemplaza los shipments provisionales.
+     * Puede llamarse desde cualquier hilo; las inserciones se serializan entre sí pero no
+     * esperan al tick en curso (leen la última instantánea publicada del plan).
+     */
+    public OnlineInsertion.InsertionResult insertUrgentOrder(PlannerOrder order) {
+        OnlineInsertion.InsertionResult result;
+        synchronized (onlineInsertionLock) {
+            List<PlannerFlight> horizon = horizonFlights();
+
+            // allShipments puede estar cambiando en el hilo de la sesión: se usa la instantánea
+            List<PlannerShipment> committed = new ArrayList<>(committedShipments);
+            committed.addAll(onlineShipments);
+
+            result = new OnlineInsertion(horizon, onlineAirports)
+                .insert(order, committed, onlineShipmentIds::getAndDecrement);
+            onlineShipments.addAll(result.getShipments());
+            onlineOrders.add(order);
+        }
+
+        System.out.println("[ONLINE] Order " + order.getId() + " (" + order.getTotalQuantity() + " units): " +
+                         result.getAssignedQuantity() + " assigned in " + result.getShipments().size() +
+                         " shipment(s), ETA " + result.getEta() + ", " + result.getCandidatesEvaluated() +
+                         " candidates, " + (result.getElapsedMicros() / 1000.0) + " ms");
+        return result;
+    }
+
+    /**
+     * Vuelos desde ahora hasta el plazo máximo de un pedido, sin cancelados.
+     * Se recalcula una vez por tick; llamar con onlineInsertionLock tomado.
+     */
+    private List<PlannerFlight> horizonFlights() {
+        LocalDateTime now = currentTime;
+        if (onlineFlights == null || !now.equals(onlineFlightsTime)) {
+            List<PlannerFlight> horizon = new ArrayList<>();
+            for (PlannerFlight flight : dataProvider.getFlights(now, now.plusHours(ONLINE_HORIZON_HOURS))) {
+                if (!cancellationService.isFlightCancelled(flight.getOrigin().getCode(),
+                        flight.getDestination().getCode(), flight.getDepartureTime().toString())) {
+                    horizon.add(flight);
+                }
+            }
+            onlineFlights = horizon;
+            onlineFlightsTime = now;
+            if (onlineAirports == null) {
+                onlineAirports = new ArrayList<>(dataProvider.getAirports());
+            }
+        }
+        return onlineFlights;
+    }
+
+    private List<PlannerOrder> drainOnlineOrders() {
+        List<PlannerOrder> drained = new ArrayList<>();
+        PlannerOrder order;
+        while ((order = onlineOrders.poll()) != null) {
+            drained.add(order);
+        }
+        return drained;
+    }
+
+    /**
+     * Quita los shipments provisionales de los pedidos que ya pasaron por una optimización completa
+     */
+    private void releaseOnlineShipments(List<PlannerOrder> optimizedOrders) {
+        Set<PlannerOrder> optimized = java.util.Collections.newSetFromMap(new java.util.IdentityHashMap<>());
+        optimized.addAll(optimizedOrders);
+        synchronized (onlineInsertionLock) {
+            onlineShipments.removeIf(shipment -> optimized.contains(shipment.getOrder()));
+        }
+    }
+
     // ========== METRICS METHODS ==========
 
     /**
@@ -1000,7 +1775,8 @@ public class SimulationSession implements Runnable {
             new java.util.HashMap<>();
 
         for (pe.edu.pucp.morapack.algos.entities.PlannerShipment plannerShipment : allShipments) {
-            if (plannerShipment.getOrder() != null) {
+            // Los cancelados por replanificación ya tienen su reemplazo entre los acumulados
+            if (plannerShipment.getOrder() != null && !plannerShipment.isCancelled()) {
                 int orderId = plannerShipment.getOrder().getId();
                 shipmentsByOrder.computeIfAbsent(orderId, k -> new java.util.ArrayList<>())
                     .add(plannerShipment);
@@ -1419,9 +2195,8 @@ public class SimulationSession implements Runnable {
         this.speedMultiplier = multiplier;
         System.out.println("[SimulationSession] " + sessionId + " speed changed to " + multiplier + "x");
 
-        // Recreate planner with new speedMultiplier for future iterations
-        this.planner = new TabuSearchPlanner(System.currentTimeMillis(), this.speedMultiplier);
-        System.out.println("[SimulationSession] TabuSearchPlanner recreated with speedMultiplier: " + multiplier + "x");
+        // La siguiente iteración pide al pool un planner configurado para la nueva velocidad
+        System.out.println("[SimulationSession] " + optimizerType + " planner will be borrowed with speedMultiplier: " + multiplier + "x");
         
         // Send update
         SimulationStatusUpdate update = new SimulationStatusUpdate(
@@ -1463,7 +2238,8 @@ public class SimulationSession implements Runnable {
     public boolean isRunning() {
         SimulationState currentState = state.get();
         return currentState == SimulationState.RUNNING ||
-               currentState == SimulationState.PAUSED;
+               currentState == SimulationState.PAUSED ||
+               currentState == SimulationState.QUEUED;
     }
 
     /**
@@ -1642,11 +2418,11 @@ public class SimulationSession implements Runnable {
      * Shows current state of ALL orders processed so far.
      * Orders are sorted by request time (most recent first).
      */
-    private pe.edu.pucp.morapack.dto.simulation.OrderSummaryDTO[] buildOrderSummaries() {
+    private pe.edu.pucp.morapack.dto.simulation.OrderSummaryDTO[] buildOrderSummaries(TickView view) {
         java.util.List<pe.edu.pucp.morapack.dto.simulation.OrderSummaryDTO> summaries = new java.util.ArrayList<>();
         
         // Sort orders by request time (most recent first) - NO LIMIT, all orders
-        java.util.List<PlannerOrder> sortedOrders = allProcessedOrdersMap.values().stream()
+        java.util.List<PlannerOrder> sortedOrders = view.orders.stream()
             .sorted(java.util.Comparator.comparing(PlannerOrder::getOrderTime).reversed())
             .collect(java.util.stream.Collectors.toList());
         
@@ -1665,11 +2441,11 @@ public class SimulationSession implements Runnable {
 
             // Quantities
             dto.totalQuantity = order.getTotalQuantity();
-            dto.assignedQuantity = totalAssignedPerOrder.getOrDefault(order.getId(), 0);
+            dto.assignedQuantity = view.assignedPerOrder.getOrDefault(order.getId(), 0);
             dto.progressPercent = (dto.assignedQuantity * 100.0) / dto.totalQuantity;
 
             // Status
-            dto.status = calculateOrderStatus(order, dto.assignedQuantity);
+            dto.status = calculateOrderStatus(order, dto.assignedQuantity, view);
 
             // Times
             dto.requestDateISO = order.getOrderTime().toString();
@@ -1679,7 +2455,7 @@ public class SimulationSession implements Runnable {
             dto.assignedFlights = findAssignedFlights(order.getId());
 
             // 🆕 Shipments: Detailed breakdown by shipment with quantities
-            dto.shipments = findShipments(order.getId());
+            dto.shipments = findShipments(order.getId(), view);
 
             summaries.add(dto);
         }
@@ -1693,7 +2469,7 @@ public class SimulationSession implements Runnable {
      * Once COMPLETED, the status is permanent (doesn't revert).
      */
     private pe.edu.pucp.morapack.dto.simulation.OrderSummaryDTO.OrderStatus calculateOrderStatus(
-            PlannerOrder order, int assigned) {
+            PlannerOrder order, int assigned, TickView view) {
         
         // 🔒 Once completed, always completed (immutable state)
         if (completedOrderIds.contains(order.getId())) {
@@ -1702,7 +2478,7 @@ public class SimulationSession implements Runnable {
         
         if (assigned == 0) {
             // Check if still pending or truly unassigned
-            return pendingOrders.contains(order) ? 
+            return view.pendingSet.contains(order) ? 
                 pe.edu.pucp.morapack.dto.simulation.OrderSummaryDTO.OrderStatus.PENDING :
                 pe.edu.pucp.morapack.dto.simulation.OrderSummaryDTO.OrderStatus.UNASSIGNED;
         }
@@ -1715,7 +2491,7 @@ public class SimulationSession implements Runnable {
             
             // DEBUG: Log status determination
             if (lastArrivalTime != null) {
-                boolean hasArrived = !currentTime.isBefore(lastArrivalTime);
+                boolean hasArrived = !view.time.isBefore(lastArrivalTime);
                 if (hasArrived) {
                     System.out.println("  ✅ Order " + order.getId() + " marked as COMPLETED (arrived at " + lastArrivalTime + ")");
                     completedOrderIds.add(order.getId()); // 🔒 Lock in completed state
@@ -1830,18 +2606,18 @@ public class SimulationSession implements Runnable {
      *   Shipment #2: 150 products, route [LIM→MEX, MEX→MIA] (1 stopover)
      *   Shipment #3: 150 products, route [LIM→PTY, PTY→MIA] (1 stopover)
      */
-    private java.util.List<pe.edu.pucp.morapack.dto.simulation.ShipmentInfo> findShipments(int orderId) {
+    private java.util.List<pe.edu.pucp.morapack.dto.simulation.ShipmentInfo> findShipments(int orderId, TickView view) {
         java.util.List<pe.edu.pucp.morapack.dto.simulation.ShipmentInfo> shipments = new java.util.ArrayList<>();
 
         // ✅ FIX: Use allShipments instead of only lastSolution to include shipments from ALL iterations
         // This includes COMPLETED shipments (already arrived), not just active ones
-        if (!allShipments.isEmpty()) {
+        if (!view.shipments.isEmpty()) {
             // 🔍 DEBUG: Log search
-            int totalShipments = allShipments.size();
+            int totalShipments = view.shipments.size();
             int matchingShipments = 0;
 
             // Filter shipments for this specific order
-            for (pe.edu.pucp.morapack.algos.entities.PlannerShipment plannerShipment : allShipments) {
+            for (pe.edu.pucp.morapack.algos.entities.PlannerShipment plannerShipment : view.shipments) {
                 if (plannerShipment == null) continue;
 
                 pe.edu.pucp.morapack.algos.entities.PlannerOrder shipmentOrder = plannerShipment.getOrder();
@@ -1897,11 +2673,11 @@ public class SimulationSession implements Runnable {
     /**
      * Calculate aggregate metrics about all orders.
      */
-    private pe.edu.pucp.morapack.dto.simulation.OrderMetricsDTO calculateOrderMetrics() {
+    private pe.edu.pucp.morapack.dto.simulation.OrderMetricsDTO calculateOrderMetrics(TickView view) {
         pe.edu.pucp.morapack.dto.simulation.OrderMetricsDTO metrics = 
             new pe.edu.pucp.morapack.dto.simulation.OrderMetricsDTO();
         
-        metrics.totalPedidos = allProcessedOrdersMap.size();
+        metrics.totalPedidos = view.orders.size();
         metrics.pendientes = 0;
         metrics.enTransito = 0;
         metrics.completados = 0;
@@ -1909,15 +2685,15 @@ public class SimulationSession implements Runnable {
         metrics.totalProductos = 0;
         metrics.productosAsignados = 0;
         
-        for (PlannerOrder order : allProcessedOrdersMap.values()) {
+        for (PlannerOrder order : view.orders) {
             int requested = order.getTotalQuantity();
-            int assigned = totalAssignedPerOrder.getOrDefault(order.getId(), 0);
+            int assigned = view.assignedPerOrder.getOrDefault(order.getId(), 0);
             
             metrics.totalProductos += requested;
             metrics.productosAsignados += assigned;
             
             pe.edu.pucp.morapack.dto.simulation.OrderSummaryDTO.OrderStatus status = 
-                calculateOrderStatus(order, assigned);
+                calculateOrderStatus(order, assigned, view);
             
             switch (status) {
                 case PENDING -> metrics.pendientes++;
@@ -1932,5 +2708,65 @@ public class SimulationSession implements Runnable {
         
         return metrics;
     }
-}
 
+    /**
+     * Métricas de un tick de una corrida batch (una fila del CSV)
+     */
+    public static class TickMetrics {
+        public static final String CSV_HEADER =
+            "iteration,window_start,window_end,new_orders,injected_orders,cancellations," +
+            "pending_orders,shipments,total_shipments,ta_ms,tick_ms,k,planner_speed_factor";
+
+        private final int iteration;
+        private final LocalDateTime windowStart;
+        private final LocalDateTime windowEnd;
+        private final int newOrders;
+        private final int injectedOrders;
+        private final int cancellations;
+        private final int pendingOrders;
+        private final int shipments;
+        private final int totalShipments;
+        private final long taMs;
+        private final long tickMs;
+        private final int k;
+        private final double plannerSpeedFactor;
+
+        public TickMetrics(int iteration, LocalDateTime windowStart, LocalDateTime windowEnd, int newOrders,
+                           int injectedOrders, int cancellations, int pendingOrders, int shipments,
+                           int totalShipments, long taMs, long tickMs, int k, double plannerSpeedFactor) {
+            this.iteration = iteration;
+            this.windowStart = windowStart;
+            this.windowEnd = windowEnd;
+            this.newOrders = newOrders;
+            this.injectedOrders = injectedOrders;
+            this.cancellations = cancellations;
+            this.pendingOrders = pendingOrders;
+            this.shipments = shipments;
+            this.totalShipments = totalShipments;
+            this.taMs = taMs;
+            this.tickMs = tickMs;
+            this.k = k;
+            this.plannerSpeedFactor = plannerSpeedFactor;
+        }
+
+        public int getIteration() { return iteration; }
+        public LocalDateTime getWindowStart() { return windowStart; }
+        public LocalDateTime getWindowEnd() { return windowEnd; }
+        public int getNewOrders() { return newOrders; }
+        public int getInjectedOrders() { return injectedOrders; }
+        public int getCancellations() { return cancellations; }
+        public int getPendingOrders() { return pendingOrders; }
+        public int getShipments() { return shipments; }
+        public int getTotalShipments() { return totalShipments; }
+        public long getTaMs() { return taMs; }
+        public long getTickMs() { return tickMs; }
+        public int getK() { return k; }
+        public double getPlannerSpeedFactor() { return plannerSpeedFactor; }
+
+        public String toCsvRow() {
+            return iteration + "," + windowStart + "," + windowEnd + "," + newOrders + "," + injectedOrders + "," +
+                cancellations + "," + pendingOrders + "," + shipments + "," + totalShipments + "," + taMs + "," +
+                tickMs + "," + k + "," + String.format(java.util.Locale.ROOT, "%.2f", plannerSpeedFactor);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSolution;
 import pe.edu.pucp.morapack.algos.entities.PlannerShipment;
 import pe.edu.pucp.morapack.algos.entities.PlannerFlight;
 import pe.edu.pucp.morapack.algos.entities.PlannerAirport;
+import pe.edu.pucp.morapack.algos.entities.AirportPairTable;
 import pe.edu.pucp.morapack.dto.simulation.*;
 
 import java.util.ArrayList;
@@ -50,6 +51,7 @@ public class TabuSolutionToDtoConverter {
 
     public static ItineraryDTO[] toItineraryDtos(TabuSolution solution, java.time.Instant snapshotTime) {
         List<ItineraryDTO> out = new ArrayList<>();
+        AirportPairTable pairs = AirportPairTable.current();
         for (PlannerShipment ps : solution.getPlannerShipments()) {
             ItineraryDTO it = new ItineraryDTO();
             it.id = "sh-" + ps.getId();
@@ -82,7 +84,7 @@ public class TabuSolutionToDtoConverter {
                 segs.add(s);
 
                 // compute distance and instants
-                double meters = haversineMeters(f.getOrigin().getLatitude(), f.getOrigin().getLongitude(), f.getDestination().getLatitude(), f.getDestination().getLongitude());
+                double meters = pairs.pair(f.getOrigin(), f.getDestination()).getDistanceMeters();
                 segMeters[i] = meters;
                 totalMeters += meters;
                 depInst[i] = f.getDepartureTime().atZone(java.time.ZoneId.systemDefault()).toInstant();
@@ -113,8 +115,9 @@ public class TabuSolutionToDtoConverter {
                     double elapsed = (double) java.time.Duration.between(dep, snapshotTime).toMillis();
                     double frac = segDur <= 0 ? 1.0 : Math.max(0.0, Math.min(1.0, elapsed / segDur));
                     PlannerFlight f = flights.get(i);
-                    posLat = lerp(f.getOrigin().getLatitude(), f.getDestination().getLatitude(), frac);
-                    posLon = lerp(f.getOrigin().getLongitude(), f.getDestination().getLongitude(), frac);
+                    AirportPairTable.Pair pair = pairs.pair(f.getOrigin(), f.getDestination());
+                    posLat = pair.latitudeAt(frac);
+                    posLon = pair.longitudeAt(frac);
                     progressMeters = accumulatedMetersBefore + segMeters[i] * frac;
                     found = true;
                     break;
@@ -158,28 +161,6 @@ public class TabuSolutionToDtoConverter {
         dto.isHub = "SPIM".equals(a.getCode());
         return dto;
     }
-
-    private static double lerp(double a, double b, double f) {
-        return a + (b - a) * f;
-    }
-
-    private static double haversineMeters(double lat1, double lon1, double lat2, double lon2) {
-        // sanitize
-        lat1 = clamp(lat1, -90, 90);
-        lat2 = clamp(lat2, -90, 90);
-        lon1 = clamp(lon1, -180, 180);
-        lon2 = clamp(lon2, -180, 180);
-        final int R = 6371000; // Earth radius in meters
-        double phi1 = Math.toRadians(lat1);
-        double phi2 = Math.toRadians(lat2);
-        double dphi = Math.toRadians(lat2 - lat1);
-        double dlambda = Math.toRadians(lon2 - lon1);
-        double a = Math.sin(dphi/2) * Math.sin(dphi/2) + Math.cos(phi1) * Math.cos(phi2) * Math.sin(dlambda/2) * Math.sin(dlambda/2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1-a));
-        return R * c;
-    }
-
-    private static double clamp(double v, double lo, double hi) { return Math.max(lo, Math.min(hi, v)); }
 }
 
 
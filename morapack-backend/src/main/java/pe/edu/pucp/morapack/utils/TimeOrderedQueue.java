@@ -0,0 +1,103 @@
+package pe.edu.pucp.morapack.utils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Cola de elementos ordenados por su instante de ejecución, segura para hilos (skip list).
+ *
+ * Pensada para eventos programados (cancelaciones, pedidos dinámicos) que se cargan en masa o
+ * llegan desde los controladores REST mientras la simulación corre: due() solo recorre los
+ * elementos ya vencidos, O(log n + vencidos) en lugar de recorrer todo lo cargado.
+ *
+ * Los elementos salen de la cola de forma perezosa: cuando due() o nextTime() encuentran uno que
+ * ya no está pendiente según el predicado (ejecutado, fallido, reemplazado), lo quitan. Así el
+ * dueño cambia el estado de sus elementos sin avisar a la cola.
+ */
+public class TimeOrderedQueue<T> {
+
+    private final ConcurrentSkipListMap<Key, T> byTime = new ConcurrentSkipListMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public void add(LocalDateTime time, T item) {
+        byTime.put(new Key(time, sequence.getAndIncrement()), item);
+    }
+
+    /**
+     * Elementos pendientes con instante menor o igual que 'now', en orden (mismo instante: orden
+     * de llegada). No los quita: siguen en la cola hasta que dejen de estar pendientes.
+     */
+    public List<T> due(LocalDateTime now, Predicate<T> pending) {
+        List<T> due = new ArrayList<>();
+        ConcurrentNavigableMap<Key, T> head = byTime.headMap(new Key(now, Long.MAX_VALUE), true);
+        for (Iterator<Map.Entry<Key, T>> it = head.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Key, T> entry = it.next();
+            if (pending.test(entry.getValue())) {
+                due.add(entry.getValue());
+            } else {
+                it.remove();
+            }
+        }
+        return due;
+    }
+
+    /**
+     * Instante del próximo elemento pendiente (null si no hay)
+     */
+    public LocalDateTime nextTime(Predicate<T> pending) {
+        return firstPendingTime(byTime, pending);
+    }
+
+    /**
+     * Instante del próximo elemento pendiente en o después de 'from' (null si no hay). Los
+     * pendientes vencidos antes de 'from' no lo tapan: due() los sigue entregando.
+     */
+    public LocalDateTime nextTime(LocalDateTime from, Predicate<T> pending) {
+        return firstPendingTime(byTime.tailMap(new Key(from, Long.MIN_VALUE), true), pending);
+    }
+
+    private LocalDateTime firstPendingTime(ConcurrentNavigableMap<Key, T> entries, Predicate<T> pending) {
+        for (Iterator<Map.Entry<Key, T>> it = entries.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Key, T> entry = it.next();
+            if (pending.test(entry.getValue())) {
+                return entry.getKey().time;
+            }
+            it.remove();
+        }
+        return null;
+    }
+
+    /**
+     * Elementos en la cola (incluye los que aún no se detectaron como no pendientes)
+     */
+    public int size() {
+        return byTime.size();
+    }
+
+    public void clear() {
+        byTime.clear();
+    }
+
+    private static final class Key implements Comparable<Key> {
+        private final LocalDateTime time;
+        private final long sequence;
+
+        private Key(LocalDateTime time, long sequence) {
+            this.time = time;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int byTime = time.compareTo(other.time);
+            return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package pe.edu.pucp.morapack;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static pe.edu.pucp.morapack.TestFixtures.*;
+
+import pe.edu.pucp.morapack.algos.algorithm.aco.AcoConfig;
+import pe.edu.pucp.morapack.algos.algorithm.aco.AcoPlanner;
+import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSearchPlanner;
+import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSolution;
+import pe.edu.pucp.morapack.algos.entities.PlannerAirport;
+import pe.edu.pucp.morapack.algos.entities.PlannerFlight;
+import pe.edu.pucp.morapack.algos.entities.PlannerOrder;
+import pe.edu.pucp.morapack.algos.entities.PlannerShipment;
+import pe.edu.pucp.morapack.model.Continent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests del ACO paralelo sobre PlannerOrder/PlannerFlight.
+ */
+class AcoPlannerTest {
+
+    private List<PlannerAirport> airports;
+    private List<PlannerFlight> flights;
+    private List<PlannerOrder> orders;
+
+    @BeforeEach
+    void setUp() {
+        PlannerAirport lima = lima();
+        PlannerAirport brussels = brussels();
+        PlannerAirport madrid = airport(6, "LEMD", "Madrid", Continent.EUROPE, 1000, 1);
+        PlannerAirport dest = paris();
+        airports = List.of(lima, brussels, madrid, dest);
+
+        flights = List.of(
+            new PlannerFlight("D1", lima, dest, T0.plusHours(3), T0.plusHours(15), 120),
+            new PlannerFlight("A1", lima, brussels, T0.plusHours(1), T0.plusHours(12), 200),
+            new PlannerFlight("A2", brussels, dest, T0.plusHours(14), T0.plusHours(15), 200),
+            new PlannerFlight("B1", lima, madrid, T0.plusHours(2), T0.plusHours(13), 200),
+            new PlannerFlight("B2", madrid, dest, T0.plusHours(16), T0.plusHours(18), 200),
+            // Conexión inválida (menos de 1 hora): nunca debe usarse
+            new PlannerFlight("B3", madrid, dest, T0.plusHours(13).plusMinutes(30), T0.plusHours(15), 500)
+        );
+
+        orders = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            orders.add(order(i, 100, lima, dest));
+        }
+    }
+
+    private AcoConfig smallConfig() {
+        AcoConfig base = new AcoConfig();
+        return new AcoConfig(8, 20, 5000, 2, base.getAlpha(), base.getBeta(),
+            base.getExploitationProbability(), base.getEvaporation(), base.getInitialPheromone(),
+            base.getMinPheromone(), base.getMaxPheromone(), base.getDepositFactor(),
+            base.getMaxLegs(), base.getMaxCandidatesPerStep(), base.getMaxShipmentsPerOrder());
+    }
+
+    @Test
+    void testColonyAssignsAllProductsOnValidRoutes() {
+        TabuSolution solution = (TabuSolution) new AcoPlanner(42L, smallConfig()).optimize(orders, flights, airports);
+
+        for (PlannerOrder order : orders) {
+            assertEquals(100, solution.getAssignedQuantityForOrder(order), "Order " + order.getId());
+        }
+
+        Map<PlannerFlight, Integer> loads = new HashMap<>();
+        for (PlannerShipment shipment : solution.getPlannerShipments()) {
+            assertTrue(shipment.isValidSequence(), "Invalid route: " + shipment.getRouteDescription());
+            for (PlannerFlight flight : shipment.getFlights()) {
+                assertNotEquals("B3", flight.getCode());
+                loads.merge(flight, shipment.getQuantity(), Integer::sum);
+            }
+        }
+        loads.forEach((flight, load) ->
+            assertTrue(load <= flight.getCapacity(), flight.getCode() + " overloaded: " + load));
+    }
+
+    @Test
+    void testSameSeedGivesSameSolution() {
+        TabuSolution first = (TabuSolution) new AcoPlanner(7L, smallConfig()).optimize(orders, flights, airports);
+        TabuSolution second = (TabuSolution) new AcoPlanner(7L, smallConfig()).optimize(orders, flights, airports);
+
+        assertEquals(describe(first), describe(second));
+    }
+
+    @Test
+    void testAcoSeededTabuProducesUniqueShipmentIds() {
+        TabuSearchPlanner planner = new TabuSearchPlanner(11L, 4.0);
+        planner.setAcoSeeding(500);
+        planner.setParallelism(2);
+        TabuSolution solution = (TabuSolution) planner.optimize(orders, flights, airports);
+
+        // Sea cual sea el punto de partida (greedy o ACO), todo queda asignado y sin ids repetidos
+        for (PlannerOrder order : orders) {
+            assertEquals(100, solution.getAssignedQuantityForOrder(order), "Order " + order.getId());
+        }
+        long distinctIds = solution.getPlannerShipments().stream().mapToInt(PlannerShipment::getId).distinct().count();
+        assertEquals(solution.getPlannerShipments().size(), distinctIds);
+    }
+
+    @Test
+    void testAcoSeedingIsSkippedWithoutSpareThread() {
+        TabuSearchPlanner planner = new TabuSearchPlanner(11L, 4.0);
+        planner.setAcoSeeding(30_000);
+        planner.setParallelism(1);
+
+        long start = System.currentTimeMillis();
+        TabuSolution solution = (TabuSolution) planner.optimize(orders, flights, airports);
+        long elapsed = System.currentTimeMillis() - start;
+
+        // Sin hilo libre no se corre el ACO: la ejecución no paga su presupuesto
+        assertTrue(elapsed < 20_000, "took " + elapsed + "ms");
+        assertFalse(solution.getPlannerShipments().isEmpty());
+    }
+
+    private static List<String> describe(TabuSolution solution) {
+        List<String> lines = new ArrayList<>();
+        for (PlannerShipment shipment : solution.getPlannerShipments()) {
+            lines.add(shipment.getOrder().getId() + ":" + shipment.getDetailedRouteDescription() + ":" + shipment.getQuantity());
+        }
+        return lines;
+    }
+}
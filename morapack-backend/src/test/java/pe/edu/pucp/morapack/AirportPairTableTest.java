@@ -0,0 +1,96 @@
+package pe.edu.pucp.morapack;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static pe.edu.pucp.morapack.TestFixtures.*;
+
+import pe.edu.pucp.morapack.algos.entities.AirportPairTable;
+import pe.edu.pucp.morapack.algos.entities.PlannerAirport;
+import pe.edu.pucp.morapack.algos.entities.PlannerFlight;
+import pe.edu.pucp.morapack.model.Continent;
+import pe.edu.pucp.morapack.model.Country;
+
+import java.util.List;
+
+/**
+ * La tabla precalculada debe dar los mismos valores que el haversine directo y no usar
+ * filas de otro aeropuerto con el mismo código.
+ */
+class AirportPairTableTest {
+    private final Country peru = new Country(1, "Peru", Continent.AMERICA);
+    private final PlannerAirport lima = new PlannerAirport(1, "SPIM", "Lima", "Lima", peru, 1000, -5, -12.0219, -77.1143);
+    private final PlannerAirport bogota = new PlannerAirport(2, "SKBO", "Bogota", "Bogota", peru, 1000, -5, 4.7014, -74.1469);
+    private final PlannerAirport brussels = new PlannerAirport(3, "EBCI", "Bruselas", "Bruselas", peru, 1000, 2, 50.4592, 4.4538);
+
+    @AfterEach
+    void clearTable() {
+        AirportPairTable.install(List.of());
+    }
+
+    @Test
+    void testTableMatchesDirectHaversine() {
+        AirportPairTable table = AirportPairTable.install(List.of(lima, bogota, brussels));
+        assertEquals(3, table.size());
+
+        AirportPairTable.Pair limaBogota = table.pair(lima, bogota);
+        assertEquals(haversineKm(lima, bogota), limaBogota.getDistanceKm(), 1e-9);
+        assertEquals(limaBogota.getDistanceKm() * 1000, limaBogota.getDistanceMeters(), 1e-6);
+        assertEquals(table.pair(bogota, lima).getDistanceKm(), limaBogota.getDistanceKm(), 1e-9);
+        assertEquals(0.0, table.pair(lima, lima).getDistanceKm(), 1e-9);
+
+        // Lima → Bogotá va casi al norte
+        assertTrue(limaBogota.getInitialBearingDegrees() < 20 || limaBogota.getInitialBearingDegrees() > 340);
+
+        // Interpolación lineal lat/lon (la que dibuja el frontend)
+        assertEquals(lima.getLatitude(), limaBogota.latitudeAt(0), 1e-12);
+        assertEquals(bogota.getLongitude(), limaBogota.longitudeAt(1), 1e-12);
+        assertEquals((lima.getLatitude() + bogota.getLatitude()) / 2, limaBogota.latitudeAt(0.5), 1e-12);
+    }
+
+    @Test
+    void testUnknownOrMovedAirportFallsBackToDirectComputation() {
+        AirportPairTable table = AirportPairTable.install(List.of(lima, bogota));
+
+        assertEquals(haversineKm(lima, brussels), table.pair(lima, brussels).getDistanceKm(), 1e-9);
+
+        // Mismo código con otras coordenadas: no debe leer la fila de la tabla
+        PlannerAirport otherLima = new PlannerAirport(9, "SPIM", "Lima", "Lima", peru, 1000, -5, 0, 0);
+        assertEquals(haversineKm(otherLima, bogota), table.pair(otherLima, bogota).getDistanceKm(), 1e-9);
+    }
+
+    @Test
+    void testFlightCostUsesTableDistance() {
+        PlannerFlight before = new PlannerFlight("F1", lima, brussels, T0, T0.plusHours(12), 300);
+        AirportPairTable.install(List.of(lima, bogota, brussels));
+        PlannerFlight after = new PlannerFlight("F2", lima, brussels, T0, T0.plusHours(12), 300);
+
+        assertEquals(before.getCost(), after.getCost(), 1e-9);
+        assertEquals(500 + haversineKm(lima, brussels) * 0.5 + 300, after.getCost(), 1e-9);
+    }
+
+    @Test
+    void testOutOfRangeCoordinatesAreClampedAndRefreshMatchesTable() {
+        // Latitud mal cargada (DMS como entero): la distancia se calcula con la latitud acotada a 90
+        PlannerAirport broken = new PlannerAirport(4, "XXXX", "Roto", "Roto", peru, 1000, 0, 245400, -77.1143);
+        PlannerAirport pole = new PlannerAirport(5, "YYYY", "Polo", "Polo", peru, 1000, 0, 90, -77.1143);
+        AirportPairTable table = AirportPairTable.install(List.of(broken, lima));
+        assertEquals(haversineKm(pole, lima), table.pair(broken, lima).getDistanceKm(), 1e-9);
+
+        // refresh() reconstruye con los mismos aeropuertos y sigue usando sus filas
+        AirportPairTable refreshed = AirportPairTable.refresh();
+        assertNotSame(table, refreshed);
+        assertSame(refreshed, AirportPairTable.current());
+        assertEquals(2, refreshed.size());
+        assertSame(refreshed.pair(lima, broken), refreshed.pair(lima, broken));
+    }
+
+    private static double haversineKm(PlannerAirport a, PlannerAirport b) {
+        double lat1 = Math.toRadians(a.getLatitude());
+        double lat2 = Math.toRadians(b.getLatitude());
+        double dlat = lat2 - lat1;
+        double dlon = Math.toRadians(b.getLongitude() - a.getLongitude());
+        double h = Math.pow(Math.sin(dlat / 2), 2) + Math.cos(lat1) * Math.cos(lat2) * Math.pow(Math.sin(dlon / 2), 2);
+        return 2 * 6371 * Math.asin(Math.sqrt(h));
+    }
+}
@@ -0,0 +1,149 @@
+package pe.edu.pucp.morapack;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static pe.edu.pucp.morapack.TestFixtures.*;
+
+import pe.edu.pucp.morapack.algos.algorithm.OptimizerType;
+import pe.edu.pucp.morapack.algos.algorithm.alns.AlnsPlanner;
+import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSearchListener;
+import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSolution;
+import pe.edu.pucp.morapack.algos.entities.PlannerAirport;
+import pe.edu.pucp.morapack.algos.entities.PlannerFlight;
+import pe.edu.pucp.morapack.algos.entities.PlannerOrder;
+import pe.edu.pucp.morapack.algos.entities.PlannerShipment;
+import pe.edu.pucp.morapack.model.Continent;
+import pe.edu.pucp.morapack.model.Country;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Tests del optimizador ALNS sobre una red sintética pequeña:
+ * un vuelo directo con poca capacidad y una conexión por el hub de Bruselas.
+ */
+class AlnsPlannerTest {
+
+    private PlannerAirport origin;
+    private PlannerAirport brussels;
+    private PlannerAirport destination;
+    private List<PlannerAirport> airports;
+    private List<PlannerFlight> flights;
+    private List<PlannerOrder> orders;
+
+    @BeforeEach
+    void setUp() {
+        Country peru = new Country(1, "Peru", Continent.AMERICA);
+        Country belgium = new Country(2, "Belgium", Continent.EUROPE);
+        Country france = new Country(3, "France", Continent.EUROPE);
+
+        origin = new PlannerAirport(1, "SKBO", "Origin", "Bogota", peru, 1000, -5, 4.7, -74.1);
+        brussels = new PlannerAirport(2, "EBCI", "Brussels", "Brussels", belgium, 1000, 1, 50.5, 4.4);
+        destination = new PlannerAirport(3, "LFPG", "Destination", "Paris", france, 1000, 1, 49.0, 2.5);
+        airports = List.of(origin, brussels, destination);
+
+        flights = List.of(
+            new PlannerFlight("DIRECT", origin, destination, T0.plusHours(2), T0.plusHours(12), 100),
+            new PlannerFlight("LEG1", origin, brussels, T0.plusHours(1), T0.plusHours(11), 300),
+            new PlannerFlight("LEG2", brussels, destination, T0.plusHours(14), T0.plusHours(15), 300)
+        );
+
+        orders = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            orders.add(order(i, 80, origin, destination));
+        }
+    }
+
+    @Test
+    void testAssignsAllProductsWithinFlightCapacity() {
+        AlnsPlanner planner = new AlnsPlanner(42L);
+        TabuSolution solution = (TabuSolution) planner.optimize(orders, flights, airports);
+
+        // Todos los productos asignados (el directo solo admite 100, el resto va por el hub)
+        for (PlannerOrder order : orders) {
+            assertEquals(order.getTotalQuantity(), solution.getAssignedQuantityForOrder(order),
+                "Order " + order.getId() + " should be fully assigned");
+        }
+
+        // Ningún vuelo excede su capacidad
+        Map<PlannerFlight, Integer> loads = new HashMap<>();
+        for (PlannerShipment shipment : solution.getPlannerShipments()) {
+            assertTrue(shipment.isValidSequence());
+            for (PlannerFlight flight : shipment.getFlights()) {
+                loads.merge(flight, shipment.getQuantity(), Integer::sum);
+            }
+        }
+        for (Map.Entry<PlannerFlight, Integer> entry : loads.entrySet()) {
+            assertTrue(entry.getValue() <= entry.getKey().getCapacity(),
+                "Flight " + entry.getKey().getCode() + " overloaded: " + entry.getValue());
+        }
+    }
+
+    @Test
+    void testStopRequestEndsSearch() {
+        AlnsPlanner planner = new AlnsPlanner(7L);
+        List<Double> snapshotCosts = new ArrayList<>();
+        planner.setListener(new TabuSearchListener() {
+            @Override
+            public void onSnapshot(TabuSolution solution, int iteration, double bestCost, long snapshotId, Instant snapshotTime) {
+                snapshotCosts.add(bestCost);
+            }
+
+            @Override
+            public boolean isStopRequested() {
+                return true;
+            }
+        }, 1000);
+
+        TabuSolution solution = (TabuSolution) planner.optimize(orders, flights, airports);
+
+        assertEquals(1, planner.getTotalIterations());
+        assertFalse(snapshotCosts.isEmpty(), "Initial snapshot should be emitted");
+        assertFalse(solution.getPlannerShipments().isEmpty());
+    }
+
+    @Test
+    void testConcurrentRunsOnSameInstance() throws Exception {
+        AlnsPlanner planner = new AlnsPlanner(5L);
+        List<Callable<TabuSolution>> runs = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            runs.add(() -> (TabuSolution) planner.optimize(orders, flights, airports));
+        }
+
+        // Cada ejecución tiene su propio aleatorio, ids y pesos: ninguna pisa a las demás
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            for (Future<TabuSolution> run : pool.invokeAll(runs)) {
+                TabuSolution solution = run.get();
+                Set<Integer> ids = new HashSet<>();
+                for (PlannerShipment shipment : solution.getPlannerShipments()) {
+                    assertTrue(ids.add(shipment.getId()), "Duplicated shipment id " + shipment.getId());
+                }
+                for (PlannerOrder order : orders) {
+                    assertEquals(order.getTotalQuantity(), solution.getAssignedQuantityForOrder(order));
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertTrue(planner.getTotalIterations() > 0);
+    }
+
+    @Test
+    void testOptimizerTypeFromConfiguration() {
+        assertEquals(OptimizerType.ALNS, OptimizerType.fromString("alns"));
+        assertEquals(OptimizerType.TABU, OptimizerType.fromString(" tabu "));
+        assertEquals(OptimizerType.TABU, OptimizerType.fromString("unknown"));
+        assertEquals(OptimizerType.TABU, OptimizerType.fromString(null));
+    }
+}
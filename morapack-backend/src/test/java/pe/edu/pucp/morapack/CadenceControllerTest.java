@@ -0,0 +1,64 @@
+package pe.edu.pucp.morapack;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static pe.edu.pucp.morapack.TestFixtures.*;
+
+import pe.edu.pucp.morapack.algos.scheduler.CadenceController;
+import pe.edu.pucp.morapack.algos.scheduler.CadenceController.Decision;
+import pe.edu.pucp.morapack.algos.scheduler.ScenarioConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Controlador de cadencia: recorta primero el presupuesto del planner, luego sube K, informa
+ * cuando el escenario no es sostenible y se recupera en orden inverso.
+ */
+class CadenceControllerTest {
+
+    @Test
+    void testDegradesPlannerBudgetBeforeRaisingK() {
+        CadenceController cadence = new CadenceController(5, 5, true);
+        List<Decision> decisions = run(cadence, 40, 2000, 1000);
+
+        int firstKIncrease = decisions.indexOf(Decision.K_INCREASED);
+        int lastBudgetCut = decisions.lastIndexOf(Decision.PLANNER_BUDGET_REDUCED);
+        assertTrue(firstKIncrease > lastBudgetCut);
+        assertEquals(CadenceController.PLANNER_SPEED_LEVELS.length - 1,
+            decisions.stream().filter(d -> d == Decision.PLANNER_BUDGET_REDUCED).count());
+        assertTrue(cadence.getK() > 5);
+        assertEquals(cadence.getK() * 5, cadence.getScMinutes());
+    }
+
+    @Test
+    void testReportsUnsustainableOnceAndRecovers() {
+        CadenceController cadence = new CadenceController(1, 5, false);
+        List<Decision> decisions = run(cadence, 40, 5000, 1000);
+
+        assertEquals(1, decisions.stream().filter(d -> d == Decision.UNSUSTAINABLE).count());
+        assertFalse(cadence.isSustainable());
+        assertEquals(1, cadence.getK());  // Sin permiso para subir K
+
+        decisions = run(cadence, 60, 100, 1000);
+        assertTrue(decisions.contains(Decision.SUSTAINABLE_AGAIN));
+        assertTrue(cadence.isSustainable());
+        assertEquals(1.0, cadence.getPlannerSpeedFactor());
+    }
+
+    @Test
+    void testRealTimeScenarioNeverRaisesK() {
+        CadenceController cadence = CadenceController.forScenario(ScenarioConfig.daily(), true);
+        run(cadence, 40, 5000, 1000);
+        assertEquals(1, cadence.getK());
+        assertEquals(40, cadence.getHistory().size());
+    }
+
+    private List<Decision> run(CadenceController cadence, int ticks, long tickMs, long targetTickMs) {
+        List<Decision> decisions = new ArrayList<>();
+        for (int i = 0; i < ticks; i++) {
+            decisions.add(cadence.record(i, T0.plusMinutes(i), tickMs / 2, tickMs, targetTickMs));
+        }
+        return decisions;
+    }
+}
@@ -0,0 +1,103 @@
+package pe.edu.pucp.morapack;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static pe.edu.pucp.morapack.TestFixtures.*;
+
+import pe.edu.pucp.morapack.algos.algorithm.OptimizerFactory;
+import pe.edu.pucp.morapack.algos.algorithm.OptimizerType;
+import pe.edu.pucp.morapack.algos.algorithm.aggregation.AggregatingOptimizer;
+import pe.edu.pucp.morapack.algos.algorithm.aggregation.DemandAggregation;
+import pe.edu.pucp.morapack.algos.algorithm.alns.AlnsPlanner;
+import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSolution;
+import pe.edu.pucp.morapack.algos.entities.PlannerAirport;
+import pe.edu.pucp.morapack.algos.entities.PlannerFlight;
+import pe.edu.pucp.morapack.algos.entities.PlannerOrder;
+import pe.edu.pucp.morapack.algos.entities.PlannerShipment;
+import pe.edu.pucp.morapack.algos.entities.Solution;
+import pe.edu.pucp.morapack.algos.scheduler.ScenarioConfig;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Tests de la agregación de demanda: agrupa pedidos compatibles y reparte los shipments
+ * de vuelta en orden de plazo.
+ */
+class DemandAggregationTest {
+
+    private final PlannerAirport lima = lima();
+    private final PlannerAirport bogota = bogota();
+    private final PlannerAirport quito = quito();
+    private final PlannerFlight early = new PlannerFlight("E1", lima, bogota, T0.plusHours(2), T0.plusHours(6), 150);
+    private final PlannerFlight late = new PlannerFlight("L1", lima, bogota, T0.plusHours(10), T0.plusHours(14), 300);
+
+    @Test
+    void testGroupsCompatibleOrdersAndSplitsBackInDeadlineOrder() {
+        PlannerOrder first = order(1, 100, lima, bogota);
+        PlannerOrder second = order(2, 100, lima, bogota, T0.plusMinutes(30));
+        PlannerOrder third = order(3, 50, lima, bogota, T0.plusMinutes(45));
+        PlannerOrder otherPair = order(4, 20, lima, quito, T0.plusMinutes(10));
+        PlannerOrder tooLate = order(5, 20, lima, bogota, T0.plusMinutes(180));
+        List<PlannerOrder> orders = List.of(third, first, otherPair, second, tooLate);
+
+        DemandAggregation aggregation = new DemandAggregation(orders, Duration.ofHours(1));
+        assertEquals(1, aggregation.getAggregateCount());
+        assertEquals(3, aggregation.getAggregatedOrders().size());
+
+        PlannerOrder aggregate = aggregation.getAggregatedOrders().stream()
+            .filter(o -> o.getId() < 0).findFirst().orElseThrow();
+        assertEquals(250, aggregate.getTotalQuantity());
+        assertEquals(third.getOrderTime(), aggregate.getOrderTime());
+        // Plazo del primer miembro (48 h desde T0), en horas enteras desde el registro del último
+        LocalDateTime aggregateDeadline = aggregate.getOrderTime().plusHours(aggregate.getMaxDeliveryHours());
+        assertFalse(aggregateDeadline.isAfter(first.getOrderTime().plusHours(first.getMaxDeliveryHours())));
+        assertEquals(47, aggregate.getMaxDeliveryHours());
+
+        TabuSolution solution = new TabuSolution();
+        solution.addPlannerShipment(new PlannerShipment(7, aggregate, List.of(late), 100));
+        solution.addPlannerShipment(new PlannerShipment(8, aggregate, List.of(early), 150));
+
+        TabuSolution result = aggregation.disaggregate(solution);
+        assertEquals(orders, result.getAllOrders());
+        assertEquals(100, quantityOn(result, first, early));
+        assertEquals(50, quantityOn(result, second, early));
+        assertEquals(50, quantityOn(result, second, late));
+        assertEquals(50, quantityOn(result, third, late));
+        for (PlannerShipment shipment : result.getPlannerShipments()) {
+            assertTrue(shipment.getOrder().getId() > 0);
+            assertTrue(shipment.getId() > 8);
+        }
+    }
+
+    @Test
+    void testAggregatingOptimizerReturnsShipmentsPerOriginalOrder() {
+        List<PlannerOrder> orders = List.of(order(1, 40, lima, bogota),
+            order(2, 40, lima, bogota, T0.plusMinutes(20)), order(3, 40, lima, bogota, T0.plusMinutes(40)));
+        List<PlannerFlight> flights = List.of(early, late);
+
+        Solution solution = new AggregatingOptimizer(new AlnsPlanner(7, 1.0))
+            .optimize(orders, flights, List.of(lima, bogota, quito));
+
+        TabuSolution result = assertInstanceOf(TabuSolution.class, solution);
+        for (PlannerOrder order : orders) {
+            assertEquals(40, result.getAssignedQuantityForOrder(order));
+        }
+        assertTrue(result.getPlannerShipments().stream().allMatch(s -> orders.contains(s.getOrder())));
+    }
+
+    @Test
+    void testFactoryAggregatesOnlyWhenEnabled() {
+        assertFalse(OptimizerFactory.create(OptimizerType.ALNS, 1, 1.0) instanceof AggregatingOptimizer);
+        assertInstanceOf(AggregatingOptimizer.class, OptimizerFactory.create(OptimizerType.ALNS, 1, 1.0,
+            ScenarioConfig.ScenarioType.WEEKLY, 1, true, true));
+    }
+
+    private int quantityOn(TabuSolution solution, PlannerOrder order, PlannerFlight flight) {
+        return solution.getPlannerShipments().stream()
+            .filter(s -> s.getOrder() == order && s.getFlights().contains(flight))
+            .mapToInt(PlannerShipment::getQuantity)
+            .sum();
+    }
+}
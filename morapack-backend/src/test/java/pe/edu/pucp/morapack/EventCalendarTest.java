@@ -0,0 +1,76 @@
+package pe.edu.pucp.morapack;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static pe.edu.pucp.morapack.TestFixtures.*;
+
+import pe.edu.pucp.morapack.algos.scheduler.EventCalendar;
+import pe.edu.pucp.morapack.algos.scheduler.EventCalendar.EventType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Cola calendario: orden por tiempo (y de inserción en empates), eventos lejanos fuera del año,
+ * eventos anteriores al día actual y descarte de lo ya observado.
+ */
+class EventCalendarTest {
+
+    @Test
+    void testPollsInTimeOrderAcrossYearsAndLateInsertions() {
+        EventCalendar calendar = new EventCalendar(25, 8);  // Año de 200 minutos
+        Random random = new Random(42);
+        List<LocalDateTime> expected = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            LocalDateTime time = T0.plusMinutes(random.nextInt(20_000));
+            calendar.add(EventType.ORDER_ARRIVAL, time, null);
+            expected.add(time);
+        }
+        expected.sort(null);
+
+        List<LocalDateTime> polled = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            polled.add(calendar.poll().getTime());
+        }
+        // Evento anterior al día actual: debe salir primero
+        LocalDateTime early = polled.get(polled.size() - 1).minusMinutes(300);
+        calendar.add(EventType.CANCELLATION, early, null);
+        assertEquals(early, calendar.peek().getTime());
+        assertEquals(EventType.CANCELLATION, calendar.poll().getType());
+
+        while (!calendar.isEmpty()) {
+            polled.add(calendar.poll().getTime());
+        }
+        assertEquals(expected, polled);
+        assertNull(calendar.poll());
+    }
+
+    @Test
+    void testTiesKeepInsertionOrderAndDiscardUntilIsInclusive() {
+        EventCalendar calendar = new EventCalendar(60);
+        calendar.add(EventType.FLIGHT_ARRIVAL, T0.plusHours(1), "a");
+        calendar.add(EventType.FLIGHT_DEPARTURE, T0.plusHours(1), "b");
+        calendar.add(EventType.DEADLINE, T0.plusHours(2), "c");
+        calendar.add(EventType.DYNAMIC_INJECTION, T0.plusDays(400), "d");
+
+        assertEquals("a", calendar.peek().getDetail());
+        assertEquals(2, calendar.discardUntil(T0.plusHours(1)));
+        assertEquals("c", calendar.poll().getDetail());
+        assertEquals("d", calendar.poll().getDetail());
+        assertEquals(0, calendar.size());
+    }
+
+    @Test
+    void testDiscardBeforeKeepsEventsAtTheCutoff() {
+        EventCalendar calendar = new EventCalendar(60);
+        calendar.add(EventType.FLIGHT_ARRIVAL, T0.plusMinutes(30), "a");
+        calendar.add(EventType.FLIGHT_DEPARTURE, T0.plusMinutes(90), "b");
+        calendar.add(EventType.DEADLINE, T0.plusHours(2), "c");
+
+        assertEquals(2, calendar.discardBefore(T0.plusHours(2)));
+        assertEquals("c", calendar.peek().getDetail());
+        assertEquals(0, calendar.discardBefore(T0.plusHours(2)));
+    }
+}
@@ -0,0 +1,42 @@
+package pe.edu.pucp.morapack;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static pe.edu.pucp.morapack.TestFixtures.*;
+
+import pe.edu.pucp.morapack.algos.entities.PlannerAirport;
+import pe.edu.pucp.morapack.algos.entities.PlannerFlight;
+import pe.edu.pucp.morapack.algos.entities.PlannerOrder;
+import pe.edu.pucp.morapack.algos.utils.FlightReachability;
+
+import java.util.List;
+
+/**
+ * Tests de la poda por alcanzabilidad: solo quedan vuelos en algún camino factible.
+ */
+class FlightReachabilityTest {
+
+    @Test
+    void testKeepsOnlyFlightsOnFeasiblePaths() {
+        PlannerAirport lima = lima();
+        PlannerAirport quito = quito();
+        PlannerAirport bogota = bogota();
+        PlannerAirport cusco = airport(6, "SPZO", "Cusco");
+
+        PlannerOrder order = order(1, 10, lima, bogota, T0.plusHours(5));  // mismo continente: 48 h
+
+        PlannerFlight direct = new PlannerFlight("D1", lima, bogota, T0.plusHours(6), T0.plusHours(10), 100);
+        PlannerFlight leg1 = new PlannerFlight("L1", lima, quito, T0.plusHours(6), T0.plusHours(8), 100);
+        PlannerFlight leg2 = new PlannerFlight("L2", quito, bogota, T0.plusHours(9), T0.plusHours(12), 100);
+        PlannerFlight tooEarly = new PlannerFlight("E1", lima, bogota, T0.plusHours(2), T0.plusHours(6), 100);
+        PlannerFlight tightConnection = new PlannerFlight("C1", quito, bogota, T0.plusHours(8).plusMinutes(30),
+            T0.plusHours(11), 100);
+        PlannerFlight deadEnd = new PlannerFlight("X1", lima, cusco, T0.plusHours(7), T0.plusHours(9), 100);
+        PlannerFlight tooLate = new PlannerFlight("T1", lima, bogota, T0.plusHours(200), T0.plusHours(204), 100);
+        List<PlannerFlight> flights = List.of(direct, leg1, leg2, tooEarly, tightConnection, deadEnd, tooLate);
+
+        List<PlannerFlight> pruned = FlightReachability.prune(List.of(order), flights, 0);
+
+        assertEquals(List.of(direct, leg1, leg2), pruned);
+    }
+}
@@ -0,0 +1,116 @@
+package pe.edu.pucp.morapack;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static pe.edu.pucp.morapack.TestFixtures.*;
+
+import pe.edu.pucp.morapack.algos.algorithm.OptimizerType;
+import pe.edu.pucp.morapack.algos.data.providers.DataProvider;
+import pe.edu.pucp.morapack.algos.entities.PlannerAirport;
+import pe.edu.pucp.morapack.algos.entities.PlannerFlight;
+import pe.edu.pucp.morapack.algos.entities.PlannerOrder;
+import pe.edu.pucp.morapack.algos.scheduler.ScenarioConfig;
+import pe.edu.pucp.morapack.dto.websocket.SimulationState;
+import pe.edu.pucp.morapack.service.HeadlessSimulationRunner;
+import pe.edu.pucp.morapack.service.SimulationSession;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Corrida batch sin UI: termina sin pausas, salta las ventanas vacías, deja el reporte final
+ * y una fila de CSV por tick corrido.
+ */
+class HeadlessSimulationRunnerTest {
+    private final PlannerAirport lima = lima();
+    private final PlannerAirport bogota = bogota();
+    private final PlannerAirport quito = quito();
+
+    @Test
+    void testRunsWholeHorizonWithoutPacingAndReportsPerTick() {
+        List<PlannerFlight> flights = List.of(
+            new PlannerFlight("F1", lima, bogota, T0.plusMinutes(60), T0.plusMinutes(240), 300),
+            new PlannerFlight("F2", lima, quito, T0.plusMinutes(90), T0.plusMinutes(270), 300));
+        List<PlannerOrder> orders = List.of(order(1, 40, lima, bogota, T0.plusMinutes(10)),
+                                            order(2, 25, lima, quito, T0.plusMinutes(20)));
+
+        HeadlessSimulationRunner runner = new HeadlessSimulationRunner(null, OptimizerType.TABU, 1.0, 0);
+        SimulationSession session = runner.createSession("test", new ListDataProvider(flights, orders),
+            ScenarioConfig.weekly(24), T0, T0.plusDays(2));
+        assertTrue(session.isBatch());
+        assertTrue(session.isHeadless());
+
+        long start = System.currentTimeMillis();
+        HeadlessSimulationRunner.Result result = runner.run(session);
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertEquals(SimulationState.COMPLETED, result.getState());
+        assertEquals(2, result.getReport().totalOrders);
+        assertEquals(result.getTicks().size(), result.getReport().totalIterations);
+        // 2 días en ventanas de 2 h: sin eventos después de las llegadas, casi todo se salta
+        assertTrue(result.getSkippedWindows() > 0);
+        assertTrue(result.getTicks().size() < 24, "ticks: " + result.getTicks().size());
+        assertTrue(elapsed < 60_000, "batch run took " + elapsed + "ms");
+
+        SimulationSession.TickMetrics first = result.getTicks().get(0);
+        assertEquals(1, first.getIteration());
+        assertEquals(T0, first.getWindowStart());
+        assertEquals(2, first.getNewOrders());
+
+        String[] lines = result.toCsv().split("\n");
+        assertEquals(SimulationSession.TickMetrics.CSV_HEADER, lines[0]);
+        assertEquals(result.getTicks().size() + 1, lines.length);
+        assertEquals(SimulationSession.TickMetrics.CSV_HEADER.split(",").length, lines[1].split(",").length);
+    }
+
+    /**
+     * Proveedor en memoria con los mismos filtros por ventana que FileDataProvider
+     */
+    private class ListDataProvider implements DataProvider {
+        private final List<PlannerFlight> flights;
+        private final List<PlannerOrder> orders;
+
+        private ListDataProvider(List<PlannerFlight> flights, List<PlannerOrder> orders) {
+            this.flights = flights;
+            this.orders = orders;
+        }
+
+        @Override
+        public List<PlannerAirport> getAirports() {
+            return List.of(lima, bogota, quito);
+        }
+
+        @Override
+        public List<PlannerFlight> getFlights(LocalDateTime startTime, LocalDateTime endTime) {
+            List<PlannerFlight> window = new ArrayList<>();
+            for (PlannerFlight flight : flights) {
+                if (!flight.getDepartureTime().isBefore(startTime) && flight.getDepartureTime().isBefore(endTime)) {
+                    window.add(flight);
+                }
+            }
+            return window;
+        }
+
+        @Override
+        public List<PlannerOrder> getOrders(LocalDateTime startTime, LocalDateTime endTime) {
+            List<PlannerOrder> window = new ArrayList<>();
+            for (PlannerOrder order : orders) {
+                if (!order.getOrderTime().isBefore(startTime) && order.getOrderTime().isBefore(endTime)) {
+                    window.add(order);
+                }
+            }
+            return window;
+        }
+
+        @Override
+        public List<PlannerOrder> getPendingOrders() {
+            return List.of();
+        }
+
+        @Override
+        public List<Integer> getCancelledFlightIds(LocalDateTime startTime, LocalDateTime endTime) {
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package pe.edu.pucp.morapack;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static pe.edu.pucp.morapack.TestFixtures.*;
+
+import pe.edu.pucp.morapack.algos.algorithm.online.LocalRepair;
+import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSolution;
+import pe.edu.pucp.morapack.algos.entities.PlannerAirport;
+import pe.edu.pucp.morapack.algos.entities.PlannerFlight;
+import pe.edu.pucp.morapack.algos.entities.PlannerOrder;
+import pe.edu.pucp.morapack.algos.entities.PlannerShipment;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reparación local: la carga sale desde su posición actual, se respeta la capacidad del resto
+ * del plan y la búsqueda local libera tramos a tiempo para las partes que quedaron tarde.
+ * La mejora entre ticks solo mueve shipments que aún no salen y no modifica el plan.
+ */
+class LocalRepairTest {
+    private final PlannerAirport quito = quito();
+    private final PlannerAirport lima = lima();
+    private final PlannerAirport bogota = bogota();
+
+    @Test
+    void testRepairKeepsFlownLegAndLeavesFromHub() {
+        PlannerFlight firstLeg = new PlannerFlight("F1", quito, lima, T0.plusHours(1), T0.plusHours(4), 100);
+        PlannerFlight cancelled = new PlannerFlight("F2", lima, bogota, T0.plusHours(6), T0.plusHours(9), 100);
+        PlannerFlight alternative = new PlannerFlight("F3", lima, bogota, T0.plusHours(8), T0.plusHours(11), 100);
+        PlannerFlight fromOrigin = new PlannerFlight("F4", quito, bogota, T0.plusHours(7), T0.plusHours(10), 100);
+
+        PlannerOrder order = order(1, 40, quito, bogota);
+        PlannerShipment obsolete = new PlannerShipment(7, order, List.of(firstLeg, cancelled), 40);
+        TabuSolution solution = new TabuSolution();
+        solution.addPlannerShipment(obsolete);
+
+        // A las 5:00 la carga ya está en Lima: el vuelo directo desde Quito no sirve
+        LocalRepair.RepairResult result = new LocalRepair(List.of(firstLeg, alternative, fromOrigin), List.of(quito, lima, bogota))
+            .repair(solution, List.of(obsolete), Set.of(cancelled), T0.plusHours(5));
+
+        assertEquals(0, result.getUnassignedQuantity());
+        assertEquals(1, result.getShipments().size());
+        PlannerShipment repaired = result.getShipments().get(0);
+        assertEquals(List.of(firstLeg, alternative), repaired.getFlights());
+        assertEquals(40, repaired.getQuantity());
+        assertTrue(repaired.getId() > obsolete.getId());
+        assertEquals(40, result.getReassignedPerOrder().get(1));
+    }
+
+    @Test
+    void testRepairReplansLegsThatHaveNotDepartedYet() {
+        PlannerFlight firstLeg = new PlannerFlight("F1", quito, lima, T0.plusHours(1), T0.plusHours(4), 100);
+        PlannerFlight cancelled = new PlannerFlight("F2", lima, bogota, T0.plusHours(6), T0.plusHours(9), 100);
+        PlannerFlight fromOrigin = new PlannerFlight("F4", quito, bogota, T0.plusHours(2), T0.plusHours(5), 100);
+
+        PlannerOrder order = order(1, 40, quito, bogota);
+        PlannerShipment obsolete = new PlannerShipment(7, order, List.of(firstLeg, cancelled), 40);
+        TabuSolution solution = new TabuSolution();
+        solution.addPlannerShipment(obsolete);
+
+        // A las 0:30 el primer tramo aún no sale: la carga sigue en Quito y puede ir directo
+        LocalRepair.RepairResult result = new LocalRepair(List.of(firstLeg, fromOrigin), List.of(quito, lima, bogota))
+            .repair(solution, List.of(obsolete), Set.of(cancelled), T0.plusMinutes(30));
+
+        assertEquals(0, result.getUnassignedQuantity());
+        assertEquals(List.of(fromOrigin), result.getShipments().get(0).getFlights());
+    }
+
+    @Test
+    void testRepairRespectsCapacityLeftByRestOfPlan() {
+        PlannerFlight cancelled = new PlannerFlight("F1", lima, bogota, T0.plusHours(2), T0.plusHours(5), 100);
+        PlannerFlight alternative = new PlannerFlight("F2", lima, bogota, T0.plusHours(6), T0.plusHours(9), 100);
+
+        PlannerOrder affected = order(1, 50, lima, bogota);
+        PlannerOrder other = order(2, 80, lima, bogota);
+        PlannerShipment obsolete = new PlannerShipment(1, affected, List.of(cancelled), 50);
+        TabuSolution solution = new TabuSolution();
+        solution.addPlannerShipment(obsolete);
+        solution.addPlannerShipment(new PlannerShipment(2, other, List.of(alternative), 80));
+
+        LocalRepair.RepairResult result = new LocalRepair(List.of(alternative), List.of(lima, bogota))
+            .repair(solution, List.of(obsolete), Set.of(cancelled), T0);
+
+        assertEquals(20, result.getReassignedPerOrder().get(1));
+        assertEquals(30, result.getUnassignedQuantity());
+    }
+
+    @Test
+    void testLocalSearchMovesBlockingOrderToFreeSlotForLateOrder() {
+        PlannerAirport brussels = airport(4, "EBCI", "Bruselas");
+        PlannerFlight cancelled = new PlannerFlight("C1", lima, bogota, T0.plusHours(2), T0.plusHours(5), 200);
+        PlannerFlight direct = new PlannerFlight("X1", lima, bogota, T0.plusHours(3), T0.plusHours(6), 50);
+        PlannerFlight viaHub1 = new PlannerFlight("Y1", lima, brussels, T0.plusMinutes(30), T0.plusHours(3), 50);
+        PlannerFlight viaHub2 = new PlannerFlight("Y2", brussels, bogota, T0.plusHours(5), T0.plusHours(9), 50);
+        PlannerFlight tooLate = new PlannerFlight("L1", lima, bogota, T0.plusHours(20), T0.plusHours(60), 50);
+        PlannerFlight flown = new PlannerFlight("Q1", quito, lima, T0.minusHours(2), T0.plusHours(1), 50);
+
+        // 'a' ya está en Lima y prefiere el directo; 'b' llega a Lima a la 1:00 y no alcanza la conexión
+        PlannerOrder orderA = order(1, 50, lima, bogota);
+        PlannerOrder orderB = order(2, 50, quito, bogota);
+        PlannerShipment a = new PlannerShipment(1, orderA, List.of(cancelled), 50);
+        PlannerShipment b = new PlannerShipment(2, orderB, List.of(flown, cancelled), 50);
+        TabuSolution solution = new TabuSolution();
+        solution.addPlannerShipment(a);
+        solution.addPlannerShipment(b);
+
+        LocalRepair.RepairResult result = new LocalRepair(List.of(direct, viaHub1, viaHub2, tooLate),
+                List.of(quito, lima, bogota, brussels))
+            .repair(solution, List.of(a, b), Set.of(cancelled), T0);
+
+        assertEquals(0, result.getUnassignedQuantity());
+        assertTrue(result.getMoves() > 0);
+        for (PlannerShipment shipment : result.getShipments()) {
+            assertTrue(shipment.meetsDeadline(), "order " + shipment.getOrder().getId() + " late");
+        }
+        PlannerShipment repairedB = result.getShipments().stream()
+            .filter(s -> s.getOrder() == orderB).findFirst().orElseThrow();
+        assertEquals(List.of(flown, direct), repairedB.getFlights());
+    }
+
+    @Test
+    void testImproveReroutesOnlyUnstartedShipmentsWithinCapacity() {
+        PlannerFlight hub1 = new PlannerFlight("H1", lima, quito, T0.plusHours(2), T0.plusHours(4), 100);
+        PlannerFlight hub2 = new PlannerFlight("H2", quito, bogota, T0.plusHours(6), T0.plusHours(9), 100);
+        PlannerFlight direct = new PlannerFlight("D1", lima, bogota, T0.plusHours(3), T0.plusHours(6), 60);
+        PlannerFlight departed = new PlannerFlight("P1", quito, lima, T0.minusHours(1), T0.plusHours(2), 100);
+        PlannerFlight onward = new PlannerFlight("P2", lima, bogota, T0.plusHours(5), T0.plusHours(8), 10);
+
+        PlannerOrder orderA = order(1, 40, lima, bogota);
+        PlannerOrder orderB = order(2, 40, lima, bogota);
+        PlannerOrder orderC = order(3, 10, quito, bogota);
+        PlannerShipment a = new PlannerShipment(1, orderA, List.of(hub1, hub2), 40);
+        PlannerShipment b = new PlannerShipment(2, orderB, List.of(hub1, hub2), 40);
+        PlannerShipment flying = new PlannerShipment(3, orderC, List.of(departed, onward), 10);
+        TabuSolution solution = new TabuSolution();
+        solution.addPlannerShipment(a);
+        solution.addPlannerShipment(b);
+        solution.addPlannerShipment(flying);
+
+        LocalRepair.ImprovementResult result = new LocalRepair(List.of(hub1, hub2, direct, departed, onward),
+                List.of(quito, lima, bogota))
+            .improve(solution, T0, System.nanoTime() + 5_000_000_000L, () -> false);
+
+        // El directo solo tiene capacidad para uno de los dos; el que ya salió no se toca
+        assertTrue(result.isConverged());
+        assertEquals(2, result.getMutableShipments());
+        assertEquals(1, result.getReroutes().size());
+        assertEquals(List.of(direct), result.getReroutes().values().iterator().next().getFlights());
+        assertFalse(result.getReroutes().containsKey(flying));
+        assertTrue(result.getPenaltyAfter() < result.getPenaltyBefore());
+        assertEquals(List.of(hub1, hub2), a.getFlights());
+        assertEquals(List.of(hub1, hub2), b.getFlights());
+    }
+
+    @Test
+    void testImproveChargesShipmentsFromEarlierPlans() {
+        PlannerFlight hub1 = new PlannerFlight("H1", lima, quito, T0.plusHours(2), T0.plusHours(4), 100);
+        PlannerFlight hub2 = new PlannerFlight("H2", quito, bogota, T0.plusHours(6), T0.plusHours(9), 100);
+        PlannerFlight direct = new PlannerFlight("D1", lima, bogota, T0.plusHours(3), T0.plusHours(6), 60);
+
+        // El directo ya lleva 40 de un tick anterior: no caben los 40 del plan actual
+        PlannerShipment earlier = new PlannerShipment(1, order(1, 40, lima, bogota), List.of(direct), 40);
+        PlannerShipment current = new PlannerShipment(1, order(2, 40, lima, bogota), List.of(hub1, hub2), 40);
+
+        LocalRepair.ImprovementResult result = new LocalRepair(List.of(hub1, hub2, direct), List.of(quito, lima, bogota))
+            .improve(List.of(earlier, current), T0, System.nanoTime() + 5_000_000_000L, () -> false);
+
+        assertTrue(result.isConverged());
+        assertEquals(2, result.getMutableShipments());
+        assertTrue(result.getReroutes().isEmpty());
+    }
+
+    @Test
+    void testImproveStopsAtDeadline() {
+        PlannerFlight hub1 = new PlannerFlight("H1", lima, quito, T0.plusHours(2), T0.plusHours(4), 100);
+        PlannerFlight hub2 = new PlannerFlight("H2", quito, bogota, T0.plusHours(6), T0.plusHours(9), 100);
+        PlannerFlight direct = new PlannerFlight("D1", lima, bogota, T0.plusHours(3), T0.plusHours(6), 100);
+        TabuSolution solution = new TabuSolution();
+        solution.addPlannerShipment(new PlannerShipment(1, order(1, 40, lima, bogota), List.of(hub1, hub2), 40));
+
+        LocalRepair.ImprovementResult result = new LocalRepair(List.of(hub1, hub2, direct), List.of(quito, lima, bogota))
+            .improve(solution, T0, System.nanoTime(), () -> false);
+
+        assertFalse(result.isConverged());
+        assertEquals(0, result.getMoves());
+        assertTrue(result.getReroutes().isEmpty());
+    }
+}
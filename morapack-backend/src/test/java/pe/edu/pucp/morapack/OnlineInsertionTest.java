@@ -0,0 +1,96 @@
+package pe.edu.pucp.morapack;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static pe.edu.pucp.morapack.TestFixtures.*;
+
+import pe.edu.pucp.morapack.algos.algorithm.online.OnlineInsertion;
+import pe.edu.pucp.morapack.algos.entities.PlannerAirport;
+import pe.edu.pucp.morapack.algos.entities.PlannerFlight;
+import pe.edu.pucp.morapack.algos.entities.PlannerOrder;
+import pe.edu.pucp.morapack.algos.entities.PlannerShipment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Inserción en línea: respeta la capacidad del plan vigente, elige la llegada más temprana
+ * y devuelve la ETA del pedido.
+ */
+class OnlineInsertionTest {
+    private final PlannerAirport lima = lima();
+    private final PlannerAirport bogota = bogota();
+
+    @Test
+    void testInsertsOnEarliestFlightWithCapacityLeft() {
+        PlannerFlight early = new PlannerFlight("F1", lima, bogota, T0.plusHours(2), T0.plusHours(6), 100);
+        PlannerFlight late = new PlannerFlight("F2", lima, bogota, T0.plusHours(10), T0.plusHours(14), 40);
+        OnlineInsertion insertion = new OnlineInsertion(List.of(early, late), List.of(lima, bogota));
+
+        // El plan vigente deja 30 lugares en el vuelo temprano; ningún vuelo lleva los 50 solo
+        PlannerOrder planned = order(1, 70, lima, bogota);
+        List<PlannerShipment> committed = List.of(new PlannerShipment(1, planned, List.of(early), 70));
+
+        OnlineInsertion.InsertionResult result = insertion.insert(order(2, 50, lima, bogota), committed, new AtomicInteger(100)::getAndIncrement);
+
+        assertTrue(result.isFullyAssigned());
+        assertTrue(result.isOnTime());
+        assertEquals(2, result.getShipments().size());
+        assertEquals(30, quantityOn(result, early));
+        assertEquals(20, quantityOn(result, late));
+        assertEquals(late.getArrivalTime(), result.getEta());
+    }
+
+    @Test
+    void testLocalImprovementPrefersSingleRouteWhenNotCostlier() {
+        PlannerFlight early = new PlannerFlight("F1", lima, bogota, T0.plusHours(2), T0.plusHours(6), 30);
+        PlannerFlight late = new PlannerFlight("F2", lima, bogota, T0.plusHours(10), T0.plusHours(14), 300);
+        OnlineInsertion insertion = new OnlineInsertion(List.of(early, late), List.of(lima, bogota));
+
+        // Ambas rutas son directas y a tiempo: el pedido entero va en el vuelo que lo admite
+        OnlineInsertion.InsertionResult result = insertion.insert(order(1, 120, lima, bogota), List.of(), new AtomicInteger(1)::getAndIncrement);
+
+        assertEquals(1, result.getShipments().size());
+        assertEquals(120, quantityOn(result, late));
+        assertEquals(late.getArrivalTime(), result.getEta());
+    }
+
+    @Test
+    void testReportsUnassignedQuantityWhenPlanIsFull() {
+        PlannerFlight only = new PlannerFlight("F1", lima, bogota, T0.plusHours(2), T0.plusHours(6), 100);
+        OnlineInsertion insertion = new OnlineInsertion(List.of(only), List.of(lima, bogota));
+        List<PlannerShipment> committed = List.of(new PlannerShipment(1, order(1, 90, lima, bogota), List.of(only), 90));
+
+        OnlineInsertion.InsertionResult result = insertion.insert(order(2, 40, lima, bogota), committed, new AtomicInteger(5)::getAndIncrement);
+
+        assertEquals(10, result.getAssignedQuantity());
+        assertEquals(30, result.getUnassignedQuantity());
+        assertFalse(result.isOnTime());
+    }
+
+    @Test
+    void testLargeFlightTableAnswersQuickly() {
+        List<PlannerFlight> flights = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            flights.add(new PlannerFlight("F" + i, lima, bogota, T0.plusMinutes(30L * i), T0.plusMinutes(30L * i + 240), 50));
+        }
+        List<PlannerShipment> committed = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            committed.add(new PlannerShipment(i, order(i, 40, lima, bogota), List.of(flights.get(i)), 40));
+        }
+        OnlineInsertion insertion = new OnlineInsertion(flights, List.of(lima, bogota));
+
+        OnlineInsertion.InsertionResult result = insertion.insert(order(9999, 500, lima, bogota), committed, new AtomicInteger(1)::getAndIncrement);
+
+        assertTrue(result.isFullyAssigned());
+        assertTrue(result.getElapsedMicros() < 2_000_000, "took " + result.getElapsedMicros() + " us");
+    }
+
+    private static int quantityOn(OnlineInsertion.InsertionResult result, PlannerFlight flight) {
+        return result.getShipments().stream()
+            .filter(s -> s.getFlights().contains(flight))
+            .mapToInt(PlannerShipment::getQuantity)
+            .sum();
+    }
+}
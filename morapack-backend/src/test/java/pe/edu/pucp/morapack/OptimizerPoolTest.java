@@ -0,0 +1,109 @@
+package pe.edu.pucp.morapack;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static pe.edu.pucp.morapack.TestFixtures.*;
+
+import pe.edu.pucp.morapack.algos.algorithm.IOptimizer;
+import pe.edu.pucp.morapack.algos.algorithm.OptimizerPool;
+import pe.edu.pucp.morapack.algos.algorithm.OptimizerType;
+import pe.edu.pucp.morapack.algos.algorithm.PlannerExecutors;
+import pe.edu.pucp.morapack.algos.algorithm.aggregation.AggregatingOptimizer;
+import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSearchPlanner;
+import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSolution;
+import pe.edu.pucp.morapack.algos.entities.PlannerAirport;
+import pe.edu.pucp.morapack.algos.entities.PlannerFlight;
+import pe.edu.pucp.morapack.algos.entities.PlannerOrder;
+import pe.edu.pucp.morapack.algos.entities.PlannerShipment;
+import pe.edu.pucp.morapack.algos.scheduler.ScenarioConfig;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Pool de optimizadores: préstamo exclusivo, reutilización por grupo y planners Tabu
+ * reentrantes (el estado de cada ejecución no se comparte).
+ */
+class OptimizerPoolTest {
+    private static final ScenarioConfig.ScenarioType WEEKLY = ScenarioConfig.ScenarioType.WEEKLY;
+
+    @Test
+    void testLeaseIsExclusiveAndReturnedInstanceIsReused() {
+        OptimizerPool pool = new OptimizerPool(2);
+
+        IOptimizer first;
+        try (OptimizerPool.Lease a = pool.borrow(OptimizerType.ALNS, 1.0, WEEKLY);
+             OptimizerPool.Lease b = pool.borrow(OptimizerType.ALNS, 1.0, WEEKLY)) {
+            first = a.getOptimizer();
+            assertNotSame(first, b.getOptimizer());
+        }
+        assertEquals(2, pool.getCreatedCount());
+        assertEquals(2, pool.getIdleCount());
+
+        // La última devuelta ('a', cerrada al final) es la primera en prestarse
+        try (OptimizerPool.Lease again = pool.borrow(OptimizerType.ALNS, 1.0, WEEKLY)) {
+            assertSame(first, again.getOptimizer());
+        }
+        // Otra velocidad es otro grupo
+        try (OptimizerPool.Lease faster = pool.borrow(OptimizerType.ALNS, 2.0, WEEKLY)) {
+            assertNotSame(first, faster.getOptimizer());
+        }
+        // Sin logs (corridas batch) también es otro grupo
+        try (OptimizerPool.Lease quiet = pool.borrow(OptimizerType.ALNS, 1.0, WEEKLY,
+                                                     PlannerExecutors.defaultParallelism(), false, false)) {
+            assertNotSame(first, quiet.getOptimizer());
+        }
+        // Con agregación de demanda también: el optimizador viene envuelto
+        try (OptimizerPool.Lease aggregated = pool.borrow(OptimizerType.ALNS, 1.0, WEEKLY,
+                                                          PlannerExecutors.defaultParallelism(), true, true)) {
+            assertInstanceOf(AggregatingOptimizer.class, aggregated.getOptimizer());
+        }
+        assertEquals(5, pool.getCreatedCount());
+    }
+
+    @Test
+    void testClosedLeaseCannotBeUsed() {
+        OptimizerPool pool = new OptimizerPool(1);
+        OptimizerPool.Lease lease = pool.borrow(OptimizerType.ALNS, 1.0, WEEKLY);
+        lease.close();
+        lease.close();
+        assertEquals(1, pool.getIdleCount());
+        assertThrows(IllegalStateException.class, lease::getOptimizer);
+    }
+
+    @Test
+    void testTabuPlannerRunsConcurrentlyWithoutSharingState() {
+        PlannerAirport lima = lima();
+        PlannerAirport bogota = bogota();
+
+        List<PlannerFlight> flights = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            flights.add(new PlannerFlight("F" + i, lima, bogota, T0.plusHours(i + 1), T0.plusHours(i + 5), 100));
+        }
+        List<PlannerOrder> orders = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            orders.add(order(i, 40, lima, bogota));
+        }
+
+        TabuSearchPlanner planner = new TabuSearchPlanner(7L, 10.0);
+        List<CompletableFuture<TabuSolution>> runs = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            runs.add(CompletableFuture.supplyAsync(
+                () -> (TabuSolution) planner.optimize(orders, flights, List.of(lima, bogota))));
+        }
+
+        for (CompletableFuture<TabuSolution> run : runs) {
+            TabuSolution solution = run.join();
+            Set<Integer> ids = new HashSet<>();
+            for (PlannerShipment shipment : solution.getPlannerShipments()) {
+                assertTrue(ids.add(shipment.getId()), "duplicated shipment id " + shipment.getId());
+            }
+            for (PlannerOrder order : orders) {
+                assertEquals(40, solution.getAssignedQuantityForOrder(order));
+            }
+        }
+    }
+}
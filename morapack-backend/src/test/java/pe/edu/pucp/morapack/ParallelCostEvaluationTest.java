@@ -0,0 +1,67 @@
+package pe.edu.pucp.morapack;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static pe.edu.pucp.morapack.TestFixtures.*;
+
+import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSearchPlannerCostFunction;
+import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSolution;
+import pe.edu.pucp.morapack.algos.entities.PlannerAirport;
+import pe.edu.pucp.morapack.algos.entities.PlannerFlight;
+import pe.edu.pucp.morapack.algos.entities.PlannerOrder;
+import pe.edu.pucp.morapack.algos.entities.PlannerShipment;
+import pe.edu.pucp.morapack.model.Continent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * La evaluación por bloques en paralelo debe dar exactamente el costo secuencial.
+ */
+class ParallelCostEvaluationTest {
+
+    @Test
+    void testParallelEvaluationMatchesSequential() {
+        PlannerAirport lima = lima();
+        PlannerAirport brussels = airport(4, "EBCI", "Brussels", Continent.EUROPE, 500, 1);
+        PlannerAirport paris = paris();
+        List<PlannerAirport> airports = List.of(lima, brussels, paris);
+
+        List<PlannerFlight> direct = new ArrayList<>();
+        List<PlannerFlight> firstLegs = new ArrayList<>();
+        List<PlannerFlight> secondLegs = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            direct.add(new PlannerFlight("D" + i, lima, paris, T0.plusHours(4 * i), T0.plusHours(4 * i + 12), 150));
+            firstLegs.add(new PlannerFlight("A" + i, lima, brussels, T0.plusHours(4 * i), T0.plusHours(4 * i + 11), 200));
+            // Algunas conexiones quedan demasiado cortas (penalizadas)
+            secondLegs.add(new PlannerFlight("B" + i, brussels, paris, T0.plusHours(4 * i + 11).plusMinutes(30 * (i % 4)),
+                T0.plusHours(4 * i + 14), 200));
+        }
+        List<PlannerFlight> flights = new ArrayList<>(direct);
+        flights.addAll(firstLegs);
+        flights.addAll(secondLegs);
+
+        Random random = new Random(7);
+        TabuSolution solution = new TabuSolution();
+        int shipmentId = 1;
+        for (int o = 1; o <= 600; o++) {
+            PlannerOrder order = order(o, 20, lima, paris, T0.plusHours(random.nextInt(24)));
+            int pieces = 1 + random.nextInt(6);
+            for (int p = 0; p < pieces; p++) {
+                int k = random.nextInt(20);
+                List<PlannerFlight> route = random.nextBoolean()
+                    ? List.of(direct.get(k))
+                    : List.of(firstLegs.get(k), secondLegs.get(k));
+                // Cantidades que a veces completan el pedido y a veces no
+                solution.addPlannerShipment(new PlannerShipment(shipmentId++, order, route, 1 + random.nextInt(5)));
+            }
+        }
+        assertTrue(solution.getPlannerShipments().size() < TabuSearchPlannerCostFunction.PARALLEL_EVALUATION_THRESHOLD);
+
+        double sequential = TabuSearchPlannerCostFunction.calculateCost(solution, flights, airports, 0, 1);
+        double parallel = TabuSearchPlannerCostFunction.calculateCostParallel(solution.getPlannerShipments());
+        assertEquals(sequential, parallel, 1e-6);
+        assertTrue(sequential > 0);
+    }
+}
@@ -0,0 +1,100 @@
+package pe.edu.pucp.morapack;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static pe.edu.pucp.morapack.TestFixtures.*;
+
+import pe.edu.pucp.morapack.algos.algorithm.tabu.ParallelGreedyConstruction;
+import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSolution;
+import pe.edu.pucp.morapack.algos.entities.PlannerAirport;
+import pe.edu.pucp.morapack.algos.entities.PlannerFlight;
+import pe.edu.pucp.morapack.algos.entities.PlannerOrder;
+import pe.edu.pucp.morapack.algos.entities.PlannerShipment;
+import pe.edu.pucp.morapack.algos.entities.Route;
+import pe.edu.pucp.morapack.algos.utils.CapacityReservations;
+import pe.edu.pucp.morapack.model.Continent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests de la construcción greedy paralela y de la tabla de reservas con CAS.
+ */
+class ParallelGreedyConstructionTest {
+
+    private final PlannerAirport lima = airport(1, "SPIM", "Lima", Continent.AMERICA, 100000, -5);
+    private final PlannerAirport bogota = airport(2, "SKBO", "Bogota", Continent.AMERICA, 100000, -5);
+    private final List<PlannerAirport> airports = List.of(lima, bogota);
+    private List<PlannerFlight> flights;
+
+    @BeforeEach
+    void setUp() {
+        flights = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            flights.add(new PlannerFlight("F" + i, lima, bogota, T0.plusHours(2 + i), T0.plusHours(6 + i), 100));
+        }
+    }
+
+    @Test
+    void testConcurrentReservationsNeverOverbook() throws InterruptedException {
+        CapacityReservations reservations = new CapacityReservations(flights, airports);
+        Route route = Route.of(List.of(flights.get(0)));
+        AtomicInteger granted = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1000; i++) {
+            pool.submit(() -> {
+                if (reservations.tryReserve(route, 1)) granted.incrementAndGet();
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(100, granted.get());
+        assertEquals(0, reservations.remaining(flights.get(0)));
+        reservations.release(route, 5);
+        assertEquals(5, reservations.available(route));
+    }
+
+    @Test
+    void testParallelConstructionRespectsCapacityAndPriority() {
+        // 1000 de capacidad total para 1500 productos: los pedidos más urgentes deben quedar completos
+        List<PlannerOrder> orders = new ArrayList<>();
+        for (int i = 1; i <= 150; i++) {
+            orders.add(order(i, 10, lima, bogota, T0.plusMinutes(i)));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        TabuSolution solution;
+        try {
+            solution = new ParallelGreedyConstruction(executor, 4, 42)
+                .construct(orders, flights, airports, new AtomicInteger(1));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Map<PlannerFlight, Integer> loads = new HashMap<>();
+        for (PlannerShipment shipment : solution.getPlannerShipments()) {
+            for (PlannerFlight flight : shipment.getFlights()) {
+                loads.merge(flight, shipment.getQuantity(), Integer::sum);
+            }
+        }
+        for (PlannerFlight flight : flights) {
+            assertTrue(loads.getOrDefault(flight, 0) <= flight.getCapacity(), "overbooked " + flight.getCode());
+        }
+
+        int assigned = orders.stream().mapToInt(solution::getAssignedQuantityForOrder).sum();
+        assertEquals(1000, assigned);
+        for (PlannerOrder order : orders.subList(0, 64)) {
+            assertEquals(10, solution.getAssignedQuantityForOrder(order), "urgent order " + order.getId());
+        }
+        assertEquals(0, solution.getAssignedQuantityForOrder(orders.get(149)));
+    }
+}
@@ -0,0 +1,93 @@
+package pe.edu.pucp.morapack;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static pe.edu.pucp.morapack.TestFixtures.*;
+
+import pe.edu.pucp.morapack.algos.algorithm.tabu.PenaltyKernel;
+import pe.edu.pucp.morapack.algos.algorithm.tabu.PenaltyKernels;
+import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSearchPlannerCostFunction;
+import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSolution;
+import pe.edu.pucp.morapack.algos.entities.PlannerAirport;
+import pe.edu.pucp.morapack.algos.entities.PlannerFlight;
+import pe.edu.pucp.morapack.algos.entities.PlannerOrder;
+import pe.edu.pucp.morapack.algos.entities.PlannerShipment;
+
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Paridad del kernel de penalizaciones activo (vectorial con -P vector-api) con el escalar y
+ * con la fórmula por elemento de la función de costo.
+ */
+class PenaltyKernelTest {
+
+    @Test
+    void testActiveKernelMatchesScalar() {
+        PenaltyKernel active = PenaltyKernels.active();
+        PenaltyKernel scalar = PenaltyKernels.scalar();
+        Random random = new Random(11);
+
+        // Tamaños que no son múltiplo del ancho de vector para ejercitar la cola escalar
+        for (int n : new int[]{0, 1, 7, 64, 1001}) {
+            int[] loads = new int[n];
+            int[] capacities = new int[n];
+            long[] delivery = new long[n];
+            long[] max = new long[n];
+            for (int i = 0; i < n; i++) {
+                loads[i] = random.nextInt(400);
+                capacities[i] = 150 + random.nextInt(200);
+                delivery[i] = random.nextInt(120);
+                max[i] = random.nextBoolean() ? 48 : 72;
+            }
+            assertEquals(scalar.capacityExcess(loads, capacities, n), active.capacityExcess(loads, capacities, n), active.getName());
+            assertEquals(scalar.lateCount(delivery, max, n), active.lateCount(delivery, max, n), active.getName());
+            assertEquals(scalar.lateHours(delivery, max, n), active.lateHours(delivery, max, n), active.getName());
+        }
+
+        // Excesos cuya suma dentro de un mismo vector no cabe en int
+        int[] huge = new int[64];
+        java.util.Arrays.fill(huge, Integer.MAX_VALUE);
+        int[] zero = new int[64];
+        assertEquals(64L * Integer.MAX_VALUE, active.capacityExcess(huge, zero, 64), active.getName());
+    }
+
+    @Test
+    void testCostFunctionMatchesPerElementFormula() {
+        PlannerAirport lima = lima();
+        PlannerAirport bogota = bogota();
+
+        List<PlannerFlight> flights = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            flights.add(new PlannerFlight("F" + i, lima, bogota, T0.plusHours(3 * i), T0.plusHours(3 * i + 5), 40));
+        }
+
+        // Solo directos y pedidos completos: el costo es capacidad + retraso
+        Random random = new Random(3);
+        TabuSolution solution = new TabuSolution();
+        Map<PlannerFlight, Integer> loads = new HashMap<>();
+        double expected = 0;
+        for (int o = 1; o <= 200; o++) {
+            PlannerOrder order = order(o, 10, lima, bogota, T0.plusHours(random.nextInt(24)));
+            PlannerFlight flight = flights.get(random.nextInt(flights.size()));
+            solution.addPlannerShipment(new PlannerShipment(o, order, List.of(flight), 10));
+            loads.merge(flight, 10, Integer::sum);
+
+            long deliveryHours = ChronoUnit.HOURS.between(order.getOrderTime(), flight.getArrivalTime());
+            if (deliveryHours > order.getMaxDeliveryHours()) {
+                expected += 10000 + (deliveryHours - order.getMaxDeliveryHours()) * 300;
+            }
+        }
+        for (Map.Entry<PlannerFlight, Integer> entry : loads.entrySet()) {
+            expected += 25000.0 * Math.max(0, entry.getValue() - entry.getKey().getCapacity());
+        }
+
+        double cost = TabuSearchPlannerCostFunction.calculateCost(solution, flights, List.of(lima, bogota), 0, 1);
+        assertEquals(expected, cost, 1e-6);
+        assertTrue(cost > 0);
+    }
+}
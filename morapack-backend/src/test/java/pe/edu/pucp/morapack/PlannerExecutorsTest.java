@@ -0,0 +1,60 @@
+package pe.edu.pucp.morapack;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import pe.edu.pucp.morapack.algos.algorithm.PlannerExecutors;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cupo de hilos por ejecución: nunca más de 'parallelism' tareas a la vez, resultados en orden.
+ */
+class PlannerExecutorsTest {
+
+    @Test
+    void testRunsAtMostParallelismTasksAtOnceAndKeepsOrder() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            AtomicInteger active = new AtomicInteger();
+            AtomicInteger peak = new AtomicInteger();
+            List<Callable<Integer>> tasks = new ArrayList<>();
+            for (int i = 0; i < 24; i++) {
+                int value = i;
+                tasks.add(() -> {
+                    peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+                    Thread.sleep(5);
+                    active.decrementAndGet();
+                    return value * value;
+                });
+            }
+
+            List<Integer> results = PlannerExecutors.invokeAll(executor, tasks, 3);
+
+            assertTrue(peak.get() <= 3, "peak concurrency: " + peak.get());
+            for (int i = 0; i < 24; i++) {
+                assertEquals(i * i, results.get(i));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testSingleThreadRunsInCallerAndPropagatesFailures() {
+        Thread caller = Thread.currentThread();
+        List<Callable<Boolean>> tasks = List.of(
+            () -> Thread.currentThread() == caller,
+            () -> { throw new IllegalArgumentException("boom"); });
+
+        ExecutionException failure = assertThrows(ExecutionException.class,
+            () -> PlannerExecutors.invokeAll(tasks, 1));
+        assertInstanceOf(IllegalArgumentException.class, failure.getCause());
+    }
+}
@@ -0,0 +1,190 @@
+package pe.edu.pucp.morapack;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import static pe.edu.pucp.morapack.TestFixtures.*;
+
+import pe.edu.pucp.morapack.algos.algorithm.ObservableOptimizer;
+import pe.edu.pucp.morapack.algos.algorithm.alns.AlnsPlanner;
+import pe.edu.pucp.morapack.algos.algorithm.portfolio.PortfolioHistory;
+import pe.edu.pucp.morapack.algos.algorithm.portfolio.PortfolioRacer;
+import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSearchListener;
+import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSolution;
+import pe.edu.pucp.morapack.algos.entities.PlannerAirport;
+import pe.edu.pucp.morapack.algos.entities.PlannerFlight;
+import pe.edu.pucp.morapack.algos.entities.PlannerOrder;
+import pe.edu.pucp.morapack.algos.entities.Solution;
+import pe.edu.pucp.morapack.algos.scheduler.ScenarioConfig;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests de la carrera de portafolio (PortfolioRacer + PortfolioHistory).
+ */
+class PortfolioRacerTest {
+
+    private List<PlannerAirport> airports;
+    private List<PlannerFlight> flights;
+    private List<PlannerOrder> orders;
+
+    @BeforeEach
+    void setUp() {
+        PlannerAirport lima = lima();
+        PlannerAirport brussels = brussels();
+        PlannerAirport dest = paris();
+        airports = List.of(lima, brussels, dest);
+
+        flights = List.of(
+            new PlannerFlight("D1", lima, dest, T0.plusHours(3), T0.plusHours(15), 300),
+            new PlannerFlight("A1", lima, brussels, T0.plusHours(1), T0.plusHours(12), 200),
+            new PlannerFlight("A2", brussels, dest, T0.plusHours(14), T0.plusHours(15), 200)
+        );
+
+        orders = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            orders.add(order(i, 100, lima, dest));
+        }
+    }
+
+    @Test
+    void testLaggardIsStoppedAndWinnerRecorded() {
+        PortfolioHistory history = new PortfolioHistory();
+        PortfolioRacer racer = new PortfolioRacer(ScenarioConfig.ScenarioType.DAILY, 3000, history);
+        StallingOptimizer laggard = new StallingOptimizer();
+        racer.addEntrant("ALNS", new AlnsPlanner(5L));
+        racer.addEntrant("SLOW", laggard);
+
+        long start = System.currentTimeMillis();
+        TabuSolution solution = (TabuSolution) racer.optimize(orders, flights, airports);
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertEquals("ALNS", racer.getLastWinner());
+        assertTrue(laggard.stoppedEarly, "Laggard should be stopped before the deadline");
+        assertTrue(elapsed < 3000 + 1000, "Race exceeded its budget: " + elapsed + " ms");
+        for (PlannerOrder order : orders) {
+            assertEquals(100, solution.getAssignedQuantityForOrder(order));
+        }
+        assertEquals("ALNS", history.preferredFor(ScenarioConfig.ScenarioType.DAILY, orders.size()).orElse(null));
+        assertEquals("ALNS", history.preferredFor(ScenarioConfig.ScenarioType.DAILY).orElse(null));
+        assertTrue(history.preferredFor(ScenarioConfig.ScenarioType.COLLAPSE).isEmpty());
+    }
+
+    @Test
+    void testHistoryBucketsBySize() {
+        PortfolioHistory history = new PortfolioHistory();
+        history.recordWin(ScenarioConfig.ScenarioType.WEEKLY, 10, "TABU");
+        history.recordWin(ScenarioConfig.ScenarioType.WEEKLY, 500, "ACO");
+        history.recordWin(ScenarioConfig.ScenarioType.WEEKLY, 600, "ACO");
+
+        assertEquals("TABU", history.preferredFor(ScenarioConfig.ScenarioType.WEEKLY, 20).orElse(null));
+        assertEquals("ACO", history.preferredFor(ScenarioConfig.ScenarioType.WEEKLY, 700).orElse(null));
+        assertEquals("ACO", history.preferredFor(ScenarioConfig.ScenarioType.WEEKLY).orElse(null));
+        assertEquals(PortfolioHistory.SizeBucket.HUGE, PortfolioHistory.SizeBucket.of(5000));
+    }
+
+    @Test
+    void testHistoryIsPersistedAndReloaded(@TempDir Path dir) {
+        Path file = dir.resolve("history.csv");
+        PortfolioHistory history = new PortfolioHistory();
+        history.persistTo(file);
+        history.recordWin(ScenarioConfig.ScenarioType.COLLAPSE, 300, "ALNS");
+        history.recordWin(ScenarioConfig.ScenarioType.COLLAPSE, 300, "ALNS");
+        history.recordWin(ScenarioConfig.ScenarioType.COLLAPSE, 300, "ACO");
+
+        PortfolioHistory reloaded = new PortfolioHistory();
+        reloaded.persistTo(file);
+        assertEquals(2, reloaded.winsFor(ScenarioConfig.ScenarioType.COLLAPSE, 300).get("ALNS"));
+        assertEquals("ALNS", reloaded.preferredFor(ScenarioConfig.ScenarioType.COLLAPSE).orElse(null));
+    }
+
+    @Test
+    void testRaceWaitsForEntrantThatMissesTheGracePeriod() {
+        PortfolioRacer racer = new PortfolioRacer(ScenarioConfig.ScenarioType.DAILY, 200, new PortfolioHistory());
+        DeafOptimizer deaf = new DeafOptimizer(1500);
+        racer.addEntrant("ALNS", new AlnsPlanner(5L));
+        racer.addEntrant("DEAF", deaf);
+
+        // 200 ms + 1 s de gracia: DEAF no se detuvo, pero la carrera espera a que retorne
+        long start = System.currentTimeMillis();
+        racer.optimize(orders, flights, airports);
+        assertTrue(System.currentTimeMillis() - start >= 1500);
+        assertEquals(0, deaf.active.get(), "No lane may keep running after the race");
+
+        racer.optimize(orders, flights, airports);
+        assertEquals(2, deaf.calls.get());
+        assertEquals(1, deaf.maxConcurrent.get());
+    }
+
+    /**
+     * Participante que ignora las peticiones de parada durante un tiempo fijo
+     */
+    private static class DeafOptimizer implements ObservableOptimizer {
+        private final long busyMs;
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger maxConcurrent = new AtomicInteger();
+
+        private DeafOptimizer(long busyMs) {
+            this.busyMs = busyMs;
+        }
+
+        @Override
+        public void setListener(TabuSearchListener listener, long snapshotMs) {
+        }
+
+        @Override
+        public Solution optimize(List<PlannerOrder> orders, List<PlannerFlight> flights, List<PlannerAirport> airports) {
+            calls.incrementAndGet();
+            maxConcurrent.accumulateAndGet(active.incrementAndGet(), Math::max);
+            long end = System.currentTimeMillis() + busyMs;
+            while (System.currentTimeMillis() < end) {
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    // Ignora la interrupción a propósito
+                }
+            }
+            active.decrementAndGet();
+            TabuSolution empty = new TabuSolution();
+            empty.setAllOrders(orders);
+            return empty;
+        }
+    }
+
+    /**
+     * Participante que publica un costo muy alto y espera hasta que le pidan parar
+     */
+    private static class StallingOptimizer implements ObservableOptimizer {
+        private TabuSearchListener listener;
+        private volatile boolean stoppedEarly = false;
+
+        @Override
+        public void setListener(TabuSearchListener listener, long snapshotMs) {
+            this.listener = listener;
+        }
+
+        @Override
+        public Solution optimize(List<PlannerOrder> orders, List<PlannerFlight> flights, List<PlannerAirport> airports) {
+            TabuSolution empty = new TabuSolution();
+            empty.setAllOrders(orders);
+            listener.onSnapshot(empty, 0, 1e12, 1, Instant.now());
+            long start = System.currentTimeMillis();
+            while (!listener.isStopRequested()) {
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            stoppedEarly = System.currentTimeMillis() - start < 2500;
+            return empty;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package pe.edu.pucp.morapack;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static pe.edu.pucp.morapack.TestFixtures.*;
+
+import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSolution;
+import pe.edu.pucp.morapack.algos.entities.PlannerAirport;
+import pe.edu.pucp.morapack.algos.entities.PlannerFlight;
+import pe.edu.pucp.morapack.algos.entities.PlannerOrder;
+import pe.edu.pucp.morapack.algos.entities.PlannerShipment;
+import pe.edu.pucp.morapack.model.FlightCancellation;
+import pe.edu.pucp.morapack.model.ReplanificationTask;
+import pe.edu.pucp.morapack.service.CancellationService;
+import pe.edu.pucp.morapack.service.FlightStatusTracker;
+import pe.edu.pucp.morapack.service.ReplanificationService;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replanificación conjunta: las cancelaciones de un tick comparten una sola reparación (sin
+ * sobrevender la capacidad que ambas buscan) y cada tarea recibe solo sus propios resultados.
+ */
+class ReplanificationBatchTest {
+    private final PlannerAirport lima = lima();
+    private final PlannerAirport bogota = bogota();
+
+    @Test
+    void testBatchSharesCapacityAndAttributesResultsPerCancellation() {
+        PlannerFlight cancelled1 = new PlannerFlight("C1", lima, bogota, T0.plusHours(2), T0.plusHours(5), 100);
+        PlannerFlight cancelled2 = new PlannerFlight("C2", lima, bogota, T0.plusHours(3), T0.plusHours(6), 100);
+        PlannerFlight alternative = new PlannerFlight("A1", lima, bogota, T0.plusHours(6), T0.plusHours(9), 60);
+
+        PlannerOrder order1 = order(1, 40, lima, bogota);
+        PlannerOrder order2 = order(2, 40, lima, bogota);
+        TabuSolution solution = new TabuSolution();
+        solution.addPlannerShipment(new PlannerShipment(1, order1, List.of(cancelled1), 40));
+        solution.addPlannerShipment(new PlannerShipment(2, order2, List.of(cancelled2), 40));
+
+        List<FlightCancellation> cancellations = List.of(cancellation("02:00"), cancellation("03:00"));
+        ReplanificationService service = new ReplanificationService(
+            new CancellationService(new FlightStatusTracker(), null));
+
+        List<ReplanificationTask> tasks = service.triggerBatchReplanification(cancellations, solution,
+            List.of(order1, order2), List.of(cancelled1, cancelled2, alternative), List.of(lima, bogota), T0);
+
+        assertEquals(2, tasks.size());
+        assertEquals(List.of(1), tasks.get(0).getAffectedOrderIds());
+        assertEquals(List.of(2), tasks.get(1).getAffectedOrderIds());
+        for (ReplanificationTask task : tasks) {
+            assertEquals(ReplanificationTask.ReplanificationStatus.COMPLETED, task.getStatus());
+            assertEquals(1, task.getCancelledShipmentsCount());
+        }
+
+        // Una sola reparación: el vuelo alternativo no se sobrevende entre ambas cancelaciones
+        int onAlternative = solution.getPlannerShipments().stream()
+            .filter(PlannerShipment::isActive)
+            .filter(s -> s.getFlights().contains(alternative))
+            .mapToInt(PlannerShipment::getQuantity)
+            .sum();
+        assertEquals(60, onAlternative);
+        int reassigned = tasks.stream()
+            .mapToInt(t -> t.getProductsReassigned().values().stream().mapToInt(Integer::intValue).sum())
+            .sum();
+        assertEquals(60, reassigned);
+    }
+
+    @Test
+    void testBatchRepairsShipmentsFromEarlierPlans() {
+        PlannerFlight cancelled = new PlannerFlight("C1", lima, bogota, T0.plusHours(2), T0.plusHours(5), 100);
+        PlannerFlight alternative = new PlannerFlight("A1", lima, bogota, T0.plusHours(6), T0.plusHours(9), 60);
+
+        // El shipment viene de un tick anterior: no está en el último plan, pero sí entre los vigentes
+        PlannerOrder earlier = order(1, 40, lima, bogota);
+        PlannerOrder latest = order(2, 40, lima, bogota);
+        PlannerShipment previous = new PlannerShipment(1, earlier, List.of(cancelled), 40);
+        PlannerShipment current = new PlannerShipment(1, latest, List.of(alternative), 40);
+        TabuSolution plan = new TabuSolution();
+        plan.addPlannerShipment(current);
+
+        ReplanificationService service = new ReplanificationService(
+            new CancellationService(new FlightStatusTracker(), null));
+        Map<PlannerShipment, PlannerShipment> copies = new IdentityHashMap<>();
+        List<ReplanificationTask> tasks = service.triggerBatchReplanification(List.of(cancellation("02:00")), plan,
+            List.of(previous, current), List.of(earlier, latest), List.of(cancelled, alternative),
+            List.of(lima, bogota), T0, copies);
+
+        assertEquals(List.of(1), tasks.get(0).getAffectedOrderIds());
+        assertTrue(previous.isActive());
+        assertTrue(copies.get(previous).isCancelled());
+
+        // El vuelo alternativo ya lleva 40 del último plan: solo quedan 20 para el reparado
+        int repaired = plan.getPlannerShipments().stream()
+            .filter(s -> s.getOrder() == earlier && s.isActive())
+            .mapToInt(PlannerShipment::getQuantity)
+            .sum();
+        assertEquals(20, repaired);
+    }
+
+    private FlightCancellation cancellation(String departure) {
+        return new FlightCancellation("SPIM", "SKBO", departure, T0, "test");
+    }
+}
@@ -0,0 +1,76 @@
+package pe.edu.pucp.morapack;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static pe.edu.pucp.morapack.TestFixtures.*;
+
+import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSolution;
+import pe.edu.pucp.morapack.algos.algorithm.tabu.moves.SplitShipmentMove;
+import pe.edu.pucp.morapack.algos.entities.PlannerAirport;
+import pe.edu.pucp.morapack.algos.entities.PlannerFlight;
+import pe.edu.pucp.morapack.algos.entities.PlannerOrder;
+import pe.edu.pucp.morapack.algos.entities.PlannerShipment;
+import pe.edu.pucp.morapack.algos.entities.Route;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests de Route: internado, datos precalculados y uso compartido entre shipments.
+ */
+class RouteTest {
+
+    private final PlannerAirport lima = lima();
+    private final PlannerAirport hub = brussels();
+    private final PlannerAirport dest = paris();
+
+    @Test
+    void testSameFlightsGiveSameInstance() {
+        PlannerFlight a = new PlannerFlight("A1", lima, hub, T0.plusHours(1), T0.plusHours(12), 200);
+        PlannerFlight b = new PlannerFlight("A2", hub, dest, T0.plusHours(14), T0.plusHours(15), 200);
+
+        Route first = Route.of(List.of(a, b));
+        Route second = Route.of(new ArrayList<>(List.of(a, b)));
+
+        assertSame(first, second);
+        assertEquals(1, first.getNumberOfStops());
+        assertEquals(List.of(hub), first.getStopoverAirports());
+        assertTrue(first.isValidSequence());
+        assertEquals(0, first.getInvalidConnectionCount());
+        assertEquals(T0.plusHours(15), first.getArrivalTime());
+        assertThrows(UnsupportedOperationException.class, () -> first.getFlights().add(a));
+
+        // Mismo código pero otro objeto (p.ej. otra sesión): ruta distinta
+        PlannerFlight otherA = new PlannerFlight("A1", lima, hub, T0.plusHours(5), T0.plusHours(16), 200);
+        Route other = Route.of(List.of(otherA, b));
+        assertNotSame(first, other);
+        assertTrue(first.sameFlightsAs(other));
+    }
+
+    @Test
+    void testInvalidConnectionIsPrecomputed() {
+        PlannerFlight a = new PlannerFlight("B1", lima, hub, T0.plusHours(1), T0.plusHours(12), 200);
+        PlannerFlight tooSoon = new PlannerFlight("B2", hub, dest, T0.plusHours(12).plusMinutes(30), T0.plusHours(14), 200);
+
+        Route route = Route.of(List.of(a, tooSoon));
+        assertFalse(route.isValidSequence());
+        assertEquals(1, route.getInvalidConnectionCount());
+    }
+
+    @Test
+    void testCopyAndSplitShareRoute() {
+        PlannerFlight direct = new PlannerFlight("D1", lima, dest, T0.plusHours(3), T0.plusHours(15), 300);
+        PlannerOrder order = order(1, 100, lima, dest);
+
+        PlannerShipment shipment = new PlannerShipment(1, order, List.of(direct), 100);
+        TabuSolution solution = new TabuSolution();
+        solution.addPlannerShipment(shipment);
+        new SplitShipmentMove(shipment, 40, 2).apply(solution);
+
+        assertEquals(2, solution.getPlannerShipments().size());
+        for (PlannerShipment s : solution.getPlannerShipments()) {
+            assertSame(shipment.getRoute(), s.getRoute());
+        }
+        assertSame(shipment.getRoute(), new PlannerShipment(shipment).getRoute());
+    }
+}
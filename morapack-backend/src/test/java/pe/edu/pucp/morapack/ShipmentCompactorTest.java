@@ -0,0 +1,87 @@
+package pe.edu.pucp.morapack;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static pe.edu.pucp.morapack.TestFixtures.*;
+
+import pe.edu.pucp.morapack.algos.algorithm.tabu.ShipmentCompactor;
+import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSearchPlannerCostFunction;
+import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSolution;
+import pe.edu.pucp.morapack.algos.entities.PlannerAirport;
+import pe.edu.pucp.morapack.algos.entities.PlannerFlight;
+import pe.edu.pucp.morapack.algos.entities.PlannerOrder;
+import pe.edu.pucp.morapack.algos.entities.PlannerShipment;
+
+import java.util.List;
+
+/**
+ * Tests de la compactación de shipments: fusiona rutas iguales, pliega remanentes
+ * respetando capacidad y nunca empeora el costo.
+ */
+class ShipmentCompactorTest {
+
+    private final PlannerAirport lima = lima();
+    private final PlannerAirport bogota = bogota();
+    private final PlannerAirport quito = quito();
+    private final List<PlannerAirport> airports = List.of(lima, bogota, quito);
+
+    @Test
+    void testMergesSameRouteAndFoldsTinyRemainder() {
+        PlannerFlight direct = new PlannerFlight("D1", lima, bogota, T0.plusHours(3), T0.plusHours(8), 100);
+        PlannerFlight leg1 = new PlannerFlight("L1", lima, quito, T0.plusHours(2), T0.plusHours(5), 100);
+        PlannerFlight leg2 = new PlannerFlight("L2", quito, bogota, T0.plusHours(7), T0.plusHours(10), 100);
+        List<PlannerFlight> flights = List.of(direct, leg1, leg2);
+
+        PlannerOrder order = order(1, 20, lima, bogota);
+        TabuSolution solution = new TabuSolution();
+        solution.addPlannerShipment(new PlannerShipment(1, order, List.of(direct), 10));
+        solution.addPlannerShipment(new PlannerShipment(2, order, List.of(direct), 7));
+        solution.addPlannerShipment(new PlannerShipment(3, order, List.of(leg1, leg2), 3));
+        double before = TabuSearchPlannerCostFunction.calculateCost(solution, flights, airports, 0, 1);
+
+        TabuSolution snapshot = new TabuSolution(solution);
+        int removed = ShipmentCompactor.compact(solution, 4, 5);
+
+        assertEquals(2, removed);
+        assertEquals(1, solution.getPlannerShipments().size());
+        assertEquals(20, solution.getPlannerShipments().get(0).getQuantity());
+        assertTrue(solution.getPlannerShipments().get(0).isDirect());
+        assertTrue(TabuSearchPlannerCostFunction.calculateCost(solution, flights, airports, 0, 1) <= before);
+
+        // La copia anterior no se ve afectada
+        assertEquals(3, snapshot.getPlannerShipments().size());
+        assertEquals(10, snapshot.findPlannerShipment(solution.getPlannerShipments().get(0)).getQuantity());
+    }
+
+    @Test
+    void testDoesNotFoldIntoFullFlight() {
+        PlannerFlight direct = new PlannerFlight("D1", lima, bogota, T0.plusHours(3), T0.plusHours(8), 10);
+        PlannerFlight other = new PlannerFlight("D2", lima, bogota, T0.plusHours(4), T0.plusHours(9), 100);
+
+        PlannerOrder order = order(1, 12, lima, bogota);
+        TabuSolution solution = new TabuSolution();
+        solution.addPlannerShipment(new PlannerShipment(1, order, List.of(direct), 10));
+        solution.addPlannerShipment(new PlannerShipment(2, order, List.of(other), 2));
+
+        // D1 está lleno: el remanente de D2 no cabe y el shipment de D1 no es pequeño
+        int removed = ShipmentCompactor.compact(solution, 4, 5);
+        assertEquals(0, removed);
+        assertEquals(2, solution.getPlannerShipments().size());
+    }
+
+    @Test
+    void testEnforcesMaxShipmentsPerOrder() {
+        PlannerFlight direct = new PlannerFlight("D1", lima, bogota, T0.plusHours(3), T0.plusHours(8), 1000);
+        PlannerOrder order = order(1, 60, lima, bogota);
+        TabuSolution solution = new TabuSolution();
+        for (int i = 0; i < 6; i++) {
+            PlannerFlight f = new PlannerFlight("F" + i, lima, bogota, T0.plusHours(3 + i), T0.plusHours(8 + i), 1000);
+            solution.addPlannerShipment(new PlannerShipment(i + 1, order, List.of(i == 0 ? direct : f), 10));
+        }
+
+        ShipmentCompactor.compact(solution, 3, 0);
+
+        assertEquals(3, solution.getPlannerShipments().size());
+        assertEquals(60, solution.getAssignedQuantityForOrder(order));
+    }
+}
@@ -0,0 +1,103 @@
+package pe.edu.pucp.morapack;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import pe.edu.pucp.morapack.algos.algorithm.PlannerExecutors;
+import pe.edu.pucp.morapack.service.SimulationScheduler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool del planner del SimulationScheduler: concurrencia acotada y cupo justo entre sesiones.
+ */
+class SimulationSchedulerTest {
+
+    @Test
+    void testPlannerComputeIsBoundedByPlannerThreads() throws Exception {
+        SimulationScheduler scheduler = new SimulationScheduler(4, 2);
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+
+        List<Thread> sessions = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            String sessionId = "s" + i;
+            sessions.add(Thread.ofVirtual().start(() -> {
+                try {
+                    scheduler.runPlanner(sessionId, () -> {
+                        maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                        Thread.sleep(50);
+                        active.decrementAndGet();
+                        return null;
+                    });
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }));
+        }
+        for (Thread session : sessions) session.join();
+        scheduler.shutdown();
+
+        assertTrue(maxActive.get() <= 2, "max concurrent planners " + maxActive.get());
+        // Los carriles del portafolio quedan dentro del mismo presupuesto
+        assertEquals(2 * scheduler.getTaskParallelism(), PlannerExecutors.getLaneThreads());
+    }
+
+    @Test
+    void testSessionWithLessPlannerTimeGoesFirst() throws Exception {
+        SimulationScheduler scheduler = new SimulationScheduler(4, 1);
+
+        // 'heavy' ya consumió tiempo de planner
+        scheduler.runPlanner("heavy", () -> {
+            Thread.sleep(30);
+            return null;
+        });
+
+        // Ocupar el único hilo mientras se encolan 'heavy' y luego 'light'
+        CountDownLatch release = new CountDownLatch(1);
+        Thread blocker = Thread.ofVirtual().start(() -> call(scheduler, "blocker", () -> release.await()));
+        waitUntil(() -> scheduler.getQueuedPlannerTasks() == 0 && blocker.isAlive());
+        Thread.sleep(20);
+
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        Thread heavy = Thread.ofVirtual().start(() -> call(scheduler, "heavy", () -> order.add("heavy")));
+        waitUntil(() -> scheduler.getQueuedPlannerTasks() == 1);
+        Thread light = Thread.ofVirtual().start(() -> call(scheduler, "light", () -> order.add("light")));
+        waitUntil(() -> scheduler.getQueuedPlannerTasks() == 2);
+
+        release.countDown();
+        heavy.join();
+        light.join();
+        blocker.join();
+        scheduler.shutdown();
+
+        assertEquals(List.of("light", "heavy"), order);
+    }
+
+    private interface Work {
+        void run() throws Exception;
+    }
+
+    private static void call(SimulationScheduler scheduler, String sessionId, Work work) {
+        try {
+            scheduler.runPlanner(sessionId, () -> {
+                work.run();
+                return null;
+            });
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void waitUntil(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) fail("condition not reached");
+            Thread.sleep(5);
+        }
+    }
+}
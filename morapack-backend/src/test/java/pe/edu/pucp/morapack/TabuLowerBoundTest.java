@@ -0,0 +1,65 @@
+package pe.edu.pucp.morapack;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static pe.edu.pucp.morapack.TestFixtures.*;
+
+import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSearchPlanner;
+import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSearchPlannerCostFunction;
+import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSolution;
+import pe.edu.pucp.morapack.algos.entities.PlannerAirport;
+import pe.edu.pucp.morapack.algos.entities.PlannerFlight;
+import pe.edu.pucp.morapack.algos.entities.PlannerOrder;
+
+import java.util.List;
+
+/**
+ * Tests de la cota inferior y la parada temprana de Tabu Search.
+ */
+class TabuLowerBoundTest {
+
+    private final PlannerAirport lima = lima();
+    private final PlannerAirport brussels = brussels();
+    private final PlannerAirport paris = paris();
+    private final List<PlannerAirport> airports = List.of(lima, brussels, paris);
+
+    @Test
+    void testLowerBoundPerOrder() {
+        List<PlannerFlight> flights = List.of(
+            new PlannerFlight("D1", lima, paris, T0.plusHours(3), T0.plusHours(15), 300),
+            new PlannerFlight("A1", lima, brussels, T0.plusHours(1), T0.plusHours(12), 200),
+            new PlannerFlight("A2", brussels, paris, T0.plusHours(14), T0.plusHours(15), 200),
+            // Brussels -> Paris solo con un vuelo que sale antes del pedido: sin ruta
+            new PlannerFlight("X1", brussels, lima, T0.plusHours(1), T0.plusHours(13), 200)
+        );
+
+        // Directo a tiempo: 0
+        assertEquals(0.0, TabuSearchPlannerCostFunction.calculateLowerBound(List.of(order(1, 50, lima, paris)), flights));
+        // Solo con escala (Brussels -> Lima no existe después del pedido, Brussels -> Paris directo sí)
+        assertEquals(0.0, TabuSearchPlannerCostFunction.calculateLowerBound(List.of(order(2, 50, brussels, paris)), flights));
+        // Paris -> Lima no tiene rutas: cota de 2 escalas
+        assertEquals(1200.0, TabuSearchPlannerCostFunction.calculateLowerBound(List.of(order(3, 50, paris, lima)), flights));
+
+        // Sin directo, solo vía Brussels
+        List<PlannerFlight> viaHub = flights.subList(1, 3);
+        assertEquals(600.0, TabuSearchPlannerCostFunction.calculateLowerBound(List.of(order(4, 50, lima, paris)), viaHub));
+    }
+
+    @Test
+    void testSearchStopsWhenInitialSolutionMeetsBound() {
+        List<PlannerFlight> flights = List.of(
+            new PlannerFlight("D1", lima, paris, T0.plusHours(3), T0.plusHours(15), 300),
+            new PlannerFlight("A1", lima, brussels, T0.plusHours(1), T0.plusHours(12), 200),
+            new PlannerFlight("A2", brussels, paris, T0.plusHours(14), T0.plusHours(15), 200)
+        );
+        List<PlannerOrder> orders = List.of(order(1, 50, lima, paris), order(2, 50, lima, paris));
+
+        TabuSearchPlanner planner = new TabuSearchPlanner(3L);
+        TabuSolution solution = (TabuSolution) planner.optimize(orders, flights, airports);
+
+        assertEquals(0, planner.getTotalIterations());
+        for (PlannerOrder order : orders) {
+            assertEquals(50, solution.getAssignedQuantityForOrder(order));
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package pe.edu.pucp.morapack;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static pe.edu.pucp.morapack.TestFixtures.*;
+
+import pe.edu.pucp.morapack.algos.algorithm.tabu.TabuSolution;
+import pe.edu.pucp.morapack.algos.algorithm.tabu.moves.MergeShipmentsMove;
+import pe.edu.pucp.morapack.algos.algorithm.tabu.moves.SplitShipmentMove;
+import pe.edu.pucp.morapack.algos.algorithm.tabu.moves.TransferQuantityMove;
+import pe.edu.pucp.morapack.algos.entities.PlannerAirport;
+import pe.edu.pucp.morapack.algos.entities.PlannerFlight;
+import pe.edu.pucp.morapack.algos.entities.PlannerOrder;
+import pe.edu.pucp.morapack.algos.entities.PlannerShipment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests de TabuSolution persistente: copias O(1) que no se afectan entre sí.
+ */
+class TabuSolutionTest {
+
+    private PlannerFlight direct;
+    private List<PlannerOrder> orders;
+
+    @BeforeEach
+    void setUp() {
+        PlannerAirport lima = lima();
+        PlannerAirport dest = bogota();
+        direct = new PlannerFlight("D1", lima, dest, T0.plusHours(3), T0.plusHours(8), 100000);
+
+        orders = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            orders.add(order(i, 10, lima, dest));
+        }
+    }
+
+    private TabuSolution fullSolution() {
+        TabuSolution solution = new TabuSolution();
+        for (PlannerOrder order : orders) {
+            solution.addPlannerShipment(new PlannerShipment(order.getId(), order, List.of(direct), 10));
+        }
+        return solution;
+    }
+
+    @Test
+    void testMovesOnCopyDoNotTouchOriginal() {
+        TabuSolution original = fullSolution();
+        PlannerShipment first = original.getPlannerShipments().get(0);
+
+        TabuSolution copy = new TabuSolution(original);
+        new SplitShipmentMove(first, 4, 1000).apply(copy);
+
+        assertEquals(10, first.getQuantity());
+        assertEquals(100, original.getPlannerShipments().size());
+        assertEquals(101, copy.getPlannerShipments().size());
+        assertEquals(6, copy.findPlannerShipment(first).getQuantity());
+
+        // Merge en otra copia usando los shipments de la copia anterior (resueltos por identidad)
+        TabuSolution merged = new TabuSolution(copy);
+        PlannerShipment splitPart = copy.getPlannerShipments().get(100);
+        new MergeShipmentsMove(copy.findPlannerShipment(first), splitPart).apply(merged);
+        assertEquals(100, merged.getPlannerShipments().size());
+        assertEquals(10, merged.findPlannerShipment(first).getQuantity());
+        assertEquals(101, copy.getPlannerShipments().size());
+        assertEquals(6, copy.findPlannerShipment(first).getQuantity());
+    }
+
+    @Test
+    void testEditsOnOriginalAfterCopyStayOutOfTheCopy() {
+        TabuSolution original = fullSolution();
+        PlannerShipment first = original.getPlannerShipments().get(0);
+        TabuSolution copy = new TabuSolution(original);
+
+        original.editPlannerShipment(first).setQuantity(3);
+        original.addPlannerShipment(new PlannerShipment(900, first.getOrder(), first.getRoute(), 7));
+
+        assertEquals(3, original.findPlannerShipment(first).getQuantity());
+        assertEquals(101, original.getPlannerShipments().size());
+        assertSame(first, copy.findPlannerShipment(first));
+        assertEquals(10, first.getQuantity());
+        assertEquals(100, copy.getPlannerShipments().size());
+    }
+
+    @Test
+    void testResolvesShipmentsByIdentityNotById() {
+        TabuSolution solution = fullSolution();
+        PlannerShipment first = solution.getPlannerShipments().get(0);
+
+        // Mismo id, otro shipment (p. ej. de otra corrida del planner): no se confunde
+        PlannerShipment sameId = new PlannerShipment(first.getId(), first.getOrder(), first.getRoute(), 10);
+        assertNull(solution.findPlannerShipment(sameId));
+        assertNull(solution.editPlannerShipment(sameId));
+        solution.removePlannerShipment(sameId);
+        assertEquals(100, solution.getPlannerShipments().size());
+    }
+
+    @Test
+    void testRemoveKeepsEveryOtherShipment() {
+        TabuSolution original = fullSolution();
+        TabuSolution copy = new TabuSolution(original);
+
+        PlannerShipment from = original.getPlannerShipments().get(5);
+        PlannerShipment to = new PlannerShipment(500, from.getOrder(), from.getRoute(), 0);
+        copy.addPlannerShipment(to);
+        new TransferQuantityMove(from, to, 10).apply(copy);
+
+        assertEquals(100, copy.getPlannerShipments().size());
+        assertNull(copy.findPlannerShipment(from));
+        assertEquals(10, copy.getAssignedQuantityForOrder(from.getOrder()));
+        for (PlannerOrder order : orders) {
+            assertEquals(10, original.getAssignedQuantityForOrder(order));
+            assertEquals(10, copy.getAssignedQuantityForOrder(order));
+        }
+        assertThrows(UnsupportedOperationException.class, () -> copy.getPlannerShipments().add(to));
+    }
+}
@@ -0,0 +1,53 @@
+package pe.edu.pucp.morapack;
+
+import pe.edu.pucp.morapack.algos.entities.PlannerAirport;
+import pe.edu.pucp.morapack.algos.entities.PlannerOrder;
+import pe.edu.pucp.morapack.model.Continent;
+import pe.edu.pucp.morapack.model.Country;
+
+import java.time.LocalDateTime;
+
+/**
+ * Datos comunes de los tests del planner: hora base, aeropuertos de prueba y pedidos.
+ *
+ * Cada llamada crea objetos nuevos (los aeropuertos llevan estado de almacén): los tests no
+ * comparten instancias. Los aeropuertos se comparan por id, que es fijo por código.
+ */
+final class TestFixtures {
+    static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 2, 0, 0);
+
+    private TestFixtures() {
+    }
+
+    static PlannerAirport lima() { return airport(1, "SPIM", "Lima"); }
+    static PlannerAirport bogota() { return airport(2, "SKBO", "Bogota"); }
+    static PlannerAirport quito() { return airport(3, "SEQM", "Quito"); }
+    static PlannerAirport brussels() { return airport(4, "EBCI", "Brussels", Continent.EUROPE, 1000, 1); }
+    static PlannerAirport paris() { return airport(5, "LFPG", "Paris", Continent.EUROPE, 1000, 1); }
+
+    /**
+     * Aeropuerto sudamericano (GMT-5, capacidad 1000)
+     */
+    static PlannerAirport airport(int id, String code, String city) {
+        return airport(id, code, city, Continent.AMERICA, 1000, -5);
+    }
+
+    static PlannerAirport airport(int id, String code, String city, Continent continent, int capacity, int gmt) {
+        Country country = new Country(continent.ordinal() + 1, continent.name(), continent);
+        return new PlannerAirport(id, code, city, city, country, capacity, gmt);
+    }
+
+    /**
+     * Pedido registrado en T0
+     */
+    static PlannerOrder order(int id, int quantity, PlannerAirport origin, PlannerAirport destination) {
+        return order(id, quantity, origin, destination, T0);
+    }
+
+    static PlannerOrder order(int id, int quantity, PlannerAirport origin, PlannerAirport destination,
+                              LocalDateTime orderTime) {
+        PlannerOrder order = new PlannerOrder(id, quantity, origin, destination);
+        order.setOrderTime(orderTime);
+        return order;
+    }
+}
@@ -0,0 +1,86 @@
+package pe.edu.pucp.morapack;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static pe.edu.pucp.morapack.TestFixtures.*;
+
+import pe.edu.pucp.morapack.model.DynamicOrder;
+import pe.edu.pucp.morapack.service.DynamicOrderService;
+import pe.edu.pucp.morapack.utils.TimeOrderedQueue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Cola por hora de eventos programados: solo devuelve lo vencido, en orden, sin quitarlo hasta
+ * que deje de estar pendiente; y su uso en DynamicOrderService.
+ */
+class TimeOrderedQueueTest {
+
+    @Test
+    void testDueReturnsOnlyElapsedItemsInOrderAndDropsFinishedOnes() {
+        TimeOrderedQueue<String> queue = new TimeOrderedQueue<>();
+        queue.add(T0.plusMinutes(30), "c");
+        queue.add(T0.plusMinutes(10), "a");
+        queue.add(T0.plusMinutes(10), "b");  // Mismo instante: orden de llegada
+        queue.add(T0.plusMinutes(90), "d");
+
+        Set<String> done = new HashSet<>();
+        assertEquals(List.of("a", "b", "c"), queue.due(T0.plusMinutes(30), item -> !done.contains(item)));
+
+        // Sin cambio de estado siguen en la cola (otro consumidor puede verlos en el mismo tick)
+        assertEquals(List.of("a", "b"), queue.due(T0.plusMinutes(10), item -> !done.contains(item)));
+        assertEquals(4, queue.size());
+
+        done.add("a");
+        done.add("c");
+        assertEquals(List.of("b"), queue.due(T0.plusMinutes(60), item -> !done.contains(item)));
+        assertEquals(2, queue.size());
+
+        done.add("b");
+        assertEquals(T0.plusMinutes(90), queue.nextTime(item -> !done.contains(item)));
+        assertEquals(1, queue.size());
+
+        done.add("d");
+        assertNull(queue.nextTime(item -> !done.contains(item)));
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void testOverduePendingItemDoesNotHideLaterOnes() {
+        TimeOrderedQueue<String> queue = new TimeOrderedQueue<>();
+        queue.add(T0.plusMinutes(10), "stuck");
+        queue.add(T0.plusMinutes(90), "later");
+
+        assertEquals(T0.plusMinutes(10), queue.nextTime(item -> true));
+        assertEquals(T0.plusMinutes(90), queue.nextTime(T0.plusMinutes(60), item -> true));
+        assertEquals(T0.plusMinutes(90), queue.nextTime(T0.plusMinutes(90), item -> true));
+        assertNull(queue.nextTime(T0.plusMinutes(91), item -> true));
+        // El vencido sigue en la cola para due()
+        assertEquals(List.of("stuck"), queue.due(T0.plusMinutes(60), item -> true));
+    }
+
+    @Test
+    void testDynamicOrderServiceInjectsByTimeAndReportsNextInjection() {
+        DynamicOrderService service = new DynamicOrderService();
+        DynamicOrder late = service.createManualOrder("SKBO", "EDDI", 5, 48, T0.plusHours(5), null);
+        DynamicOrder early = service.createManualOrder("SPIM", "EBCI", 3, 72, T0.plusHours(1), null);
+
+        assertEquals(T0.plusHours(1), service.getNextInjectionTime());
+        assertEquals(T0.plusHours(5), service.getNextInjectionTime(T0.plusHours(2)));
+        assertTrue(service.getOrdersToInjectAt(T0).isEmpty());
+        assertEquals(List.of(early), service.getOrdersToInjectAt(T0.plusHours(2)));
+
+        service.markOrderAsInjected(early.getId(), T0.plusHours(2));
+        assertEquals(T0.plusHours(5), service.getNextInjectionTime());
+        assertEquals(List.of(late), service.getOrdersToInjectAt(T0.plusHours(6)));
+
+        service.markOrderAsFailed(late.getId(), "sin ruta");
+        assertNull(service.getNextInjectionTime());
+        assertTrue(service.getOrdersToInjectAt(T0.plusDays(1)).isEmpty());
+
+        service.clear();
+        assertNull(service.getNextInjectionTime());
+    }
+}